@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.core.internal.connection.ConnectionPool.PooledConnection;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ConnectionPoolTestCase extends AbstractMuleTestCase {
+
+  private ConnectionProvider<Object> connectionProvider;
+
+  @Before
+  public void before() throws Exception {
+    connectionProvider = mock(ConnectionProvider.class);
+    when(connectionProvider.connect()).thenAnswer(invocation -> new Object());
+    when(connectionProvider.validate(any())).thenReturn(ConnectionValidationResult.success());
+  }
+
+  @Test
+  public void reusesConnectionLastReturnedByThread() throws Exception {
+    ConnectionPool<Object> pool = createPool(2, 2, 1000);
+    AtomicReference<PooledConnection<Object>> returnedByOtherThread = new AtomicReference<>();
+    AtomicReference<PooledConnection<Object>> borrowedByOtherThread = new AtomicReference<>();
+    PooledConnection<Object> returnedByThisThread = pool.borrow();
+
+    Thread otherThread = new Thread(() -> {
+      try {
+        returnedByOtherThread.set(pool.borrow());
+        pool.returnConnection(returnedByOtherThread.get());
+        synchronized (pool) {
+          pool.notify();
+          pool.wait();
+        }
+        borrowedByOtherThread.set(pool.borrow());
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    synchronized (pool) {
+      otherThread.start();
+      pool.wait();
+      // this one is on top of the idle stack
+      pool.returnConnection(returnedByThisThread);
+      pool.notify();
+    }
+    otherThread.join();
+
+    assertThat(borrowedByOtherThread.get(), is(sameInstance(returnedByOtherThread.get())));
+    assertThat(pool.getCreatedCount(), is(2L));
+  }
+
+  @Test
+  public void waitsUntilTimeoutWhenExhausted() throws Exception {
+    ConnectionPool<Object> pool = createPool(1, 1, 50);
+    pool.borrow();
+
+    try {
+      pool.borrow();
+      fail("Was expecting the pool to be exhausted");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+    assertThat(pool.getWaitTime(MILLISECONDS), greaterThanOrEqualTo(50L));
+    assertThat(pool.getNumActive(), is(1));
+  }
+
+  @Test
+  public void waiterGetsReturnedConnection() throws Exception {
+    ConnectionPool<Object> pool = createPool(1, 1, 5000);
+    PooledConnection<Object> connection = pool.borrow();
+    AtomicReference<PooledConnection<Object>> borrowed = new AtomicReference<>();
+
+    Thread waiter = new Thread(() -> {
+      try {
+        borrowed.set(pool.borrow());
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    waiter.start();
+    pool.returnConnection(connection);
+    waiter.join();
+
+    assertThat(borrowed.get(), is(sameInstance(connection)));
+    assertThat(pool.getCreatedCount(), is(1L));
+  }
+
+  @Test
+  public void borrowerDoesNotBargeWaiter() throws Exception {
+    ConnectionPool<Object> pool = createPool(1, 1, 500);
+    PooledConnection<Object> connection = pool.borrow();
+    AtomicReference<PooledConnection<Object>> borrowed = new AtomicReference<>();
+
+    Thread waiter = new Thread(() -> {
+      try {
+        borrowed.set(pool.borrow());
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    waiter.start();
+    while (waiter.getState() != Thread.State.TIMED_WAITING) {
+      Thread.yield();
+    }
+    pool.returnConnection(connection);
+
+    try {
+      pool.borrow();
+      fail("Was expecting the waiter to get the returned connection");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+    waiter.join();
+    assertThat(borrowed.get(), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void destroysReturnedConnectionsOverMaxIdle() throws Exception {
+    ConnectionPool<Object> pool = createPool(2, 1, 1000);
+    PooledConnection<Object> connection1 = pool.borrow();
+    PooledConnection<Object> connection2 = pool.borrow();
+    pool.returnConnection(connection1);
+    pool.returnConnection(connection2);
+
+    assertThat(pool.getNumIdle(), is(1));
+    assertThat(pool.getNumActive(), is(0));
+    assertThat(pool.getDestroyedCount(), is(1L));
+    verify(connectionProvider).disconnect(connection2.getConnection());
+  }
+
+  @Test
+  public void evictsInvalidIdleConnections() throws Exception {
+    ConnectionPool<Object> pool = createPool(2, 2, 1000);
+    PooledConnection<Object> connection = pool.borrow();
+    pool.returnConnection(connection);
+    when(connectionProvider.validate(connection.getConnection()))
+        .thenReturn(ConnectionValidationResult.failure("invalid", new Exception()));
+
+    pool.evict();
+
+    assertThat(pool.getValidationFailureCount(), is(1L));
+    assertThat(pool.getNumIdle(), is(0));
+    verify(connectionProvider).disconnect(connection.getConnection());
+    assertThat(pool.borrow(), is(not(sameInstance(connection))));
+  }
+
+  @Test
+  public void keepsValidIdleConnections() throws Exception {
+    ConnectionPool<Object> pool = createPool(2, 2, 1000);
+    PooledConnection<Object> connection = pool.borrow();
+    pool.returnConnection(connection);
+
+    pool.evict();
+
+    assertThat(pool.getNumIdle(), is(1));
+    assertThat(pool.borrow(), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void evictingConnectionsAreNotActive() throws Exception {
+    ConnectionPool<Object> pool = createPool(2, 2, 1000);
+    PooledConnection<Object> connection = pool.borrow();
+    pool.returnConnection(connection);
+    AtomicInteger activeWhileValidating = new AtomicInteger(-1);
+    when(connectionProvider.validate(connection.getConnection())).thenAnswer(invocation -> {
+      activeWhileValidating.set(pool.getNumActive());
+      return ConnectionValidationResult.success();
+    });
+
+    pool.evict();
+
+    assertThat(activeWhileValidating.get(), is(0));
+  }
+
+  @Test
+  public void closeDestroysIdleAndReturnedConnections() throws Exception {
+    ConnectionPool<Object> pool = createPool(2, 2, 1000);
+    PooledConnection<Object> idle = pool.borrow();
+    PooledConnection<Object> borrowed = pool.borrow();
+    pool.returnConnection(idle);
+
+    pool.close();
+    verify(connectionProvider).disconnect(idle.getConnection());
+
+    pool.returnConnection(borrowed);
+    verify(connectionProvider).disconnect(borrowed.getConnection());
+    assertThat(pool.getNumIdle(), is(0));
+  }
+
+  private ConnectionPool<Object> createPool(int maxActive, int maxIdle, int maxWait) {
+    PoolingProfile poolingProfile = new PoolingProfile(maxActive, maxIdle, maxWait, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    return new ConnectionPool<>(connectionProvider, poolingProfile, null);
+  }
+}
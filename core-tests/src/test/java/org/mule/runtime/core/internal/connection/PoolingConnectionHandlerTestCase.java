@@ -15,10 +15,10 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.core.internal.connection.ConnectionPool.PooledConnection;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
-import org.apache.commons.pool.ObjectPool;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,7 +30,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
 
   @Mock
-  private ObjectPool<Object> pool;
+  private ConnectionPool<Object> pool;
 
   @Mock
   private Object config;
@@ -44,11 +44,14 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Mock
   private ConnectionProvider connectionProvider;
 
+  private PooledConnection<Object> pooledConnection;
+
   private PoolingConnectionHandler<Object> managedConnection;
 
   @Before
   public void before() {
-    managedConnection = new PoolingConnectionHandler<>(connection, pool, poolingListener, connectionProvider);
+    pooledConnection = new PooledConnection<>(connection);
+    managedConnection = new PoolingConnectionHandler<>(pooledConnection, pool, poolingListener, connectionProvider);
   }
 
   @Test
@@ -59,7 +62,7 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Test
   public void release() throws Exception {
     managedConnection.release();
-    verify(pool).returnObject(connection);
+    verify(pool).returnConnection(pooledConnection);
     verify(poolingListener).onReturn(connection);
     assertDisconnected();
   }
@@ -67,7 +70,7 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Test
   public void invalidate() throws Exception {
     managedConnection.invalidate();
-    verify(pool).invalidateObject(connection);
+    verify(pool).invalidate(pooledConnection);
     assertDisconnected();
   }
 
@@ -83,7 +86,7 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Test
   public void close() throws Exception {
     managedConnection.close();
-    verify(pool, never()).returnObject(anyObject());
+    verify(pool, never()).returnConnection(anyObject());
   }
 
   @Test
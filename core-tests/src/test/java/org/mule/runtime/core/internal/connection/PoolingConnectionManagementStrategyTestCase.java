@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -132,6 +133,18 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     verify(connectionProvider, times(2)).disconnect(any(Object.class));
   }
 
+  @Test
+  public void poolStatisticsRegisteredWhileOpen() throws Exception {
+    assertThat(muleContext.getStatistics().getConnectionPoolStatistics(), hasItem(strategy.getPool()));
+    assertThat(strategy.getPool().getNumActive(), is(2));
+    assertThat(strategy.getPool().getCreatedCount(), is(2L));
+
+    connection1.release();
+    connection2.release();
+    strategy.close();
+    assertThat(muleContext.getStatistics().getConnectionPoolStatistics(), not(hasItem(strategy.getPool())));
+  }
+
   @Test(expected = ConnectionException.class)
   public void failDueToInvalidConnection() throws ConnectionException {
     when(connectionProvider.validate(anyVararg())).thenReturn(ConnectionValidationResult
@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.internal.context;
 
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -35,6 +38,7 @@ import org.mule.runtime.core.api.context.notification.ServerNotificationManager;
 import org.mule.runtime.core.api.exception.SystemExceptionHandler;
 import org.mule.runtime.core.api.transformer.DataTypeConversionResolver;
 import org.mule.runtime.core.api.util.StreamCloserService;
+import org.mule.runtime.core.api.util.func.CheckedRunnable;
 import org.mule.runtime.core.internal.config.ClusterConfiguration;
 import org.mule.runtime.core.internal.config.builders.DefaultsConfigurationBuilder;
 import org.mule.runtime.core.internal.connector.SchedulerController;
@@ -46,6 +50,10 @@ import org.mule.runtime.core.internal.util.store.MuleObjectStoreManager;
 import org.mule.tck.config.TestServicesConfigurationBuilder;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -195,6 +203,24 @@ public class DefaultMuleContextTestCase extends AbstractMuleTestCase {
     verify(muleRegistry).lookupObject(OBJECT_CONVERTER_RESOLVER);
   }
 
+  @Test
+  public void lifecycleLockHandedOffToOwnedExecutor() throws Exception {
+    DefaultMuleContext defaultMuleContext = (DefaultMuleContext) new DefaultMuleContextBuilder(APP).buildMuleContext();
+    AtomicBoolean ranWithLock = new AtomicBoolean();
+    ExecutorService executor = newSingleThreadExecutor();
+    try {
+      defaultMuleContext.withLifecycleLock((CheckedRunnable) () -> {
+        Executor owners = defaultMuleContext.withLifecycleLockOwnership(executor);
+        // would block on the lock held by this thread if it wasn't handed off
+        runAsync(() -> defaultMuleContext.withLifecycleLock(() -> ranWithLock.set(true)), owners).get(5, SECONDS);
+      });
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(ranWithLock.get(), is(true));
+  }
+
   protected void createMuleContext() throws MuleException {
     context = muleContextFactory.createMuleContext(testServicesConfigurationBuilder, new DefaultsConfigurationBuilder());
   }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.api.context.notification.AsyncNotificationOverflowPolicy.BLOCK;
+import static org.mule.runtime.core.api.context.notification.AsyncNotificationOverflowPolicy.DROP;
+import static org.mule.runtime.core.api.context.notification.AsyncNotificationOverflowPolicy.SAMPLE;
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.core.api.context.notification.Event1;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+@SmallTest
+public class AsyncNotificationDispatcherTestCase extends AbstractMuleTestCase {
+
+  private final CollectingListener listener = new CollectingListener();
+  private final ManualExecutor executor = new ManualExecutor();
+
+  @Test
+  public void deliversInOrderInBatches() {
+    AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, executor, 16, 4, DROP, 1);
+    List<Notification> fired = fire(dispatcher, 10);
+
+    assertThat(listener.notifications, hasSize(0));
+    assertThat(dispatcher.getQueueDepth(), is(10));
+
+    executor.runNext();
+    assertThat(listener.notifications, hasSize(4));
+    executor.runAll();
+
+    assertThat(listener.notifications, is(fired));
+    assertThat(dispatcher.getQueueDepth(), is(0));
+    assertThat(dispatcher.getDeliveredCount(), is(10L));
+    assertThat(dispatcher.getDroppedCount(), is(0L));
+  }
+
+  @Test
+  public void singleTaskScheduledWhileDraining() {
+    AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, executor, 16, 4, DROP, 1);
+    fire(dispatcher, 3);
+
+    assertThat(executor.tasks, hasSize(1));
+  }
+
+  @Test
+  public void dropWhenFull() {
+    AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, executor, 8, 64, DROP, 1);
+    List<Notification> fired = fire(dispatcher, 10);
+    executor.runAll();
+
+    assertThat(listener.notifications, is(fired.subList(0, 8)));
+    assertThat(dispatcher.getDroppedCount(), is(2L));
+  }
+
+  @Test
+  public void sampleWhenHalfFull() {
+    AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, executor, 8, 64, SAMPLE, 2);
+    List<Notification> fired = fire(dispatcher, 8);
+    executor.runAll();
+
+    assertThat(listener.notifications, contains(fired.get(0), fired.get(1), fired.get(2), fired.get(3), fired.get(4),
+                                                fired.get(6)));
+    assertThat(dispatcher.getDroppedCount(), is(2L));
+  }
+
+  @Test
+  public void blockUntilDrained() throws Exception {
+    ExecutorService threadPool = Executors.newSingleThreadExecutor();
+    try {
+      AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, threadPool, 2, 1, BLOCK, 1);
+      List<Notification> fired = fire(dispatcher, 100);
+      dispatcher.dispose();
+      threadPool.shutdown();
+      threadPool.awaitTermination(5, SECONDS);
+
+      assertThat(listener.notifications, is(fired));
+      assertThat(dispatcher.getDroppedCount(), is(0L));
+    } finally {
+      threadPool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void blockDoesNotWaitForItself() {
+    AtomicBoolean first = new AtomicBoolean(true);
+    AsyncNotificationDispatcher[] dispatcher = new AsyncNotificationDispatcher[1];
+    NotificationListener<Notification> reentrantListener = notification -> {
+      if (first.getAndSet(false)) {
+        dispatcher[0].dispatch(new Event1());
+        dispatcher[0].dispatch(new Event1());
+      }
+    };
+    dispatcher[0] = new AsyncNotificationDispatcher(reentrantListener, executor, 2, 64, BLOCK, 1);
+    fire(dispatcher[0], 2);
+    executor.runAll();
+
+    assertThat(dispatcher[0].getDeliveredCount(), is(3L));
+    assertThat(dispatcher[0].getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void blockDropsAfterMaxBlockTime() {
+    AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, executor, 2, 64, BLOCK, 1, 10);
+    List<Notification> fired = fire(dispatcher, 3);
+    executor.runAll();
+
+    assertThat(listener.notifications, is(fired.subList(0, 2)));
+    assertThat(dispatcher.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void blockDrainsOnFiringThreadWhenNotDraining() {
+    AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, command -> {
+      throw new RejectedExecutionException();
+    }, 2, 1, BLOCK, 1, 10);
+    List<Notification> fired = fire(dispatcher, 5);
+    dispatcher.dispose();
+
+    assertThat(listener.notifications, is(fired));
+    assertThat(dispatcher.getDroppedCount(), is(0L));
+  }
+
+  @Test
+  public void disposeKeepsDeliveringPending() {
+    AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, executor, 16, 4, DROP, 1);
+    List<Notification> fired = fire(dispatcher, 10);
+    dispatcher.dispose();
+    fire(dispatcher, 1);
+    executor.runAll();
+
+    assertThat(listener.notifications, is(fired));
+    assertThat(dispatcher.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void disposeDeliversPendingWhenRejected() {
+    AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(listener, command -> {
+      throw new RejectedExecutionException();
+    }, 16, 4, DROP, 1);
+    List<Notification> fired = fire(dispatcher, 10);
+    assertThat(listener.notifications, hasSize(0));
+
+    dispatcher.dispose();
+
+    assertThat(listener.notifications, is(fired));
+  }
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    ExecutorService threadPool = Executors.newFixedThreadPool(2);
+    int producers = 4;
+    int perProducer = 1000;
+    CountDownLatch done = new CountDownLatch(producers);
+    try {
+      AsyncNotificationDispatcher dispatcher =
+          new AsyncNotificationDispatcher(listener, threadPool, 64, 16, BLOCK, 1);
+      for (int i = 0; i < producers; ++i) {
+        new Thread(() -> {
+          fire(dispatcher, perProducer);
+          done.countDown();
+        }).start();
+      }
+      done.await();
+      threadPool.shutdown();
+      threadPool.awaitTermination(5, SECONDS);
+      dispatcher.dispose();
+
+      assertThat(listener.notifications, hasSize(producers * perProducer));
+      assertThat(dispatcher.getDeliveredCount(), is((long) producers * perProducer));
+    } finally {
+      threadPool.shutdownNow();
+    }
+  }
+
+  private List<Notification> fire(AsyncNotificationDispatcher dispatcher, int count) {
+    List<Notification> fired = new ArrayList<>(count);
+    for (int i = 0; i < count; ++i) {
+      Notification notification = new Event1("id" + i);
+      fired.add(notification);
+      dispatcher.dispatch(notification);
+    }
+    return fired;
+  }
+
+  private static class CollectingListener implements NotificationListener<Notification> {
+
+    private final List<Notification> notifications = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onNotification(Notification notification) {
+      notifications.add(notification);
+    }
+  }
+
+  private static class ManualExecutor implements Executor {
+
+    private final Queue<Runnable> tasks = new LinkedList<>();
+
+    @Override
+    public void execute(Runnable command) {
+      tasks.add(command);
+    }
+
+    void runNext() {
+      tasks.poll().run();
+    }
+
+    void runAll() {
+      while (!tasks.isEmpty()) {
+        runNext();
+      }
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class ConcurrentInstanceLockGroupTestCase extends AbstractMuleTestCase {
+
+  private static final int THREAD_COUNT = 50;
+  private static final int ITERATIONS_PER_THREAD = 100;
+  private static final int KEY_COUNT = 10;
+
+  private ConcurrentInstanceLockGroup lockGroup = new ConcurrentInstanceLockGroup(new SingleServerLockProvider());
+
+  @Test
+  public void lockUnlock() throws Exception {
+    testHighConcurrency(false);
+  }
+
+  @Test
+  public void tryLockUnlock() throws Exception {
+    testHighConcurrency(true);
+  }
+
+  @Test
+  public void whenSeveralLockOneUnlockThenDestroy() throws Exception {
+    LockProvider lockProvider = mock(LockProvider.class, RETURNS_DEEP_STUBS.get());
+    ConcurrentInstanceLockGroup lockGroup = new ConcurrentInstanceLockGroup(lockProvider);
+    for (int i = 0; i < 5; i++) {
+      lockGroup.lock("lockId");
+    }
+    for (int i = 0; i < 5; i++) {
+      lockGroup.unlock("lockId");
+    }
+
+    verify(lockProvider, times(1)).createLock("lockId");
+    assertThat(lockGroup.getLockCount(), is(0));
+  }
+
+  @Test
+  public void failedTryLockReleasesReference() throws Exception {
+    Latch locked = new Latch();
+    Latch release = new Latch();
+    Thread holder = new Thread(() -> {
+      lockGroup.lock("lockId");
+      locked.release();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        lockGroup.unlock("lockId");
+      }
+    });
+    holder.start();
+    locked.await();
+
+    try {
+      assertThat(lockGroup.tryLock("lockId"), is(false));
+      assertThat(lockGroup.tryLock("lockId", 10, MILLISECONDS), is(false));
+    } finally {
+      release.release();
+      holder.join();
+    }
+
+    assertThat(lockGroup.getLockCount(), is(0));
+    assertThat(lockGroup.getContendedAcquisitionCount(), is(2L));
+    assertThat(lockGroup.getWaitTime(NANOSECONDS), greaterThan(0L));
+  }
+
+  @Test
+  public void interruptedLockReleasesReference() throws Exception {
+    lockGroup.lock("lockId");
+    CountDownLatch interrupted = new CountDownLatch(1);
+    Thread waiter = new Thread(() -> {
+      try {
+        lockGroup.lockInterruptibly("lockId");
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+    });
+    waiter.start();
+    while (lockGroup.getAcquisitionCount() < 2) {
+      Thread.yield();
+    }
+    waiter.interrupt();
+    waiter.join();
+    lockGroup.unlock("lockId");
+
+    assertThat(interrupted.getCount(), is(0L));
+    assertThat(lockGroup.getLockCount(), is(0));
+  }
+
+  private void testHighConcurrency(boolean useTryLock) throws Exception {
+    int[] counters = new int[KEY_COUNT];
+    Latch start = new Latch();
+    List<Thread> threads = new ArrayList<>(THREAD_COUNT);
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      final int threadIndex = i;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          for (int j = 0; j < ITERATIONS_PER_THREAD; j++) {
+            int key = (threadIndex + j) % KEY_COUNT;
+            String lockId = "key" + key;
+            if (useTryLock) {
+              while (!lockGroup.tryLock(lockId, 100, MILLISECONDS));
+            } else {
+              lockGroup.lock(lockId);
+            }
+            try {
+              counters[key]++;
+            } finally {
+              lockGroup.unlock(lockId);
+            }
+          }
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    start.release();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    int total = 0;
+    for (int counter : counters) {
+      total += counter;
+    }
+    assertThat(total, is(THREAD_COUNT * ITERATIONS_PER_THREAD));
+    assertThat(lockGroup.getLockCount(), is(0));
+  }
+}
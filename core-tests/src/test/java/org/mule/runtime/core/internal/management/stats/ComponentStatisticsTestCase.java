@@ -150,4 +150,25 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     stats.addExecutionBranchTime(true, 100L, 100L);
     assertValues(stats, 2L, 200L, 100L, 100L, 100L);
   }
+
+  @Test
+  public void executionTimePercentiles() {
+    ComponentStatistics stats = new ComponentStatistics();
+    for (long i = 1; i <= 100; ++i) {
+      stats.addExecutionTime(i);
+    }
+    assertThat(stats.getExecutionTimePercentile(50), equalTo(50L));
+    assertThat(stats.getExecutionTimeSnapshot().getCount(), equalTo(100L));
+
+    stats.clear();
+    assertThat(stats.getExecutionTimeSnapshot().getCount(), equalTo(0L));
+  }
+
+  @Test
+  public void executionTimePercentilesBeforeRecording() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.clear();
+    assertThat(stats.getExecutionTimeSnapshot().getCount(), equalTo(0L));
+    assertThat(stats.getExecutionTimePercentile(99), equalTo(0L));
+  }
 }
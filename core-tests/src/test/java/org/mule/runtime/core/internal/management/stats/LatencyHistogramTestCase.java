@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
+import org.mule.runtime.core.api.management.stats.LatencySnapshot;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  private LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void emptySnapshot() {
+    LatencySnapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.getCount(), equalTo(0L));
+    assertThat(snapshot.getValueAtPercentile(99), equalTo(0L));
+    assertThat(snapshot.getMin(), equalTo(0L));
+    assertThat(snapshot.getMax(), equalTo(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (long i = 1; i <= 20; ++i) {
+      histogram.record(i);
+    }
+
+    LatencySnapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.getCount(), equalTo(20L));
+    assertThat(snapshot.getTotal(), equalTo(210L));
+    assertThat(snapshot.getMin(), equalTo(1L));
+    assertThat(snapshot.getMax(), equalTo(20L));
+    assertThat(snapshot.getValueAtPercentile(50), equalTo(10L));
+    assertThat(snapshot.getValueAtPercentile(95), equalTo(19L));
+    assertThat(snapshot.getValueAtPercentile(100), equalTo(20L));
+  }
+
+  @Test
+  public void bigValuesWithinPrecision() {
+    for (long i = 1; i <= 100000; ++i) {
+      histogram.record(i);
+    }
+
+    LatencySnapshot snapshot = histogram.snapshot();
+    assertWithinPrecision(snapshot.getValueAtPercentile(50), 50000);
+    assertWithinPrecision(snapshot.getValueAtPercentile(99), 99000);
+    assertWithinPrecision(snapshot.getValueAtPercentile(99.9), 99900);
+    assertThat(snapshot.getMax(), equalTo(100000L));
+  }
+
+  @Test
+  public void tailLatency() {
+    for (int i = 0; i < 990; ++i) {
+      histogram.record(10);
+    }
+    for (int i = 0; i < 10; ++i) {
+      histogram.record(5000);
+    }
+
+    LatencySnapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.getMean(), equalTo(59L));
+    assertThat(snapshot.getValueAtPercentile(99), equalTo(10L));
+    assertWithinPrecision(snapshot.getValueAtPercentile(99.5), 5000);
+  }
+
+  @Test
+  public void interval() {
+    histogram.record(10);
+    LatencySnapshot previous = histogram.snapshot();
+    histogram.record(1000);
+    histogram.record(1000);
+
+    LatencySnapshot interval = histogram.snapshot().minus(previous);
+    assertThat(interval.getCount(), equalTo(2L));
+    assertThat(interval.getTotal(), equalTo(2000L));
+    assertWithinPrecision(interval.getMin(), 1000);
+    assertThat(interval.getMax(), equalTo(1000L));
+  }
+
+  @Test
+  public void merge() {
+    LatencyHistogram other = new LatencyHistogram();
+    histogram.record(10);
+    other.record(20);
+
+    LatencySnapshot merged = histogram.snapshot().merge(other.snapshot());
+    assertThat(merged.getCount(), equalTo(2L));
+    assertThat(merged.getMin(), equalTo(10L));
+    assertThat(merged.getMax(), equalTo(20L));
+  }
+
+  @Test
+  public void concurrentRecording() throws Exception {
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; ++i) {
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < 10000; ++j) {
+          histogram.record(j);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(histogram.snapshot().getCount(), equalTo(80000L));
+  }
+
+  private void assertWithinPrecision(long value, long expected) {
+    assertThat(value, both(greaterThanOrEqualTo(expected - expected / 32)).and(lessThanOrEqualTo(expected + expected / 32)));
+  }
+}
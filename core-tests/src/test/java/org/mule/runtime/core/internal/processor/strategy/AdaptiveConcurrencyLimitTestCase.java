@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.CountDownLatch;
+
+import io.qameta.allure.Feature;
+import org.junit.Test;
+
+@SmallTest
+@Feature(PROCESSING_STRATEGIES)
+public class AdaptiveConcurrencyLimitTestCase extends AbstractMuleTestCase {
+
+  private static final long BASE_LATENCY = MILLISECONDS.toNanos(10);
+
+  private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 16);
+
+  @Test
+  public void permitsUpToLimit() {
+    for (int i = 0; i < 4; i++) {
+      assertThat(limit.tryAcquire(), is(true));
+    }
+    assertThat(limit.tryAcquire(), is(false));
+
+    limit.release();
+    assertThat(limit.tryAcquire(), is(true));
+  }
+
+  @Test
+  public void growsWhileLatencyIsStable() {
+    acquireAll();
+    for (int i = 0; i < 100; i++) {
+      limit.onSample(BASE_LATENCY, 0);
+    }
+
+    assertThat(limit.getLimit(), greaterThan(4));
+  }
+
+  @Test
+  public void neverExceedsMax() {
+    for (int i = 0; i < 10000; i++) {
+      acquireAll();
+      limit.onSample(BASE_LATENCY, 0);
+    }
+
+    assertThat(limit.getLimit(), is(16));
+  }
+
+  @Test
+  public void shrinksWhenLatencyIncreases() {
+    limit.onSample(BASE_LATENCY, 0);
+    for (int i = 0; i < 5; i++) {
+      limit.onSample(BASE_LATENCY * 10, 0);
+    }
+
+    assertThat(limit.getLimit(), lessThan(4));
+  }
+
+  @Test
+  public void halvesOnRejection() {
+    limit.onRejected();
+    assertThat(limit.getLimit(), is(2));
+
+    limit.onRejected();
+    limit.onRejected();
+    assertThat(limit.getLimit(), is(1));
+  }
+
+  @Test
+  public void acquireWaitsForRelease() throws Exception {
+    acquireAll();
+
+    CountDownLatch acquired = new CountDownLatch(1);
+    Thread waiter = new Thread(() -> {
+      try {
+        if (limit.tryAcquire(5000, MILLISECONDS)) {
+          acquired.countDown();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    waiter.start();
+
+    assertThat(acquired.await(100, MILLISECONDS), is(false));
+    limit.release();
+    assertThat(acquired.await(1000, MILLISECONDS), is(true));
+    assertThat(limit.getInFlight(), is(4));
+  }
+
+  @Test
+  public void acquireWaitsForLimitGrowth() throws Exception {
+    acquireAll();
+
+    CountDownLatch acquired = new CountDownLatch(1);
+    Thread waiter = new Thread(() -> {
+      try {
+        if (limit.tryAcquire(5000, MILLISECONDS)) {
+          acquired.countDown();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    waiter.start();
+
+    assertThat(acquired.await(100, MILLISECONDS), is(false));
+    for (int i = 0; i < 100; i++) {
+      limit.onSample(BASE_LATENCY, 0);
+    }
+    assertThat(acquired.await(1000, MILLISECONDS), is(true));
+    assertThat(limit.getInFlight(), is(5));
+  }
+
+  @Test
+  public void shrinksWhenQueueGrows() {
+    acquireAll();
+    limit.onSample(BASE_LATENCY, 0);
+    limit.onSample(BASE_LATENCY, 3);
+
+    assertThat(limit.getLimit(), lessThan(4));
+  }
+
+  @Test
+  public void tryAcquireTimesOut() throws Exception {
+    acquireAll();
+
+    assertThat(limit.tryAcquire(10, MILLISECONDS), is(false));
+    assertThat(limit.getInFlight(), is(4));
+  }
+
+  private void acquireAll() {
+    while (limit.tryAcquire()) {
+      // keep acquiring
+    }
+  }
+}
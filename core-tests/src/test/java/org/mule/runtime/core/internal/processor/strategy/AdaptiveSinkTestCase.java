@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveProactorStreamProcessingStrategyFactory.AdaptiveSink;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import io.qameta.allure.Feature;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+@Feature(PROCESSING_STRATEGIES)
+public class AdaptiveSinkTestCase extends AbstractMuleTestCase {
+
+  private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1);
+  private final Sink delegate = mock(Sink.class);
+  private final AdaptiveSink sink = new AdaptiveSink(delegate, limit);
+  private final AtomicReference<BiConsumer<CoreEvent, Throwable>> onTerminated = new AtomicReference<>();
+  private CoreEvent event;
+
+  @Before
+  public void before() {
+    BaseEventContext context = mock(BaseEventContext.class);
+    doAnswer(invocation -> {
+      onTerminated.set((BiConsumer<CoreEvent, Throwable>) invocation.getArguments()[0]);
+      return null;
+    }).when(context).onTerminated(any(BiConsumer.class));
+    event = mock(CoreEvent.class);
+    when(event.getContext()).thenReturn(context);
+  }
+
+  @Test
+  public void releasesPermitOnTermination() {
+    sink.accept(event);
+    assertThat(limit.getInFlight(), is(1));
+
+    onTerminated.get().accept(event, null);
+    assertThat(limit.getInFlight(), is(0));
+  }
+
+  @Test
+  public void releasesPermitWhenDispatchFails() {
+    doThrow(new IllegalStateException("Expected")).when(delegate).accept(event);
+
+    try {
+      sink.accept(event);
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    assertThat(limit.getInFlight(), is(0));
+
+    // a later termination of the event doesn't release the permit again
+    onTerminated.get().accept(event, null);
+    assertThat(limit.getInFlight(), is(0));
+  }
+}
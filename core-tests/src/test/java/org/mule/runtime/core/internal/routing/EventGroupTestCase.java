@@ -23,6 +23,7 @@ import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.PartitionableObjectStore;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.message.GroupCorrelation;
 import org.mule.runtime.core.api.util.UUID;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistries;
 import org.mule.runtime.core.internal.util.store.DefaultObjectStoreFactoryBean;
@@ -38,6 +39,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public class EventGroupTestCase extends AbstractMuleContextTestCase {
@@ -259,6 +261,47 @@ public class EventGroupTestCase extends AbstractMuleContextTestCase {
     assertThat(messages.get(2).getPayload().getValue(), is("foo2"));
   }
 
+  @Test
+  public void restoresStateFromStore() throws Exception {
+    String groupId = UUID.getUUID();
+    EventGroup eventGroup = new EventGroup(groupId, muleContext);
+    eventGroup.initEventsStore(objectStore);
+    for (int i = 0; i < 3; i++) {
+      eventGroup.addEvent(eventBuilder(muleContext).message(Message.of("foo" + i))
+          .groupCorrelation(Optional.of(GroupCorrelation.of(i, 4))).build());
+    }
+
+    // as if the group was deserialized
+    EventGroup restoredGroup = new EventGroup(groupId, muleContext);
+    restoredGroup.initEventsStore(objectStore);
+    assertThat(restoredGroup.size(), is(3));
+
+    restoredGroup.addEvent(eventBuilder(muleContext).message(Message.of("foo3"))
+        .groupCorrelation(Optional.of(GroupCorrelation.of(3, 4))).build());
+    CoreEvent[] events = restoredGroup.toArray();
+    assertThat(events.length, is(4));
+    for (int i = 0; i < events.length; i++) {
+      assertThat(events[i].getMessage().getPayload().getValue(), is("foo" + i));
+    }
+  }
+
+  @Test
+  public void readsEventsFromStoreWhenKeysAreNotTracked() throws Exception {
+    String groupId = UUID.getUUID();
+    EventGroup eventGroup = new EventGroup(groupId, muleContext);
+    eventGroup.initEventsStore(objectStore, false);
+    // as if the group was used from another node
+    EventGroup otherGroup = new EventGroup(groupId, muleContext);
+    otherGroup.initEventsStore(objectStore, false);
+
+    eventGroup.addEvent(eventBuilder(muleContext).message(Message.of("foo0")).build());
+    otherGroup.addEvent(eventBuilder(muleContext).message(Message.of("foo1")).build());
+
+    assertThat(eventGroup.size(), is(2));
+    assertThat(otherGroup.size(), is(2));
+    assertThat(eventGroup.toArray().length, is(2));
+  }
+
   @Test
   public void isDisposedEventGroupPartition() throws Exception {
     EventGroup eventGroup = new EventGroup(UUID.getUUID(), muleContext);
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Runtime.getRuntime;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static java.util.Optional.of;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
+import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE_LIST;
+import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ForeachStory.FOR_EACH;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.fromCallable;
+import static reactor.core.scheduler.Schedulers.elastic;
+
+import org.mule.runtime.api.component.location.Location;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.reactivestreams.Publisher;
+
+@Feature(ROUTERS)
+@Story(FOR_EACH)
+public class ParallelForeachTestCase extends AbstractMuleContextTestCase {
+
+  private ParallelForeach router = new ParallelForeach();
+
+  @Override
+  protected Map<String, Object> getStartUpRegistryObjects() {
+    when(componentLocator.find(Location.builder().globalName(APPLE_FLOW).build())).thenReturn(of(mock(Flow.class)));
+    return singletonMap(REGISTRY_KEY, componentLocator);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    router.dispose();
+  }
+
+  @Test
+  @Description("A RoutingPair is created for each element of the collection, with the element as payload.")
+  public void routingPairs() throws Exception {
+    initialiseRouter(event -> event);
+
+    List<RoutingPair> routingPairs = from(router.getRoutingPairs(eventWithPayload(asList("a", "b", "c")))).collectList().block();
+    assertThat(routingPairs, hasSize(3));
+    assertThat(payloads(routingPairs), contains("a", "b", "c"));
+  }
+
+  @Test
+  @Description("With a batch size, a RoutingPair is created for each batch of elements.")
+  public void routingPairsBatched() throws Exception {
+    router.setBatchSize(2);
+    initialiseRouter(event -> event);
+
+    List<RoutingPair> routingPairs =
+        from(router.getRoutingPairs(eventWithPayload(asList("a", "b", "c", "d", "e")))).collectList().block();
+    assertThat(routingPairs, hasSize(3));
+  }
+
+  @Test
+  @Description("The result is a list with the resulting message of each element, in the order of the collection.")
+  public void resultsInCollectionOrder() throws Exception {
+    router.setMaxConcurrency(2);
+    initialiseRouter(event -> CoreEvent.builder(event)
+        .message(Message.of(event.getMessage().getPayload().getValue() + "-processed")).build());
+
+    CoreEvent result = router.process(eventWithPayload(asList("a", "b", "c", "d")));
+
+    assertThat(messagePayloads(result), contains("a-processed", "b-processed", "c-processed", "d-processed"));
+  }
+
+  @Test
+  @Description("When the order is not preserved, the result still contains the resulting message of each element.")
+  public void resultsInCompletionOrder() throws Exception {
+    router.setPreserveOrder(false);
+    router.setMaxConcurrency(2);
+    initialiseRouter(event -> event);
+
+    CoreEvent result = router.process(eventWithPayload(asList("a", "b", "c", "d")));
+
+    assertThat(messagePayloads(result), containsInAnyOrder("a", "b", "c", "d"));
+  }
+
+  @Test
+  @Description("No more than maxConcurrency elements are processed at the same time.")
+  public void boundedConcurrency() throws Exception {
+    final int maxConcurrency = 2;
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    router.setMaxConcurrency(maxConcurrency);
+    initialiseRouter(new Processor() {
+
+      @Override
+      public CoreEvent process(CoreEvent event) {
+        return event;
+      }
+
+      @Override
+      public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+        // each element completes asynchronously, so elements would overlap if they weren't bounded by the router
+        return from(publisher).flatMap(event -> fromCallable(() -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          Thread.sleep(20);
+          inFlight.decrementAndGet();
+          return event;
+        }).subscribeOn(elastic()));
+      }
+    });
+
+    CoreEvent result = router.process(eventWithPayload(asList("a", "b", "c", "d", "e", "f", "g", "h")));
+
+    assertThat(messagePayloads(result), hasSize(8));
+    assertThat(maxInFlight.get(), lessThanOrEqualTo(maxConcurrency));
+  }
+
+  @Test
+  @Description("By default, as many elements as available processors are processed at the same time.")
+  public void defaultMaxConcurrency() throws Exception {
+    assertThat(router.getDefaultMaxConcurrency(), is(getRuntime().availableProcessors()));
+  }
+
+  @Test
+  @Description("Errors are handled per element: all the elements are processed and the errors are collected.")
+  public void errorsPerElement() throws Exception {
+    initialiseRouter(event -> {
+      if ("b".equals(event.getMessage().getPayload().getValue())) {
+        throw new IllegalStateException("Expected");
+      }
+      return event;
+    });
+
+    try {
+      router.process(eventWithPayload(asList("a", "b", "c")));
+      fail("Expected the router to fail");
+    } catch (MessagingException e) {
+      assertThat(e.getCause(), instanceOf(CompositeRoutingException.class));
+      assertThat(((CompositeRoutingException) e.getCause()).getErrors(), hasSize(1));
+    }
+  }
+
+  @Test
+  @Description("By default CollectListForkJoinStrategyFactory is used which aggregates the results into a List<Message> payload.")
+  public void defaultForkJoinStrategyFactory() throws Exception {
+    assertThat(router.getDefaultForkJoinStrategyFactory(), instanceOf(CollectListForkJoinStrategyFactory.class));
+    assertThat(router.getDefaultForkJoinStrategyFactory().getResultDataType(), equalTo(MULE_MESSAGE_LIST));
+  }
+
+  @Test
+  @Description("Errors are always delayed so that every element is processed.")
+  public void defaultDelayErrors() throws Exception {
+    assertThat(router.isDelayErrors(), is(true));
+  }
+
+  private void initialiseRouter(Processor processor) throws Exception {
+    router.setMessageProcessors(asList(processor));
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+  }
+
+  private CoreEvent eventWithPayload(Object payload) throws Exception {
+    return CoreEvent.builder(testEvent()).message(Message.of(payload)).build();
+  }
+
+  private List<Object> payloads(List<RoutingPair> routingPairs) {
+    return routingPairs.stream().map(pair -> pair.getEvent().getMessage().getPayload().getValue()).collect(toList());
+  }
+
+  private List<Object> messagePayloads(CoreEvent result) {
+    return ((List<Message>) result.getMessage().getPayload().getValue()).stream()
+        .map(message -> message.getPayload().getValue()).collect(toList());
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.correlation;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class EventGroupTimerWheelTestCase extends AbstractMuleTestCase {
+
+  private static final long TICK = 10;
+  private static final int BUCKETS = 8;
+
+  private final EventGroupTimerWheel wheel = new EventGroupTimerWheel(TICK, BUCKETS, 0);
+
+  @Test
+  public void expiresDueDeadlines() {
+    wheel.schedule("first", 25);
+    wheel.schedule("second", 45);
+
+    assertThat(wheel.expire(20), empty());
+    assertThat(wheel.expire(30), contains("first"));
+    assertThat(wheel.expire(40), empty());
+    assertThat(wheel.expire(50), contains("second"));
+    assertThat(wheel.expire(60), empty());
+  }
+
+  @Test
+  public void expiresPastDeadlinesOnNextTick() {
+    wheel.expire(100);
+    wheel.schedule("past", 5);
+
+    assertThat(wheel.expire(110), contains("past"));
+  }
+
+  @Test
+  public void keepsDeadlinesOfLaterTurns() {
+    long turn = TICK * BUCKETS;
+    wheel.schedule("later", 2 * turn + 5);
+
+    assertThat(wheel.expire(turn + 5), empty());
+    assertThat(wheel.expire(2 * turn), empty());
+    assertThat(wheel.expire(2 * turn + 10), contains("later"));
+  }
+
+  @Test
+  public void expiresEveryBucketAfterLongPause() {
+    for (int i = 0; i < BUCKETS; ++i) {
+      wheel.schedule("group-" + i, i * TICK + 1);
+    }
+
+    assertThat(wheel.expire(10 * TICK * BUCKETS),
+               containsInAnyOrder("group-0", "group-1", "group-2", "group-3", "group-4", "group-5", "group-6", "group-7"));
+  }
+
+  @Test
+  public void clearDiscardsDeadlines() {
+    wheel.schedule("cleared", 15);
+    wheel.clear();
+
+    assertThat(wheel.expire(100), empty());
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.tck.util.MuleContextUtils.eventBuilder;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.util.IOUtils;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
+import org.mule.tck.core.internal.serialization.AbstractSerializerProtocolContractTestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CompactSerializationProtocolTestCase extends AbstractSerializerProtocolContractTestCase {
+
+  @Override
+  protected ObjectSerializer getObjectSerializer() {
+    return new CompactObjectSerializer();
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    serializationProtocol = muleContext.getObjectSerializer().getExternalProtocol();
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializable() throws Exception {
+    serializationProtocol.serialize(new Object());
+  }
+
+  @Test
+  public void collections() throws Exception {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("int", -1);
+    map.put("long", Long.MAX_VALUE);
+    map.put("double", 1.5d);
+    map.put("boolean", true);
+    map.put("char", 'ñ');
+    map.put("string", "áéíóú");
+    map.put("bytes", new byte[] {1, 2, 3});
+    List<Object> list = new ArrayList<>(asList("a", null, map, new HashMap<>()));
+
+    List<Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+
+    assertThat(deserialized.size(), equalTo(4));
+    assertThat(deserialized.get(0), equalTo("a"));
+    assertThat(deserialized.get(1), equalTo(null));
+    Map<String, Object> deserializedMap = (Map<String, Object>) deserialized.get(2);
+    assertThat(deserializedMap, instanceOf(LinkedHashMap.class));
+    assertThat(new ArrayList<>(deserializedMap.keySet()), equalTo(new ArrayList<>(map.keySet())));
+    assertThat(deserializedMap.get("long"), equalTo(Long.MAX_VALUE));
+    assertThat(deserializedMap.get("char"), equalTo('ñ'));
+    assertThat(deserializedMap.get("string"), equalTo("áéíóú"));
+    assertThat(deserializedMap.get("bytes"), equalTo(new byte[] {1, 2, 3}));
+  }
+
+  @Test
+  public void message() throws Exception {
+    Message message = Message.builder().value(createPayload()).mediaType(APPLICATION_JSON).attributesValue("attributes").build();
+
+    InternalMessage deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(message));
+
+    assertThat(deserialized.getPayload().getValue(), equalTo(message.getPayload().getValue()));
+    assertThat(deserialized.getPayload().getDataType(), equalTo(message.getPayload().getDataType()));
+    assertThat(deserialized.getAttributes().getValue(), equalTo("attributes"));
+  }
+
+  @Test
+  public void event() throws Exception {
+    CoreEvent event = eventBuilder(muleContext).message(of("payload")).addVariable("count", 1).build();
+
+    byte[] bytes = serializationProtocol.serialize(event);
+    CoreEvent deserialized = serializationProtocol.deserialize(bytes);
+
+    assertThat(bytes[2], equalTo((byte) 22));
+    assertThat(deserialized.getContext().getId(), equalTo(event.getContext().getId()));
+    assertThat(deserialized.getMessage().getPayload().getValue(), equalTo("payload"));
+    assertThat(deserialized.getVariables().get("count").getValue(), equalTo(1));
+  }
+
+  @Test
+  public void cursorStreamProvider() throws Exception {
+    CursorStreamProvider provider = new ByteArrayCursorStreamProvider("content".getBytes(UTF_8));
+
+    TypedValue<?> deserialized = serializationProtocol.deserialize(serializationProtocol
+        .serialize(new TypedValue<>(provider, DataType.fromObject(provider))));
+
+    assertThat(deserialized.getValue(), instanceOf(CursorStreamProvider.class));
+    assertThat(IOUtils.toString(((CursorStreamProvider) deserialized.getValue()).openCursor()), equalTo("content"));
+    assertThat(deserialized.getDataType(), equalTo(DataType.fromObject(provider)));
+  }
+
+  @Test
+  public void smallerThanJavaSerialization() throws Exception {
+    Message message = Message.builder().value(createPayload()).mediaType(APPLICATION_JSON).build();
+    JavaExternalSerializerProtocol javaProtocol = new JavaExternalSerializerProtocol();
+    javaProtocol.setMuleContext(muleContext);
+
+    assertThat(serializationProtocol.serialize(message).length, lessThan(javaProtocol.serialize(message).length / 3));
+  }
+
+  @Test
+  public void readJavaSerialization() throws Exception {
+    JavaExternalSerializerProtocol javaProtocol = new JavaExternalSerializerProtocol();
+    javaProtocol.setMuleContext(muleContext);
+
+    TypedValue<String> deserialized = serializationProtocol.deserialize(javaProtocol.serialize(new TypedValue<>("value",
+                                                                                                               DataType.STRING)));
+    assertThat(deserialized.getValue(), equalTo("value"));
+  }
+
+  @Test
+  public void ignoreUnknownFields() throws Exception {
+    byte[] bytes = new byte[] {
+        (byte) 0xC0, 1, // header
+        15, 3, // typed value with an extra field
+        1, 5, 'v', 'a', 'l', 'u', 'e', // value
+        0, // null data type
+        1, 5, 'e', 'x', 't', 'r', 'a' // unknown field
+    };
+
+    TypedValue<String> deserialized = serializationProtocol.deserialize(bytes);
+    assertThat(deserialized.getValue(), equalTo("value"));
+    assertThat(deserialized.getDataType().getType(), equalTo(String.class));
+  }
+
+  @Test
+  public void ignoreUnknownFieldsOfUnknownType() throws Exception {
+    byte[] bytes = new byte[] {
+        (byte) 0xC0, 1, // header
+        15, 3, // typed value with an extra field
+        1, 5, 'v', 'a', 'l', 'u', 'e', // value
+        0, // null data type
+        100, 0, 0, 0, 2, 1, 2 // unknown field of an unknown type, prefixed with its length
+    };
+
+    TypedValue<String> deserialized = serializationProtocol.deserialize(bytes);
+    assertThat(deserialized.getValue(), equalTo("value"));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void rejectCountLargerThanInput() throws Exception {
+    byte[] bytes = new byte[] {
+        (byte) 0xC0, 1, // header
+        12, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7, // list with Integer.MAX_VALUE elements
+        0 // single null element
+    };
+
+    serializationProtocol.deserialize(bytes);
+  }
+
+  private List<Map<String, Object>> createPayload() {
+    List<Map<String, Object>> payload = new ArrayList<>();
+    for (int i = 0; i < 10; ++i) {
+      Map<String, Object> entry = new HashMap<>();
+      entry.put("id", i);
+      entry.put("name", "name" + i);
+      payload.add(entry);
+    }
+    return payload;
+  }
+}
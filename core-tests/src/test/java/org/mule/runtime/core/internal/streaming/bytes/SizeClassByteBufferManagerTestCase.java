@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.util.Reference;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class SizeClassByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  private static final int CAPACITY = 100;
+  private static final int SAME_CLASS_CAPACITY = CAPACITY + 1;
+  private static final int OTHER_CLASS_CAPACITY = 1000;
+
+  private MutableStreamingStatistics statistics = new MutableStreamingStatistics();
+  private SizeClassByteBufferManager bufferManager = newBufferManager(Long.MAX_VALUE / 4, SECONDS.toMillis(10), false);
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void pooling() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.array(), is(sameInstance(newBuffer.array())));
+    assertThat(statistics.getBufferPoolMisses(), is(1L));
+    assertThat(statistics.getBufferPoolHits(), is(1L));
+  }
+
+  @Test
+  public void grow() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+
+    assertThat(buffer.array(), not(sameInstance(newBuffer.array())));
+    assertThat(statistics.getBufferPoolMisses(), is(2L));
+  }
+
+  @Test
+  public void sameSizeClassSharesPool() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer sameClassBuffer = bufferManager.allocate(SAME_CLASS_CAPACITY);
+    assertThat(buffer.array(), is(sameInstance(sameClassBuffer.array())));
+  }
+
+  @Test
+  public void differentPoolsPerSizeClass() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer otherClassBuffer = bufferManager.allocate(OTHER_CLASS_CAPACITY);
+    assertThat(buffer.array(), not(sameInstance(otherClassBuffer.array())));
+  }
+
+  @Test
+  public void capacity() throws Exception {
+    assertCapacity(CAPACITY);
+    assertCapacity(SAME_CLASS_CAPACITY);
+    assertCapacity(OTHER_CLASS_CAPACITY);
+    assertCapacity(0);
+  }
+
+  @Test
+  public void directBuffers() throws Exception {
+    bufferManager.dispose();
+    bufferManager = newBufferManager(Long.MAX_VALUE / 4, SECONDS.toMillis(10), true);
+
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.isDirect(), is(true));
+    assertThat(buffer.capacity(), is(CAPACITY));
+    bufferManager.deallocate(buffer);
+    assertThat(bufferManager.getStreamingMemory(), is(0L));
+  }
+
+  @Test
+  public void doubleDeallocationIsIgnored() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+    bufferManager.deallocate(buffer);
+
+    assertThat(bufferManager.getStreamingMemory(), is(0L));
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer otherBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(newBuffer.array(), not(sameInstance(otherBuffer.array())));
+  }
+
+  @Test
+  public void idleMemoryCountsAgainstLimit() throws Exception {
+    final int bufferCapacity = 1024;
+
+    bufferManager.dispose();
+    bufferManager = newBufferManager(bufferCapacity * 2, SECONDS.toMillis(10), false);
+
+    bufferManager.deallocate(bufferManager.allocate(bufferCapacity));
+    bufferManager.deallocate(bufferManager.allocate(bufferCapacity * 2));
+    assertThat(bufferManager.getIdleMemory(), is((long) bufferCapacity * 2));
+
+    ByteBuffer buffer = bufferManager.allocate(bufferCapacity * 2);
+    assertThat(bufferManager.getStreamingMemory(), is((long) bufferCapacity * 2));
+    assertThat(bufferManager.getIdleMemory(), is(0L));
+    bufferManager.deallocate(buffer);
+  }
+
+  @Test
+  public void disposeReleasesCachesOfAllThreads() throws Exception {
+    Thread thread = new Thread(() -> bufferManager.deallocate(bufferManager.allocate(CAPACITY)));
+    thread.start();
+    thread.join();
+    assertThat(bufferManager.getIdleMemory(), is(not(0L)));
+
+    bufferManager.dispose();
+
+    assertThat(bufferManager.getIdleMemory(), is(0L));
+  }
+
+  @Test
+  public void reclaimsCachesOfDeadThreads() throws Exception {
+    Thread thread = new Thread(() -> bufferManager.deallocate(bufferManager.allocate(CAPACITY)));
+    thread.start();
+    thread.join();
+    thread = null;
+    assertThat(bufferManager.getIdleMemory(), is(not(0L)));
+
+    new PollingProber(10000, 100).check(new JUnitLambdaProbe(() -> {
+      System.gc();
+      return bufferManager.getIdleMemory() == 0L;
+    }));
+  }
+
+  @Test
+  public void limitTotalMemory() throws Exception {
+    final int bufferCapacity = 1024;
+    final long waitTimeoutMillis = SECONDS.toMillis(2);
+
+    bufferManager.dispose();
+    bufferManager = newBufferManager(bufferCapacity * 2, waitTimeoutMillis, false);
+
+    ByteBuffer buffer1 = bufferManager.allocate(bufferCapacity);
+    ByteBuffer buffer2 = bufferManager.allocate(bufferCapacity);
+
+    Latch latch = new Latch();
+    Reference<Boolean> maxMemoryExhausted = new Reference<>(false);
+
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+        latch.release();
+      } catch (Exception e) {
+        maxMemoryExhausted.set(e.getCause() instanceof MaxStreamingMemoryExceededException);
+      }
+    }).start();
+
+    assertThat(latch.await(waitTimeoutMillis * 2, MILLISECONDS), is(false));
+    assertThat(maxMemoryExhausted.get(), is(true));
+    assertThat(statistics.getBufferPoolWaits(), is(1L));
+
+    bufferManager.deallocate(buffer1);
+
+    Latch secondLatch = new Latch();
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+        maxMemoryExhausted.set(false);
+      } finally {
+        secondLatch.release();
+      }
+    }).start();
+
+    assertThat(secondLatch.await(waitTimeoutMillis, MILLISECONDS), is(true));
+    assertThat(maxMemoryExhausted.get(), is(false));
+    bufferManager.deallocate(buffer2);
+  }
+
+  private SizeClassByteBufferManager newBufferManager(long maxMemory, long waitTimeoutMillis, boolean direct) {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory * 2);
+
+    return new SizeClassByteBufferManager(memoryManager, waitTimeoutMillis, statistics, direct);
+  }
+
+  private void assertCapacity(int capacity) {
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    try {
+      assertThat(buffer.capacity(), is(capacity));
+    } finally {
+      bufferManager.deallocate(buffer);
+    }
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.streaming.object;
 import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
 import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
 import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.is;
@@ -23,11 +24,13 @@ import org.mule.runtime.core.api.util.func.CheckedRunnable;
 import org.mule.tck.size.SmallTest;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -154,6 +157,32 @@ public class CursorIteratorProviderTestCase extends AbstractObjectStreamingTestC
                                                         () -> seekAndAssert(cursor2, halfDataLength, halfDataLength))));
   }
 
+  @Test
+  @Description("Many open cursors consume the same stream concurrently, each on its own thread")
+  public void manyOpenCursorsConsumingTheStreamConcurrently() throws Exception {
+    final int cursorCount = 8;
+    ExecutorService cursorsExecutor = newFixedThreadPool(cursorCount);
+    try {
+      CountDownLatch startLatch = new CountDownLatch(1);
+      List<Future<List<Object>>> results = new ArrayList<>(cursorCount);
+      for (int i = 0; i < cursorCount; i++) {
+        results.add(cursorsExecutor.submit(() -> {
+          try (CursorIterator<Object> cursor = streamProvider.openCursor()) {
+            startLatch.await();
+            return read(cursor, data.size());
+          }
+        }));
+      }
+
+      startLatch.countDown();
+      for (Future<List<Object>> result : results) {
+        checkEquals(result.get(5, SECONDS), data);
+      }
+    } finally {
+      cursorsExecutor.shutdownNow();
+    }
+  }
+
   @Test
   @Description("Seek different positions and verify that getPosition() is consistent")
   public void getPosition() throws Exception {
@@ -44,6 +44,16 @@ public class GraphTransformerResolverTestCase extends AbstractTransformationGrap
     assertSame(transformer1, transformer2);
   }
 
+  @Test
+  public void resolvesPreviouslyUnresolvedPairWhenAddsConverter() throws ResolverException {
+    assertNull(graphResolver.resolve(INPUT_STREAM_DATA_TYPE, JSON_DATA_TYPE));
+
+    Converter inputStreamToJson = new MockConverterBuilder().from(INPUT_STREAM_DATA_TYPE).to(JSON_DATA_TYPE).build();
+    graphResolver.transformerChange(inputStreamToJson, TransformerResolver.RegistryAction.ADDED);
+
+    assertSame(inputStreamToJson, graphResolver.resolve(INPUT_STREAM_DATA_TYPE, JSON_DATA_TYPE));
+  }
+
   @Test
   public void clearsCacheWhenAddsConverter() throws ResolverException {
     Converter xmlToJson = new MockConverterBuilder().named("xmlToJson").from(XML_DATA_TYPE).to(JSON_DATA_TYPE).build();
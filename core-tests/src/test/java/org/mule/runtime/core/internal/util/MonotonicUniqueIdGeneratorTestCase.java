@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+@SmallTest
+public class MonotonicUniqueIdGeneratorTestCase extends AbstractMuleTestCase {
+
+  private static final int THREAD_COUNT = 8;
+  private static final int IDS_PER_THREAD = 10000;
+
+  private final MonotonicUniqueIdGenerator generator = new MonotonicUniqueIdGenerator(0x0123456789abcdefL);
+
+  @Test
+  public void hasUuidLayout() {
+    String id = generator.generateId();
+
+    assertThat(id.length(), is(36));
+    assertThat(UUID.fromString(id).toString(), is(id));
+    assertThat(id.endsWith("-0123-456789abcdef"), is(true));
+  }
+
+  @Test
+  public void prefixesClusterNodeId() {
+    String id = generator.generateId(3);
+
+    assertThat(id, startsWith("3-"));
+    assertThat(UUID.fromString(id.substring(2)).toString(), is(id.substring(2)));
+    assertThat(generator.generateId(12), startsWith("12-"));
+  }
+
+  @Test
+  public void idsIncrease() {
+    String previous = generator.generateId();
+    for (int i = 0; i < 1000; ++i) {
+      String id = generator.generateId();
+      assertThat(id.compareTo(previous), greaterThan(0));
+      previous = id;
+    }
+  }
+
+  @Test
+  public void concurrentIdsAreUnique() throws Exception {
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>(THREAD_COUNT);
+    for (int i = 0; i < THREAD_COUNT; ++i) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int j = 0; j < IDS_PER_THREAD; ++j) {
+          ids.add(generator.generateId(1));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(ids.size(), is(THREAD_COUNT * IDS_PER_THREAD));
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.util.journal;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertThat;
 import org.mule.runtime.core.internal.util.journal.queue.LocalQueueTxJournalEntry;
 import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
@@ -16,7 +17,10 @@ import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Rule;
@@ -51,11 +55,65 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void groupCommitConcurrentOperations() throws Exception {
+    final int threadCount = 8;
+    final int operationsPerThread = 50;
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal =
+        openJournal(new GroupCommitConfiguration(5, threadCount, true));
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>(threadCount);
+    for (int i = 0; i < threadCount; ++i) {
+      final int txId = i;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        for (int j = 0; j < operationsPerThread; ++j) {
+          journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 6, "queue", "value" + j));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    long writtenLength = journal.fileLength();
+    journal.close();
+
+    assertThat(writtenLength, greaterThan(0L));
+    journal = openJournal();
+    for (int txId = 0; txId < threadCount; ++txId) {
+      Collection<LocalQueueTxJournalEntry> entries = journal.getLogEntries(txId);
+      assertThat(entries.size(), equalTo(operationsPerThread));
+      assertThat(entries.iterator().next().getValue(), equalTo("value0"));
+    }
+  }
+
+  @Test
+  public void clearDiscardsPendingEntries() throws Exception {
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal();
+    journal.appendOperation(new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "value"));
+    journal.clear();
+    journal.close();
+
+    assertThat(openJournal().size(), equalTo(0));
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
+    return openJournal(GroupCommitConfiguration.fromSystemProperties());
+  }
+
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(GroupCommitConfiguration groupCommitConfiguration) {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
 
-    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
+    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, groupCommitConfiguration);
   }
 
 }
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedLogQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final long SEGMENT_SIZE = 200;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+  }
+
+  @Test
+  public void entriesAreConsumedInOrder() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    for (int i = 0; i < 20; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    assertThat(queueStore.getSize(), is(20));
+
+    for (int i = 0; i < 20; i++) {
+      assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(i)));
+    }
+    assertThat(queueStore.getSize(), is(0));
+    assertThat(queueStore.removeFirst(), is(nullValue()));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void consumedSegmentsAreReclaimed() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    for (int i = 0; i < 20; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    assertThat(segmentFiles() > 1, is(true));
+
+    for (int i = 0; i < 20; i++) {
+      queueStore.removeFirst();
+    }
+    assertThat(segmentFiles(), is(1));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void entriesAddedAfterDrainSpanningSegmentsAreConsumed() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    for (int i = 0; i < 5; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    for (int i = 0; i < 5; i++) {
+      queueStore.removeFirst();
+    }
+    assertThat(queueStore.getSize(), is(0));
+
+    for (int i = 0; i < 20; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    assertThat(segmentFiles() > 1, is(true));
+    for (int i = 0; i < 20; i++) {
+      assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(i)));
+    }
+    assertThat(queueStore.removeFirst(), is(nullValue()));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void drainedHeadIsReclaimedOnRecovery() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    for (int i = 0; i < 5; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    for (int i = 0; i < 5; i++) {
+      queueStore.removeFirst();
+    }
+    for (int i = 0; i < 20; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(20));
+    for (int i = 0; i < 20; i++) {
+      assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(i)));
+    }
+    queueStore.dispose();
+  }
+
+  @Test
+  public void recoverPendingEntriesAfterClose() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    for (int i = 0; i < 20; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    for (int i = 0; i < 7; i++) {
+      queueStore.removeFirst();
+    }
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(13));
+    for (int i = 7; i < 20; i++) {
+      assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(i)));
+    }
+    queueStore.dispose();
+  }
+
+  @Test
+  public void untakenEntriesAreConsumedFirst() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.add(createTestDataForIndex(1));
+    queueStore.add(createTestDataForIndex(2));
+    queueStore.addFirst(createTestDataForIndex(0));
+    queueStore.close();
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(3));
+    for (int i = 0; i < 3; i++) {
+      assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(i)));
+    }
+    queueStore.dispose();
+  }
+
+  @Test
+  public void partiallyWrittenEntryIsDiscardedOnRecovery() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.add(createTestDataForIndex(0));
+    queueStore.close();
+
+    File segment = lastSegmentFile();
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.seek(file.length());
+      file.writeInt(1000);
+      file.writeInt(0);
+      file.write(new byte[] {1, 2, 3});
+    }
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(1));
+    queueStore.add(createTestDataForIndex(1));
+    assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(0)));
+    assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(1)));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void partiallyWrittenCursorFallsBackToPreviousOne() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    for (int i = 0; i < 3; i++) {
+      queueStore.add(createTestDataForIndex(i));
+    }
+    queueStore.removeFirst();
+    queueStore.removeFirst();
+    queueStore.close();
+
+    File cursor = new File(new File(workingDirectory.getRoot(), "queuestore"), TEST_QUEUE_NAME + "-cursor");
+    try (RandomAccessFile file = new RandomAccessFile(cursor, "rw")) {
+      long firstGeneration = file.readLong();
+      file.seek(28);
+      long secondGeneration = file.readLong();
+      // corrupt the checksum of the latest cursor
+      long checksumPosition = (firstGeneration > secondGeneration ? 0 : 28) + 24;
+      file.seek(checksumPosition);
+      int checksum = file.readInt();
+      file.seek(checksumPosition);
+      file.writeInt(~checksum);
+    }
+
+    queueStore = createTestQueueStore();
+    assertThat(queueStore.getSize(), is(2));
+    assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(1)));
+    assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(2)));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void concurrentAddsAreRecovered() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final int thread = t;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10; i++) {
+          queueStore.putNow(createTestDataForIndex(thread * 10 + i));
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    queueStore.close();
+
+    SegmentedLogQueueStoreDelegate recovered = createTestQueueStore();
+    assertThat(recovered.getSize(), is(40));
+    Set<String> values = new HashSet<>();
+    for (int i = 0; i < 40; i++) {
+      values.add((String) recovered.removeFirst());
+    }
+    assertThat(values.size(), is(40));
+    recovered.dispose();
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.addAll(asList(createTestDataForIndex(0), createTestDataForIndex(1), createTestDataForIndex(2)));
+
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(true));
+    queueStore.remove(createTestDataForIndex(1));
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+    assertThat(queueStore.getSize(), is(2));
+    assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(0)));
+    assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(2)));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.add("item");
+    assertThat(queueFiles().length > 0, is(true));
+
+    queueStore.dispose();
+    assertThat(queueFiles().length, is(0));
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() throws IOException {
+    for (String testName : new String[] {"test:/test", "test?test", "seda.queue(post:\\Customer:ApiTest-config.1)"}) {
+      SegmentedLogQueueStoreDelegate queueStore =
+          new SegmentedLogQueueStoreDelegate(testName, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+      queueStore.add("item");
+      queueStore.dispose();
+    }
+  }
+
+  private int segmentFiles() {
+    int count = 0;
+    for (File file : queueFiles()) {
+      if (file.getName().endsWith(".seg")) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private File lastSegmentFile() {
+    File last = null;
+    for (File file : queueFiles()) {
+      if (file.getName().endsWith(".seg") && (last == null || file.getName().compareTo(last.getName()) > 0)) {
+        last = file;
+      }
+    }
+    return last;
+  }
+
+  private File[] queueFiles() {
+    return new File(workingDirectory.getRoot(), "queuestore").listFiles((dir, name) -> name.startsWith(TEST_QUEUE_NAME));
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private SegmentedLogQueueStoreDelegate createTestQueueStore() {
+    return new SegmentedLogQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0,
+                                              SEGMENT_SIZE, 0);
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.IndexedPersistentObjectStorePartition.DATA_FILE;
+import static org.mule.runtime.core.internal.util.store.IndexedPersistentObjectStorePartition.isIndexedPartition;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class IndexedPersistentObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  private MuleContext muleContext = mockMuleContext();
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private IndexedPersistentObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParentFile().getPath());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = new IndexedPersistentObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    partition.open();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    partition.close();
+  }
+
+  @Test
+  public void storeAndRetrieve() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+
+    assertThat(partition.contains("key1"), is(true));
+    assertThat(partition.retrieve("key1"), is("value1"));
+    assertThat(partition.retrieve("key2"), is("value2"));
+    assertThat(partition.allKeys(), containsInAnyOrder("key1", "key2"));
+    assertThat(isIndexedPartition(objectStoreFolder.getRoot()), is(true));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeExistingKey() throws Exception {
+    partition.store("key", "value");
+    partition.store("key", "otherValue");
+  }
+
+  @Test
+  public void indicatesUnexistentKeyOnRetrieveError() throws ObjectStoreException {
+    try {
+      partition.retrieve("nonExistentKey");
+      fail("Supposed to thrown an exception as key is not valid");
+    } catch (ObjectDoesNotExistException e) {
+      assertThat(e.getMessage().contains("nonExistentKey"), is(true));
+    }
+  }
+
+  @Test
+  public void remove() throws Exception {
+    partition.store("key", "value");
+
+    assertThat(partition.remove("key"), is("value"));
+    assertThat(partition.contains("key"), is(false));
+
+    partition.store("key", "newValue");
+    assertThat(partition.retrieve("key"), is("newValue"));
+  }
+
+  @Test
+  public void restoresEntriesOnReopen() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+    partition.store("key3", "value3");
+    partition.remove("key2");
+    partition.close();
+
+    partition = new IndexedPersistentObjectStorePartition<>(muleContext, objectStoreFolder.getRoot());
+    partition.open();
+
+    assertThat(partition.getPartitionName(), is("test"));
+    assertThat(partition.retrieveAll().keySet(), contains("key1", "key3"));
+    assertThat(partition.retrieve("key3"), is("value3"));
+  }
+
+  @Test
+  public void discardsPartiallyWrittenRecord() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+    partition.close();
+
+    File dataFile = new File(objectStoreFolder.getRoot(), DATA_FILE);
+    try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    partition.open();
+    assertThat(partition.allKeys(), contains("key1"));
+
+    partition.store("key2", "otherValue");
+    partition.close();
+    partition.open();
+    assertThat(partition.retrieve("key2"), is("otherValue"));
+  }
+
+  @Test
+  public void expireByMaxEntries() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+
+    partition.expire(UNBOUNDED, 3);
+
+    assertThat(partition.retrieveAll().keySet(), contains("key7", "key8", "key9"));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store("old", "value");
+    Thread.sleep(50);
+    partition.store("new", "value");
+
+    partition.expire(40, UNBOUNDED);
+
+    assertThat(partition.allKeys(), contains("new"));
+  }
+
+  @Test
+  public void compactsDataFileOnExpire() throws Exception {
+    final String value = new String(new char[8 * 1024]);
+    for (int i = 0; i < 500; i++) {
+      partition.store("key" + i, value);
+    }
+
+    File dataFile = new File(objectStoreFolder.getRoot(), DATA_FILE);
+    final long uncompactedSize = dataFile.length();
+
+    partition.expire(UNBOUNDED, 10);
+
+    assertThat(dataFile.length(), lessThan(uncompactedSize / 10));
+    assertThat(partition.allKeys().size(), is(10));
+    assertThat(partition.retrieve("key499"), is(value));
+
+    partition.store("newKey", "newValue");
+    partition.close();
+    partition.open();
+    assertThat(partition.allKeys().size(), is(11));
+    assertThat(partition.retrieve("newKey"), is("newValue"));
+  }
+
+  @Test
+  public void keepsWorkingWhenCompactionFails() throws Exception {
+    final String value = new String(new char[8 * 1024]);
+    for (int i = 0; i < 500; i++) {
+      partition.store("key" + i, value);
+    }
+    // the compaction file can't be created where a directory already exists
+    new File(objectStoreFolder.getRoot(), DATA_FILE + ".compact").mkdir();
+
+    try {
+      partition.expire(UNBOUNDED, 10);
+      fail("Compaction was expected to fail");
+    } catch (ObjectStoreException e) {
+      // expected
+    }
+
+    assertThat(partition.allKeys().size(), is(10));
+    assertThat(partition.retrieve("key499"), is(value));
+    partition.store("newKey", "newValue");
+    partition.close();
+    partition.open();
+    assertThat(partition.allKeys().size(), is(11));
+    assertThat(partition.retrieve("newKey"), is("newValue"));
+  }
+
+  @Test
+  public void restoresEntriesWrittenWithSyncInterval() throws Exception {
+    partition.close();
+    partition = new IndexedPersistentObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), 60000);
+    partition.open();
+
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+    partition.expire(UNBOUNDED, UNBOUNDED);
+    partition.store("key3", "value3");
+    partition.close();
+    partition.open();
+
+    assertThat(partition.retrieveAll().keySet(), contains("key1", "key2", "key3"));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store("key", "value");
+    partition.clear();
+
+    assertThat(partition.allKeys(), is(empty()));
+    partition.close();
+    partition.open();
+    assertThat(partition.allKeys(), is(empty()));
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.util.store;
 
 import static java.util.Optional.of;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -17,6 +18,8 @@ import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
 import static org.mule.runtime.api.store.ObjectStoreManager.BASE_IN_MEMORY_OBJECT_STORE_KEY;
 import static org.mule.runtime.api.store.ObjectStoreManager.BASE_PERSISTENT_OBJECT_STORE_KEY;
+import static org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore.OBJECT_STORE_DIR;
+import static org.mule.runtime.core.internal.util.store.IndexedPersistentObjectStorePartition.isIndexedPartition;
 import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
 
 import org.mule.runtime.api.artifact.Registry;
@@ -42,6 +45,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.Serializable;
 import java.util.NoSuchElementException;
 
@@ -143,6 +147,24 @@ public class MuleObjectStoreManagerTestCase extends AbstractMuleTestCase {
     }
   }
 
+  @Test
+  public void indexedPersistentPartitionsSelectedThroughManager() throws ObjectStoreException, InitialisationException {
+    storeManager.setUseIndexedPersistentPartitions(true);
+    try {
+      ObjectStorePartition<Serializable> store = createStorePartition(TEST_PARTITION_NAME, true);
+      store.store(TEST_KEY, TEST_VALUE);
+
+      assertThat(store.retrieve(TEST_KEY), is(TEST_VALUE));
+      File[] partitionDirectories = new File(tempWorkDir.getRoot(), OBJECT_STORE_DIR).listFiles(File::isDirectory);
+      assertThat(partitionDirectories.length, greaterThan(0));
+      for (File partitionDirectory : partitionDirectories) {
+        assertThat(isIndexedPartition(partitionDirectory), is(true));
+      }
+    } finally {
+      storeManager.dispose();
+    }
+  }
+
   private void assertMonitorsCount(final int expectedValue) {
     new PollingProber(POLLING_TIMEOUT, POLLING_DELAY).check(new Probe() {
 
@@ -10,7 +10,9 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.internal.store.ObjectStorePartitionStatistics;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
@@ -88,5 +90,33 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
   }
 
+  @Test
+  public void expireSkipsRemovedEntries() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    store.expire(UNBOUNDED, 1, TEST_PARTITION);
 
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(false));
+  }
+
+  @Test
+  public void partitionStatistics() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.expire(UNBOUNDED, 2, TEST_PARTITION);
+    store.expire(1, UNBOUNDED, TEST_PARTITION);
+
+    ObjectStorePartitionStatistics statistics = store.getPartitionStatistics(TEST_PARTITION);
+    assertThat(statistics.getSize(), is(1));
+    assertThat(statistics.getEvictedEntries(), is(1L));
+    assertThat(statistics.getExpiredEntries(), is(1L));
+  }
 }
@@ -42,6 +42,7 @@ import org.mule.runtime.core.api.util.queue.QueueManager;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import javax.transaction.TransactionManager;
 
@@ -198,6 +199,19 @@ public interface MuleContext extends Lifecycle {
    */
   void withLifecycleLock(Runnable command);
 
+  /**
+   * Hands the lock for the context's lifecycle, held by the current thread, off to the threads of the given executor while they
+   * run the commands of a lifecycle transition the current thread is applying and waiting for. Those threads don't block on the
+   * lock in {@link #withLifecycleLock(Runnable)}, but still run such commands one at a time.
+   *
+   * @param executor the executor that runs the commands of the transition
+   * @return an executor that runs the commands on {@code executor} on behalf of the current thread.
+   * @since 4.1
+   */
+  default Executor withLifecycleLockOwnership(Executor executor) {
+    return executor;
+  }
+
   SystemExceptionHandler getExceptionListener();
 
   void setExceptionListener(SystemExceptionHandler exceptionListener);
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.context.notification;
+
+import org.mule.runtime.api.notification.NotificationListener;
+
+/**
+ * Delivery metrics of a listener notified asynchronously.
+ *
+ * @see ServerNotificationManager#getAsyncListenerStatistics()
+ * @since 4.1
+ */
+public interface AsyncNotificationListenerStatistics {
+
+  /**
+   * @return the listener the notifications are delivered to.
+   */
+  NotificationListener getListener();
+
+  /**
+   * @return the amount of notifications pending delivery.
+   */
+  int getQueueDepth();
+
+  /**
+   * @return the maximum amount of notifications pending delivery.
+   */
+  int getCapacity();
+
+  /**
+   * @return the amount of notifications discarded because the buffer was full or the listener was removed.
+   */
+  long getDroppedCount();
+
+  /**
+   * @return the amount of notifications handed to the listener.
+   */
+  long getDeliveredCount();
+}
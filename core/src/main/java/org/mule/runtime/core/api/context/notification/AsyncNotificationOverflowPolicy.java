@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.context.notification;
+
+/**
+ * What to do with a notification for a listener that is notified asynchronously when its buffer of pending notifications is
+ * full.
+ *
+ * @see ServerNotificationManager#addAsyncListenerType(Class)
+ * @since 4.1
+ */
+public enum AsyncNotificationOverflowPolicy {
+
+  /**
+   * The notification is discarded.
+   */
+  DROP,
+
+  /**
+   * Once the buffer is half full, only one of every {@code sampleRate} notifications is buffered and the rest are discarded.
+   * Notifications are discarded while the buffer is full.
+   */
+  SAMPLE,
+
+  /**
+   * The thread firing the notification waits until there's room for it in the buffer, for a bounded time after which the
+   * notification is discarded. Notifications fired by listeners while being notified are discarded instead of waiting.
+   */
+  BLOCK
+}
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.api.context.notification;
 
 import static java.lang.Thread.currentThread;
+import static java.util.Collections.unmodifiableCollection;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -46,6 +47,7 @@ import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.context.notification.AsyncNotificationDispatcher;
 import org.mule.runtime.core.internal.context.notification.Configuration;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
@@ -55,6 +57,8 @@ import org.slf4j.Logger;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -84,6 +88,13 @@ import java.util.function.Predicate;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>
+ * Listeners of the types registered with {@link #addAsyncListenerType(Class)} are notified asynchronously even for synchronous
+ * notifications: each of them gets a bounded buffer that the firing threads add notifications to without locking, and that is
+ * drained in batches on the notification schedulers. What happens when a buffer is full is given by the
+ * {@link AsyncNotificationOverflowPolicy}. All other listeners keep being notified as before.
+ * </p>
  */
 public class ServerNotificationManager implements ServerNotificationHandler, MuleContextAware {
 
@@ -98,6 +109,15 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
 
+  private final Set<Class<? extends NotificationListener>> asyncListenerTypes = new CopyOnWriteArraySet<>();
+  private final Map<Class<?>, Boolean> asyncListenerClasses = new ConcurrentHashMap<>();
+  private final Map<NotificationListener, AsyncNotificationDispatcher> asyncDispatchers = new ConcurrentHashMap<>();
+  private int asyncBufferSize = 1024;
+  private int asyncBatchSize = 64;
+  private AsyncNotificationOverflowPolicy asyncOverflowPolicy = AsyncNotificationOverflowPolicy.DROP;
+  private int asyncSampleRate = 10;
+  private long asyncMaxBlockMillis = AsyncNotificationDispatcher.DEFAULT_MAX_BLOCK_MILLIS;
+
   @Override
   public boolean isNotificationDynamic() {
     return dynamic;
@@ -121,6 +141,69 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     notificationsIoScheduler = muleContext.getSchedulerService().ioScheduler();
   }
 
+  /**
+   * Makes listeners of the given type, or of any subtype, be notified through a buffer drained in batches off the thread that
+   * fires the notifications.
+   *
+   * @param listenerType the type of the listeners to notify asynchronously
+   */
+  public void addAsyncListenerType(Class<? extends NotificationListener> listenerType) {
+    asyncListenerTypes.add(listenerType);
+    asyncListenerClasses.clear();
+  }
+
+  /**
+   * Replaces the types of the listeners notified asynchronously.
+   *
+   * @param listenerTypes the types of the listeners to notify asynchronously, along with their subtypes
+   * @see #addAsyncListenerType(Class)
+   */
+  public void setAsyncListenerTypes(Collection<Class<? extends NotificationListener>> listenerTypes) {
+    asyncListenerTypes.retainAll(listenerTypes);
+    asyncListenerTypes.addAll(listenerTypes);
+    asyncListenerClasses.clear();
+  }
+
+  /**
+   * @param asyncBufferSize the maximum amount of notifications pending delivery to each asynchronous listener, rounded down to a
+   *        power of two. Applies to listeners notified for the first time after this is set.
+   */
+  public void setAsyncBufferSize(int asyncBufferSize) {
+    this.asyncBufferSize = asyncBufferSize;
+  }
+
+  /**
+   * @param asyncBatchSize the maximum amount of notifications handed to an asynchronous listener by each scheduled task.
+   *        Applies to listeners notified for the first time after this is set.
+   */
+  public void setAsyncBatchSize(int asyncBatchSize) {
+    this.asyncBatchSize = asyncBatchSize;
+  }
+
+  /**
+   * @param asyncOverflowPolicy what to do with notifications for an asynchronous listener whose buffer is full. Applies to
+   *        listeners notified for the first time after this is set.
+   */
+  public void setAsyncOverflowPolicy(AsyncNotificationOverflowPolicy asyncOverflowPolicy) {
+    this.asyncOverflowPolicy = asyncOverflowPolicy;
+  }
+
+  /**
+   * @param asyncSampleRate with {@link AsyncNotificationOverflowPolicy#SAMPLE}, one of how many notifications is kept once the
+   *        buffer of a listener is half full.
+   */
+  public void setAsyncSampleRate(int asyncSampleRate) {
+    this.asyncSampleRate = asyncSampleRate;
+  }
+
+  /**
+   * @param asyncMaxBlockMillis with {@link AsyncNotificationOverflowPolicy#BLOCK}, the maximum time a thread firing a
+   *        notification waits for room in the buffer of a listener before the notification is discarded.
+   */
+  public void setAsyncMaxBlockMillis(long asyncMaxBlockMillis) {
+    this.asyncMaxBlockMillis = asyncMaxBlockMillis;
+  }
+
   public void addInterfaceToType(Class<? extends NotificationListener> iface,
                                  Class<? extends Notification> event) {
     configuration.addInterfaceToType(iface, event);
@@ -149,6 +232,10 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    AsyncNotificationDispatcher dispatcher = asyncDispatchers.remove(listener);
+    if (dispatcher != null) {
+      dispatcher.dispose();
+    }
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -186,17 +273,29 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       if (notification instanceof AbstractServerNotification) {
         ((AbstractServerNotification) notification).setServerId(muleContext.getId());
       }
+      NotifierCallback notifier;
       if (notification.isSynchronous()) {
-        notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
+        notifier = (listener, nfn) -> listener.onNotification(nfn);
       } else {
-        notifyListeners(notification, (listener, nfn) -> {
+        notifier = (listener, nfn) -> {
           if (listener.isBlocking()) {
             notificationsIoScheduler.submit(() -> listener.onNotification(nfn));
           } else {
             notificationsLiteScheduler.submit(() -> listener.onNotification(nfn));
           }
-        });
+        };
       }
+      if (!asyncListenerTypes.isEmpty()) {
+        final NotifierCallback defaultNotifier = notifier;
+        notifier = (listener, nfn) -> {
+          if (isAsyncListener(listener)) {
+            getAsyncDispatcher(listener).dispatch(nfn);
+          } else {
+            defaultNotifier.notify(listener, nfn);
+          }
+        };
+      }
+      notifyListeners(notification, notifier);
     } finally {
       if (0 == activeFires.decrementAndGet() && disposed.get()) {
         disposeLatch.countDown();
@@ -208,6 +307,33 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     configuration.getPolicy().dispatch(notification, notifier);
   }
 
+  private boolean isAsyncListener(NotificationListener listener) {
+    return asyncListenerClasses.computeIfAbsent(listener.getClass(), listenerClass -> {
+      for (Class<? extends NotificationListener> asyncListenerType : asyncListenerTypes) {
+        if (asyncListenerType.isAssignableFrom(listenerClass)) {
+          return true;
+        }
+      }
+      return false;
+    });
+  }
+
+  private AsyncNotificationDispatcher getAsyncDispatcher(NotificationListener listener) {
+    return asyncDispatchers
+        .computeIfAbsent(listener, l -> new AsyncNotificationDispatcher(l,
+                                                                        l.isBlocking() ? notificationsIoScheduler
+                                                                            : notificationsLiteScheduler,
+                                                                        asyncBufferSize, asyncBatchSize, asyncOverflowPolicy,
+                                                                        asyncSampleRate, asyncMaxBlockMillis));
+  }
+
+  /**
+   * @return the queue depth and drop counters of the listeners notified asynchronously so far.
+   */
+  public Collection<AsyncNotificationListenerStatistics> getAsyncListenerStatistics() {
+    return unmodifiableCollection(asyncDispatchers.values());
+  }
+
   @Override
   public boolean isNotificationEnabled(Class<? extends Notification> type) {
     boolean enabled = false;
@@ -236,6 +362,9 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
     }
 
+    asyncDispatchers.values().forEach(AsyncNotificationDispatcher::dispose);
+    asyncDispatchers.clear();
+
     if (notificationsLiteScheduler != null) {
       notificationsLiteScheduler.stop();
       notificationsLiteScheduler = null;
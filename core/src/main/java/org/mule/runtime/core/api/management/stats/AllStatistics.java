@@ -6,21 +6,24 @@
  */
 package org.mule.runtime.core.api.management.stats;
 
+import static java.util.Collections.unmodifiableCollection;
 import org.mule.runtime.core.internal.management.stats.ApplicationStatistics;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <code>AllStatistics</code> TODO
  */
 public class AllStatistics {
 
-  private boolean isStatisticsEnabled;
-  private long startTime;
+  private volatile boolean isStatisticsEnabled;
+  private volatile long startTime;
   private ApplicationStatistics appStats;
-  private Map<String, FlowConstructStatistics> flowConstructStats = new HashMap<String, FlowConstructStatistics>();
+  private Map<String, FlowConstructStatistics> flowConstructStats = new ConcurrentHashMap<>();
+  private Set<ConnectionPoolStatistics> connectionPoolStats = ConcurrentHashMap.newKeySet();
 
   /**
    * 
@@ -32,7 +35,7 @@ public class AllStatistics {
     add(appStats);
   }
 
-  public synchronized void clear() {
+  public void clear() {
     for (FlowConstructStatistics statistics : getServiceStatistics()) {
       statistics.clear();
     }
@@ -57,31 +60,63 @@ public class AllStatistics {
     }
   }
 
-  public synchronized long getStartTime() {
+  public long getStartTime() {
     return startTime;
   }
 
-  public synchronized void setStartTime(long startTime) {
+  public void setStartTime(long startTime) {
     this.startTime = startTime;
   }
 
-  public synchronized void add(FlowConstructStatistics stat) {
+  public void add(FlowConstructStatistics stat) {
     if (stat != null) {
       flowConstructStats.put(stat.getName(), stat);
     }
   }
 
-  public synchronized void remove(FlowConstructStatistics stat) {
+  public void remove(FlowConstructStatistics stat) {
     if (stat != null) {
       flowConstructStats.remove(stat.getName());
     }
   }
 
-  public synchronized Collection<FlowConstructStatistics> getServiceStatistics() {
+  public Collection<FlowConstructStatistics> getServiceStatistics() {
     return flowConstructStats.values();
   }
 
   public FlowConstructStatistics getApplicationStatistics() {
     return appStats;
   }
+
+  /**
+   * Registers the statistics of a connection pool, which is done when the pool is created.
+   *
+   * @param stat the statistics of the pool
+   * @since 4.1
+   */
+  public void addConnectionPoolStatistics(ConnectionPoolStatistics stat) {
+    if (stat != null) {
+      connectionPoolStats.add(stat);
+    }
+  }
+
+  /**
+   * Unregisters the statistics of a connection pool, which is done when the pool is closed.
+   *
+   * @param stat the statistics of the pool
+   * @since 4.1
+   */
+  public void removeConnectionPoolStatistics(ConnectionPoolStatistics stat) {
+    if (stat != null) {
+      connectionPoolStats.remove(stat);
+    }
+  }
+
+  /**
+   * @return the statistics of the open connection pools.
+   * @since 4.1
+   */
+  public Collection<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+    return unmodifiableCollection(connectionPoolStats);
+  }
 }
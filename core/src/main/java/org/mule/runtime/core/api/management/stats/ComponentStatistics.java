@@ -8,12 +8,20 @@ package org.mule.runtime.core.api.management.stats;
 
 import org.mule.runtime.core.api.util.StringUtils;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. Measurements are recorded without
+ * locking, so the values read while events are being recorded may not be consistent with each other - occasional errors in
+ * reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * <p>
+ * Besides the minimum, maximum and average, the distribution of the execution times is kept in a {@link LatencyHistogram}, from
+ * which percentiles can be queried. The histogram is only allocated once the first execution time is recorded, so statistics
+ * which are never enabled don't take its memory.
  */
 public class ComponentStatistics implements Statistics {
 
@@ -24,14 +32,14 @@ public class ComponentStatistics implements Statistics {
    */
   private static final long serialVersionUID = -2086999226732861674L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
-  private boolean enabled = false;
+  private final AtomicLong minExecutionTime = new AtomicLong();
+  private final AtomicLong maxExecutionTime = new AtomicLong();
+  private final LongAdder executedEvent = new LongAdder();
+  private final LongAdder totalExecTime = new LongAdder();
+  private volatile LatencyHistogram executionTimes;
+  private volatile boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private final AtomicLong currentIntervalStartTime = new AtomicLong();
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -63,11 +71,14 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(0);
+    maxExecutionTime.set(0);
+    executedEvent.reset();
+    totalExecTime.reset();
+    LatencyHistogram histogram = executionTimes;
+    if (histogram != null) {
+      histogram.clear();
+    }
   }
 
   /**
@@ -100,7 +111,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -109,7 +120,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    return minExecutionTime.get();
   }
 
   /**
@@ -119,7 +130,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -131,7 +142,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -141,34 +152,20 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    checkInterval();
 
     if (first) {
-      executedEvent++;
+      executedEvent.increment();
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
-      long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
+    if (executedEvent.sum() > 0) {
+      totalExecTime.add(ProcessingTime.getEffectiveTime(branch));
+      updateMax(ProcessingTime.getEffectiveTime(total));
     }
   }
 
@@ -179,12 +176,11 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
+  public void addCompleteExecutionTime(long time) {
+    if (executedEvent.sum() > 0) {
       long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
-      }
+      updateMin(effectiveTime);
+      getExecutionTimes().record(effectiveTime);
     }
   }
 
@@ -195,31 +191,16 @@ public class ComponentStatistics implements Statistics {
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+  public void addExecutionTime(long time) {
+    checkInterval();
 
-    executedEvent++;
+    executedEvent.increment();
 
     long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
-
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
-    }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
-    }
-    averageExecutionTime = totalExecTime / executedEvent;
+    totalExecTime.add(effectiveTime);
+    updateMin(effectiveTime);
+    updateMax(effectiveTime);
+    getExecutionTimes().record(effectiveTime);
   }
 
   /**
@@ -228,7 +209,71 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
   }
 
+  /**
+   * Returns the distribution of the complete execution times recorded since last cleared. Unlike the other statistics, it can be
+   * read while events are being recorded without blocking them.
+   *
+   * @return a snapshot of the execution times.
+   */
+  public LatencySnapshot getExecutionTimeSnapshot() {
+    LatencyHistogram histogram = executionTimes;
+    return histogram == null ? LatencySnapshot.empty() : histogram.snapshot();
+  }
+
+  /**
+   * @param percentile the percentile to get, between 0 and 100
+   * @return the complete execution time below which the given {@code percentile} of the events recorded since last cleared are.
+   */
+  public long getExecutionTimePercentile(double percentile) {
+    return getExecutionTimeSnapshot().getValueAtPercentile(percentile);
+  }
+
+  private LatencyHistogram getExecutionTimes() {
+    LatencyHistogram histogram = executionTimes;
+    if (histogram == null) {
+      synchronized (this) {
+        histogram = executionTimes;
+        if (histogram == null) {
+          histogram = new LatencyHistogram();
+          executionTimes = histogram;
+        }
+      }
+    }
+    return histogram;
+  }
+
+  /**
+   * Clears the statistics if the configured {@code statIntervalTime} elapsed. Only one of the threads that find it elapsed
+   * clears them.
+   */
+  private void checkInterval() {
+    if (statIntervalTimeEnabled) {
+      long currentTime = System.currentTimeMillis();
+      currentIntervalStartTime.compareAndSet(0, currentTime);
+
+      long intervalStartTime = currentIntervalStartTime.get();
+      if ((currentTime - intervalStartTime) > intervalTime
+          && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime)) {
+        clear();
+      }
+    }
+  }
+
+  private void updateMin(long time) {
+    long current = minExecutionTime.get();
+    while ((current == 0 || time < current) && !minExecutionTime.compareAndSet(current, time)) {
+      current = minExecutionTime.get();
+    }
+  }
+
+  private void updateMax(long time) {
+    long current = maxExecutionTime.get();
+    while ((current == 0 || time > current) && !maxExecutionTime.compareAndSet(current, time)) {
+      current = maxExecutionTime.get();
+    }
+  }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Usage metrics of a pool of connections. The pools of an application are available through
+ * {@link AllStatistics#getConnectionPoolStatistics()} while they are open.
+ * <p>
+ * The metrics are always collected, regardless of whether statistics are {@link AllStatistics#isEnabled() enabled}.
+ *
+ * @since 4.1
+ */
+public interface ConnectionPoolStatistics extends Statistics {
+
+  /**
+   * @return the name of the pool, derived from the connection provider it obtains the connections from.
+   */
+  String getName();
+
+  /**
+   * @return the amount of connections currently borrowed. Idle connections being evicted or validated are not included.
+   */
+  int getNumActive();
+
+  /**
+   * @return the amount of connections currently idle in the pool.
+   */
+  int getNumIdle();
+
+  /**
+   * @param unit the unit in which to express the result
+   * @return the total time borrowers spent waiting for the pool to have room for their connection.
+   */
+  long getWaitTime(TimeUnit unit);
+
+  /**
+   * @return the amount of connections created by the pool.
+   */
+  long getCreatedCount();
+
+  /**
+   * @return the amount of connections destroyed by the pool, because they were invalidated, evicted or not valid.
+   */
+  long getDestroyedCount();
+
+  /**
+   * @return the amount of idle connections destroyed because they were not valid.
+   */
+  long getValidationFailureCount();
+}
@@ -61,6 +61,24 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getTotalProcessingTime();
 
+  /**
+   * @return the distribution of the time required to process the events, which may be subtracted from a previous snapshot to get
+   *         the one of an interval.
+   * @since 4.1
+   */
+  default LatencySnapshot getProcessingTimeSnapshot() {
+    return LatencySnapshot.empty();
+  }
+
+  /**
+   * @param percentile the percentile to get, between 0 and 100
+   * @return the time below which the given {@code percentile} of the processed events were processed
+   * @since 4.1
+   */
+  default long getProcessingTimePercentile(double percentile) {
+    return getProcessingTimeSnapshot().getValueAtPercentile(percentile);
+  }
+
   /**
    * @return the number of execution errors at a given time
    */
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.Thread.currentThread;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, with a bounded relative error.
+ * <p>
+ * Values lower than {@value #SUB_BUCKET_COUNT} are counted exactly. Bigger values are counted in buckets whose width is
+ * proportional to their magnitude, so that the value reported for a bucket is at most {@code 1/}{@value #SUB_BUCKET_COUNT}
+ * off the recorded ones.
+ * <p>
+ * Counts are striped by thread, so that threads recording at the same time seldom update the same memory. A
+ * {@link #snapshot()} may be taken at any time without blocking the threads recording values, and the difference between two
+ * snapshots gives the values recorded in that interval.
+ *
+ * @since 4.1
+ */
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = -5213381296540734236L;
+
+  static final int SUB_BUCKET_BITS = 5;
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * Values up to {@code 2^MAX_EXPONENT} are tracked, bigger ones are counted in the last bucket.
+   */
+  private static final int MAX_EXPONENT = 40;
+  static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+  private static final int MAX_STRIPES = 8;
+
+  private final AtomicLongArray[] stripes;
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  public LatencyHistogram() {
+    int stripeCount = Integer.highestOneBit(min(getRuntime().availableProcessors(), MAX_STRIPES));
+    stripes = new AtomicLongArray[stripeCount];
+    for (int i = 0; i < stripeCount; ++i) {
+      stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+    }
+  }
+
+  /**
+   * Records a value. Negative values are recorded as zero.
+   *
+   * @param value the value to record
+   */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+
+    stripes[(int) currentThread().getId() & (stripes.length - 1)].incrementAndGet(bucketIndex(value));
+    sum.add(value);
+
+    long currentMax = max.get();
+    while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+      currentMax = max.get();
+    }
+  }
+
+  /**
+   * @return the counts recorded so far. Values being recorded concurrently may or may not be part of it.
+   */
+  public LatencySnapshot snapshot() {
+    long[] counts = new long[BUCKET_COUNT];
+    for (AtomicLongArray stripe : stripes) {
+      for (int i = 0; i < BUCKET_COUNT; ++i) {
+        counts[i] += stripe.get(i);
+      }
+    }
+    return new LatencySnapshot(counts, sum.sum(), max.get());
+  }
+
+  /**
+   * Discards the recorded values. Values being recorded concurrently may or may not be discarded.
+   */
+  public void clear() {
+    for (AtomicLongArray stripe : stripes) {
+      for (int i = 0; i < BUCKET_COUNT; ++i) {
+        stripe.set(i, 0);
+      }
+    }
+    sum.reset();
+    max.set(0);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    int shift = 63 - numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int index = (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    return min(index, BUCKET_COUNT - 1);
+  }
+
+  static long lowestValue(int bucketIndex) {
+    if (bucketIndex < SUB_BUCKET_COUNT) {
+      return bucketIndex;
+    }
+
+    int shift = bucketIndex / SUB_BUCKET_COUNT - 1;
+    return (long) (bucketIndex % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+  }
+
+  static long highestValue(int bucketIndex) {
+    if (bucketIndex < SUB_BUCKET_COUNT) {
+      return bucketIndex;
+    }
+
+    int shift = bucketIndex / SUB_BUCKET_COUNT - 1;
+    return lowestValue(bucketIndex) + (1L << shift) - 1;
+  }
+}
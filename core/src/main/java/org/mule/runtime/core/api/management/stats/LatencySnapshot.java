@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.management.stats.LatencyHistogram.BUCKET_COUNT;
+import static org.mule.runtime.core.api.management.stats.LatencyHistogram.highestValue;
+import static org.mule.runtime.core.api.management.stats.LatencyHistogram.lowestValue;
+
+/**
+ * Immutable copy of the counts of a {@link LatencyHistogram} at a given time.
+ * <p>
+ * Snapshots can be {@link #merge(LatencySnapshot) merged}, for example to aggregate the latencies of many flows, and
+ * {@link #minus(LatencySnapshot) subtracted}, to get the latencies recorded between two snapshots of the same histogram.
+ *
+ * @since 4.1
+ */
+public final class LatencySnapshot {
+
+  private static final LatencySnapshot EMPTY = new LatencySnapshot(new long[BUCKET_COUNT], 0, 0);
+
+  private final long[] counts;
+  private final long count;
+  private final long sum;
+  private final long max;
+
+  LatencySnapshot(long[] counts, long sum, long max) {
+    this.counts = counts;
+    this.sum = sum;
+    this.max = max;
+
+    long count = 0;
+    for (long bucketCount : counts) {
+      count += bucketCount;
+    }
+    this.count = count;
+  }
+
+  /**
+   * @return a snapshot without values.
+   */
+  public static LatencySnapshot empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return the amount of recorded values.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return the sum of the recorded values.
+   */
+  public long getTotal() {
+    return sum;
+  }
+
+  /**
+   * @return the average of the recorded values, rounded downwards, or zero if there are none.
+   */
+  public long getMean() {
+    return count == 0 ? 0 : sum / count;
+  }
+
+  /**
+   * @return the lowest recorded value, within the precision of the histogram, or zero if there are none.
+   */
+  public long getMin() {
+    for (int i = 0; i < counts.length; ++i) {
+      if (counts[i] > 0) {
+        return lowestValue(i);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * @return the highest recorded value, or zero if there are none.
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * @param percentile the percentile to get, between 0 and 100
+   * @return the value below which the given {@code percentile} of the recorded values are, within the precision of the
+   *         histogram, or zero if there are none.
+   */
+  public long getValueAtPercentile(double percentile) {
+    checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+    if (count == 0) {
+      return 0;
+    }
+
+    long rank = max(1, (long) ceil(percentile * count / 100));
+    long accumulated = 0;
+    for (int i = 0; i < counts.length; ++i) {
+      accumulated += counts[i];
+      if (accumulated >= rank) {
+        return min(highestValue(i), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * @param other another snapshot
+   * @return a snapshot with the values of this one and the {@code other}.
+   */
+  public LatencySnapshot merge(LatencySnapshot other) {
+    long[] merged = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      merged[i] = counts[i] + other.counts[i];
+    }
+    return new LatencySnapshot(merged, sum + other.sum, max(max, other.max));
+  }
+
+  /**
+   * @param previous a snapshot previously taken from the same histogram
+   * @return a snapshot with the values recorded after the {@code previous} one was taken. Its maximum is only known within the
+   *         precision of the histogram.
+   */
+  public LatencySnapshot minus(LatencySnapshot previous) {
+    long[] delta = new long[BUCKET_COUNT];
+    long intervalMax = 0;
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      delta[i] = max(0, counts[i] - previous.counts[i]);
+      if (delta[i] > 0) {
+        intervalMax = min(highestValue(i), max);
+      }
+    }
+    return new LatencySnapshot(delta, max(0, sum - previous.sum), intervalMax);
+  }
+}
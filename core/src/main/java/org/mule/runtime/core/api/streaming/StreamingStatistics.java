@@ -25,4 +25,22 @@ public interface StreamingStatistics {
    * @return How many {@link CursorStream} instances are currently open
    */
   int getOpenCursorsCount();
+
+  /**
+   * @return How many byte buffer allocations were served with a pooled buffer
+   * @since 4.1
+   */
+  long getBufferPoolHits();
+
+  /**
+   * @return How many byte buffer allocations required creating a new buffer
+   * @since 4.1
+   */
+  long getBufferPoolMisses();
+
+  /**
+   * @return How many byte buffer allocations had to wait for streaming memory to become available
+   * @since 4.1
+   */
+  long getBufferPoolWaits();
 }
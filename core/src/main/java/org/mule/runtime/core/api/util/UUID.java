@@ -6,32 +6,50 @@
  */
 package org.mule.runtime.core.api.util;
 
+import org.mule.runtime.core.api.registry.SpiServiceRegistry;
+import org.mule.runtime.core.internal.util.MonotonicUniqueIdGenerator;
+
+import java.util.Collection;
+
 /**
- * <code>UUID</code> Generates a UUID using the <a href="http://johannburkard.de/software/uuid/">Johann Burkard UUID Library</a>.
- * In our performance tests we found this to be the implementation of type 1 UUID that was most performant in high concurrency
- * scenarios.
+ * <code>UUID</code> Generates unique ids through the {@link UniqueIdGenerator} provided through {@link java.util.ServiceLoader},
+ * or through a lock-free generator of monotonic ids with the layout of a UUID if none is.
  */
 // @ThreadSafe
 public final class UUID {
 
+  private static final UniqueIdGenerator GENERATOR = loadGenerator();
+
   private UUID() {
     // no go
   }
 
+  private static UniqueIdGenerator loadGenerator() {
+    Collection<UniqueIdGenerator> generators =
+        new SpiServiceRegistry().lookupProviders(UniqueIdGenerator.class, UUID.class.getClassLoader());
+    return generators.isEmpty() ? new MonotonicUniqueIdGenerator() : generators.iterator().next();
+  }
+
+  /**
+   * @return the {@link UniqueIdGenerator} used to generate the ids.
+   */
+  public static UniqueIdGenerator getGenerator() {
+    return GENERATOR;
+  }
+
   /**
-   * @return time-based UUID.
+   * @return unique, lexicographically increasing id.
    */
   public static String getUUID() {
-    return new com.eaio.uuid.UUID().toString();
+    return GENERATOR.generateId();
   }
 
   /**
    * @param clusterId cluster id
-   * @return time-based UUID prefixed with the cluster id so as to ensure uniqueness within cluster.
+   * @return unique id prefixed with the cluster id so as to ensure uniqueness within cluster.
    */
   public static String getClusterUUID(int clusterId) {
-    return new com.eaio.uuid.UUID()
-        .toAppendable(new StringBuilder(38).append(clusterId).append('-')).toString();
+    return GENERATOR.generateId(clusterId);
   }
 
 
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.util;
+
+/**
+ * Generates the unique ids used by the runtime, for instance for event contexts and for the
+ * {@link org.mule.runtime.core.api.MuleContext#getUniqueIdString() unique ids of a Mule context}.
+ * <p>
+ * A custom implementation may be provided by declaring it in a {@code META-INF/services/org.mule.runtime.core.api.util.UniqueIdGenerator}
+ * file, as supported by {@link java.util.ServiceLoader}. Otherwise a lock-free generator of monotonic ids is used.
+ * <p>
+ * Implementations must be thread safe and ids generated by a single instance must be unique and lexicographically increasing.
+ *
+ * @since 4.1
+ */
+public interface UniqueIdGenerator {
+
+  /**
+   * @return a new unique id.
+   */
+  String generateId();
+
+  /**
+   * @param clusterNodeId the id of the cluster node the id is generated in
+   * @return a new unique id, prefixed with the given {@code clusterNodeId} so as to ensure uniqueness within the cluster.
+   */
+  String generateId(int clusterNodeId);
+}
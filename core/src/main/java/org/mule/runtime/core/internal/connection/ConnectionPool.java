@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.core.api.connection.util.ConnectionProviderUtils.unwrapProviderWrapper;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.management.stats.ConnectionPoolStatistics;
+
+import java.lang.ref.WeakReference;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Pool of connections obtained from a {@link ConnectionProvider}, configured by a {@link PoolingProfile}.
+ * <p>
+ * Borrowing and returning connections doesn't go through a monitor shared by the whole pool:
+ * <ul>
+ * <li>The amount of active connections is bounded by a fair {@link Semaphore}, so threads waiting for a connection when the
+ * pool is exhausted get one in the order they asked for it, within {@link PoolingProfile#getMaxWait()}.</li>
+ * <li>Idle connections are kept in a lock-free stack, and each one is claimed by atomically changing its state, so that a
+ * connection is never handed to two borrowers.</li>
+ * <li>A thread first tries to reuse the last connection it returned, which is likely to still be idle when the pool is not
+ * under pressure.</li>
+ * </ul>
+ * Idle connections are evicted and validated by a task that runs every {@link PoolingProfile#getEvictionCheckIntervalMillis()}
+ * on the given {@link Scheduler}, never while a connection is being borrowed.
+ * <p>
+ * The pool provides its usage metrics as {@link ConnectionPoolStatistics}.
+ *
+ * @param <C> the generic type of the connections in the pool
+ * @since 4.1
+ */
+class ConnectionPool<C> implements ConnectionPoolStatistics {
+
+  private static final Logger LOGGER = getLogger(ConnectionPool.class);
+
+  private final ConnectionProvider<C> connectionProvider;
+  private final PoolingProfile poolingProfile;
+  private final Semaphore permits;
+
+  private final CopyOnWriteArrayList<PooledConnection<C>> connections = new CopyOnWriteArrayList<>();
+  private final ConcurrentLinkedDeque<PooledConnection<C>> idleConnections = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final ThreadLocal<WeakReference<PooledConnection<C>>> lastReturned = new ThreadLocal<>();
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final Scheduler evictionScheduler;
+
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder created = new LongAdder();
+  private final LongAdder destroyed = new LongAdder();
+  private final LongAdder validationFailures = new LongAdder();
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to create and destroy connections
+   * @param poolingProfile the {@link PoolingProfile} which configures this pool
+   * @param evictionScheduler the {@link Scheduler} on which to evict and validate idle connections, or {@code null} if the
+   *        {@code poolingProfile} doesn't enable eviction. It is stopped when this pool is closed.
+   */
+  ConnectionPool(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile, Scheduler evictionScheduler) {
+    this.connectionProvider = connectionProvider;
+    this.poolingProfile = poolingProfile;
+    this.permits = isBounded() ? new Semaphore(poolingProfile.getMaxActive(), true) : null;
+    this.evictionScheduler = evictionScheduler;
+    if (evictionScheduler != null) {
+      long interval = poolingProfile.getEvictionCheckIntervalMillis();
+      evictionScheduler.scheduleWithFixedDelay(this::evict, interval, interval, MILLISECONDS);
+    }
+  }
+
+  private boolean isBounded() {
+    return poolingProfile.getMaxActive() >= 0 && poolingProfile.getExhaustedAction() != WHEN_EXHAUSTED_GROW;
+  }
+
+  /**
+   * Borrows a connection, reusing an idle one if available or creating a new one otherwise.
+   *
+   * @return a connection which is to be {@link #returnConnection(PooledConnection) returned} or
+   *         {@link #invalidate(PooledConnection) invalidated} once used.
+   * @throws NoSuchElementException if the pool is exhausted and no connection was returned within the configured wait
+   * @throws Exception if a new connection could not be created
+   */
+  PooledConnection<C> borrow() throws Exception {
+    if (closed.get()) {
+      throw new IllegalStateException("Connection pool is closed");
+    }
+    acquirePermit();
+
+    try {
+      PooledConnection<C> connection = claimIdle();
+      if (connection == null) {
+        connection = new PooledConnection<>(connectionProvider.connect());
+        connections.add(connection);
+        created.increment();
+      }
+      activeCount.incrementAndGet();
+      return connection;
+    } catch (Exception e) {
+      releasePermit();
+      throw e;
+    }
+  }
+
+  private void acquirePermit() throws InterruptedException {
+    // the timed variant honors the fairness of the semaphore, so this doesn't take a permit before the threads already waiting
+    if (permits == null || permits.tryAcquire(0, MILLISECONDS)) {
+      return;
+    }
+    if (poolingProfile.getExhaustedAction() == WHEN_EXHAUSTED_FAIL) {
+      throw new NoSuchElementException("Pool exhausted");
+    }
+
+    final long start = nanoTime();
+    try {
+      if (poolingProfile.getMaxWait() <= 0) {
+        permits.acquire();
+      } else if (!permits.tryAcquire(poolingProfile.getMaxWait(), MILLISECONDS)) {
+        throw new NoSuchElementException("Timeout waiting for idle object");
+      }
+    } finally {
+      waitNanos.add(nanoTime() - start);
+    }
+  }
+
+  private void releasePermit() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  private PooledConnection<C> claimIdle() {
+    WeakReference<PooledConnection<C>> lastReturnedReference = lastReturned.get();
+    if (lastReturnedReference != null) {
+      PooledConnection<C> connection = lastReturnedReference.get();
+      if (connection != null && claim(connection)) {
+        return connection;
+      }
+    }
+
+    PooledConnection<C> connection;
+    while ((connection = idleConnections.pollFirst()) != null) {
+      connection.inIdleStack.set(false);
+      if (claim(connection)) {
+        return connection;
+      }
+      // else it was claimed by the thread that last returned it, or by the evictor, while in the stack
+    }
+    return null;
+  }
+
+  private boolean claim(PooledConnection<C> connection) {
+    if (connection.state.compareAndSet(PooledConnection.IDLE, PooledConnection.IN_USE)) {
+      idleCount.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns a borrowed connection to the pool, or destroys it if the pool already has
+   * {@link PoolingProfile#getMaxIdle() enough idle connections} or is closed.
+   *
+   * @param connection a connection obtained through {@link #borrow()}
+   */
+  void returnConnection(PooledConnection<C> connection) {
+    activeCount.decrementAndGet();
+    try {
+      int maxIdle = poolingProfile.getMaxIdle();
+      if (closed.get() || (maxIdle >= 0 && idleCount.get() >= maxIdle)) {
+        destroy(connection);
+      } else {
+        connection.lastReturnedMillis = currentTimeMillis();
+        makeIdle(connection);
+        lastReturned.set(connection.reference);
+      }
+    } finally {
+      releasePermit();
+    }
+  }
+
+  private void makeIdle(PooledConnection<C> connection) {
+    idleCount.incrementAndGet();
+    connection.state.set(PooledConnection.IDLE);
+    if (connection.inIdleStack.compareAndSet(false, true)) {
+      idleConnections.offerFirst(connection);
+    }
+
+    // The pool may have been closed after checking it, in which case no one else will destroy this connection
+    if (closed.get() && claim(connection)) {
+      destroy(connection);
+    }
+  }
+
+  /**
+   * Destroys a borrowed connection instead of returning it to the pool.
+   *
+   * @param connection a connection obtained through {@link #borrow()}
+   */
+  void invalidate(PooledConnection<C> connection) {
+    activeCount.decrementAndGet();
+    try {
+      destroy(connection);
+    } finally {
+      releasePermit();
+    }
+  }
+
+  private void destroy(PooledConnection<C> connection) {
+    connection.state.set(PooledConnection.DESTROYED);
+    connections.remove(connection);
+    destroyed.increment();
+    try {
+      connectionProvider.disconnect(connection.getConnection());
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to disconnect connection of type "
+          + connection.getConnection().getClass().getName(), e);
+    }
+  }
+
+  /**
+   * Destroys the idle connections that have been idle for longer than {@link PoolingProfile#getMinEvictionMillis()}, and the
+   * ones that are no longer valid.
+   */
+  void evict() {
+    final long now = currentTimeMillis();
+    for (PooledConnection<C> connection : connections) {
+      if (closed.get()) {
+        return;
+      }
+      if (!connection.state.compareAndSet(PooledConnection.IDLE, PooledConnection.EVICTING)) {
+        continue;
+      }
+      idleCount.decrementAndGet();
+
+      long minEvictionMillis = poolingProfile.getMinEvictionMillis();
+      if (minEvictionMillis > 0 && now - connection.lastReturnedMillis > minEvictionMillis) {
+        destroy(connection);
+      } else if (!isValid(connection)) {
+        validationFailures.increment();
+        destroy(connection);
+      } else {
+        makeIdle(connection);
+      }
+    }
+  }
+
+  private boolean isValid(PooledConnection<C> connection) {
+    try {
+      ConnectionValidationResult result = connectionProvider.validate(connection.getConnection());
+      return result != null && result.isValid();
+    } catch (Exception e) {
+      LOGGER.debug("Exception was found validating idle connection", e);
+      return false;
+    }
+  }
+
+  /**
+   * Destroys the idle connections. Borrowed connections are destroyed when returned.
+   */
+  void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    if (evictionScheduler != null) {
+      evictionScheduler.stop();
+    }
+
+    PooledConnection<C> connection;
+    while ((connection = idleConnections.pollFirst()) != null) {
+      connection.inIdleStack.set(false);
+      if (claim(connection)) {
+        destroy(connection);
+      }
+    }
+  }
+
+  @Override
+  public String getName() {
+    return unwrapProviderWrapper(connectionProvider).getClass().getName() + "@" + Integer.toHexString(hashCode());
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public int getNumActive() {
+    return activeCount.get();
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idleCount.get();
+  }
+
+  @Override
+  public long getWaitTime(TimeUnit unit) {
+    return unit.convert(waitNanos.sum(), NANOSECONDS);
+  }
+
+  @Override
+  public long getCreatedCount() {
+    return created.sum();
+  }
+
+  @Override
+  public long getDestroyedCount() {
+    return destroyed.sum();
+  }
+
+  @Override
+  public long getValidationFailureCount() {
+    return validationFailures.sum();
+  }
+
+  /**
+   * A connection of the pool, along with its pooling state.
+   *
+   * @param <C> the generic type of the connection
+   */
+  static final class PooledConnection<C> {
+
+    private static final int IN_USE = 0;
+    private static final int IDLE = 1;
+    private static final int EVICTING = 2;
+    private static final int DESTROYED = 3;
+
+    private final C connection;
+    private final AtomicInteger state = new AtomicInteger(IN_USE);
+    private final AtomicBoolean inIdleStack = new AtomicBoolean(false);
+    private final WeakReference<PooledConnection<C>> reference = new WeakReference<>(this);
+    private volatile long lastReturnedMillis;
+
+    PooledConnection(C connection) {
+      this.connection = connection;
+    }
+
+    C getConnection() {
+      return connection;
+    }
+  }
+}
@@ -11,8 +11,8 @@ import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.internal.connection.ConnectionPool.PooledConnection;
 
-import org.apache.commons.pool.ObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,8 +26,8 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PoolingConnectionHandler.class);
 
-  private C connection;
-  private final ObjectPool<C> pool;
+  private PooledConnection<C> connection;
+  private final ConnectionPool<C> pool;
   private final PoolingListener poolingListener;
   private final ConnectionProvider connectionProvider;
 
@@ -37,7 +37,7 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
    * @param connection the connection to be wrapped
    * @param pool       the pool from which the {@code connection} was obtained and to which it has to be returned
    */
-  PoolingConnectionHandler(C connection, ObjectPool<C> pool, PoolingListener poolingListener,
+  PoolingConnectionHandler(PooledConnection<C> connection, ConnectionPool<C> pool, PoolingListener poolingListener,
                            ConnectionProvider connectionProvider) {
     this.connection = connection;
     this.pool = pool;
@@ -51,7 +51,7 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
   @Override
   public C getConnection() throws ConnectionException {
     checkState(connection != null, "Connection has been either released or invalidated");
-    return connection;
+    return connection.getConnection();
   }
 
   /**
@@ -65,9 +65,9 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
 
     boolean returnAttempted = false;
     try {
-      poolingListener.onReturn(connection);
+      poolingListener.onReturn(connection.getConnection());
 
-      pool.returnObject(connection);
+      pool.returnConnection(connection);
       returnAttempted = true;
     } catch (Exception e) {
       LOGGER.warn("Could not return connection to the pool. Connection will be destroyed", e);
@@ -88,9 +88,10 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
   @Override
   public void invalidate() {
     try {
-      pool.invalidateObject(connection);
+      pool.invalidate(connection);
     } catch (Exception e) {
-      LOGGER.warn("Exception was found trying to invalidate connection of type " + connection.getClass().getName(), e);
+      LOGGER.warn("Exception was found trying to invalidate connection of type "
+          + connection.getConnection().getClass().getName(), e);
     } finally {
       connection = null;
     }
@@ -6,24 +6,23 @@
  */
 package org.mule.runtime.core.internal.connection;
 
-import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
-import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.management.stats.AllStatistics;
+import org.mule.runtime.core.internal.connection.ConnectionPool.PooledConnection;
 
 import java.util.NoSuchElementException;
 
-import org.apache.commons.pool.ObjectPool;
-import org.apache.commons.pool.PoolableObjectFactory;
-import org.apache.commons.pool.impl.GenericObjectPool;
-
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
+ * <p>
+ * The statistics of the pool are registered in the application's {@link AllStatistics} while it is open.
  *
  * @param <C> the generic type of the connections to be managed
  * @since 4.0
@@ -31,7 +30,7 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementStrategy<C> {
 
   private final PoolingProfile poolingProfile;
-  private final ObjectPool<C> pool;
+  private final ConnectionPool<C> pool;
   private final PoolingListener<C> poolingListener;
 
   /**
@@ -48,6 +47,9 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
     pool = createPool();
+    if (muleContext.getStatistics() != null) {
+      muleContext.getStatistics().addConnectionPoolStatistics(pool);
+    }
   }
 
   /**
@@ -69,12 +71,12 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
   }
 
-  private C borrowConnection() throws Exception {
-    C connection = pool.borrowObject();
+  private PooledConnection<C> borrowConnection() throws Exception {
+    PooledConnection<C> connection = pool.borrow();
     try {
-      poolingListener.onBorrow(connection);
+      poolingListener.onBorrow(connection.getConnection());
     } catch (Exception e) {
-      pool.invalidateObject(connection);
+      pool.invalidate(connection);
       throw e;
     }
 
@@ -82,58 +84,36 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   /**
-   * Closes the pool, causing the contained connections to be closed as well.
+   * Closes the pool, causing the contained connections to be closed as well. Connections borrowed at this time are closed when
+   * returned.
    *
    * @throws MuleException
    */
-  // TODO: MULE-9082 - pool.close() doesn't destroy unreturned connections
   @Override
   public void close() throws MuleException {
-    try {
-      pool.close();
-    } catch (Exception e) {
-      throw new DefaultMuleException(createStaticMessage("Could not close connection pool"), e);
+    if (muleContext.getStatistics() != null) {
+      muleContext.getStatistics().removeConnectionPoolStatistics(pool);
     }
+    pool.close();
   }
 
-  private ObjectPool<C> createPool() {
-    GenericObjectPool.Config config = new GenericObjectPool.Config();
-    config.maxIdle = poolingProfile.getMaxIdle();
-    config.maxActive = poolingProfile.getMaxActive();
-    config.maxWait = poolingProfile.getMaxWait();
-    config.whenExhaustedAction = (byte) poolingProfile.getExhaustedAction();
-    config.minEvictableIdleTimeMillis = poolingProfile.getMinEvictionMillis();
-    config.timeBetweenEvictionRunsMillis = poolingProfile.getEvictionCheckIntervalMillis();
-    GenericObjectPool genericPool = new GenericObjectPool(new ObjectFactoryAdapter(), config);
-
-    return genericPool;
+  private ConnectionPool<C> createPool() {
+    Scheduler evictionScheduler = null;
+    if (poolingProfile.getEvictionCheckIntervalMillis() > 0) {
+      // validating connections may block on the network
+      evictionScheduler = muleContext.getSchedulerService().ioScheduler();
+    }
+    return new ConnectionPool<>(connectionProvider, poolingProfile, evictionScheduler);
   }
 
   public PoolingProfile getPoolingProfile() {
     return poolingProfile;
   }
 
-  private class ObjectFactoryAdapter implements PoolableObjectFactory<C> {
-
-    @Override
-    public C makeObject() throws Exception {
-      return connectionProvider.connect();
-    }
-
-    @Override
-    public void destroyObject(C connection) throws Exception {
-      connectionProvider.disconnect(connection);
-    }
-
-    @Override
-    public boolean validateObject(C obj) {
-      return false;
-    }
-
-    @Override
-    public void activateObject(C connection) throws Exception {}
-
-    @Override
-    public void passivateObject(C connection) throws Exception {}
+  /**
+   * @return the pool the connections are obtained from.
+   */
+  ConnectionPool<C> getPool() {
+    return pool;
   }
 }
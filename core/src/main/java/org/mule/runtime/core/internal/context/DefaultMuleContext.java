@@ -7,6 +7,8 @@
 package org.mule.runtime.core.internal.context;
 
 import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static java.lang.Thread.holdsLock;
 import static java.util.Objects.requireNonNull;
 import static org.apache.commons.lang3.SystemUtils.JAVA_VERSION;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
@@ -132,7 +134,11 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.inject.Inject;
 import javax.transaction.TransactionManager;
@@ -187,6 +193,13 @@ public class DefaultMuleContext implements MuleContextWithRegistries, Privileged
   private MuleContextLifecycleManager lifecycleManager;
   private Object lifecycleStateLock = new Object();
 
+  /**
+   * The threads running commands on behalf of the thread holding the {@link #lifecycleStateLock}, see
+   * {@link #withLifecycleLockOwnership(Executor)}. They take the {@link #delegatedLifecycleLock} instead.
+   */
+  private final Set<Thread> lifecycleLockDelegates = ConcurrentHashMap.newKeySet();
+  private final ReentrantLock delegatedLifecycleLock = new ReentrantLock();
+
   private ServerNotificationManager notificationManager;
 
   private MuleConfiguration config;
@@ -503,11 +516,40 @@ public class DefaultMuleContext implements MuleContextWithRegistries, Privileged
 
   @Override
   public void withLifecycleLock(Runnable command) {
-    synchronized (lifecycleStateLock) {
-      command.run();
+    if (lifecycleLockDelegates.contains(currentThread())) {
+      delegatedLifecycleLock.lock();
+      try {
+        command.run();
+      } finally {
+        delegatedLifecycleLock.unlock();
+      }
+    } else {
+      synchronized (lifecycleStateLock) {
+        command.run();
+      }
     }
   }
 
+  @Override
+  public Executor withLifecycleLockOwnership(Executor executor) {
+    if (lifecycleLockDelegates.contains(currentThread())) {
+      // the lock can't be handed off again while this thread holds it on behalf of another one
+      return Runnable::run;
+    } else if (!holdsLock(lifecycleStateLock)) {
+      return executor;
+    }
+
+    return command -> executor.execute(() -> {
+      Thread thread = currentThread();
+      lifecycleLockDelegates.add(thread);
+      try {
+        command.run();
+      } finally {
+        lifecycleLockDelegates.remove(thread);
+      }
+    });
+  }
+
   @Override
   public LifecycleManager getLifecycleManager() {
     return lifecycleManager;
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Boolean.TRUE;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.core.api.context.notification.AsyncNotificationListenerStatistics;
+import org.mule.runtime.core.api.context.notification.AsyncNotificationOverflowPolicy;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers notifications to a single listener on an {@link Executor}, off the thread that fired them.
+ * <p>
+ * Notifications are buffered in a bounded ring buffer that many threads add to without locking. At most one task at a time
+ * drains the buffer, handing up to {@code batchSize} notifications to the listener before giving its thread back to the
+ * executor, so a single task is submitted for many notifications instead of one task per notification. Notifications are
+ * delivered in the order they were buffered.
+ * <p>
+ * What happens when the buffer is full is given by its {@link AsyncNotificationOverflowPolicy}. With
+ * {@link AsyncNotificationOverflowPolicy#BLOCK}, a firing thread drains the buffer itself if no task is draining it, and waits
+ * for the draining task at most {@code maxBlockMillis} otherwise. Threads delivering notifications never wait, so that a listener
+ * firing notifications doesn't hold a thread of the executor that other dispatchers drain on. Discarded notifications are
+ * counted and available through {@link #getDroppedCount()}.
+ *
+ * @since 4.1
+ */
+public class AsyncNotificationDispatcher implements AsyncNotificationListenerStatistics {
+
+  private static final Logger logger = getLogger(AsyncNotificationDispatcher.class);
+
+  private static final long BLOCK_PARK_NANOS = MICROSECONDS.toNanos(100);
+
+  /**
+   * The default maximum time a thread firing a notification waits for room in the buffer.
+   */
+  public static final long DEFAULT_MAX_BLOCK_MILLIS = 1000;
+
+  /**
+   * Whether the current thread is delivering notifications for any dispatcher.
+   */
+  private static final ThreadLocal<Boolean> DELIVERING = new ThreadLocal<>();
+
+  private final NotificationListener listener;
+  private final Executor executor;
+  private final NotificationRingBuffer<Notification> buffer;
+  private final int batchSize;
+  private final AsyncNotificationOverflowPolicy overflowPolicy;
+  private final int sampleRate;
+  private final long maxBlockNanos;
+
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  private final AtomicLong sampleCounter = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder delivered = new LongAdder();
+  private volatile boolean disposed;
+
+  /**
+   * @param listener the listener to deliver the notifications to
+   * @param executor where the notifications are delivered
+   * @param bufferSize the maximum amount of notifications pending delivery, rounded down to a power of two
+   * @param batchSize the maximum amount of notifications delivered by each task submitted to the {@code executor}
+   * @param overflowPolicy what to do with notifications fired while the buffer is full
+   * @param sampleRate for {@link AsyncNotificationOverflowPolicy#SAMPLE}, one of how many notifications is buffered once the
+   *        buffer is half full
+   */
+  public AsyncNotificationDispatcher(NotificationListener listener, Executor executor, int bufferSize, int batchSize,
+                                     AsyncNotificationOverflowPolicy overflowPolicy, int sampleRate) {
+    this(listener, executor, bufferSize, batchSize, overflowPolicy, sampleRate, DEFAULT_MAX_BLOCK_MILLIS);
+  }
+
+  /**
+   * @param listener the listener to deliver the notifications to
+   * @param executor where the notifications are delivered
+   * @param bufferSize the maximum amount of notifications pending delivery, rounded down to a power of two
+   * @param batchSize the maximum amount of notifications delivered by each task submitted to the {@code executor}
+   * @param overflowPolicy what to do with notifications fired while the buffer is full
+   * @param sampleRate for {@link AsyncNotificationOverflowPolicy#SAMPLE}, one of how many notifications is buffered once the
+   *        buffer is half full
+   * @param maxBlockMillis for {@link AsyncNotificationOverflowPolicy#BLOCK}, the maximum time to wait for room in the buffer
+   *        before discarding the notification
+   */
+  public AsyncNotificationDispatcher(NotificationListener listener, Executor executor, int bufferSize, int batchSize,
+                                     AsyncNotificationOverflowPolicy overflowPolicy, int sampleRate, long maxBlockMillis) {
+    this.listener = listener;
+    this.executor = executor;
+    this.buffer = new NotificationRingBuffer<>(bufferSize);
+    this.batchSize = max(batchSize, 1);
+    this.overflowPolicy = overflowPolicy;
+    this.sampleRate = max(sampleRate, 1);
+    this.maxBlockNanos = MILLISECONDS.toNanos(max(maxBlockMillis, 0));
+  }
+
+  /**
+   * Buffers the given {@code notification} for delivery to the listener, or discards it according to the overflow policy.
+   *
+   * @param notification the notification to deliver
+   */
+  public void dispatch(Notification notification) {
+    if (disposed || !enqueue(notification)) {
+      dropped.increment();
+      return;
+    }
+    scheduleDrain();
+  }
+
+  private boolean enqueue(Notification notification) {
+    switch (overflowPolicy) {
+      case SAMPLE:
+        if (buffer.size() >= buffer.capacity() / 2 && sampleCounter.getAndIncrement() % sampleRate != 0) {
+          return false;
+        }
+        return buffer.offer(notification);
+      case BLOCK:
+        long deadline = 0;
+        while (!buffer.offer(notification)) {
+          // A listener firing notifications would wait for its own thread, or hold one other dispatchers need, to drain
+          if (disposed || DELIVERING.get() != null) {
+            return false;
+          }
+          if (draining.compareAndSet(false, true)) {
+            // no task is draining the buffer, so this thread makes room itself instead of waiting for one
+            try {
+              deliverOnCurrentThread(batchSize);
+            } finally {
+              draining.set(false);
+            }
+            continue;
+          }
+
+          long now = nanoTime();
+          if (deadline == 0) {
+            deadline = now + maxBlockNanos;
+          } else if (now - deadline >= 0) {
+            return false;
+          }
+          parkNanos(BLOCK_PARK_NANOS);
+        }
+        return true;
+      default:
+        return buffer.offer(notification);
+    }
+  }
+
+  private void scheduleDrain() {
+    if (draining.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        draining.set(false);
+        logger.warn("Could not schedule the delivery of notifications to listener {}: {}", listener, e.getMessage());
+      }
+    }
+  }
+
+  private void drain() {
+    try {
+      deliverOnCurrentThread(batchSize);
+    } finally {
+      draining.set(false);
+    }
+
+    // Notifications buffered after the last poll but before the flag was cleared did not schedule a drain
+    if (!buffer.isEmpty()) {
+      scheduleDrain();
+    }
+  }
+
+  private void deliverOnCurrentThread(int maxNotifications) {
+    if (DELIVERING.get() != null) {
+      deliver(maxNotifications);
+      return;
+    }
+
+    DELIVERING.set(TRUE);
+    try {
+      deliver(maxNotifications);
+    } finally {
+      DELIVERING.remove();
+    }
+  }
+
+  private void deliver(int maxNotifications) {
+    Notification notification;
+    for (int i = 0; i < maxNotifications && (notification = buffer.poll()) != null; ++i) {
+      try {
+        listener.onNotification(notification);
+      } catch (Exception e) {
+        // Exceptions from listeners do not affect the notification processing
+        logger.debug("Exception delivering notification to listener {}", listener, e);
+      }
+      delivered.increment();
+    }
+  }
+
+  /**
+   * Stops accepting notifications. The pending ones are delivered on the calling thread, unless a delivery task is already
+   * scheduled, in which case that task keeps delivering them.
+   */
+  public void dispose() {
+    disposed = true;
+    if (draining.compareAndSet(false, true)) {
+      try {
+        deliverOnCurrentThread(Integer.MAX_VALUE);
+      } finally {
+        draining.set(false);
+      }
+    }
+  }
+
+  /**
+   * @return the listener the notifications are delivered to.
+   */
+  @Override
+  public NotificationListener getListener() {
+    return listener;
+  }
+
+  /**
+   * @return the amount of notifications pending delivery.
+   */
+  @Override
+  public int getQueueDepth() {
+    return buffer.size();
+  }
+
+  /**
+   * @return the maximum amount of notifications pending delivery.
+   */
+  @Override
+  public int getCapacity() {
+    return buffer.capacity();
+  }
+
+  /**
+   * @return the amount of notifications discarded because the buffer was full or this dispatcher was disposed.
+   */
+  @Override
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return the amount of notifications handed to the listener.
+   */
+  @Override
+  public long getDeliveredCount() {
+    return delivered.sum();
+  }
+}
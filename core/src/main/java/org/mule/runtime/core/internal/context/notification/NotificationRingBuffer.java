@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded queue that many threads may add items to without locking, and that a single thread at a time takes items from.
+ * <p>
+ * Each slot has a sequence number that tells whether it is free for the producer claiming that position, or holds an item
+ * published for the consumer, so producers only contend on the claim of a position.
+ *
+ * @since 4.1
+ */
+final class NotificationRingBuffer<T> {
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<T> items;
+  private final AtomicLongArray sequences;
+  private final AtomicLong producerIndex = new AtomicLong();
+  private volatile long consumerIndex;
+
+  /**
+   * @param capacity the maximum amount of items, rounded down to a power of two
+   */
+  NotificationRingBuffer(int capacity) {
+    this.capacity = highestOneBit(max(capacity, 2));
+    this.mask = this.capacity - 1;
+    this.items = new AtomicReferenceArray<>(this.capacity);
+    this.sequences = new AtomicLongArray(this.capacity);
+    for (int i = 0; i < this.capacity; ++i) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Adds the given {@code item} if there's room for it. May be called by many threads concurrently.
+   *
+   * @return whether the item was added.
+   */
+  boolean offer(T item) {
+    long position = producerIndex.get();
+    int index;
+    while (true) {
+      index = (int) position & mask;
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (producerIndex.compareAndSet(position, position + 1)) {
+          break;
+        }
+        position = producerIndex.get();
+      } else if (difference < 0) {
+        // the slot still holds the item from the previous lap
+        return false;
+      } else {
+        position = producerIndex.get();
+      }
+    }
+
+    items.set(index, item);
+    sequences.set(index, position + 1);
+    return true;
+  }
+
+  /**
+   * Takes the oldest item. Must be called by one thread at a time.
+   *
+   * @return the oldest item, or {@code null} if there is none.
+   */
+  T poll() {
+    long position = consumerIndex;
+    int index = (int) position & mask;
+    if (sequences.get(index) != position + 1) {
+      return null;
+    }
+
+    T item = items.get(index);
+    items.set(index, null);
+    sequences.lazySet(index, position + capacity);
+    consumerIndex = position + 1;
+    return item;
+  }
+
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return the amount of items added and not yet taken. Items being added concurrently may or may not be counted.
+   */
+  int size() {
+    return (int) min(max(producerIndex.get() - consumerIndex, 0), capacity);
+  }
+
+  int capacity() {
+    return capacity;
+  }
+}
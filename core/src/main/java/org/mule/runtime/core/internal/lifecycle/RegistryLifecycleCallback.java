@@ -6,16 +6,26 @@
  */
 package org.mule.runtime.core.internal.lifecycle;
 
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.singletonList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.stream.Collectors.toList;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.LifecycleException;
 import org.mule.runtime.api.lifecycle.Stoppable;
 import org.mule.runtime.api.notification.NotificationDispatcher;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.lifecycle.LifecycleCallback;
 import org.mule.runtime.core.api.lifecycle.LifecycleObject;
 import org.mule.runtime.core.api.util.func.CheckedRunnable;
@@ -28,11 +38,22 @@ import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 /**
  * An implementation of {@link LifecycleCallback} for applying {@link Registry} lifecycles
+ * <p>
+ * When {@link #INITIALISE_PARALLELISM_PROPERTY} is set to more than one thread, the {@link Initialisable} phase is applied in
+ * waves: the objects of a wave only depend on objects of previous waves, so the ones in the same wave are initialised
+ * concurrently on a bounded IO scheduler, each wave once the previous one is done. The threads of a wave hold the lifecycle lock
+ * on behalf of the thread applying the phase, see {@link MuleContext#withLifecycleLockOwnership(Executor)}. The order of the
+ * {@link LifecycleObject}s of the phase is kept.
  *
  * @since 3.7.0
  */
@@ -40,8 +61,16 @@ public class RegistryLifecycleCallback<T> implements LifecycleCallback<T>, HasLi
 
   private static final Logger LOGGER = getLogger(RegistryLifecycleCallback.class);
 
+  /**
+   * System property to set the amount of threads on which to initialise independent objects. Initialisation is sequential
+   * unless it is greater than one.
+   */
+  public static final String INITIALISE_PARALLELISM_PROPERTY = SYSTEM_PROPERTY_PREFIX + "lifecycle.initialiseParallelism";
+
   protected final RegistryLifecycleManager registryLifecycleManager;
   private LifecycleInterceptor interceptor = new NullLifecycleInterceptor();
+  private final Object interceptorLock = new Object();
+  private final int initialiseParallelism = getInteger(INITIALISE_PARALLELISM_PROPERTY, 1);
 
   public RegistryLifecycleCallback(RegistryLifecycleManager registryLifecycleManager) {
     this.registryLifecycleManager = registryLifecycleManager;
@@ -72,39 +101,53 @@ public class RegistryLifecycleCallback<T> implements LifecycleCallback<T>, HasLi
     // overlapping interfaces can cause duplicates
     // TODO: each LifecycleManager should keep this set per executing phase
     // and clear it when the phase is fully applied
-    Set<Object> duplicates = new HashSet<>();
+    Set<Object> duplicates = ConcurrentHashMap.newKeySet();
+
+    final MuleContext muleContext = registryLifecycleManager.muleContext;
+    Scheduler scheduler = null;
+    Executor executor = null;
+    if (initialiseParallelism > 1 && Initialisable.PHASE_NAME.equals(phase.getName())) {
+      scheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName(format("lifecycle.%s", phase.getName()))
+              .withMaxConcurrentTasks(initialiseParallelism));
+      executor = muleContext.withLifecycleLockOwnership(scheduler);
+    }
 
-    final NotificationDispatcher notificationFirer = ((MuleContextWithRegistries) registryLifecycleManager.muleContext)
-        .getRegistry().lookupObject(NotificationDispatcher.class);
-    for (LifecycleObject lifecycleObject : phase.getOrderedLifecycleObjects()) {
-      lifecycleObject.firePreNotification(notificationFirer);
+    try {
+      final NotificationDispatcher notificationFirer = ((MuleContextWithRegistries) muleContext)
+          .getRegistry().lookupObject(NotificationDispatcher.class);
+      for (LifecycleObject lifecycleObject : phase.getOrderedLifecycleObjects()) {
+        lifecycleObject.firePreNotification(notificationFirer);
 
-      // TODO Collection -> List API refactoring
-      Collection<?> targetsObj = lookupObjectsForLifecycle(lifecycleObject);
-      doApplyLifecycle(phase, duplicates, lifecycleObject, targetsObj);
-      lifecycleObject.firePostNotification(notificationFirer);
+        // TODO Collection -> List API refactoring
+        Collection<?> targetsObj = lookupObjectsForLifecycle(lifecycleObject);
+        doApplyLifecycle(phase, duplicates, lifecycleObject, targetsObj, executor);
+        lifecycleObject.firePostNotification(notificationFirer);
+      }
+    } finally {
+      if (scheduler != null) {
+        scheduler.stop();
+      }
     }
 
     interceptor.onPhaseCompleted(phase);
   }
 
   private void doApplyLifecycle(LifecyclePhase phase, Set<Object> duplicates, LifecycleObject lifecycleObject,
-                                Collection<?> targetObjects)
+                                Collection<?> targetObjects, Executor executor)
       throws LifecycleException {
     if (CollectionUtils.isEmpty(targetObjects)) {
       return;
     }
 
-    for (Object target : targetObjects) {
-      if (duplicates.contains(target) || target == null) {
-        continue;
+    if (executor == null) {
+      for (Object target : targetObjects) {
+        applyLifecycleIfPending(phase, duplicates, target);
       }
-
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("lifecycle phase: " + phase.getName() + " for object: " + target);
+    } else {
+      for (Collection<?> wave : lookupObjectWavesForLifecycle(lifecycleObject)) {
+        applyLifecycle(phase, duplicates, wave, executor);
       }
-
-      applyLifecycle(phase, duplicates, target);
     }
 
     // the target object might have created and registered a new object
@@ -113,16 +156,89 @@ public class RegistryLifecycleCallback<T> implements LifecycleCallback<T>, HasLi
     int originalTargetCount = targetObjects.size();
     targetObjects = lookupObjectsForLifecycle(lifecycleObject);
     if (targetObjects.size() > originalTargetCount) {
-      doApplyLifecycle(phase, duplicates, lifecycleObject, targetObjects);
+      doApplyLifecycle(phase, duplicates, lifecycleObject, targetObjects, executor);
     }
   }
 
+  private void applyLifecycleIfPending(LifecyclePhase phase, Set<Object> duplicates, Object target)
+      throws LifecycleException {
+    if (duplicates.contains(target) || target == null) {
+      return;
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("lifecycle phase: " + phase.getName() + " for object: " + target);
+    }
+
+    applyLifecycle(phase, duplicates, target);
+  }
+
+  private void applyLifecycle(LifecyclePhase phase, Set<Object> duplicates, Collection<?> wave, Executor executor)
+      throws LifecycleException {
+    List<Object> targets = wave.stream().filter(target -> target != null && !duplicates.contains(target)).collect(toList());
+    if (targets.size() <= 1) {
+      for (Object target : targets) {
+        applyLifecycleIfPending(phase, duplicates, target);
+      }
+      return;
+    }
+
+    CompletableFuture<?>[] tasks = targets.stream()
+        .map(target -> runAsync(() -> {
+          try {
+            applyLifecycleIfPending(phase, duplicates, target);
+          } catch (LifecycleException e) {
+            throw new CompletionException(e);
+          }
+        }, executor))
+        .toArray(CompletableFuture<?>[]::new);
+
+    try {
+      allOf(tasks).get();
+    } catch (ExecutionException e) {
+      // report the failure of the first failed object of the wave, as it would have been reported if applied sequentially
+      for (CompletableFuture<?> task : tasks) {
+        if (task.isCompletedExceptionally()) {
+          rethrow(task);
+        }
+      }
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new IllegalStateException(format("Interrupted while applying lifecycle phase '%s'", phase.getName()), e);
+    }
+  }
+
+  private void rethrow(CompletableFuture<?> failedTask) throws LifecycleException {
+    Throwable cause;
+    try {
+      failedTask.join();
+      return;
+    } catch (CompletionException e) {
+      cause = e.getCause();
+    }
+
+    if (cause instanceof LifecycleException) {
+      throw (LifecycleException) cause;
+    } else if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    } else if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    throw new IllegalStateException(cause);
+  }
+
   private void applyLifecycle(LifecyclePhase phase, Set<Object> duplicates, Object target) throws LifecycleException {
     try {
-      if (interceptor.beforePhaseExecution(phase, target)) {
+      boolean apply;
+      synchronized (interceptorLock) {
+        apply = interceptor.beforePhaseExecution(phase, target);
+      }
+      if (apply) {
         phase.applyLifecycle(target);
         duplicates.add(target);
-        interceptor.afterPhaseExecution(phase, target, empty());
+        synchronized (interceptorLock) {
+          interceptor.afterPhaseExecution(phase, target, empty());
+        }
       } else {
         if (LOGGER.isDebugEnabled()) {
           LOGGER.debug(format(
@@ -133,7 +249,9 @@ public class RegistryLifecycleCallback<T> implements LifecycleCallback<T>, HasLi
         }
       }
     } catch (Exception e) {
-      interceptor.afterPhaseExecution(phase, target, of(e));
+      synchronized (interceptorLock) {
+        interceptor.afterPhaseExecution(phase, target, of(e));
+      }
       if (phase.getName().equals(Disposable.PHASE_NAME) || phase.getName().equals(Stoppable.PHASE_NAME)) {
         LOGGER.info(format("Failure executing phase %s over object %s, error message is: %s", phase.getName(), target,
                            e.getMessage()),
@@ -151,6 +269,17 @@ public class RegistryLifecycleCallback<T> implements LifecycleCallback<T>, HasLi
     return registryLifecycleManager.getLifecycleObject().lookupObjectsForLifecycle(lo.getType());
   }
 
+  /**
+   * Groups the objects to which a phase is to be applied in waves, so that the objects of each wave only depend on objects of
+   * previous waves. This implementation doesn't know the dependencies between the objects, so each one is in its own wave.
+   *
+   * @param lo the {@link LifecycleObject} of the phase being applied
+   * @return the waves of objects, in the order in which they are to be applied.
+   */
+  protected List<? extends Collection<?>> lookupObjectWavesForLifecycle(LifecycleObject lo) {
+    return lookupObjectsForLifecycle(lo).stream().map(target -> singletonList(target)).collect(toList());
+  }
+
   @Override
   public void setLifecycleInterceptor(LifecycleInterceptor interceptor) {
     this.interceptor = interceptor;
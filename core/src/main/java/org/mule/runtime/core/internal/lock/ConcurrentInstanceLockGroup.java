@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.lang.System.nanoTime;
+import org.mule.runtime.core.internal.lock.InstanceLockGroup.LockEntry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * {@link LockGroup} implementation for holding references to created locks inside a mule instance.
+ * <p>
+ * Unlike {@link InstanceLockGroup}, there's no monitor shared by all the lock ids: the reference count of each lock is updated
+ * atomically within its own bin of a {@link ConcurrentHashMap}, so operations over different lock ids don't contend with each
+ * other.
+ * <p>
+ * It also keeps statistics about how many acquisitions had to wait for the lock to be released by another one, and for how
+ * long.
+ *
+ * @since 4.1
+ */
+public class ConcurrentInstanceLockGroup implements LockGroup {
+
+  private final ConcurrentHashMap<String, LockEntry> locks = new ConcurrentHashMap<>();
+  private final LockProvider lockProvider;
+
+  private final LongAdder acquisitions = new LongAdder();
+  private final LongAdder contendedAcquisitions = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+
+  public ConcurrentInstanceLockGroup(LockProvider lockProvider) {
+    this.lockProvider = lockProvider;
+  }
+
+  @Override
+  public void lock(String lockId) {
+    final ReferencedLock lock = reference(lockId);
+    if (lock.contended) {
+      final long start = nanoTime();
+      lock.lock.lock();
+      waitNanos.add(nanoTime() - start);
+    } else {
+      lock.lock.lock();
+    }
+  }
+
+  @Override
+  public void unlock(String lockId) {
+    locks.computeIfPresent(lockId, (id, lockEntry) -> {
+      lockEntry.getLock().unlock();
+      return dereference(lockEntry);
+    });
+  }
+
+  @Override
+  public boolean tryLock(String lockId, long timeout, TimeUnit timeUnit) throws InterruptedException {
+    final ReferencedLock lock = reference(lockId);
+    boolean lockAcquired = false;
+    final long start = nanoTime();
+    try {
+      lockAcquired = lock.lock.tryLock(timeout, timeUnit);
+    } finally {
+      if (lock.contended) {
+        waitNanos.add(nanoTime() - start);
+      }
+      if (!lockAcquired) {
+        release(lockId);
+      }
+    }
+    return lockAcquired;
+  }
+
+  @Override
+  public boolean tryLock(String lockId) {
+    final ReferencedLock lock = reference(lockId);
+    boolean lockAcquired = false;
+    try {
+      lockAcquired = lock.lock.tryLock();
+    } finally {
+      if (!lockAcquired) {
+        release(lockId);
+      }
+    }
+    return lockAcquired;
+  }
+
+  @Override
+  public void lockInterruptibly(String lockId) throws InterruptedException {
+    final ReferencedLock lock = reference(lockId);
+    boolean lockAcquired = false;
+    final long start = nanoTime();
+    try {
+      lock.lock.lockInterruptibly();
+      lockAcquired = true;
+    } finally {
+      if (lock.contended) {
+        waitNanos.add(nanoTime() - start);
+      }
+      if (!lockAcquired) {
+        release(lockId);
+      }
+    }
+  }
+
+  /**
+   * Increments the reference count of the lock for the given {@code lockId}, creating it if no one else references it.
+   */
+  private ReferencedLock reference(String lockId) {
+    final ReferencedLock referencedLock = new ReferencedLock();
+    locks.compute(lockId, (id, lockEntry) -> {
+      if (lockEntry == null) {
+        lockEntry = new LockEntry(lockProvider.createLock(id));
+      } else {
+        referencedLock.contended = lockEntry.hasPendingLocks();
+      }
+      lockEntry.incrementLockCount();
+      referencedLock.lock = lockEntry.getLock();
+      return lockEntry;
+    });
+
+    acquisitions.increment();
+    if (referencedLock.contended) {
+      contendedAcquisitions.increment();
+    }
+    return referencedLock;
+  }
+
+  /**
+   * Decrements the reference count of the lock for the given {@code lockId} after it could not be acquired.
+   */
+  private void release(String lockId) {
+    locks.computeIfPresent(lockId, (id, lockEntry) -> dereference(lockEntry));
+  }
+
+  private LockEntry dereference(LockEntry lockEntry) {
+    lockEntry.decrementLockCount();
+    return lockEntry.hasPendingLocks() ? lockEntry : null;
+  }
+
+  /**
+   * @return the amount of times a lock of this group was requested.
+   */
+  public long getAcquisitionCount() {
+    return acquisitions.sum();
+  }
+
+  /**
+   * @return the amount of times a lock of this group was requested while it was held or requested by another acquisition.
+   */
+  public long getContendedAcquisitionCount() {
+    return contendedAcquisitions.sum();
+  }
+
+  /**
+   * @param unit the unit in which to express the result
+   * @return the total time spent by the contended acquisitions waiting for the lock.
+   */
+  public long getWaitTime(TimeUnit unit) {
+    return unit.convert(waitNanos.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return the amount of lock ids currently referenced.
+   */
+  public int getLockCount() {
+    return locks.size();
+  }
+
+  @Override
+  public void dispose() {
+    locks.clear();
+  }
+
+  private static class ReferencedLock {
+
+    private Lock lock;
+    private boolean contended;
+  }
+}
@@ -37,7 +37,7 @@ public class MuleLockFactory implements LockFactory, Initialisable, Disposable {
 
   @Override
   public void initialise() throws InitialisationException {
-    lockGroup = new InstanceLockGroup(lockProvider);
+    lockGroup = new ConcurrentInstanceLockGroup(lockProvider);
   }
 
   @Inject
@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.AllStatistics;
 import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.LatencySnapshot;
 
 /**
  * Aggregate statistics for all services and flows in an application. Do this by looping through all of the applications'
@@ -86,6 +87,17 @@ public class ApplicationStatistics extends DefaultFlowConstructStatistics {
     return total;
   }
 
+  @Override
+  public LatencySnapshot getProcessingTimeSnapshot() {
+    LatencySnapshot snapshot = LatencySnapshot.empty();
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (!(stats instanceof ApplicationStatistics)) {
+        snapshot = snapshot.merge(stats.getProcessingTimeSnapshot());
+      }
+    }
+    return snapshot;
+  }
+
   @Override
   public long getExecutionErrors() {
     long total = 0;
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the amount of events concurrently in flight, adjusting that limit from the observed latency using an additive
+ * increase / multiplicative decrease (AIMD) controller.
+ * <p>
+ * The lowest latency observed is taken as the latency of the processors when there is no contention. As long as latency
+ * samples stay within {@link #LATENCY_TOLERANCE} times that baseline, the events waiting for a thread stay within
+ * {@link #QUEUE_TOLERANCE} times the limit and the limit is being used, the limit grows by roughly one every {@code limit}
+ * samples. Samples over the latency tolerance mean that events are queueing up for a resource, so the limit is reduced to
+ * the one which would keep the current throughput at the baseline latency (per Little's law,
+ * {@code limit * baseline / latency}), but no less than {@link #BACKOFF_RATIO} times the current limit. Samples over the queue
+ * tolerance mean that the threads can't keep up with the events let in, so the limit is reduced by {@link #BACKOFF_RATIO}. A
+ * rejection from a scheduler halves the limit.
+ * <p>
+ * The baseline slowly drifts upwards so that it follows permanent increases in the latency of the processors.
+ * <p>
+ * Samples are applied by one thread at a time, and the ones taken while another one is being applied are discarded, so that
+ * completing events never wait on each other.
+ *
+ * @since 4.1
+ */
+final class AdaptiveConcurrencyLimit {
+
+  static final double LATENCY_TOLERANCE = 2.0;
+  static final double BACKOFF_RATIO = 0.9;
+  static final double QUEUE_TOLERANCE = 0.5;
+  private static final double BASELINE_DECAY = 1.001;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition permitReleased = lock.newCondition();
+  private final ReentrantLock updateLock = new ReentrantLock();
+
+  private volatile double limit;
+  // @GuardedBy updateLock
+  private double baselineLatency = Double.MAX_VALUE;
+
+  /**
+   * @param initialLimit the limit to start with
+   * @param maxLimit     the maximum limit, typically the {@code maxConcurrency} of the flow
+   */
+  AdaptiveConcurrencyLimit(int initialLimit, int maxLimit) {
+    this.minLimit = 1;
+    this.maxLimit = max(maxLimit, minLimit);
+    this.limit = min(max(initialLimit, minLimit), this.maxLimit);
+  }
+
+  /**
+   * @return whether a permit was acquired. If so, it has to be released through {@link #release()}
+   */
+  boolean tryAcquire() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= getLimit()) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  /**
+   * Waits up to the given time for a permit to be acquired.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit    the unit of {@code timeout}
+   * @return whether a permit was acquired. If so, it has to be released through {@link #release()}
+   * @throws InterruptedException if interrupted while waiting
+   */
+  boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+    if (tryAcquire()) {
+      return true;
+    }
+
+    long remainingNanos = unit.toNanos(timeout);
+    waiting.incrementAndGet();
+    lock.lock();
+    try {
+      while (!tryAcquire()) {
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        // signaled when a permit is released or the limit grows
+        remainingNanos = permitReleased.awaitNanos(remainingNanos);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+      waiting.decrementAndGet();
+    }
+  }
+
+  void release() {
+    inFlight.decrementAndGet();
+    signalWaiters(false);
+  }
+
+  private void signalWaiters(boolean all) {
+    if (waiting.get() > 0) {
+      lock.lock();
+      try {
+        if (all) {
+          permitReleased.signalAll();
+        } else {
+          permitReleased.signal();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Updates the limit with the latency of a processor execution and the depth of the queue of the scheduler it ran on.
+   *
+   * @param latencyNanos the time it took since the event was handed to the processor until its result was available
+   * @param queueDepth   the amount of events handed to the processors which are still waiting for a thread
+   */
+  void onSample(long latencyNanos, int queueDepth) {
+    if (!updateLock.tryLock()) {
+      return;
+    }
+
+    boolean grown = false;
+    try {
+      baselineLatency = min(baselineLatency * BASELINE_DECAY, latencyNanos);
+
+      if (latencyNanos > baselineLatency * LATENCY_TOLERANCE) {
+        limit = max(minLimit, max(limit * baselineLatency / latencyNanos, limit * BACKOFF_RATIO));
+      } else if (queueDepth > limit * QUEUE_TOLERANCE) {
+        limit = max(minLimit, limit * BACKOFF_RATIO);
+      } else if (inFlight.get() * 2 >= limit) {
+        int previousLimit = getLimit();
+        limit = min(maxLimit, limit + 1 / limit);
+        grown = getLimit() > previousLimit;
+      }
+    } finally {
+      updateLock.unlock();
+    }
+
+    if (grown) {
+      signalWaiters(true);
+    }
+  }
+
+  /**
+   * Updates the limit when a scheduler rejects a task.
+   */
+  void onRejected() {
+    updateLock.lock();
+    try {
+      limit = max(minLimit, limit / 2);
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  int getLimit() {
+    return (int) limit;
+  }
+
+  int getInFlight() {
+    return inFlight.get();
+  }
+}
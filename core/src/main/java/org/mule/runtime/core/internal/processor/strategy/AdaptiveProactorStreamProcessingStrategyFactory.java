@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Flux.just;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Creates {@link AdaptiveProactorStreamProcessingStrategy} instances. These behave as the ones created by
+ * {@link ProactorStreamProcessingStrategyFactory}, but instead of allowing up to {@code maxConcurrency} events in flight at
+ * any time, they continuously adjust that amount from the latency observed for the {@link ProcessingType#BLOCKING} and
+ * {@link ProcessingType#CPU_INTENSIVE} processors of the flow, using an {@link AdaptiveConcurrencyLimit}.
+ * <p>
+ * Once the limit is reached, back-pressure is applied on the source of the flow, rather than accepting the event and
+ * retrying its scheduling until a thread becomes available. Sources which wait for the flow to accept an event are rejected
+ * after waiting {@link #ACCEPT_TIMEOUT_MILLIS}. A task rejected by a scheduler is not retried either, it fails the event
+ * and halves the limit.
+ * <p>
+ * This processing strategy is not suitable for transactional flows and will fail if used with an active transaction.
+ *
+ * @since 4.1
+ */
+public class AdaptiveProactorStreamProcessingStrategyFactory extends ProactorStreamProcessingStrategyFactory {
+
+  static final long ACCEPT_TIMEOUT_MILLIS = 30000;
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    if (getMaxConcurrency() == 1) {
+      return super.create(muleContext, schedulersNamePrefix);
+    } else {
+      return new AdaptiveProactorStreamProcessingStrategy(() -> muleContext.getSchedulerService()
+          .customScheduler(muleContext.getSchedulerBaseConfig()
+              .withName(schedulersNamePrefix + RING_BUFFER_SCHEDULER_NAME_SUFFIX)
+              .withMaxConcurrentTasks(getSubscriberCount() + 1)),
+                                                          getBufferSize(),
+                                                          getSubscriberCount(),
+                                                          getWaitStrategy(), () -> muleContext.getSchedulerService()
+                                                              .cpuLightScheduler(muleContext.getSchedulerBaseConfig()
+                                                                  .withName(schedulersNamePrefix + "." + CPU_LITE.name())),
+                                                          () -> muleContext.getSchedulerService()
+                                                              .ioScheduler(muleContext.getSchedulerBaseConfig()
+                                                                  .withName(schedulersNamePrefix + "." + BLOCKING.name())),
+                                                          () -> muleContext.getSchedulerService()
+                                                              .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
+                                                                  .withName(schedulersNamePrefix + "."
+                                                                      + CPU_INTENSIVE.name())),
+                                                          getMaxConcurrency());
+    }
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    if (getMaxConcurrency() == 1) {
+      return super.getProcessingStrategyType();
+    } else {
+      return AdaptiveProactorStreamProcessingStrategy.class;
+    }
+  }
+
+  static class AdaptiveProactorStreamProcessingStrategy extends ProactorStreamProcessingStrategy {
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    // events handed to a scheduler which didn't start running yet
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public AdaptiveProactorStreamProcessingStrategy(Supplier<Scheduler> ringBufferSchedulerSupplier,
+                                                    int bufferSize,
+                                                    int subscriberCount,
+                                                    String waitStrategy,
+                                                    Supplier<Scheduler> cpuLightSchedulerSupplier,
+                                                    Supplier<Scheduler> blockingSchedulerSupplier,
+                                                    Supplier<Scheduler> cpuIntensiveSchedulerSupplier,
+                                                    int maxConcurrency) {
+      super(ringBufferSchedulerSupplier, bufferSize, subscriberCount, waitStrategy, cpuLightSchedulerSupplier,
+            blockingSchedulerSupplier, cpuIntensiveSchedulerSupplier, maxConcurrency);
+      this.concurrencyLimit = new AdaptiveConcurrencyLimit(min(getRuntime().availableProcessors() * 2, maxConcurrency),
+                                                           maxConcurrency);
+    }
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor pipeline) {
+      return new AdaptiveSink(super.createSink(flowConstruct, pipeline), concurrencyLimit);
+    }
+
+    @Override
+    public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
+      if (processor.getProcessingType() == BLOCKING && maxConcurrency > subscribers) {
+        return adaptiveProactor(processor, getBlockingScheduler());
+      } else if (processor.getProcessingType() == CPU_INTENSIVE && maxConcurrency > subscribers) {
+        return adaptiveProactor(processor, getCpuIntensiveScheduler());
+      } else {
+        return super.onProcessor(processor);
+      }
+    }
+
+    private ReactiveProcessor adaptiveProactor(ReactiveProcessor processor, Scheduler scheduler) {
+      return publisher -> from(publisher)
+          .flatMap(event -> {
+            // Includes the time the event waits for a thread, which is where contention shows up
+            final long start = nanoTime();
+            final AtomicBoolean dequeued = new AtomicBoolean();
+            final Runnable dequeue = () -> {
+              if (dequeued.compareAndSet(false, true)) {
+                queued.decrementAndGet();
+              }
+            };
+            queued.incrementAndGet();
+            return just(event)
+                // runs on the scheduler thread, once the event is no longer waiting for it
+                .doOnSubscribe(subscription -> dequeue.run())
+                .transform(processor)
+                .doOnNext(result -> concurrencyLimit.onSample(nanoTime() - start, queued.get()))
+                .publishOn(fromExecutorService(decorateScheduler(getCpuLightScheduler())))
+                .subscribeOn(fromExecutorService(decorateScheduler(scheduler)))
+                // a busy scheduler is not retried, the limit is reduced so that the source is back-pressured instead
+                .doOnError(RejectedExecutionException.class, throwable -> {
+                  dequeue.run();
+                  concurrencyLimit.onRejected();
+                });
+          }, maxConcurrency);
+    }
+
+    AdaptiveConcurrencyLimit getConcurrencyLimit() {
+      return concurrencyLimit;
+    }
+  }
+
+  /**
+   * {@link Sink} which only lets an event into the flow when it can get a permit from the {@link AdaptiveConcurrencyLimit}.
+   * The permit is released when the event terminates, or right away if the event couldn't be dispatched.
+   */
+  static final class AdaptiveSink implements Sink, Disposable {
+
+    private final Sink delegate;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    AdaptiveSink(Sink delegate, AdaptiveConcurrencyLimit concurrencyLimit) {
+      this.delegate = delegate;
+      this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @Override
+    public void accept(CoreEvent event) {
+      try {
+        if (!concurrencyLimit.tryAcquire(ACCEPT_TIMEOUT_MILLIS, MILLISECONDS)) {
+          throw new RejectedExecutionException(format("Flow didn't accept the event within %d ms", ACCEPT_TIMEOUT_MILLIS));
+        }
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        throw new MuleRuntimeException(createStaticMessage("Interrupted while waiting to dispatch event to flow"), e);
+      }
+
+      Runnable release = releaseOnTermination(event);
+      try {
+        delegate.accept(event);
+      } catch (RuntimeException | Error e) {
+        release.run();
+        throw e;
+      }
+    }
+
+    @Override
+    public boolean emit(CoreEvent event) {
+      if (!concurrencyLimit.tryAcquire()) {
+        return false;
+      }
+
+      Runnable release = releaseOnTermination(event);
+      if (delegate.emit(event)) {
+        return true;
+      } else {
+        release.run();
+        return false;
+      }
+    }
+
+    private Runnable releaseOnTermination(CoreEvent event) {
+      AtomicBoolean released = new AtomicBoolean();
+      Runnable release = () -> {
+        if (released.compareAndSet(false, true)) {
+          concurrencyLimit.release();
+        }
+      };
+      ((BaseEventContext) event.getContext()).onTerminated((response, throwable) -> release.run());
+      return release;
+    }
+
+    @Override
+    public void dispose() {
+      if (delegate instanceof Disposable) {
+        ((Disposable) delegate).dispose();
+      }
+    }
+  }
+}
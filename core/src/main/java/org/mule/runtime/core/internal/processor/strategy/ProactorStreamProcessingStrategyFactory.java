@@ -133,6 +133,14 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
       }
     }
 
+    protected Scheduler getBlockingScheduler() {
+      return blockingScheduler;
+    }
+
+    protected Scheduler getCpuIntensiveScheduler() {
+      return cpuIntensiveScheduler;
+    }
+
     private ReactiveProcessor proactor(ReactiveProcessor processor, Scheduler scheduler) {
       return publisher -> from(publisher)
           .flatMap(event -> just(event).transform(processor)
@@ -22,6 +22,7 @@ import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.core.internal.transformer.DataTypePairMap;
 import org.mule.runtime.core.internal.transformer.ResolverException;
 import org.mule.runtime.core.privileged.registry.RegistrationException;
 
@@ -35,7 +36,6 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -59,10 +59,8 @@ public class MuleRegistryHelper implements MuleRegistry, RegistryProvider {
   /**
    * We cache transformer searches so that we only search once
    */
-  protected ConcurrentHashMap/* <String, Transformer> */ exactTransformerCache =
-      new ConcurrentHashMap/* <String, Transformer> */(8);
-  protected ConcurrentHashMap/* Map<String, List<Transformer>> */ transformerListCache =
-      new ConcurrentHashMap/* <String, List<Transformer>> */(8);
+  protected DataTypePairMap<Transformer> exactTransformerCache = new DataTypePairMap<>();
+  protected DataTypePairMap<List<Transformer>> transformerListCache = new DataTypePairMap<>();
 
   private MuleContext muleContext;
 
@@ -136,32 +134,35 @@ public class MuleRegistryHelper implements MuleRegistry, RegistryProvider {
    */
   @Override
   public Transformer lookupTransformer(DataType source, DataType result) throws TransformerException {
-    //To maintain the previous behaviour, we don't want to consider the result mimeType when resolving a transformer
-    //and only find transformers with a targetType the same as or a super class of the expected one.
-    //The same could be done for the source but since if the source expected by the transformer is more generic that
-    //the provided, it will be found.
-    result = builder(result).mediaType(ANY).charset((Charset) null).build();
-
-    final String dataTypePairHash = getDataTypeSourceResultPairHash(source, result);
-    Transformer cachedTransformer = (Transformer) exactTransformerCache.get(dataTypePairHash);
+    // Resolutions are cached by the normalized result data type, so the media types and charsets requested don't grow the cache
+    DataType normalizedResult = normalizeResult(result);
+    Transformer cachedTransformer = exactTransformerCache.get(source, normalizedResult);
     if (cachedTransformer != null) {
       return cachedTransformer;
     }
 
-    Transformer trans = resolveTransformer(source, result);
+    Transformer trans = resolveTransformer(source, normalizedResult);
 
     if (trans != null) {
-      Transformer concurrentlyAddedTransformer = (Transformer) exactTransformerCache.putIfAbsent(dataTypePairHash, trans);
+      Transformer concurrentlyAddedTransformer = exactTransformerCache.putIfAbsent(source, normalizedResult, trans);
       if (concurrentlyAddedTransformer != null) {
         return concurrentlyAddedTransformer;
       } else {
         return trans;
       }
     } else {
-      throw new TransformerException(CoreMessages.noTransformerFoundForMessage(source, result));
+      throw new TransformerException(CoreMessages.noTransformerFoundForMessage(source, normalizedResult));
     }
   }
 
+  private DataType normalizeResult(DataType result) {
+    //To maintain the previous behaviour, we don't want to consider the result mimeType when resolving a transformer
+    //and only find transformers with a targetType the same as or a super class of the expected one.
+    //The same could be done for the source but since if the source expected by the transformer is more generic that
+    //the provided, it will be found.
+    return builder(result).mediaType(ANY).charset((Charset) null).build();
+  }
+
   protected Transformer resolveTransformer(DataType source, DataType result) throws TransformerException {
     Lock readLock = transformerResolversLock.readLock();
     readLock.lock();
@@ -189,15 +190,8 @@ public class MuleRegistryHelper implements MuleRegistry, RegistryProvider {
    */
   @Override
   public List<Transformer> lookupTransformers(DataType source, DataType result) {
-    //To maintain the previous behaviour, we don't want to consider the result mimeType when resolving a transformer
-    //and only find transformers with a targetType the same as or a super class of the expected one.
-    //The same could be done for the source but since if the source expected by the transformer is more generic that
-    //the provided, it will be found.
-    result = builder(result).mediaType(ANY).charset((Charset) null).build();
-
-    final String dataTypePairHash = getDataTypeSourceResultPairHash(source, result);
-
-    List<Transformer> results = (List<Transformer>) transformerListCache.get(dataTypePairHash);
+    result = normalizeResult(result);
+    List<Transformer> results = transformerListCache.get(source, result);
     if (results != null) {
       return results;
     }
@@ -221,8 +215,7 @@ public class MuleRegistryHelper implements MuleRegistry, RegistryProvider {
       readLock.unlock();
     }
 
-    List<Transformer> concurrentlyAddedTransformers =
-        (List<Transformer>) transformerListCache.putIfAbsent(dataTypePairHash, results);
+    List<Transformer> concurrentlyAddedTransformers = transformerListCache.putIfAbsent(source, result, results);
     if (concurrentlyAddedTransformers != null) {
       return concurrentlyAddedTransformers;
     } else {
@@ -533,10 +526,6 @@ public class MuleRegistryHelper implements MuleRegistry, RegistryProvider {
     return false;
   }
 
-  private String getDataTypeSourceResultPairHash(DataType source, DataType result) {
-    return source.getClass().getName() + source.hashCode() + ":" + result.getClass().getName() + result.hashCode();
-  }
-
   private class TransformerResolverComparator implements Comparator<TransformerResolver> {
 
     @Override
@@ -19,6 +19,7 @@ import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistries;
+import org.mule.runtime.core.internal.transformer.DataTypePairMap;
 import org.mule.runtime.core.internal.transformer.ResolverException;
 import org.mule.runtime.core.internal.transformer.graph.GraphTransformerResolver;
 import org.mule.runtime.core.internal.transformer.simple.ObjectToByteArray;
@@ -33,8 +34,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Will discover transformers based on type information only. It looks for transformers that support the source and result types
@@ -53,7 +52,7 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
 
   private MuleContext muleContext;
 
-  protected Map<String, Transformer> exactTransformerCache = new ConcurrentHashMap/* <String, Transformer> */(8);
+  protected DataTypePairMap<Transformer> exactTransformerCache = new DataTypePairMap<>();
 
   protected TransformerResolver graphTransformerResolver = new GraphTransformerResolver();
 
@@ -78,7 +77,7 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
   }
 
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    Transformer transformer = exactTransformerCache.get(source.toString() + result.toString());
+    Transformer transformer = exactTransformerCache.get(source, result);
     if (transformer != null) {
       return transformer;
     }
@@ -122,7 +121,7 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
     }
 
     if (transformer != null) {
-      exactTransformerCache.put(source.toString() + result.toString(), transformer);
+      exactTransformerCache.putIfAbsent(source, result, transformer);
     }
     return transformer;
   }
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Math.max;
 import static java.util.stream.Collectors.toList;
 import static org.mule.runtime.core.api.message.GroupCorrelation.NOT_SET;
 import static org.mule.runtime.core.api.util.StringUtils.DASH;
@@ -26,15 +27,23 @@ import org.mule.runtime.core.privileged.event.PrivilegedEvent;
 import org.apache.commons.collections.IteratorUtils;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * <code>EventGroup</code> is a holder over events grouped by a common group Id. This can be used by components such as routers to
  * managed related events.
+ * <p>
+ * Events are only appended to the events object store. Unless the store may be shared with other instances of the group, the
+ * keys of the collected events are kept in memory in arrival order, so that the size of the group is known without listing the
+ * keys of the store and the events are read from it only when the group is materialized. Those keys are rebuilt from the store,
+ * once, when the group is deserialized.
  */
 // @ThreadSafe
 public class EventGroup implements Comparable<EventGroup>, Serializable, DeserializationPostInitialisable {
@@ -56,6 +65,8 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
   private final Integer expectedSize;
   transient private MuleContext muleContext;
   private int arrivalOrderCounter = 0;
+  // @GuardedBy this
+  private transient List<String> eventKeys;
 
   public static final String DEFAULT_STORE_PREFIX = "DEFAULT_STORE";
 
@@ -163,7 +174,7 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
   @SuppressWarnings("unchecked")
   public Iterator<CoreEvent> iterator(boolean sortByArrival) throws ObjectStoreException {
     synchronized (this) {
-      if (eventsObjectStore.allKeys(eventsPartitionKey).isEmpty()) {
+      if (getEventKeys().isEmpty()) {
         return IteratorUtils.emptyIterator();
       } else {
         return IteratorUtils.arrayIterator(this.toArray(sortByArrival));
@@ -190,15 +201,16 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    */
   public PrivilegedEvent[] toArray(boolean sortByArrival) throws ObjectStoreException {
     synchronized (this) {
-      if (eventsObjectStore.allKeys(eventsPartitionKey).isEmpty()) {
+      List<String> keys = getEventKeys();
+      if (keys.isEmpty()) {
         return EMPTY_EVENTS_ARRAY;
       }
-      List<String> keys = eventsObjectStore.allKeys(eventsPartitionKey);
       PrivilegedEvent[] eventArray = new PrivilegedEvent[keys.size()];
       for (int i = 0; i < keys.size(); i++) {
         eventArray[i] = (PrivilegedEvent) eventsObjectStore.retrieve(keys.get(i), eventsPartitionKey);
       }
-      if (sortByArrival) {
+      // tracked keys are already in arrival order, only the keys listed from the store need sorting
+      if (sortByArrival && eventKeys == null) {
         Arrays.sort(eventArray, new ArrivalOrderEventComparator());
       }
       return eventArray;
@@ -218,9 +230,17 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
       // when an event is split up, the same event IDs are used.
       String key = getEventKey(event);
       eventsObjectStore.store(key, event, eventsPartitionKey);
+      if (eventKeys != null) {
+        eventKeys.add(key);
+      }
     }
   }
 
+  // @GuardedBy this
+  private List<String> getEventKeys() throws ObjectStoreException {
+    return eventKeys != null ? eventKeys : eventsObjectStore.allKeys(eventsPartitionKey);
+  }
+
   private String getEventKey(CoreEvent event) {
     StringBuilder stringBuilder = new StringBuilder();
     event.getGroupCorrelation().ifPresent(v -> stringBuilder.append(v.getSequence() + DASH));
@@ -246,6 +266,9 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    */
   public int size() {
     synchronized (this) {
+      if (eventKeys != null) {
+        return eventKeys.size();
+      }
       try {
         return eventsObjectStore.allKeys(eventsPartitionKey).size();
       } catch (ObjectStoreException e) {
@@ -273,6 +296,9 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
     synchronized (this) {
       eventsObjectStore.clear(eventsPartitionKey);
       eventsObjectStore.disposePartition(eventsPartitionKey);
+      if (eventKeys != null) {
+        eventKeys.clear();
+      }
     }
   }
 
@@ -286,15 +312,14 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
 
     try {
       synchronized (this) {
-        int currentSize;
-
-        currentSize = eventsObjectStore.allKeys(eventsPartitionKey).size();
+        List<String> keys = getEventKeys();
+        int currentSize = keys.size();
 
         buf.append(", current events=").append(currentSize);
 
         if (currentSize > 0) {
           buf.append(" [");
-          Iterator<String> i = eventsObjectStore.allKeys(eventsPartitionKey).iterator();
+          Iterator<String> i = keys.iterator();
           while (i.hasNext()) {
             String id = i.next();
             buf.append(eventsObjectStore.retrieve(id, eventsPartitionKey).getCorrelationId());
@@ -356,8 +381,53 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
   }
 
   public void initEventsStore(PartitionableObjectStore<CoreEvent> events) throws ObjectStoreException {
-    this.eventsObjectStore = events;
-    events.open(eventsPartitionKey);
+    initEventsStore(events, true);
+  }
+
+  /**
+   * Sets the store of the events of this group.
+   *
+   * @param events the store of the events
+   * @param trackKeys whether the keys of the events are kept in memory. Must be {@code false} if events may be added to the
+   *        store through other instances of this group, for instance from other nodes of a cluster, so that the events are
+   *        always listed from the store.
+   * @throws ObjectStoreException if the events can't be read from the store
+   */
+  public void initEventsStore(PartitionableObjectStore<CoreEvent> events, boolean trackKeys) throws ObjectStoreException {
+    synchronized (this) {
+      this.eventsObjectStore = events;
+      events.open(eventsPartitionKey);
+      if (!trackKeys) {
+        eventKeys = null;
+      } else if (eventKeys == null) {
+        loadEventKeys();
+      }
+    }
+  }
+
+  /**
+   * Rebuilds the keys of the events of this group from the events already in the store, for instance after this group was
+   * deserialized.
+   */
+  private void loadEventKeys() throws ObjectStoreException {
+    eventKeys = new ArrayList<>();
+
+    List<String> keys = eventsObjectStore.allKeys(eventsPartitionKey);
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    // keys are tracked along with their events since they can't be derived again from deserialized events
+    Map<CoreEvent, String> keysByEvent = new IdentityHashMap<>();
+    for (String key : keys) {
+      keysByEvent.put(eventsObjectStore.retrieve(key, eventsPartitionKey), key);
+    }
+    List<CoreEvent> events = new ArrayList<>(keysByEvent.keySet());
+    events.sort(new ArrivalOrderEventComparator());
+    for (CoreEvent event : events) {
+      eventKeys.add(keysByEvent.get(event));
+      arrivalOrderCounter = max(arrivalOrderCounter, getEventOrder(event));
+    }
   }
 
   public boolean isInitialised() {
@@ -370,10 +440,10 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
     public int compare(CoreEvent event1, CoreEvent event2) {
       return getEventOrder(event1) - getEventOrder(event2);
     }
+  }
 
-    private int getEventOrder(CoreEvent event) {
-      Integer orderVariable = (Integer) event.getVariables().get(MULE_ARRIVAL_ORDER_PROPERTY).getValue();
-      return orderVariable != null ? orderVariable : -1;
-    }
+  private static int getEventOrder(CoreEvent event) {
+    Integer orderVariable = (Integer) event.getVariables().get(MULE_ARRIVAL_ORDER_PROPERTY).getValue();
+    return orderVariable != null ? orderVariable : -1;
   }
 }
@@ -146,22 +146,11 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
                         () -> splitRequest(request))
                             // If batchSize > 1 then buffer sequence into List<TypedValue<T>> and convert to
                             // TypedValue<List<TypedValue<T>>>.
-                            .transform(p -> batchSize > 1
-                                ? from(p).buffer(batchSize).map(list -> new TypedValue<>(list, fromObject(list)))
-                                : p)
+                            .transform(p -> batch(p, batchSize))
                             // For each TypedValue part process the nested chain using the event from the previous part.
                             .concatMap(typedValue -> {
                               Builder partEventBuilder = builder(currentEvent.get());
-                              if (typedValue.getValue() instanceof EventBuilderConfigurer) {
-                                // Support EventBuilderConfigurer currently used by Batch Module
-                                ((EventBuilderConfigurer) typedValue.getValue()).configure(partEventBuilder);
-                              } else if (typedValue.getValue() instanceof Message) {
-                                // If value is a Message then use it directly conserving attributes and properties.
-                                partEventBuilder.message((Message) typedValue.getValue());
-                              } else {
-                                // Otherwise create a new message
-                                partEventBuilder.message(Message.builder().payload(typedValue).build());
-                              }
+                              configurePartEvent(partEventBuilder, typedValue);
                               return just(partEventBuilder.addVariable(counterVariableName, count.incrementAndGet()).build())
                                   .transform(nestedChain).doOnNext(result -> currentEvent.set(CoreEvent.builder(result).build()));
                             })
@@ -181,6 +170,19 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
   }
 
   private Iterator<TypedValue<?>> splitRequest(CoreEvent request) {
+    return splitRequest(request, expression, splittingStrategy);
+  }
+
+  /**
+   * Splits the given {@code request} in the parts to iterate.
+   *
+   * @param request           the event to split
+   * @param expression        the collection expression
+   * @param splittingStrategy the strategy which evaluates the {@code expression}
+   * @return an {@link Iterator} of the parts
+   */
+  static Iterator<TypedValue<?>> splitRequest(CoreEvent request, String expression,
+                                              SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy) {
     Object payloadValue = request.getMessage().getPayload().getValue();
     if (DEFAULT_SPLIT_EXPRESSION.equals(expression) && payloadValue instanceof EventBuilderConfigurerList) {
       // Support EventBuilderConfigurerList currently used by Batch Module
@@ -194,6 +196,36 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     }
   }
 
+  /**
+   * Sets the message of the event for a part of the split collection.
+   *
+   * @param partEventBuilder the builder of the event for the part
+   * @param typedValue       the part
+   */
+  static void configurePartEvent(Builder partEventBuilder, TypedValue<?> typedValue) {
+    if (typedValue.getValue() instanceof EventBuilderConfigurer) {
+      // Support EventBuilderConfigurer currently used by Batch Module
+      ((EventBuilderConfigurer) typedValue.getValue()).configure(partEventBuilder);
+    } else if (typedValue.getValue() instanceof Message) {
+      // If value is a Message then use it directly conserving attributes and properties.
+      partEventBuilder.message((Message) typedValue.getValue());
+    } else {
+      // Otherwise create a new message
+      partEventBuilder.message(Message.builder().payload(typedValue).build());
+    }
+  }
+
+  /**
+   * If {@code batchSize} is greater than one, buffers the given sequence of parts into {@link List}s of that size.
+   *
+   * @param parts     the parts of the split collection
+   * @param batchSize the size of the batches
+   * @return a sequence with the parts grouped in batches
+   */
+  static Flux<TypedValue<?>> batch(Flux<TypedValue<?>> parts, int batchSize) {
+    return batchSize > 1 ? parts.buffer(batchSize).<TypedValue<?>>map(list -> new TypedValue<>(list, fromObject(list))) : parts;
+  }
+
   @Override
   protected List<Processor> getOwnedMessageProcessors() {
     return singletonList(nestedChain);
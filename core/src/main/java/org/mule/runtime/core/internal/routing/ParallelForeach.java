@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Runtime.getRuntime;
+import static java.util.Collections.singletonList;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.internal.routing.Foreach.MAP_NOT_SUPPORTED_MESSAGE;
+import static org.mule.runtime.core.internal.routing.Foreach.batch;
+import static org.mule.runtime.core.internal.routing.Foreach.configurePartEvent;
+import static org.mule.runtime.core.internal.routing.Foreach.splitRequest;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static reactor.core.publisher.Flux.fromIterable;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.event.CoreEvent.Builder;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * Variant of {@link Foreach} which processes the parts of the split collection in parallel, subject to
+ * {@code maxConcurrency}, instead of one after the other.
+ * <p>
+ * The collection is split with the same {@link SplittingStrategy} and {@code batchSize} as {@link Foreach}, but it is only
+ * consumed as parts complete, so that no more than {@code maxConcurrency} parts are held in memory while being processed.
+ * {@code maxConcurrency} defaults to the number of available processors. Parts are processed on the schedulers of the
+ * flow's processing strategy.
+ * <p>
+ * Unlike {@link Foreach}, each part is processed with a copy of the incoming event rather than with the result of the previous
+ * part, and the result is a {@link List} with the resulting message of each part, either in the order of the collection or in
+ * the order in which they complete. Errors are handled per part: all the parts are processed and, if any failed, a
+ * {@link CompositeRoutingException} is thrown with the results and errors of each part.
+ *
+ * @since 4.1
+ */
+public class ParallelForeach extends AbstractForkJoinRouter {
+
+  private List<Processor> messageProcessors;
+  private MessageProcessorChain nestedChain;
+  private String collectionExpression = DEFAULT_SPLIT_EXPRESSION;
+  private int batchSize = 1;
+  private boolean preserveOrder = true;
+  private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
+
+  @Override
+  protected Consumer<CoreEvent> onEvent() {
+    return event -> {
+      if (collectionExpression.equals(DEFAULT_SPLIT_EXPRESSION)
+          && Map.class.isAssignableFrom(event.getMessage().getPayload().getDataType().getType())) {
+        throw new IllegalArgumentException(MAP_NOT_SUPPORTED_MESSAGE);
+      }
+    };
+  }
+
+  @Override
+  protected Publisher<RoutingPair> getRoutingPairs(CoreEvent event) {
+    return fromIterable(() -> splitRequest(event, collectionExpression, splittingStrategy))
+        .transform(parts -> batch(parts, batchSize))
+        .map(part -> {
+          Builder partEventBuilder = builder(event);
+          configurePartEvent(partEventBuilder, part);
+          return of(partEventBuilder.build(), nestedChain);
+        });
+  }
+
+  @Override
+  public void initialise() throws InitialisationException {
+    nestedChain = newChain(getProcessingStrategy(locator, getRootContainerLocation()), messageProcessors);
+    splittingStrategy = new ExpressionSplittingStrategy(muleContext.getExpressionManager(), collectionExpression);
+    super.initialise();
+  }
+
+  @Override
+  protected List<MessageProcessorChain> getOwnedObjects() {
+    return singletonList(nestedChain);
+  }
+
+  public void setMessageProcessors(List<Processor> messageProcessors) {
+    this.messageProcessors = messageProcessors;
+  }
+
+  public void setCollectionExpression(String collectionExpression) {
+    this.collectionExpression = collectionExpression;
+  }
+
+  /**
+   * @param batchSize partitions the collection in sub-collections of the given size, which are processed as a single part
+   * @throws IllegalArgumentException if the value is zero or less.
+   */
+  public void setBatchSize(int batchSize) {
+    checkArgument(batchSize > 0, "Batch size must be one or more.");
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * @param preserveOrder whether the results are collected in the order of the collection, or in the order in which the parts
+   *                      complete. Defaults to {@code true}.
+   */
+  public void setPreserveOrder(boolean preserveOrder) {
+    this.preserveOrder = preserveOrder;
+  }
+
+  @Override
+  protected boolean isDelayErrors() {
+    return true;
+  }
+
+  @Override
+  protected int getDefaultMaxConcurrency() {
+    return getRuntime().availableProcessors();
+  }
+
+  @Override
+  protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
+    return new CollectListForkJoinStrategyFactory(preserveOrder);
+  }
+}
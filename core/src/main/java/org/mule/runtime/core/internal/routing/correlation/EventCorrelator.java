@@ -41,6 +41,9 @@ import org.mule.runtime.core.api.util.StringMessageUtils;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistries;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.routing.EventGroup;
+import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
+import org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore;
+import org.mule.runtime.core.internal.util.store.ProvidedPartitionableObjectStoreWrapper;
 import org.mule.runtime.core.privileged.registry.RegistrationException;
 import org.mule.runtime.core.privileged.routing.RoutingException;
 import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
@@ -53,6 +56,8 @@ import org.slf4j.LoggerFactory;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class EventCorrelator implements Startable, Stoppable {
 
@@ -65,6 +70,8 @@ public class EventCorrelator implements Startable, Stoppable {
 
   private static final long DELAY_TIME = 10;
 
+  private static final int TIMER_WHEEL_BUCKETS = 512;
+
   protected final Object groupsLock = new Object();
 
   // @GuardedBy groupsLock
@@ -89,6 +96,23 @@ public class EventCorrelator implements Startable, Stoppable {
   private PartitionableObjectStore correlatorStore = null;
   private String storePrefix;
 
+  /**
+   * Whether the {@link #correlatorStore} is only visible to this node. Otherwise, other nodes may add events to the groups, so
+   * the groups are read from the store each time instead of being kept in {@link #activeGroups}.
+   */
+  private final boolean nodeLocalStore;
+
+  /**
+   * The groups being aggregated, so that their in memory state is kept between events instead of being rebuilt from the
+   * {@link #correlatorStore} each time. Only used if the store is node local.
+   */
+  private final ConcurrentMap<String, EventGroup> activeGroups = new ConcurrentHashMap<>();
+
+  /**
+   * The deadlines of the {@link #activeGroups}, when groups time out. Only used if the store is node local.
+   */
+  private volatile EventGroupTimerWheel groupTimeouts;
+
   private Scheduler scheduler;
   private ExpiringGroupMonitoringRunnable expiringGroupRunnable;
   private final String name;
@@ -116,10 +140,22 @@ public class EventCorrelator implements Startable, Stoppable {
     this.flowConstruct = flowConstruct;
 
     this.correlatorStore = correlatorStore;
+    this.nodeLocalStore = isNodeLocal(correlatorStore);
     this.storePrefix = storePrefix;
     this.processedGroups = processedGroups;
   }
 
+  /**
+   * The stores created by default by the runtime keep their contents in this node, unless a different object store factory is
+   * set up, as in a cluster.
+   */
+  private static boolean isNodeLocal(PartitionableObjectStore store) {
+    if (store instanceof ProvidedPartitionableObjectStoreWrapper) {
+      store = ((ProvidedPartitionableObjectStoreWrapper) store).getWrapped();
+    }
+    return store instanceof PartitionedInMemoryObjectStore || store instanceof PartitionedPersistentObjectStore;
+  }
+
   public void forceGroupExpiry(String groupId) throws MuleException {
     try {
       if (correlatorStore.retrieve(groupId, getEventGroupsPartitionKey()) != null) {
@@ -178,7 +214,7 @@ public class EventCorrelator implements Startable, Stoppable {
         // ..apparently not, so create a new one & add it
         try {
           EventGroup eventGroup = callback.createEventGroup(event, groupId);
-          eventGroup.initEventsStore(correlatorStore);
+          eventGroup.initEventsStore(correlatorStore, nodeLocalStore);
           group = this.addEventGroup(eventGroup);
         } catch (ObjectStoreException e) {
           throw new RoutingException(timeoutMessageProcessor, e);
@@ -231,6 +267,11 @@ public class EventCorrelator implements Startable, Stoppable {
   }
 
   protected EventGroup getEventGroup(String groupId) throws ObjectStoreException {
+    EventGroup activeGroup = nodeLocalStore && groupId != null ? activeGroups.get(groupId) : null;
+    if (activeGroup != null) {
+      return activeGroup;
+    }
+
     try {
       EventGroup eventGroup = (EventGroup) correlatorStore.retrieve(groupId, getEventGroupsPartitionKey());
       if (!eventGroup.isInitialised()) {
@@ -240,8 +281,8 @@ public class EventCorrelator implements Startable, Stoppable {
           throw new ObjectStoreException(e);
         }
       }
-      eventGroup.initEventsStore(correlatorStore);
-      return eventGroup;
+      eventGroup.initEventsStore(correlatorStore, nodeLocalStore);
+      return activate(eventGroup);
     } catch (ObjectDoesNotExistException e) {
       return null;
     }
@@ -250,12 +291,40 @@ public class EventCorrelator implements Startable, Stoppable {
   protected EventGroup addEventGroup(EventGroup group) throws ObjectStoreException {
     try {
       correlatorStore.store((String) group.getGroupId(), group, getEventGroupsPartitionKey());
-      return group;
+      return activate(group);
     } catch (ObjectAlreadyExistsException e) {
       return getEventGroup((String) group.getGroupId());
     }
   }
 
+  /**
+   * Keeps the given group in memory until it is removed, and schedules its timeout.
+   *
+   * @return the group already active with the same id, if any, or the given one otherwise.
+   */
+  private EventGroup activate(EventGroup group) throws ObjectStoreException {
+    final String groupId = (String) group.getGroupId();
+    if (!nodeLocalStore) {
+      return group;
+    }
+    synchronized (groupsLock) {
+      // a group retrieved right before another thread removed it must not be kept
+      if (groupId == null || isGroupAlreadyProcessed(groupId)) {
+        return group;
+      }
+      EventGroup activeGroup = activeGroups.putIfAbsent(groupId, group);
+      if (activeGroup != null) {
+        return activeGroup;
+      }
+    }
+
+    EventGroupTimerWheel timeouts = groupTimeouts;
+    if (timeouts != null) {
+      timeouts.schedule(groupId, group.getCreated() + getTimeout());
+    }
+    return group;
+  }
+
   protected void removeEventGroup(EventGroup group) throws ObjectStoreException {
     final Object groupId = group.getGroupId();
     synchronized (groupsLock) {
@@ -263,6 +332,9 @@ public class EventCorrelator implements Startable, Stoppable {
         correlatorStore.remove((String) groupId, getEventGroupsPartitionKey());
         addProcessedGroup(groupId);
       }
+      if (groupId != null) {
+        activeGroups.remove(groupId);
+      }
     }
   }
 
@@ -354,6 +426,7 @@ public class EventCorrelator implements Startable, Stoppable {
     if (timeout != 0) {
       scheduler = muleContext.getSchedulerService().customScheduler(muleContext.getSchedulerBaseConfig().withName(name)
           .withMaxConcurrentTasks(1).withShutdownTimeout(0, MILLISECONDS));
+      groupTimeouts = new EventGroupTimerWheel(DELAY_TIME, TIMER_WHEEL_BUCKETS, currentTimeMillis());
       expiringGroupRunnable = new ExpiringGroupMonitoringRunnable();
       scheduler.scheduleWithFixedDelay(expiringGroupRunnable, 0, DELAY_TIME, MILLISECONDS);
     }
@@ -369,12 +442,18 @@ public class EventCorrelator implements Startable, Stoppable {
       expiringGroupRunnable.dispose();
       expiringGroupRunnable = null;
     }
+    groupTimeouts = null;
   }
 
   private final class ExpiringGroupMonitoringRunnable implements Runnable, Expirable, Disposable {
 
     private ExpiryMonitor expiryMonitor;
 
+    /**
+     * Whether the groups that were in the store when this node became the primary one have been scheduled.
+     */
+    private boolean storedGroupsScheduled = false;
+
     public ExpiringGroupMonitoringRunnable() {
       this.expiryMonitor = new ExpiryMonitor(name, MINUTES.toMillis(1), muleContext, true);
       this.expiryMonitor.addExpirable(30, MINUTES, this);
@@ -404,10 +483,50 @@ public class EventCorrelator implements Startable, Stoppable {
       //// TODO(pablo.kraan): is not good to have threads doing nothing in all the nodes but the primary. Need to
       //// start the thread on the primary node only, and then use a notification schema to start a new thread
       //// in a different node when the primary goes down.
+      final EventGroupTimerWheel timeouts = groupTimeouts;
+      if (timeouts == null) {
+        return;
+      }
       if (!muleContext.isPrimaryPollingInstance()) {
+        // the groups in the store are scheduled again if this node becomes the primary one
+        timeouts.clear();
+        storedGroupsScheduled = false;
         return;
       }
 
+      if (!nodeLocalStore) {
+        expireStoredGroups();
+        return;
+      }
+
+      if (!storedGroupsScheduled) {
+        scheduleStoredGroups(timeouts);
+      }
+
+      for (String groupId : timeouts.expire(currentTimeMillis())) {
+        try {
+          EventGroup group = getEventGroup(groupId);
+          // group may have been aggregated or expired by another thread after being scheduled
+          if (group == null) {
+            continue;
+          }
+          if (group.getCreated() + getTimeout() >= currentTimeMillis()) {
+            timeouts.schedule(groupId, group.getCreated() + getTimeout());
+            continue;
+          }
+          handleGroupExpiry(group);
+        } catch (MessagingException e) {
+          flowConstruct.getExceptionListener().handleException(e, e.getEvent());
+        } catch (Exception e) {
+          muleContext.getExceptionListener().handleException(e);
+        }
+      }
+    }
+
+    /**
+     * Expires the groups in the store that timed out, since groups of a shared store may have been created by other nodes.
+     */
+    private void expireStoredGroups() {
       List<EventGroup> expired = new ArrayList<>(1);
       try {
         for (String o : (List<String>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
@@ -431,6 +550,25 @@ public class EventCorrelator implements Startable, Stoppable {
       }
     }
 
+    /**
+     * Schedules the timeouts of the groups in the store, which may have been created by another node or before a restart. This
+     * is the only time the whole store is scanned.
+     */
+    private void scheduleStoredGroups(EventGroupTimerWheel timeouts) {
+      try {
+        for (String groupId : (List<String>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
+          EventGroup group = getEventGroup(groupId);
+          // group may have been removed by another thread right after eventGroups.allKeys()
+          if (group != null) {
+            timeouts.schedule(groupId, group.getCreated() + getTimeout());
+          }
+        }
+        storedGroupsScheduled = true;
+      } catch (ObjectStoreException e) {
+        logger.warn("expiry failed dues to ObjectStoreException " + e);
+      }
+    }
+
     @Override
     public void dispose() {
       if (expiryMonitor != null) {
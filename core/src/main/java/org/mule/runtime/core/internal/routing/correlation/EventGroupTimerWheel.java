@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.correlation;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timer wheel of the deadlines of event groups.
+ * <p>
+ * Deadlines are hashed by their tick into a fixed amount of buckets, so scheduling one is a constant time operation and finding
+ * the expired ones only visits the buckets of the ticks elapsed since the last check, instead of every group in the store.
+ * Deadlines further away than a whole turn of the wheel are kept in their bucket until the turn in which they expire.
+ * <p>
+ * Deadlines may be scheduled concurrently, but are expected to be {@link #expire(long) expired} by a single thread at a time. A
+ * deadline scheduled while its tick is being expired may be reported up to one turn of the wheel later.
+ *
+ * @since 4.1
+ */
+final class EventGroupTimerWheel {
+
+  private final long tickMillis;
+  private final Queue<Timeout>[] buckets;
+  private final int mask;
+  private volatile long lastTick;
+
+  /**
+   * Creates a new instance
+   *
+   * @param tickMillis the resolution of the deadlines
+   * @param bucketCount the amount of buckets of the wheel, rounded down to a power of two
+   * @param now the current time in milliseconds
+   */
+  @SuppressWarnings("unchecked")
+  EventGroupTimerWheel(long tickMillis, int bucketCount, long now) {
+    this.tickMillis = tickMillis;
+    int size = highestOneBit(max(bucketCount, 1));
+    this.buckets = new Queue[size];
+    for (int i = 0; i < size; ++i) {
+      buckets[i] = new ConcurrentLinkedQueue<>();
+    }
+    this.mask = size - 1;
+    this.lastTick = now / tickMillis;
+  }
+
+  /**
+   * Schedules the deadline of a group. Deadlines already due are returned by the next call to {@link #expire(long)}.
+   *
+   * @param groupId the id of the group
+   * @param deadline the time in milliseconds after which the group expires
+   */
+  void schedule(String groupId, long deadline) {
+    // the bucket of a tick is checked once that tick has started, so the deadline goes in the first one starting after it
+    long tick = max(deadline / tickMillis + 1, lastTick + 1);
+    buckets[(int) (tick & mask)].offer(new Timeout(groupId, deadline));
+  }
+
+  /**
+   * Removes the deadlines that are due from the wheel.
+   *
+   * @param now the current time in milliseconds
+   * @return the ids of the groups whose deadline is due.
+   */
+  List<String> expire(long now) {
+    List<String> expired = new ArrayList<>(1);
+    long nowTick = now / tickMillis;
+    long ticks = min(nowTick - lastTick, buckets.length);
+    for (long tick = nowTick - ticks + 1; tick <= nowTick; ++tick) {
+      Queue<Timeout> bucket = buckets[(int) (tick & mask)];
+      // timeouts for a later turn of the wheel are put back, so only the ones in the bucket at this point are checked
+      for (int i = bucket.size(); i > 0; --i) {
+        Timeout timeout = bucket.poll();
+        if (timeout == null) {
+          break;
+        }
+        if (timeout.deadline <= now) {
+          expired.add(timeout.groupId);
+        } else {
+          bucket.offer(timeout);
+        }
+      }
+    }
+    lastTick = max(lastTick, nowTick);
+    return expired;
+  }
+
+  /**
+   * Discards all the scheduled deadlines.
+   */
+  void clear() {
+    for (Queue<Timeout> bucket : buckets) {
+      bucket.clear();
+    }
+  }
+
+  private static final class Timeout {
+
+    private final String groupId;
+    private final long deadline;
+
+    private Timeout(String groupId, long deadline) {
+      this.groupId = groupId;
+      this.deadline = deadline;
+    }
+  }
+}
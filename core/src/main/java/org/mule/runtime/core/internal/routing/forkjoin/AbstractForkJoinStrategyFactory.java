@@ -61,6 +61,7 @@ import reactor.core.scheduler.Schedulers;
  * <li>Merge variables using a last-wins strategy.
  * <li>Use of an optional timeout.
  * <li>Delay error behavior, where all errors are collated and thrown as a composite exception.
+ * <li>Results collected either in the order of the routing pairs or in the order in which they complete.
  * </ul>
  */
 public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrategyFactory {
@@ -68,6 +69,26 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   public static final String TIMEOUT_EXCEPTION_DESCRIPTION = "Route Timeout";
   public static final String TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX = "Timeout while processing route/part:";
 
+  private final boolean preserveOrder;
+
+  /**
+   * Creates a new instance which collects the results in the same order as the routing pairs.
+   */
+  public AbstractForkJoinStrategyFactory() {
+    this(true);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param preserveOrder whether the results should be collected in the same order as the routing pairs. If {@code false}, they
+   *                      are collected as they complete, so a slow route doesn't hold back the results that follow it.
+   * @since 4.1
+   */
+  public AbstractForkJoinStrategyFactory(boolean preserveOrder) {
+    this.preserveOrder = preserveOrder;
+  }
+
   @Override
   public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
@@ -75,11 +96,13 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     return (original, routingPairs) -> {
       final AtomicInteger count = new AtomicInteger();
       final CoreEvent.Builder resultBuilder = builder(original);
+      final Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair =
+          processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler, timeoutErrorType);
       return from(routingPairs)
           .map(addSequence(count))
-          .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
-                                              timeoutErrorType),
-                             maxConcurrency)
+          .transform(pairs -> preserveOrder
+              ? pairs.flatMapSequential(processRoutePair, maxConcurrency)
+              : pairs.flatMap(processRoutePair, maxConcurrency))
           .collectList()
           .doOnNext(list -> {
             if (list.stream().anyMatch(event -> event.getError().isPresent())) {
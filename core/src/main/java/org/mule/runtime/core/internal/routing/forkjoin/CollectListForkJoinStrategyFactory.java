@@ -30,6 +30,18 @@ import java.util.function.Function;
  */
 public class CollectListForkJoinStrategyFactory extends AbstractForkJoinStrategyFactory {
 
+  public CollectListForkJoinStrategyFactory() {
+    super();
+  }
+
+  /**
+   * @param preserveOrder whether the results should be collected in the same order as the routing pairs, or as they complete
+   * @since 4.1
+   */
+  public CollectListForkJoinStrategyFactory(boolean preserveOrder) {
+    super(preserveOrder);
+  }
+
   @Override
   protected Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                    CoreEvent.Builder resultBuilder) {
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOfRange;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the binary format written by a {@link CompactBinaryOutput} from a byte array.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @since 4.1
+ */
+final class CompactBinaryInput {
+
+  private final byte[] buffer;
+  private final int limit;
+  private int position;
+  private final List<String> dictionary = new ArrayList<>();
+
+  CompactBinaryInput(byte[] buffer, int offset, int limit) {
+    this.buffer = buffer;
+    this.position = offset;
+    this.limit = limit;
+  }
+
+  byte[] buffer() {
+    return buffer;
+  }
+
+  int position() {
+    return position;
+  }
+
+  /**
+   * Skips the next {@code length} bytes, which are expected to have been consumed by other means.
+   */
+  void skip(int length) throws IOException {
+    require(length);
+    position += length;
+  }
+
+  byte readByte() throws IOException {
+    require(1);
+    return buffer[position++];
+  }
+
+  int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Malformed variable length int");
+  }
+
+  long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Malformed variable length long");
+  }
+
+  int readSignedVarInt() throws IOException {
+    int value = readVarInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  long readSignedVarLong() throws IOException {
+    long value = readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  int readFixedInt() throws IOException {
+    require(4);
+    int value = ((buffer[position] & 0xFF) << 24) | ((buffer[position + 1] & 0xFF) << 16)
+        | ((buffer[position + 2] & 0xFF) << 8) | (buffer[position + 3] & 0xFF);
+    position += 4;
+    return value;
+  }
+
+  long readFixedLong() throws IOException {
+    return ((long) readFixedInt() << 32) | (readFixedInt() & 0xFFFFFFFFL);
+  }
+
+  /**
+   * @return the length of a length prefixed record, validated against the remaining bytes.
+   */
+  int readLength() throws IOException {
+    int length = readVarInt();
+    require(length);
+    return length;
+  }
+
+  /**
+   * @return the amount of elements of a collection, validated against the remaining bytes since each element takes at least
+   *         one.
+   */
+  int readCount() throws IOException {
+    int count = readVarInt();
+    if (count < 0 || limit - position < count) {
+      throw new StreamCorruptedException(format("Invalid element count %d", count));
+    }
+    return count;
+  }
+
+  byte[] readBytes() throws IOException {
+    int length = readLength();
+    byte[] bytes = copyOfRange(buffer, position, position + length);
+    position += length;
+    return bytes;
+  }
+
+  String readString() throws IOException {
+    int length = readLength();
+    String value = new String(buffer, position, length, UTF_8);
+    position += length;
+    return value;
+  }
+
+  /**
+   * Reads a value written with {@link CompactBinaryOutput#writeDictionaryString(String, Integer, int)}.
+   *
+   * @param seeds the static dictionary the value was written with
+   */
+  String readDictionaryString(String[] seeds) throws IOException {
+    int reference = readVarInt();
+    if (reference == 0) {
+      String value = readString();
+      dictionary.add(value);
+      return value;
+    }
+
+    int index = reference - 1;
+    if (index < seeds.length) {
+      return seeds[index];
+    }
+    index -= seeds.length;
+    if (index >= dictionary.size()) {
+      throw new StreamCorruptedException(format("Unknown dictionary reference %d", reference));
+    }
+    return dictionary.get(index);
+  }
+
+  /**
+   * @return the amount of entries added to the string dictionary so far.
+   */
+  int dictionarySize() {
+    return dictionary.size();
+  }
+
+  /**
+   * Discards the entries added to the string dictionary after it had the given {@code size}, mirroring
+   * {@link CompactBinaryOutput#truncateDictionary(int)}.
+   */
+  void truncateDictionary(int size) {
+    if (dictionary.size() > size) {
+      dictionary.subList(size, dictionary.size()).clear();
+    }
+  }
+
+  private void require(int length) throws IOException {
+    if (length < 0 || limit - position < length) {
+      throw new EOFException();
+    }
+  }
+}
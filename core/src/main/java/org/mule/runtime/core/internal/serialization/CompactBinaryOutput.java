@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.Math.max;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Growable byte buffer used by {@link CompactSerializationProtocol} to write its binary format. Instances are meant to be
+ * pooled per thread, so that the backing array and the string dictionary are reused across serializations.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @since 4.1
+ */
+final class CompactBinaryOutput extends OutputStream {
+
+  private byte[] buffer;
+  private int size;
+  private final Map<String, Integer> dictionary = new HashMap<>();
+
+  CompactBinaryOutput(int initialCapacity) {
+    buffer = new byte[initialCapacity];
+  }
+
+  /**
+   * Discards the written bytes and the entries of the string dictionary, keeping the allocated memory.
+   */
+  void reset() {
+    size = 0;
+    dictionary.clear();
+  }
+
+  int size() {
+    return size;
+  }
+
+  int capacity() {
+    return buffer.length;
+  }
+
+  byte[] toByteArray() {
+    return copyOf(buffer, size);
+  }
+
+  void writeTo(OutputStream out) throws IOException {
+    out.write(buffer, 0, size);
+  }
+
+  @Override
+  public void write(int b) {
+    ensureCapacity(1);
+    buffer[size++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) {
+    ensureCapacity(length);
+    System.arraycopy(bytes, offset, buffer, size, length);
+    size += length;
+  }
+
+  /**
+   * Writes an unsigned variable length int, using one byte for values lower than 128.
+   */
+  void writeVarInt(int value) {
+    ensureCapacity(5);
+    while ((value & ~0x7F) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  void writeVarLong(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  /**
+   * Writes a signed int with zig-zag encoding, so that small negative values are also written in few bytes.
+   */
+  void writeSignedVarInt(int value) {
+    writeVarInt((value << 1) ^ (value >> 31));
+  }
+
+  void writeSignedVarLong(long value) {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  void writeFixedInt(int value) {
+    ensureCapacity(4);
+    setFixedInt(size, value);
+    size += 4;
+  }
+
+  /**
+   * Overwrites 4 bytes previously reserved with {@link #writeFixedInt(int)} at the given {@code position}.
+   */
+  void setFixedInt(int position, int value) {
+    buffer[position] = (byte) (value >>> 24);
+    buffer[position + 1] = (byte) (value >>> 16);
+    buffer[position + 2] = (byte) (value >>> 8);
+    buffer[position + 3] = (byte) value;
+  }
+
+  void writeFixedLong(long value) {
+    writeFixedInt((int) (value >>> 32));
+    writeFixedInt((int) value);
+  }
+
+  void writeBytes(byte[] bytes) {
+    writeVarInt(bytes.length);
+    write(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Writes the UTF-8 bytes of the given {@code value} prefixed by their length. ASCII strings are encoded in place.
+   */
+  void writeString(String value) {
+    final int length = value.length();
+    for (int i = 0; i < length; ++i) {
+      if (value.charAt(i) >= 0x80) {
+        writeBytes(value.getBytes(UTF_8));
+        return;
+      }
+    }
+
+    writeVarInt(length);
+    ensureCapacity(length);
+    for (int i = 0; i < length; ++i) {
+      buffer[size++] = (byte) value.charAt(i);
+    }
+  }
+
+  /**
+   * Writes the given {@code value} through the string dictionary: the first time a value is written it is assigned the next
+   * index after {@code seedCount} and written inline, and afterwards only its index is written.
+   *
+   * @param value     the value to write
+   * @param seeded    the index of {@code value} in the static dictionary, or {@code null} if it is not part of it
+   * @param seedCount the amount of entries in the static dictionary
+   */
+  void writeDictionaryString(String value, Integer seeded, int seedCount) {
+    if (seeded != null) {
+      writeVarInt(seeded + 1);
+      return;
+    }
+
+    Integer index = dictionary.get(value);
+    if (index != null) {
+      writeVarInt(seedCount + index + 1);
+    } else {
+      dictionary.put(value, dictionary.size());
+      writeVarInt(0);
+      writeString(value);
+    }
+  }
+
+  /**
+   * @return the amount of entries added to the string dictionary so far.
+   */
+  int dictionarySize() {
+    return dictionary.size();
+  }
+
+  /**
+   * Discards the entries added to the string dictionary after it had the given {@code size}, so that the values written
+   * afterwards don't refer to them.
+   */
+  void truncateDictionary(int size) {
+    if (dictionary.size() > size) {
+      dictionary.values().removeIf(index -> index >= size);
+    }
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > buffer.length) {
+      buffer = copyOf(buffer, max(buffer.length << 1, size + extra));
+    }
+  }
+}
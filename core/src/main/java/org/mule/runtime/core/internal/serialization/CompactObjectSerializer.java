@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.context.MuleContextAware;
+
+/**
+ * Serializes objects using the {@link CompactSerializationProtocol}.
+ * <p>
+ * An artifact selects it instead of the default {@link JavaObjectSerializer} by declaring it as a global object and
+ * referencing it from the {@code defaultObjectSerializer-ref} attribute of its configuration.
+ *
+ * @since 4.1
+ */
+public class CompactObjectSerializer implements ObjectSerializer, MuleContextAware {
+
+  private volatile CompactSerializationProtocol compactSerializationProtocol = new CompactSerializationProtocol();
+
+  @Override
+  public SerializationProtocol getInternalProtocol() {
+    return compactSerializationProtocol;
+  }
+
+  @Override
+  public SerializationProtocol getExternalProtocol() {
+    return compactSerializationProtocol;
+  }
+
+  @Override
+  public void setMuleContext(MuleContext context) {
+    compactSerializationProtocol.setMuleContext(context);
+  }
+}
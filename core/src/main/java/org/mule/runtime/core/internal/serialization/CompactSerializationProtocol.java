@@ -0,0 +1,702 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Float.floatToRawIntBits;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.Arrays.copyOfRange;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.metadata.DataType.OBJECT;
+import static org.mule.runtime.api.metadata.MediaType.ANY;
+import static org.mule.runtime.api.metadata.MediaType.parse;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.CollectionDataType;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.DataTypeBuilder;
+import org.mule.runtime.api.metadata.DataTypeBuilder.DataTypeCollectionTypeBuilder;
+import org.mule.runtime.api.metadata.MapDataType;
+import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder.InternalEventImplementation;
+import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.metadata.DefaultCollectionDataType;
+import org.mule.runtime.core.internal.metadata.DefaultMapDataType;
+import org.mule.runtime.core.internal.metadata.SimpleDataType;
+import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
+import org.mule.runtime.core.internal.util.SerializationUtils;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link SerializationProtocol} which writes a compact binary format for the types that Mule most commonly
+ * persists or sends over the wire: strings, boxed primitives, byte arrays, {@link ArrayList}s, {@link HashMap}s and
+ * {@link LinkedHashMap}s, {@link TypedValue}s, {@link DataType}s, {@link InternalMessage messages}, {@link CoreEvent events}
+ * and {@link CursorStreamProvider}s, which are read back as a provider of their contents. Any other value is written with
+ * Java serialization, so the same objects which can be serialized with {@link JavaExternalSerializerProtocol} can be
+ * serialized with this one.
+ * <p>
+ * Class names and media types are written through a dictionary, so that each distinct value is written only once per
+ * serialized object graph. Values which are common to most applications are part of a static dictionary and are never written
+ * inline.
+ * <p>
+ * The fields of {@link TypedValue}s, {@link DataType}s, messages and events are prefixed with their count. Readers use defaults
+ * for the fields missing from data written by older versions, and discard the fields they don't know about from data written
+ * by newer versions. The values of the types added after the first version are prefixed with their length, so that such
+ * fields can be discarded even when their type is unknown to the reader.
+ * <p>
+ * Data written with Java serialization, such as the one persisted by previous versions of an application using
+ * {@link JavaObjectSerializer}, can also be read with this protocol.
+ * <p>
+ * The buffers used to write the binary format are pooled per thread.
+ *
+ * @since 4.1
+ */
+public class CompactSerializationProtocol extends AbstractSerializationProtocol {
+
+  private static final byte MAGIC = (byte) 0xC0;
+  private static final byte VERSION = 1;
+
+  private static final byte JAVA_STREAM_MAGIC = (byte) 0xAC;
+
+  private static final int INITIAL_BUFFER_SIZE = 256;
+  private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_INITIAL_LIST_CAPACITY = 1024;
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INT = 2;
+  private static final byte LONG = 3;
+  private static final byte TRUE = 4;
+  private static final byte FALSE = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte FLOAT = 7;
+  private static final byte SHORT = 8;
+  private static final byte BYTE = 9;
+  private static final byte CHAR = 10;
+  private static final byte BYTES = 11;
+  private static final byte ARRAY_LIST = 12;
+  private static final byte HASH_MAP = 13;
+  private static final byte LINKED_HASH_MAP = 14;
+  private static final byte TYPED_VALUE = 15;
+  private static final byte DATA_TYPE = 16;
+  private static final byte MESSAGE = 17;
+  private static final byte JAVA = 18;
+  private static final byte COLLECTION_DATA_TYPE = 19;
+  private static final byte MAP_DATA_TYPE = 20;
+  private static final byte CURSOR_STREAM_PROVIDER = 21;
+  private static final byte EVENT = 22;
+
+  /**
+   * Values with a tag from this one on are prefixed with their length, so that readers can skip the ones they don't know
+   * about. Tags added in the future must keep this layout.
+   */
+  private static final byte FIRST_DELIMITED_TAG = CURSOR_STREAM_PROVIDER;
+  private static final byte LAST_KNOWN_TAG = EVENT;
+
+  private static final int TYPED_VALUE_FIELDS = 2;
+  private static final int DATA_TYPE_FIELDS = 2;
+  private static final int COLLECTION_DATA_TYPE_FIELDS = 3;
+  private static final int MAP_DATA_TYPE_FIELDS = 4;
+  private static final int MESSAGE_FIELDS = 2;
+  private static final int EVENT_FIELDS = 4;
+
+  /**
+   * Static part of the dictionary of class names and media types. Entries can only be appended to it, since data written
+   * by previous versions refers to the existing ones by index.
+   */
+  private static final String[] DICTIONARY_SEEDS = {
+      "java.lang.Object",
+      "java.lang.String",
+      "[B",
+      "java.io.InputStream",
+      "java.io.Serializable",
+      "java.lang.Integer",
+      "java.lang.Long",
+      "java.lang.Boolean",
+      "java.lang.Double",
+      "java.util.Map",
+      "java.util.List",
+      "java.util.Collection",
+      "java.util.Iterator",
+      "org.mule.runtime.api.streaming.bytes.CursorStreamProvider",
+      "org.mule.runtime.api.streaming.object.CursorIteratorProvider",
+      "org.mule.runtime.api.message.Message",
+      "*/*",
+      "text/plain",
+      "application/json",
+      "application/xml",
+      "application/java",
+      "application/octet-stream",
+      "text/plain; charset=UTF-8",
+      "application/json; charset=UTF-8",
+      "application/xml; charset=UTF-8"
+  };
+
+  private static final Map<String, Integer> DICTIONARY_SEEDS_INDEX = new HashMap<>();
+
+  private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+  static {
+    for (int i = 0; i < DICTIONARY_SEEDS.length; ++i) {
+      DICTIONARY_SEEDS_INDEX.put(DICTIONARY_SEEDS[i], i);
+    }
+
+    for (Class<?> primitive : new Class<?>[] {boolean.class, byte.class, char.class, short.class, int.class, long.class,
+        float.class, double.class, void.class}) {
+      PRIMITIVE_TYPES.put(primitive.getName(), primitive);
+    }
+  }
+
+  private final ThreadLocal<CompactBinaryOutput> buffers = new ThreadLocal<>();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Object object, OutputStream out) throws SerializationException {
+    CompactBinaryOutput buffer = acquireBuffer();
+    try {
+      write(object, buffer);
+      buffer.writeTo(out);
+      out.flush();
+    } catch (SerializationException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new SerializationException("Could not serialize object", e);
+    } finally {
+      releaseBuffer(buffer);
+      closeQuietly(out);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] doSerialize(Object object) throws Exception {
+    CompactBinaryOutput buffer = acquireBuffer();
+    try {
+      write(object, buffer);
+      return buffer.toByteArray();
+    } finally {
+      releaseBuffer(buffer);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception {
+    checkArgument(inputStream != null, "Cannot deserialize a null stream");
+    checkArgument(classLoader != null, "Cannot deserialize with a null classloader");
+
+    byte[] bytes = toByteArray(inputStream);
+    if (bytes.length > 0 && bytes[0] == JAVA_STREAM_MAGIC) {
+      return (T) SerializationUtils.deserialize(new ByteArrayInputStream(bytes), classLoader, muleContext);
+    }
+
+    CompactBinaryInput input = new CompactBinaryInput(bytes, 0, bytes.length);
+    if (input.readByte() != MAGIC) {
+      throw new StreamCorruptedException("Not a compact serialization stream");
+    }
+    byte version = input.readByte();
+    if (version > VERSION) {
+      throw new StreamCorruptedException(format("Unsupported compact serialization version %d", version));
+    }
+
+    return (T) new Reader(input, classLoader).readValue();
+  }
+
+  @Override
+  protected <T> T postInitialize(T object) {
+    // does nothing since the values written with Java serialization are already initialized when read
+    return object;
+  }
+
+  private void write(Object object, CompactBinaryOutput out) throws IOException {
+    out.write(MAGIC);
+    out.write(VERSION);
+    writeValue(object, out);
+  }
+
+  private void writeValue(Object value, CompactBinaryOutput out) throws IOException {
+    if (value == null) {
+      out.write(NULL);
+      return;
+    }
+
+    final Class<?> type = value.getClass();
+    if (type == String.class) {
+      out.write(STRING);
+      out.writeString((String) value);
+    } else if (type == Integer.class) {
+      out.write(INT);
+      out.writeSignedVarInt((Integer) value);
+    } else if (type == Long.class) {
+      out.write(LONG);
+      out.writeSignedVarLong((Long) value);
+    } else if (type == Boolean.class) {
+      out.write((Boolean) value ? TRUE : FALSE);
+    } else if (type == Double.class) {
+      out.write(DOUBLE);
+      out.writeFixedLong(doubleToRawLongBits((Double) value));
+    } else if (type == Float.class) {
+      out.write(FLOAT);
+      out.writeFixedInt(floatToRawIntBits((Float) value));
+    } else if (type == Short.class) {
+      out.write(SHORT);
+      out.writeSignedVarInt((Short) value);
+    } else if (type == Byte.class) {
+      out.write(BYTE);
+      out.write((Byte) value);
+    } else if (type == Character.class) {
+      out.write(CHAR);
+      out.writeVarInt((Character) value);
+    } else if (type == byte[].class) {
+      out.write(BYTES);
+      out.writeBytes((byte[]) value);
+    } else if (type == ArrayList.class) {
+      writeList((List<?>) value, out);
+    } else if (type == HashMap.class) {
+      out.write(HASH_MAP);
+      writeMapEntries((Map<?, ?>) value, out);
+    } else if (type == LinkedHashMap.class) {
+      out.write(LINKED_HASH_MAP);
+      writeMapEntries((Map<?, ?>) value, out);
+    } else if (type == TypedValue.class) {
+      writeTypedValue((TypedValue<?>) value, out);
+    } else if (value instanceof DataType) {
+      writeDataType((DataType) value, out);
+    } else if (value instanceof InternalMessage && isCompactMessage((InternalMessage) value)) {
+      writeMessage((InternalMessage) value, out);
+    } else if (type == InternalEventImplementation.class && isCompactEvent((InternalEvent) value)) {
+      writeEvent((InternalEvent) value, out);
+    } else if (value instanceof CursorStreamProvider) {
+      writeCursorProvider((CursorStreamProvider) value, out);
+    } else {
+      writeJava(value, out);
+    }
+  }
+
+  private void writeList(List<?> list, CompactBinaryOutput out) throws IOException {
+    out.write(ARRAY_LIST);
+    out.writeVarInt(list.size());
+    for (Object item : list) {
+      writeValue(item, out);
+    }
+  }
+
+  private void writeMapEntries(Map<?, ?> map, CompactBinaryOutput out) throws IOException {
+    out.writeVarInt(map.size());
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      writeValue(entry.getKey(), out);
+      writeValue(entry.getValue(), out);
+    }
+  }
+
+  private void writeTypedValue(TypedValue<?> typedValue, CompactBinaryOutput out) throws IOException {
+    out.write(TYPED_VALUE);
+    out.writeVarInt(TYPED_VALUE_FIELDS);
+    writeValue(typedValue.getValue(), out);
+    writeValue(typedValue.getDataType(), out);
+  }
+
+  private void writeDataType(DataType dataType, CompactBinaryOutput out) throws IOException {
+    final Class<?> type = dataType.getClass();
+    if (type == SimpleDataType.class) {
+      out.write(DATA_TYPE);
+      out.writeVarInt(DATA_TYPE_FIELDS);
+      writeDataTypeFields(dataType, out);
+    } else if (type == DefaultCollectionDataType.class && isSimple(((CollectionDataType) dataType).getItemDataType())) {
+      out.write(COLLECTION_DATA_TYPE);
+      out.writeVarInt(COLLECTION_DATA_TYPE_FIELDS);
+      writeDataTypeFields(dataType, out);
+      writeValue(((CollectionDataType) dataType).getItemDataType(), out);
+    } else if (type == DefaultMapDataType.class && isSimple(((MapDataType) dataType).getKeyDataType())
+        && isSimple(((MapDataType) dataType).getValueDataType())) {
+      out.write(MAP_DATA_TYPE);
+      out.writeVarInt(MAP_DATA_TYPE_FIELDS);
+      writeDataTypeFields(dataType, out);
+      writeValue(((MapDataType) dataType).getKeyDataType(), out);
+      writeValue(((MapDataType) dataType).getValueDataType(), out);
+    } else {
+      // nested collection or map types and function types are not common enough to be worth a compact representation
+      writeJava(dataType, out);
+    }
+  }
+
+  private void writeDataTypeFields(DataType dataType, CompactBinaryOutput out) {
+    writeDictionaryString(dataType.getType().getName(), out);
+    writeDictionaryString(dataType.getMediaType().toRfcString(), out);
+  }
+
+  private boolean isSimple(DataType dataType) {
+    return dataType.getClass() == SimpleDataType.class;
+  }
+
+  /**
+   * Only messages without the deprecated properties, attachments and exception payload are written in the compact format,
+   * the rest are written with Java serialization.
+   */
+  private boolean isCompactMessage(InternalMessage message) {
+    return message.getExceptionPayload() == null
+        && message.getInboundPropertyNames().isEmpty()
+        && message.getOutboundPropertyNames().isEmpty()
+        && message.getInboundAttachmentNames().isEmpty()
+        && message.getOutboundAttachmentNames().isEmpty();
+  }
+
+  private void writeMessage(InternalMessage message, CompactBinaryOutput out) throws IOException {
+    out.write(MESSAGE);
+    out.writeVarInt(MESSAGE_FIELDS);
+    writeTypedValue(message.getPayload(), out);
+    writeTypedValue(message.getAttributes(), out);
+  }
+
+  /**
+   * Only events without an error, security context, group correlation or the deprecated transport state are written in the
+   * compact format, the rest are written with Java serialization.
+   */
+  private boolean isCompactEvent(InternalEvent event) {
+    return !event.getError().isPresent()
+        && !event.getGroupCorrelation().isPresent()
+        && event.getSecurityContext() == null
+        && event.getLegacyCorrelationId() == null
+        && event.getReplyToHandler() == null
+        && event.getReplyToDestination() == null
+        && event.getInternalParameters().isEmpty()
+        && (event.getSession() == null || event.getSession().getPropertyNamesAsSet().isEmpty());
+  }
+
+  private void writeEvent(InternalEvent event, CompactBinaryOutput out) throws IOException {
+    out.write(EVENT);
+    int lengthPosition = out.size();
+    out.writeFixedInt(0);
+    int dictionarySize = out.dictionarySize();
+
+    out.writeVarInt(EVENT_FIELDS);
+    // the context holds the flow call stack and the parent contexts, so it is written with Java serialization
+    writeValue(event.getContext(), out);
+    writeValue(event.getMessage(), out);
+    out.writeVarInt(event.getVariables().size());
+    for (Map.Entry<String, TypedValue<?>> variable : event.getVariables().entrySet()) {
+      out.writeString(variable.getKey());
+      writeTypedValue(variable.getValue(), out);
+    }
+    out.write(event.isNotificationsEnabled() ? TRUE : FALSE);
+
+    // readers which skip the event don't get the dictionary entries written within it
+    out.truncateDictionary(dictionarySize);
+    out.setFixedInt(lengthPosition, out.size() - lengthPosition - 4);
+  }
+
+  private void writeCursorProvider(CursorStreamProvider provider, CompactBinaryOutput out) throws IOException {
+    byte[] content = readCursorProvider(provider);
+    out.write(CURSOR_STREAM_PROVIDER);
+    out.writeFixedInt(content.length);
+    out.write(content, 0, content.length);
+  }
+
+  private void writeJava(Object value, CompactBinaryOutput out) throws IOException {
+    if (!(value instanceof Serializable)) {
+      throw new SerializationException(format("Was expecting a Serializable type. %s was found instead",
+                                              value.getClass().getName()));
+    }
+
+    out.write(JAVA);
+    int lengthPosition = out.size();
+    out.writeFixedInt(0);
+    ObjectOutputStream objectOut = new ObjectOutputStream(out);
+    objectOut.writeObject(value);
+    objectOut.flush();
+    out.setFixedInt(lengthPosition, out.size() - lengthPosition - 4);
+  }
+
+  private void writeDictionaryString(String value, CompactBinaryOutput out) {
+    out.writeDictionaryString(value, DICTIONARY_SEEDS_INDEX.get(value), DICTIONARY_SEEDS.length);
+  }
+
+  private byte[] readCursorProvider(CursorStreamProvider provider) throws IOException {
+    try (CursorStream cursor = provider.openCursor()) {
+      return toByteArray(cursor);
+    } catch (IOException e) {
+      throw new SerializationException(createStaticMessage("Could not serialize cursor stream"), e);
+    }
+  }
+
+  /**
+   * Takes the buffer pooled for the current thread, so that it is not shared in case of reentrant serializations, for
+   * example from the {@code writeObject} method of a value written with Java serialization.
+   */
+  private CompactBinaryOutput acquireBuffer() {
+    CompactBinaryOutput buffer = buffers.get();
+    if (buffer == null) {
+      return new CompactBinaryOutput(INITIAL_BUFFER_SIZE);
+    }
+
+    buffers.remove();
+    return buffer;
+  }
+
+  private void releaseBuffer(CompactBinaryOutput buffer) {
+    // buffers that grew too much are discarded so that a single big object doesn't hold that memory for the thread's lifetime
+    if (buffer.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+      buffer.reset();
+      buffers.set(buffer);
+    }
+  }
+
+  /**
+   * Reads the values of a single deserialization, caching the classes resolved from the dictionary.
+   */
+  private class Reader {
+
+    private final CompactBinaryInput input;
+    private final ClassLoader classLoader;
+    private final Map<String, Class<?>> classes = new HashMap<>();
+
+    private Reader(CompactBinaryInput input, ClassLoader classLoader) {
+      this.input = input;
+      this.classLoader = classLoader;
+    }
+
+    private Object readValue() throws IOException, ClassNotFoundException {
+      return readValue(input.readByte());
+    }
+
+    private Object readValue(byte tag) throws IOException, ClassNotFoundException {
+      switch (tag) {
+        case NULL:
+          return null;
+        case STRING:
+          return input.readString();
+        case INT:
+          return input.readSignedVarInt();
+        case LONG:
+          return input.readSignedVarLong();
+        case TRUE:
+          return true;
+        case FALSE:
+          return false;
+        case DOUBLE:
+          return longBitsToDouble(input.readFixedLong());
+        case FLOAT:
+          return intBitsToFloat(input.readFixedInt());
+        case SHORT:
+          return (short) input.readSignedVarInt();
+        case BYTE:
+          return input.readByte();
+        case CHAR:
+          return (char) input.readVarInt();
+        case BYTES:
+          return input.readBytes();
+        case ARRAY_LIST:
+          return readList();
+        case HASH_MAP:
+          return readMapEntries(new HashMap<>());
+        case LINKED_HASH_MAP:
+          return readMapEntries(new LinkedHashMap<>());
+        case TYPED_VALUE:
+          return readTypedValue();
+        case DATA_TYPE:
+          return readDataType();
+        case COLLECTION_DATA_TYPE:
+          return readCollectionDataType();
+        case MAP_DATA_TYPE:
+          return readMapDataType();
+        case MESSAGE:
+          return readMessage();
+        case JAVA:
+          return readJava();
+        case CURSOR_STREAM_PROVIDER:
+          return readStreamProvider();
+        case EVENT:
+          return readEvent();
+        default:
+          throw new StreamCorruptedException(format("Unknown type tag %d", tag));
+      }
+    }
+
+    private List<Object> readList() throws IOException, ClassNotFoundException {
+      int size = input.readCount();
+      // the count is not trusted to size the list upfront, it only grows as the elements are actually read
+      List<Object> list = new ArrayList<>(min(size, MAX_INITIAL_LIST_CAPACITY));
+      for (int i = 0; i < size; ++i) {
+        list.add(readValue());
+      }
+      return list;
+    }
+
+    private Map<Object, Object> readMapEntries(Map<Object, Object> map) throws IOException, ClassNotFoundException {
+      int size = input.readCount();
+      for (int i = 0; i < size; ++i) {
+        map.put(readValue(), readValue());
+      }
+      return map;
+    }
+
+    private TypedValue<?> readTypedValue() throws IOException, ClassNotFoundException {
+      int fields = input.readVarInt();
+      Object value = fields > 0 ? readValue() : null;
+      DataType dataType = fields > 1 ? (DataType) readValue() : null;
+      skipFields(fields, TYPED_VALUE_FIELDS);
+
+      return dataType != null ? new TypedValue<>(value, dataType) : TypedValue.of(value);
+    }
+
+    private DataType readDataType() throws IOException, ClassNotFoundException {
+      int fields = input.readVarInt();
+      Class<?> type = fields > 0 ? readClass() : Object.class;
+      MediaType mediaType = fields > 1 ? readMediaType() : ANY;
+      skipFields(fields, DATA_TYPE_FIELDS);
+
+      return DataType.builder().type(type).mediaType(mediaType).build();
+    }
+
+    private DataType readCollectionDataType() throws IOException, ClassNotFoundException {
+      int fields = input.readVarInt();
+      Class<?> type = fields > 0 ? readClass() : Collection.class;
+      MediaType mediaType = fields > 1 ? readMediaType() : ANY;
+      DataType itemType = fields > 2 ? (DataType) readValue() : OBJECT;
+      skipFields(fields, COLLECTION_DATA_TYPE_FIELDS);
+
+      DataTypeBuilder builder = DataType.builder().mediaType(mediaType);
+      DataTypeCollectionTypeBuilder collectionBuilder = Iterator.class.isAssignableFrom(type)
+          ? builder.streamType((Class<? extends Iterator>) type)
+          : builder.collectionType((Class<? extends Collection>) type);
+      return collectionBuilder.itemType(itemType.getType()).itemMediaType(itemType.getMediaType()).build();
+    }
+
+    private DataType readMapDataType() throws IOException, ClassNotFoundException {
+      int fields = input.readVarInt();
+      Class<?> type = fields > 0 ? readClass() : Map.class;
+      MediaType mediaType = fields > 1 ? readMediaType() : ANY;
+      DataType keyType = fields > 2 ? (DataType) readValue() : OBJECT;
+      DataType valueType = fields > 3 ? (DataType) readValue() : OBJECT;
+      skipFields(fields, MAP_DATA_TYPE_FIELDS);
+
+      return DataType.builder().mediaType(mediaType).mapType((Class<? extends Map>) type)
+          .keyType(keyType.getType()).keyMediaType(keyType.getMediaType())
+          .valueType(valueType.getType()).valueMediaType(valueType.getMediaType())
+          .build();
+    }
+
+    private Class<?> readClass() throws IOException, ClassNotFoundException {
+      return resolveClass(input.readDictionaryString(DICTIONARY_SEEDS));
+    }
+
+    private MediaType readMediaType() throws IOException {
+      return parse(input.readDictionaryString(DICTIONARY_SEEDS));
+    }
+
+    private InternalMessage readMessage() throws IOException, ClassNotFoundException {
+      int fields = input.readVarInt();
+      TypedValue<?> payload = fields > 0 ? (TypedValue<?>) readValue() : TypedValue.of(null);
+      TypedValue<?> attributes = fields > 1 ? (TypedValue<?>) readValue() : TypedValue.of(null);
+      skipFields(fields, MESSAGE_FIELDS);
+
+      return InternalMessage.builder().payload(payload).attributes(attributes).build();
+    }
+
+    private InternalEvent readEvent() throws IOException, ClassNotFoundException {
+      // the length is only needed by readers which don't know about events
+      input.readFixedInt();
+      int dictionarySize = input.dictionarySize();
+
+      int fields = input.readVarInt();
+      if (fields < 1) {
+        throw new StreamCorruptedException("Event without context");
+      }
+      InternalEvent.Builder builder = InternalEvent.builder((BaseEventContext) readValue());
+      builder.message(fields > 1 ? (Message) readValue() : Message.of(null));
+      if (fields > 2) {
+        int variables = input.readCount();
+        for (int i = 0; i < variables; ++i) {
+          String name = input.readString();
+          TypedValue<?> value = (TypedValue<?>) readValue();
+          builder.addVariable(name, value.getValue(), value.getDataType());
+        }
+      }
+      if (fields > 3 && !(Boolean) readValue()) {
+        builder.disableNotifications();
+      }
+      skipFields(fields, EVENT_FIELDS);
+
+      input.truncateDictionary(dictionarySize);
+      return builder.build();
+    }
+
+    private CursorStreamProvider readStreamProvider() throws IOException {
+      int length = input.readFixedInt();
+      int offset = input.position();
+      input.skip(length);
+      return new ByteArrayCursorStreamProvider(copyOfRange(input.buffer(), offset, offset + length));
+    }
+
+    private Object readJava() throws IOException {
+      int length = input.readFixedInt();
+      int offset = input.position();
+      input.skip(length);
+      return SerializationUtils.deserialize(new ByteArrayInputStream(input.buffer(), offset, length), classLoader,
+                                            muleContext);
+    }
+
+    /**
+     * Discards the fields written by newer versions of this protocol.
+     */
+    private void skipFields(int fields, int knownFields) throws IOException, ClassNotFoundException {
+      for (int i = knownFields; i < fields; ++i) {
+        byte tag = input.readByte();
+        if (tag > LAST_KNOWN_TAG && tag >= FIRST_DELIMITED_TAG) {
+          input.skip(input.readFixedInt());
+        } else {
+          readValue(tag);
+        }
+      }
+    }
+
+    private Class<?> resolveClass(String className) throws ClassNotFoundException {
+      Class<?> type = classes.get(className);
+      if (type == null) {
+        type = PRIMITIVE_TYPES.get(className);
+        if (type == null) {
+          type = Class.forName(className, false, classLoader);
+        }
+        classes.put(className, type);
+      }
+      return type;
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A partition of a {@link PartitionedInMemoryObjectStore}.
+ * <p>
+ * Entries are kept in a hash map, and also in a queue ordered by the time in which they were stored. Since keys cannot be
+ * overwritten, the head of that queue is always the oldest entry, so expiring entries by time to live or max size only
+ * visits the entries which are actually removed, plus the first one which is kept.
+ * <p>
+ * Removing an entry doesn't look it up in the queue. Instead, the queue element is discarded once it reaches the head, or
+ * when removed elements make up most of the queue, in which case it is purged.
+ *
+ * @since 4.1
+ */
+final class InMemoryObjectStorePartition<T extends Serializable> implements ObjectStorePartitionStatistics {
+
+  private static final int MIN_PURGE_SIZE = 1024;
+
+  private final ConcurrentMap<String, StoredEntry<T>> entries = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<StoredEntry<T>> expiryQueue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger expiryQueueSize = new AtomicInteger();
+  private final LongAdder expiredEntries = new LongAdder();
+  private final LongAdder evictedEntries = new LongAdder();
+
+  boolean contains(String key) {
+    return entries.containsKey(key);
+  }
+
+  /**
+   * @return {@code true} if the value was stored, {@code false} if the key was already present
+   */
+  boolean store(String key, T value, long nanoTime) {
+    StoredEntry<T> entry = new StoredEntry<>(key, value, nanoTime);
+    if (entries.putIfAbsent(key, entry) != null) {
+      return false;
+    }
+
+    expiryQueue.add(entry);
+    expiryQueueSize.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * @return the value associated to the key, or {@code null} if not present
+   */
+  T retrieve(String key) {
+    StoredEntry<T> entry = entries.get(key);
+    return entry != null ? entry.value : null;
+  }
+
+  /**
+   * @return the removed value, or {@code null} if not present
+   */
+  T remove(String key) {
+    StoredEntry<T> entry = entries.remove(key);
+    if (entry == null) {
+      return null;
+    }
+
+    purgeIfNeeded();
+    return entry.value;
+  }
+
+  List<String> allKeys() {
+    return new ArrayList<>(entries.keySet());
+  }
+
+  Map<String, T> retrieveAll() {
+    Map<String, T> values = new LinkedHashMap<>(entries.size());
+    entries.forEach((key, entry) -> values.put(key, entry.value));
+    return values;
+  }
+
+  void clear() {
+    entries.clear();
+    expiryQueue.clear();
+    expiryQueueSize.set(0);
+  }
+
+  /**
+   * Removes the oldest entries until the partition holds no more than {@code maxEntries}, and then the entries older
+   * than {@code entryTTL}.
+   *
+   * @return the amount of removed entries
+   */
+  int expire(long entryTTL, int maxEntries, long nanoTime) {
+    int removed = 0;
+    StoredEntry<T> oldest;
+
+    while ((oldest = expiryQueue.peek()) != null) {
+      if (entries.get(oldest.key) != oldest) {
+        // already removed
+        pollExpiryQueue(oldest);
+        continue;
+      }
+
+      if (maxEntries != UNBOUNDED && entries.size() > maxEntries) {
+        if (evict(oldest)) {
+          evictedEntries.increment();
+          removed++;
+        }
+      } else if (entryTTL != UNBOUNDED && NANOSECONDS.toMillis(nanoTime - oldest.time) >= entryTTL) {
+        if (evict(oldest)) {
+          expiredEntries.increment();
+          removed++;
+        }
+      } else {
+        break;
+      }
+    }
+
+    return removed;
+  }
+
+  private boolean evict(StoredEntry<T> entry) {
+    pollExpiryQueue(entry);
+    return entries.remove(entry.key, entry);
+  }
+
+  private void pollExpiryQueue(StoredEntry<T> expected) {
+    if (expiryQueue.remove(expected)) {
+      expiryQueueSize.decrementAndGet();
+    }
+  }
+
+  private void purgeIfNeeded() {
+    final int queued = expiryQueueSize.get();
+    if (queued > MIN_PURGE_SIZE && queued > 2 * entries.size()) {
+      expiryQueue.removeIf(entry -> {
+        if (entries.get(entry.key) != entry) {
+          expiryQueueSize.decrementAndGet();
+          return true;
+        }
+        return false;
+      });
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return entries.size();
+  }
+
+  @Override
+  public long getExpiredEntries() {
+    return expiredEntries.sum();
+  }
+
+  @Override
+  public long getEvictedEntries() {
+    return evictedEntries.sum();
+  }
+
+  private static final class StoredEntry<T> {
+
+    private final String key;
+    private final T value;
+    private final long time;
+
+    private StoredEntry(String key, T value, long time) {
+      this.key = key;
+      this.value = value;
+      this.time = time;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+/**
+ * Statistics about the contents of a partition of an object store and the entries which were evicted from it.
+ *
+ * @since 4.1
+ */
+public interface ObjectStorePartitionStatistics {
+
+  /**
+   * @return the amount of entries currently held in the partition
+   */
+  int getSize();
+
+  /**
+   * @return the amount of entries which have been removed from the partition because their time to live elapsed
+   */
+  long getExpiredEntries();
+
+  /**
+   * @return the amount of entries which have been removed from the partition because it exceeded its max size
+   */
+  long getEvictedEntries();
+}
@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static org.mule.runtime.core.internal.util.store.IndexedPersistentObjectStorePartition.isIndexedPartition;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.i18n.I18nMessage;
+import org.mule.runtime.api.store.ExpirableObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
@@ -17,6 +19,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.IndexedPersistentObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -37,8 +40,9 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
 
   private MuleContext muleContext;
   private File storeDirectory;
-  private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
+  private Map<String, ExpirableObjectStore<T>> partitionsByName = new HashMap<>();
   private boolean initialized = false;
+  private volatile boolean useIndexedPartitions = false;
 
   public PartitionedPersistentObjectStore() {
     super();
@@ -77,10 +81,14 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   public void close(String partitionName) throws ObjectStoreException {}
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
-    persistentObjectStorePartition.open();
-    partitionsByName.put(partitionName, persistentObjectStorePartition);
+    ExpirableObjectStore<T> partition;
+    if (useIndexedPartitions) {
+      partition = new IndexedPersistentObjectStorePartition<>(muleContext, partitionName, getNewPartitionDirectory());
+    } else {
+      partition = new PersistentObjectStorePartition<>(muleContext, partitionName, getNewPartitionDirectory());
+    }
+    partition.open();
+    partitionsByName.put(partitionName, partition);
   }
 
   private File getNewPartitionDirectory() {
@@ -127,7 +135,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     getPartitionObjectStore(partitionName).clear();
   }
 
-  private PersistentObjectStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
+  private ExpirableObjectStore<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
     if (!partitionsByName.containsKey(partitionName)) {
       throw new ObjectStoreException(CoreMessages.createStaticMessage("No partition named: " + partitionName));
     }
@@ -182,10 +190,16 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
-        persistentObjectStorePartition.open();
-        partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
+        if (isIndexedPartition(partitionDirectory)) {
+          IndexedPersistentObjectStorePartition<T> partition =
+              new IndexedPersistentObjectStorePartition<>(muleContext, partitionDirectory);
+          partition.open();
+          partitionsByName.put(partition.getPartitionName(), partition);
+        } else {
+          PersistentObjectStorePartition<T> partition = new PersistentObjectStorePartition<>(muleContext, partitionDirectory);
+          partition.open();
+          partitionsByName.put(partition.getPartitionName(), partition);
+        }
       } catch (Exception e) {
         LOGGER.error("Could not restore partition under directory " + partitionDirectory.getAbsolutePath());
       }
@@ -197,6 +211,15 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     muleContext = context;
   }
 
+  /**
+   * @param useIndexedPartitions whether new partitions are created as {@link IndexedPersistentObjectStorePartition} instances,
+   *        which keep all their entries in a single data file, instead of using one file per entry. Partitions which already
+   *        exist on disk are always restored using the format they were created with.
+   */
+  public void setUseIndexedPartitions(boolean useIndexedPartitions) {
+    this.useIndexedPartitions = useIndexedPartitions;
+  }
+
   @Override
   public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
     expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.streaming;
 import org.mule.runtime.core.api.streaming.StreamingStatistics;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Mutable implementation of {@link StreamingStatistics}
@@ -19,6 +20,9 @@ public class MutableStreamingStatistics implements StreamingStatistics {
 
   private final AtomicInteger openProviders = new AtomicInteger(0);
   private final AtomicInteger openCursors = new AtomicInteger(0);
+  private final LongAdder bufferPoolHits = new LongAdder();
+  private final LongAdder bufferPoolMisses = new LongAdder();
+  private final LongAdder bufferPoolWaits = new LongAdder();
 
   void incrementOpenProviders() {
     openProviders.incrementAndGet();
@@ -36,6 +40,18 @@ public class MutableStreamingStatistics implements StreamingStatistics {
     openCursors.decrementAndGet();
   }
 
+  public void bufferPoolHit() {
+    bufferPoolHits.increment();
+  }
+
+  public void bufferPoolMiss() {
+    bufferPoolMisses.increment();
+  }
+
+  public void bufferPoolWait() {
+    bufferPoolWaits.increment();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -51,4 +67,28 @@ public class MutableStreamingStatistics implements StreamingStatistics {
   public int getOpenCursorsCount() {
     return openCursors.get();
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getBufferPoolHits() {
+    return bufferPoolHits.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getBufferPoolMisses() {
+    return bufferPoolMisses.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getBufferPoolWaits() {
+    return bufferPoolWaits.sum();
+  }
 }
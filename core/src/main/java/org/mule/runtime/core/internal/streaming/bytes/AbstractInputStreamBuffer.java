@@ -8,7 +8,6 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
-import static java.lang.System.arraycopy;
 import static java.nio.channels.Channels.newChannel;
 import static org.mule.runtime.api.util.Preconditions.checkState;
 import org.mule.runtime.api.util.LazyValue;
@@ -170,18 +169,28 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   protected abstract boolean canDoSoftCopy();
 
   private ByteBuffer softCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    final ByteBuffer b = buffer.get();
-    return ByteBuffer.wrap(b.array(), offset, min(length, b.limit() - offset)).slice();
+    return slice(position, length).slice();
   }
 
   private ByteBuffer hardCopy(long position, int length) {
+    final ByteBuffer slice = slice(position, length);
+    final ByteBuffer copy = ByteBuffer.allocate(slice.remaining());
+    copy.put(slice);
+    copy.flip();
+
+    return copy;
+  }
+
+  /**
+   * Works over a duplicate of the {@link #buffer} so that it doesn't rely on it being backed by an accessible array
+   * (which is not the case of direct buffers) and doesn't alter its position.
+   */
+  private ByteBuffer slice(long position, int length) {
     final int offset = toIntExact(position);
-    final ByteBuffer bf = buffer.get();
-    length = min(length, bf.limit() - offset);
+    final ByteBuffer b = buffer.get().duplicate();
+    b.limit(offset + min(length, b.limit() - offset));
+    b.position(offset);
 
-    byte[] b = new byte[length];
-    arraycopy(bf.array(), offset, b, 0, length);
-    return ByteBuffer.wrap(b);
+    return b;
   }
 }
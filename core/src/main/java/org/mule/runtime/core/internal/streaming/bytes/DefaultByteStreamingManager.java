@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
 import org.mule.runtime.core.api.streaming.bytes.factory.InMemoryCursorStreamProviderFactory;
+import org.mule.runtime.core.internal.streaming.bytes.factory.FileStoreCursorStreamProviderFactory;
 import org.mule.runtime.core.internal.streaming.bytes.factory.NullCursorStreamProviderFactory;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.streaming.bytes.ByteStreamingManager;
@@ -37,6 +38,18 @@ public class DefaultByteStreamingManager implements ByteStreamingManager {
     return new InMemoryCursorStreamProviderFactory(bufferManager, config, streamingManager);
   }
 
+  /**
+   * Creates a {@link CursorStreamProviderFactory} which buffers in memory up to the configured size and overflows
+   * into a local file afterwards
+   *
+   * @param config the configuration for the produced providers
+   * @return a new {@link CursorStreamProviderFactory}
+   * @since 4.1
+   */
+  public CursorStreamProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorStreamConfig config) {
+    return new FileStoreCursorStreamProviderFactory(bufferManager, config, streamingManager);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds up to a certain amount of the buffered information
+ * in memory and overflows the rest into a temporal file.
+ * <p>
+ * The first {@link FileStoreCursorStreamConfig#getMaxInMemorySize()} bytes of the stream are kept in a single buffer
+ * obtained from the {@link ByteBufferManager}. Once that buffer is full, the rest of the stream is appended to a
+ * temporal file through a {@link FileChannel}. Data is then read back from that file using positional reads, which don't
+ * alter the channel's state and thus can be safely performed by many cursors at the same time. Reads of large segments
+ * are served through a memory mapped region of the file instead.
+ * <p>
+ * Because the in memory buffer is never expanded nor replaced, the heap cost of each stream is bounded by the configured
+ * in memory size, no matter how big the stream is.
+ * <p>
+ * The temporal file is created lazily, so streams which fit in memory never touch the disk. It is deleted when this buffer
+ * is closed.
+ *
+ * @since 4.1
+ */
+public class FileStoreInputStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final int FILE_WRITE_CHUNK_SIZE = KB.toBytes(32);
+  private static final int MEMORY_MAPPING_THRESHOLD = KB.toBytes(512);
+
+  private final int maxInMemorySize;
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private volatile long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   */
+  public FileStoreInputStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager, config.getMaxInMemorySize().toBytes());
+    maxInMemorySize = config.getMaxInMemorySize().toBytes();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    return withReadLock(releaser -> {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        releaser.release();
+        return withWriteLock(() -> {
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!isStreamFullyConsumed() && bufferTip < requiredUpperBound) {
+            try {
+              final int read = consumeForwardData();
+              if (read > 0) {
+                refetch = getFromCurrentData(position, min(length, read));
+                if (refetch != null) {
+                  return refetch;
+                }
+              } else {
+                streamFullyConsumed();
+              }
+            } catch (IOException e) {
+              throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+            }
+          }
+
+          return doGet(position, length, false);
+        });
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    });
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    length = toIntExact(min(length, bufferTip - position));
+    if (position < maxInMemorySize) {
+      return copy(position, min(length, toIntExact(maxInMemorySize - position)));
+    }
+
+    try {
+      return readFromFile(position - maxInMemorySize, length);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from file buffer " + bufferFile.getAbsolutePath()),
+                                     e);
+    }
+  }
+
+  private ByteBuffer readFromFile(long filePosition, int length) throws IOException {
+    if (length >= MEMORY_MAPPING_THRESHOLD) {
+      return fileChannel.map(READ_ONLY, filePosition, length);
+    }
+
+    ByteBuffer data = ByteBuffer.allocate(length);
+    while (data.hasRemaining()) {
+      if (fileChannel.read(data, filePosition + data.position()) < 0) {
+        break;
+      }
+    }
+
+    data.flip();
+    return data;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Data is written into the in memory buffer while it has remaining capacity. After that, it is appended to the
+   * buffer file.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    final ByteBuffer b = buffer.get();
+    final int read;
+
+    if (b.hasRemaining()) {
+      read = consumeStream(b);
+    } else {
+      read = consumeIntoFile();
+    }
+
+    if (read > 0) {
+      bufferTip += read;
+    } else {
+      streamFullyConsumed();
+    }
+
+    return read;
+  }
+
+  private int consumeIntoFile() throws IOException {
+    ByteBuffer chunk = bufferManager.allocate(FILE_WRITE_CHUNK_SIZE);
+    try {
+      final int read = consumeStream(chunk);
+      if (read > 0) {
+        chunk.flip();
+        long filePosition = bufferTip - maxInMemorySize;
+        FileChannel channel = getFileChannel();
+        while (chunk.hasRemaining()) {
+          filePosition += channel.write(chunk, filePosition);
+        }
+      }
+
+      return read;
+    } finally {
+      deallocate(chunk);
+    }
+  }
+
+  private FileChannel getFileChannel() throws IOException {
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("stream-buffer");
+      fileChannel = FileChannel.open(bufferFile.toPath(), CREATE_NEW, READ, WRITE, DELETE_ON_CLOSE);
+    }
+
+    return fileChannel;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The in memory buffer is never expanded nor replaced while this buffer is open, so it is always safe to share it.
+   */
+  @Override
+  protected boolean canDoSoftCopy() {
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Closes and deletes the buffer file, if one was created.
+   */
+  @Override
+  public void doClose() {
+    if (fileChannel != null) {
+      closeSafely(fileChannel::close);
+      closeSafely(() -> {
+        if (bufferFile.exists()) {
+          bufferFile.delete();
+        }
+      });
+      fileChannel = null;
+    }
+  }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.Math.max;
+import static java.lang.Math.round;
+import static java.lang.String.format;
+import static java.lang.System.getProperty;
+import static java.lang.System.identityHashCode;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_STREAMING_DIRECT_BUFFERS;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_STREAMING_MAX_MEMORY;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link ByteBufferManager} implementation which pools buffers in power of two size classes.
+ * <p>
+ * Each requested capacity is rounded up to the next power of two, so all the requests for similar capacities share
+ * the same pool. The returned buffers have exactly the requested capacity, but they're views over a buffer of the size
+ * class capacity which is recycled once the view is deallocated.
+ * <p>
+ * Buffers are recycled through two levels:
+ * <ul>
+ * <li>A small per thread cache for the size classes of up to 64KB, which serves the very common case of a thread
+ * deallocating a buffer and allocating another of the same class shortly after without any contention</li>
+ * <li>A lock-free free list per size class, shared by all threads</li>
+ * </ul>
+ * <p>
+ * Same as {@link PoolingByteBufferManager}, this manager is exhausted in terms of memory and not number of instances.
+ * The memory taken by the buffers which are in use cannot exceed a certain cap. When that happens, invokations to
+ * {@link #allocate(int)} will block until more memory becomes available. If {@link #allocate(int)} is blocked by more than
+ * {@code waitTimeoutMillis} milliseconds, then a {@link MaxStreamingMemoryExceededException} is thrown. Only that blocking
+ * path takes a lock.
+ * <p>
+ * Idle buffers count against that same cap: a buffer is only kept for reuse if the memory of the buffers in use plus the
+ * idle ones doesn't exceed it, and idle buffers are discarded when new buffers need that memory. Besides that, each thread
+ * caches up to 128KB and each size class keeps up to twice the number of processors idle buffers.
+ * <p>
+ * The caches of threads which died are reclaimed, and their memory stops counting as idle, once their threads are garbage
+ * collected.
+ * <p>
+ * Deallocating a buffer which is still cached by the current thread is ignored. Other repeated deallocations are only
+ * detected if the {@link #TRACK_BUFFERS_PROPERTY} system property is set, since tracking every buffer in use has a cost on
+ * each allocation.
+ * <p>
+ * If the {@link org.mule.runtime.core.api.config.MuleProperties#MULE_STREAMING_DIRECT_BUFFERS} system property is set, then
+ * direct (off-heap) buffers are used.
+ * <p>
+ * Pool hits, misses and waits are reported to a {@link MutableStreamingStatistics} when one is provided.
+ *
+ * @since 4.1
+ */
+public class SizeClassByteBufferManager implements ByteBufferManager, Disposable {
+
+  private static final Logger LOGGER = getLogger(SizeClassByteBufferManager.class);
+
+  /**
+   * System property to track the buffers in use, so that deallocating a buffer which is not in use is detected and ignored.
+   */
+  public static final String TRACK_BUFFERS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.trackBuffers";
+
+  private static final int MIN_SIZE_CLASS_SHIFT = 6;
+  private static final int MAX_SIZE_CLASS_SHIFT = 24;
+  private static final int MAX_THREAD_CACHED_SIZE_CLASS_SHIFT = 16;
+  private static final int THREAD_CACHE_SIZE = 2;
+  private static final long MAX_THREAD_CACHE_MEMORY = 128 * 1024;
+  private static final int MAX_IDLE_PER_CLASS = Runtime.getRuntime().availableProcessors() * 2;
+
+  private final SizeClass[] sizeClasses = new SizeClass[MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1];
+  private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(this::newThreadCache);
+  private final Set<ThreadCacheOwner> threadCacheOwners = ConcurrentHashMap.newKeySet();
+  private final ReferenceQueue<Thread> deadThreads = new ReferenceQueue<>();
+  // null unless TRACK_BUFFERS_PROPERTY is set
+  private final Set<Object> buffersInUse;
+
+  private final AtomicLong streamingMemory = new AtomicLong(0);
+  private final AtomicLong idleMemory = new AtomicLong(0);
+  private final long maxStreamingMemory;
+  private final long waitTimeoutMillis;
+  private final boolean direct;
+  private final MutableStreamingStatistics statistics;
+
+  private final AtomicInteger waiters = new AtomicInteger(0);
+  private final Lock lock = new ReentrantLock();
+  private final Condition memoryAvailable = lock.newCondition();
+
+  private volatile boolean disposed = false;
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 50% of the runtime's max memory and has a wait
+   * timeout of 10 seconds. The definition of max memory is that of {@link MemoryManager#getMaxMemory()}
+   */
+  public SizeClassByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT, null);
+  }
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 50% of calling {@link MemoryManager#getMaxMemory()}
+   * on the given {@code memoryManager}, and has {@code waitTimeoutMillis} as wait timeout.
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the pool is exhausted
+   * @param statistics        the {@link MutableStreamingStatistics} to report to. Can be {@code null}
+   */
+  public SizeClassByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis, MutableStreamingStatistics statistics) {
+    this(memoryManager, waitTimeoutMillis, statistics, getBoolean(MULE_STREAMING_DIRECT_BUFFERS));
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the pool is exhausted
+   * @param statistics        the {@link MutableStreamingStatistics} to report to. Can be {@code null}
+   * @param direct            whether to use direct buffers or not
+   */
+  public SizeClassByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis, MutableStreamingStatistics statistics,
+                                    boolean direct) {
+    maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+    this.statistics = statistics;
+    this.direct = direct;
+    this.buffersInUse = getBoolean(TRACK_BUFFERS_PROPERTY) ? ConcurrentHashMap.newKeySet() : null;
+
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(1 << (i + MIN_SIZE_CLASS_SHIFT));
+    }
+  }
+
+  private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
+    String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
+    if (maxMemoryProperty == null) {
+      return round(memoryManager.getMaxMemory() * 0.5);
+    } else {
+      try {
+        return Long.valueOf(maxMemoryProperty);
+      } catch (Exception e) {
+        throw new IllegalArgumentException(format("Invalid value for system property '%s'. A memory size (in bytes) was "
+            + "expected, got '%s' instead",
+                                                  MULE_STREAMING_MAX_MEMORY, maxMemoryProperty));
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    reclaimDeadThreadCaches();
+
+    final int index = sizeClassIndex(capacity);
+    if (index >= sizeClasses.length) {
+      reserve(capacity);
+      trimIdleMemory();
+      return track(newBuffer(capacity));
+    }
+
+    final SizeClass sizeClass = sizeClasses[index];
+    ByteBuffer buffer = pollThreadCache(index);
+    if (buffer == null) {
+      buffer = pollFreeList(sizeClass);
+    }
+
+    try {
+      reserve(sizeClass.capacity);
+    } catch (RuntimeException e) {
+      if (buffer != null) {
+        release(sizeClass, buffer);
+      }
+      throw e;
+    }
+
+    if (buffer != null) {
+      if (statistics != null) {
+        statistics.bufferPoolHit();
+      }
+    } else {
+      if (statistics != null) {
+        statistics.bufferPoolMiss();
+      }
+      trimIdleMemory();
+      buffer = newBuffer(sizeClass.capacity);
+    }
+
+    return track(view(buffer, capacity));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    if (buffersInUse != null && !buffersInUse.remove(bufferKey(byteBuffer))) {
+      warnNotInUse();
+      return;
+    }
+
+    final ByteBuffer buffer = unwrap(byteBuffer);
+    final int index = sizeClassIndex(buffer.capacity());
+
+    if (index >= sizeClasses.length) {
+      unreserve(byteBuffer.capacity());
+      return;
+    }
+
+    if (index <= MAX_THREAD_CACHED_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT && threadCaches.get().contains(index, buffer)) {
+      warnNotInUse();
+      return;
+    }
+
+    final SizeClass sizeClass = sizeClasses[index];
+    unreserve(sizeClass.capacity);
+
+    if (buffer.capacity() == sizeClass.capacity && !disposed) {
+      release(sizeClass, buffer);
+    }
+  }
+
+  private void warnNotInUse() {
+    // returning it again would hand the same memory to two different owners
+    LOGGER.warn("Ignoring deallocation of a buffer which is not in use. It was already deallocated or not allocated by this "
+        + "manager");
+  }
+
+  private void release(SizeClass sizeClass, ByteBuffer buffer) {
+    if (pushThreadCache(sizeClassIndex(sizeClass.capacity), buffer)) {
+      return;
+    }
+
+    if (sizeClass.idle.incrementAndGet() <= MAX_IDLE_PER_CLASS && reserveIdle(sizeClass.capacity)) {
+      sizeClass.freeList.offerFirst(buffer);
+    } else {
+      sizeClass.idle.decrementAndGet();
+    }
+  }
+
+  private ByteBuffer pollFreeList(SizeClass sizeClass) {
+    ByteBuffer buffer = sizeClass.freeList.pollFirst();
+    if (buffer != null) {
+      sizeClass.idle.decrementAndGet();
+      idleMemory.addAndGet(-sizeClass.capacity);
+    }
+    return buffer;
+  }
+
+  private ByteBuffer pollThreadCache(int index) {
+    if (index > MAX_THREAD_CACHED_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT) {
+      return null;
+    }
+
+    ByteBuffer buffer = threadCaches.get().poll(index);
+    if (buffer != null) {
+      idleMemory.addAndGet(-buffer.capacity());
+    }
+    return buffer;
+  }
+
+  private boolean pushThreadCache(int index, ByteBuffer buffer) {
+    if (index > MAX_THREAD_CACHED_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT) {
+      return false;
+    }
+
+    ThreadCache cache = threadCaches.get();
+    if (cache.memory + buffer.capacity() > MAX_THREAD_CACHE_MEMORY || !reserveIdle(buffer.capacity())) {
+      return false;
+    }
+
+    if (!cache.push(index, buffer)) {
+      idleMemory.addAndGet(-buffer.capacity());
+      return false;
+    }
+
+    if (disposed) {
+      // dispose() may have already cleared this cache
+      releaseThreadCache(cache);
+    }
+    return true;
+  }
+
+  /**
+   * Accounts for a buffer being kept idle, as long as the memory in use plus the idle memory doesn't exceed the limit.
+   */
+  private boolean reserveIdle(int capacity) {
+    if (idleMemory.addAndGet(capacity) + streamingMemory.get() <= maxStreamingMemory) {
+      return true;
+    }
+
+    idleMemory.addAndGet(-capacity);
+    return false;
+  }
+
+  /**
+   * Discards idle buffers, largest first, until the memory in use plus the idle memory doesn't exceed the limit. Only the
+   * cache of the current thread can be trimmed, the ones of other threads are bounded by {@link #MAX_THREAD_CACHE_MEMORY}.
+   */
+  private void trimIdleMemory() {
+    if (idleMemory.get() + streamingMemory.get() <= maxStreamingMemory) {
+      return;
+    }
+
+    for (int i = sizeClasses.length - 1; i >= 0; i--) {
+      while (idleMemory.get() + streamingMemory.get() > maxStreamingMemory && pollFreeList(sizeClasses[i]) != null) {
+        // the polled buffer is discarded
+      }
+    }
+
+    if (idleMemory.get() + streamingMemory.get() > maxStreamingMemory) {
+      releaseThreadCache(threadCaches.get());
+    }
+  }
+
+  private void releaseThreadCache(ThreadCache cache) {
+    idleMemory.addAndGet(-cache.clear());
+  }
+
+  private ThreadCache newThreadCache() {
+    ThreadCache cache = new ThreadCache(MAX_THREAD_CACHED_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1);
+    threadCacheOwners.add(new ThreadCacheOwner(Thread.currentThread(), cache, deadThreads));
+    return cache;
+  }
+
+  /**
+   * Discards the buffers cached by threads which were garbage collected, which nobody else can take anymore.
+   */
+  private void reclaimDeadThreadCaches() {
+    Reference<? extends Thread> reference;
+    while ((reference = deadThreads.poll()) != null) {
+      ThreadCacheOwner owner = (ThreadCacheOwner) reference;
+      if (threadCacheOwners.remove(owner)) {
+        releaseThreadCache(owner.cache);
+      }
+    }
+  }
+
+  private void reserve(int capacity) {
+    if (streamingMemory.addAndGet(capacity) <= maxStreamingMemory) {
+      return;
+    }
+
+    streamingMemory.addAndGet(-capacity);
+    if (statistics != null) {
+      statistics.bufferPoolWait();
+    }
+
+    final long deadline = nanoTime() + MILLISECONDS.toNanos(waitTimeoutMillis);
+    waiters.incrementAndGet();
+    lock.lock();
+    try {
+      while (true) {
+        if (streamingMemory.addAndGet(capacity) <= maxStreamingMemory) {
+          return;
+        }
+        streamingMemory.addAndGet(-capacity);
+
+        final long remaining = deadline - nanoTime();
+        if (remaining <= 0 || !memoryAvailable.await(remaining, NANOSECONDS)) {
+          throw new MuleRuntimeException(createStaticMessage("Could not allocate byte buffer."),
+                                         new MaxStreamingMemoryExceededException(createStaticMessage(format(
+                                                                                                            "Max streaming memory limit of %d bytes was exceeded",
+                                                                                                            maxStreamingMemory))));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MuleRuntimeException(createStaticMessage("Interrupted while waiting for streaming memory"), e);
+    } finally {
+      lock.unlock();
+      waiters.decrementAndGet();
+    }
+  }
+
+  private void unreserve(int capacity) {
+    streamingMemory.addAndGet(-capacity);
+    if (waiters.get() > 0) {
+      lock.lock();
+      try {
+        memoryAvailable.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private ByteBuffer newBuffer(int capacity) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  /**
+   * Returns a view of the given size class {@code buffer} which capacity is exactly {@code capacity}.
+   * <p>
+   * Heap views share the backing array with the pooled buffer, so the pooled one can be recovered from the array.
+   * Direct buffers do not offer such a link, so direct buffers which capacity is not exactly the size class capacity
+   * are not pooled back.
+   */
+  private ByteBuffer view(ByteBuffer buffer, int capacity) {
+    buffer.clear();
+    if (buffer.capacity() == capacity) {
+      return buffer;
+    }
+
+    buffer.limit(capacity);
+    return buffer.slice();
+  }
+
+  private ByteBuffer track(ByteBuffer buffer) {
+    if (buffersInUse != null) {
+      buffersInUse.add(bufferKey(buffer));
+    }
+    return buffer;
+  }
+
+  /**
+   * Heap buffers are identified by their backing array, which is shared by all their views. Direct buffers are identified by
+   * the instance handed out by {@link #allocate(int)}.
+   */
+  private Object bufferKey(ByteBuffer buffer) {
+    return buffer.hasArray() ? buffer.array() : new IdentityKey(buffer);
+  }
+
+  private ByteBuffer unwrap(ByteBuffer buffer) {
+    if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.array().length != buffer.capacity()) {
+      return ByteBuffer.wrap(buffer.array());
+    }
+
+    return buffer;
+  }
+
+  private int sizeClassIndex(int capacity) {
+    if (capacity <= 1 << MIN_SIZE_CLASS_SHIFT) {
+      return 0;
+    }
+
+    return max(0, 32 - numberOfLeadingZeros(capacity - 1) - MIN_SIZE_CLASS_SHIFT);
+  }
+
+  /**
+   * @return the amount of memory currently taken by the buffers which are in use
+   */
+  public long getStreamingMemory() {
+    return streamingMemory.get();
+  }
+
+  /**
+   * @return the amount of memory currently taken by idle buffers kept for reuse
+   */
+  public long getIdleMemory() {
+    reclaimDeadThreadCaches();
+    return idleMemory.get();
+  }
+
+  /**
+   * Releases all the idle buffers, including the ones in the caches of every thread.
+   */
+  @Override
+  public void dispose() {
+    disposed = true;
+    for (SizeClass sizeClass : sizeClasses) {
+      while (pollFreeList(sizeClass) != null) {
+        // the polled buffer is discarded
+      }
+    }
+    for (ThreadCacheOwner owner : threadCacheOwners) {
+      if (threadCacheOwners.remove(owner)) {
+        releaseThreadCache(owner.cache);
+      }
+    }
+    threadCaches.remove();
+  }
+
+  private static class SizeClass {
+
+    private final int capacity;
+    private final ConcurrentLinkedDeque<ByteBuffer> freeList = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idle = new AtomicInteger(0);
+
+    private SizeClass(int capacity) {
+      this.capacity = capacity;
+    }
+  }
+
+  /**
+   * Buffers cached by a single thread. Only the owner thread adds and takes buffers, but any thread may clear it.
+   */
+  private static class ThreadCache {
+
+    private final AtomicReferenceArray<ByteBuffer> slots;
+    // only updated by the owner thread, or by any thread once the owner died or the manager is disposed
+    private volatile long memory;
+
+    private ThreadCache(int sizeClasses) {
+      slots = new AtomicReferenceArray<>(sizeClasses * THREAD_CACHE_SIZE);
+    }
+
+    private ByteBuffer poll(int index) {
+      for (int i = index * THREAD_CACHE_SIZE; i < (index + 1) * THREAD_CACHE_SIZE; i++) {
+        if (slots.get(i) != null) {
+          ByteBuffer buffer = slots.getAndSet(i, null);
+          if (buffer != null) {
+            memory -= buffer.capacity();
+            return buffer;
+          }
+        }
+      }
+
+      return null;
+    }
+
+    private boolean contains(int index, ByteBuffer buffer) {
+      for (int i = index * THREAD_CACHE_SIZE; i < (index + 1) * THREAD_CACHE_SIZE; i++) {
+        ByteBuffer cached = slots.get(i);
+        if (cached == buffer || (cached != null && cached.hasArray() && buffer.hasArray() && cached.array() == buffer.array())) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    private boolean push(int index, ByteBuffer buffer) {
+      for (int i = index * THREAD_CACHE_SIZE; i < (index + 1) * THREAD_CACHE_SIZE; i++) {
+        if (slots.get(i) == null) {
+          slots.set(i, buffer);
+          memory += buffer.capacity();
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    /**
+     * @return the memory taken by the removed buffers
+     */
+    private long clear() {
+      long cleared = 0;
+      for (int i = 0; i < slots.length(); i++) {
+        ByteBuffer buffer = slots.getAndSet(i, null);
+        if (buffer != null) {
+          cleared += buffer.capacity();
+        }
+      }
+      memory = 0;
+      return cleared;
+    }
+  }
+
+  /**
+   * Keeps the cache of a thread until the thread is garbage collected, so that its buffers can be discarded.
+   */
+  private static class ThreadCacheOwner extends WeakReference<Thread> {
+
+    private final ThreadCache cache;
+
+    private ThreadCacheOwner(Thread thread, ThreadCache cache, ReferenceQueue<Thread> deadThreads) {
+      super(thread, deadThreads);
+      this.cache = cache;
+    }
+  }
+
+  private static class IdentityKey {
+
+    private final Object target;
+
+    private IdentityKey(Object target) {
+      this.target = target;
+    }
+
+    @Override
+    public int hashCode() {
+      return identityHashCode(target);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof IdentityKey && ((IdentityKey) obj).target == target;
+    }
+  }
+}
@@ -27,8 +27,8 @@ public abstract class AbstractObjectStreamBuffer<T> extends AbstractStreamingBuf
   private final StreamingIterator<T> stream;
 
   private Bucket<T> currentBucket = new Bucket<>(0, DEFAULT_OBJECT_STREAMING_BUFFER_SIZE);
-  private Position currentPosition;
-  private Position maxPosition = null;
+  private volatile Position currentPosition;
+  private volatile Position maxPosition = null;
   private int instancesCount = 0;
 
   public AbstractObjectStreamBuffer(StreamingIterator<T> stream) {
@@ -51,18 +51,17 @@ public abstract class AbstractObjectStreamBuffer<T> extends AbstractStreamingBuf
   public Optional<Bucket<T>> getBucketFor(Position position) {
     checkNotClosed();
 
-    if (maxPosition != null && maxPosition.compareTo(position) < 0) {
+    Position max = maxPosition;
+    if (max != null && max.compareTo(position) < 0) {
       throw new NoSuchElementException();
     }
-    return withReadLock(releaser -> {
-      Optional<Bucket<T>> bucket = getPresentBucket(position);
-      if (bucket.isPresent()) {
-        return forwarding(bucket);
-      }
 
-      releaser.release();
-      return fetch(position);
-    });
+    Optional<Bucket<T>> bucket = getPresentBucket(position);
+    if (bucket.isPresent()) {
+      return forwarding(bucket);
+    }
+
+    return fetch(position);
   }
 
   @Override
@@ -78,26 +77,33 @@ public abstract class AbstractObjectStreamBuffer<T> extends AbstractStreamingBuf
 
     Position position = toPosition(i);
 
-    return withReadLock(releaser -> {
-      if (maxPosition != null) {
-        return position.compareTo(maxPosition) < 1;
-      }
+    Position max = maxPosition;
+    if (max != null) {
+      return position.compareTo(max) < 1;
+    }
 
-      if (position.compareTo(currentPosition) < 1) {
-        return true;
-      }
+    if (position.compareTo(currentPosition) < 1) {
+      return true;
+    }
 
-      releaser.release();
-      try {
-        return fetch(position).isPresent();
-      } catch (NoSuchElementException e) {
-        return false;
-      }
-    });
+    try {
+      return fetch(position).isPresent();
+    } catch (NoSuchElementException e) {
+      return false;
+    }
   }
 
+  /**
+   * Consumes the stream until the given {@code position} is reached. This is the only operation which needs to
+   * synchronize, since it's the only one which modifies the buffer.
+   */
   private Optional<Bucket<T>> fetch(Position position) {
     return withWriteLock(() -> {
+      if (closed.get()) {
+        // readers don't lock, so they may get here while the buffer is being closed
+        return empty();
+      }
+
       Optional<Bucket<T>> presentBucket = getPresentBucket(position);
       if (presentBucket.filter(bucket -> bucket.contains(position)).isPresent()) {
         return presentBucket;
@@ -175,17 +181,14 @@ public abstract class AbstractObjectStreamBuffer<T> extends AbstractStreamingBuf
 
     @Override
     public Optional<T> get(int index) {
-      return withReadLock(releaser -> {
-        Optional<T> item = delegate.get(index);
-        if (item.isPresent()) {
-          return item;
-        }
+      Optional<T> item = delegate.get(index);
+      if (item.isPresent()) {
+        return item;
+      }
 
-        Position position = new Position(delegate.getIndex(), index);
-        releaser.release();
-        delegate = (Bucket<T>) fetch(position).orElseThrow(NoSuchElementException::new);
-        return withReadLock(r2 -> delegate.get(index));
-      });
+      Position position = new Position(delegate.getIndex(), index);
+      delegate = (Bucket<T>) fetch(position).orElseThrow(NoSuchElementException::new);
+      return delegate.get(index);
     }
 
     @Override
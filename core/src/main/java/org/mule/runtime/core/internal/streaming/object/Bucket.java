@@ -9,23 +9,24 @@ package org.mule.runtime.core.internal.streaming.object;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 /**
  * A zero-based indexed group of items.
  * <p>
  * Buckets have a fixed capacity. Once reached, the bucket will accept no more items
+ * <p>
+ * Items can only be added by one thread at a time, but they can be read concurrently without locking. Items are never
+ * modified once added, and each one is published by increasing the bucket's volatile size.
  *
  * @param <T> the generic type of the items
  * @since 4.0
  */
 public class Bucket<T> {
 
-  private final List<T> items;
-  private final int capacity;
+  private final Object[] items;
   private final int index;
+  private volatile int size = 0;
 
   /**
    * Creates a new instance
@@ -35,8 +36,7 @@ public class Bucket<T> {
    */
   public Bucket(int index, int capacity) {
     this.index = index;
-    this.capacity = capacity;
-    this.items = new ArrayList<>(capacity);
+    this.items = new Object[capacity];
   }
 
   /**
@@ -47,8 +47,8 @@ public class Bucket<T> {
    * @return an {@link Optional} value
    */
   public Optional<T> get(int index) {
-    if (index < items.size()) {
-      return ofNullable(items.get(index));
+    if (index < size) {
+      return ofNullable((T) items[index]);
     }
     return empty();
   }
@@ -58,7 +58,7 @@ public class Bucket<T> {
    * @return Whether this bucket contains an item for the given {@code position}
    */
   public boolean contains(Position position) {
-    return index == position.getBucketIndex() && position.getItemIndex() < items.size();
+    return index == position.getBucketIndex() && position.getItemIndex() < size;
   }
 
   /**
@@ -69,14 +69,17 @@ public class Bucket<T> {
   }
 
   /**
-   * Adds the given {@code item} if the bucket still has capacity.
+   * Adds the given {@code item} if the bucket still has capacity. Must not be invoked concurrently.
    *
    * @param item the item to be added
    * @return whether the item was accepted or not
    */
   public boolean add(T item) {
-    if (items.size() < capacity) {
-      items.add(item);
+    final int currentSize = size;
+    if (currentSize < items.length) {
+      items[currentSize] = item;
+      // publishes the item to the readers
+      size = currentSize + 1;
       return true;
     }
 
@@ -7,26 +7,33 @@
 package org.mule.runtime.core.internal.streaming.object;
 
 import static java.lang.Math.floor;
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
 import org.mule.runtime.api.streaming.exception.StreamingBufferSizeExceededException;
 import org.mule.runtime.core.api.streaming.iterator.StreamingIterator;
 import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 /**
  * An {@link AbstractObjectStreamBuffer} implementation which uses buckets for locating items.
+ * <p>
+ * Buckets are only added while holding the buffer's write lock, but they are looked up without locking: the array of
+ * buckets is only replaced by a bigger copy, and new buckets are published by increasing the volatile {@code bucketCount}.
  *
  * @param <T> The generic type of the items in the stream
  * @sice 4.0
  */
 public class InMemoryObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
 
+  private static final int DEFAULT_BUCKETS_CAPACITY = 16;
+
   private final InMemoryCursorIteratorConfig config;
-  private List<Bucket<T>> buckets;
+  private volatile Bucket<T>[] buckets;
+  private volatile int bucketCount = 0;
 
 
   public InMemoryObjectStreamBuffer(StreamingIterator<T> stream, InMemoryCursorIteratorConfig config) {
@@ -39,7 +46,9 @@ public class InMemoryObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T>
    */
   @Override
   protected void doClose() {
-    buckets.clear();
+    bucketCount = 0;
+    // the array is not replaced, since concurrent readers may still be checking it against the previous count
+    fill(buckets, null);
   }
 
   /**
@@ -64,16 +73,18 @@ public class InMemoryObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T>
 
   @Override
   protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
-    buckets = maxPosition.map(p -> new ArrayList<Bucket<T>>(p.getBucketIndex())).orElseGet(ArrayList::new);
+    buckets = new Bucket[maxPosition.map(p -> p.getBucketIndex() + 1).orElse(DEFAULT_BUCKETS_CAPACITY)];
     initialBucket = new Bucket<>(0, config.getInitialBufferSize());
-    buckets.add(initialBucket);
+    addBucket(initialBucket);
     setCurrentBucket(initialBucket);
   }
 
   @Override
   protected Optional<Bucket<T>> getPresentBucket(Position position) {
-    if (position.getBucketIndex() < buckets.size()) {
-      return ofNullable(buckets.get(position.getBucketIndex()));
+    // the count must be read before the array, so that the array contains at least that amount of buckets
+    final int count = bucketCount;
+    if (position.getBucketIndex() < count) {
+      return ofNullable(buckets[position.getBucketIndex()]);
     }
 
     return empty();
@@ -82,11 +93,24 @@ public class InMemoryObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T>
   @Override
   protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
     Bucket<T> newBucket = new Bucket<>(overflownBucket.getIndex() + 1, config.getBufferSizeIncrement());
-    buckets.add(newBucket);
+    addBucket(newBucket);
 
     return newBucket;
   }
 
+  private void addBucket(Bucket<T> bucket) {
+    final int count = bucketCount;
+    Bucket<T>[] current = buckets;
+    if (count == current.length) {
+      current = copyOf(current, max(count * 2, DEFAULT_BUCKETS_CAPACITY));
+      current[count] = bucket;
+      buckets = current;
+    } else {
+      current[count] = bucket;
+    }
+    bucketCount = count + 1;
+  }
+
   @Override
   protected void validateMaxBufferSizeNotExceeded(int instancesCount) {
     if (instancesCount > config.getMaxBufferSize()) {
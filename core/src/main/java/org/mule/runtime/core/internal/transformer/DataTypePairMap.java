@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import org.mule.runtime.api.metadata.DataType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent map keyed by a source and a result {@link DataType}, for caching transformer resolutions.
+ * <p>
+ * Values are kept in a map per source data type, so that neither a key object nor a string is built to look a pair up, and
+ * reads don't lock. Data types are compared by {@link DataType#equals(Object)}.
+ *
+ * @param <V> the type of the values
+ * @since 4.1
+ */
+public final class DataTypePairMap<V> {
+
+  private final ConcurrentMap<DataType, ConcurrentMap<DataType, V>> values = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * @return the value for the given pair, or {@code null} if there is none.
+   */
+  public V get(DataType source, DataType result) {
+    ConcurrentMap<DataType, V> resultValues = values.get(source);
+    return resultValues == null ? null : resultValues.get(result);
+  }
+
+  /**
+   * Associates the given {@code value} to the pair unless it already has a value.
+   *
+   * @return the value already associated to the pair, or {@code null} if the given {@code value} was associated.
+   */
+  public V putIfAbsent(DataType source, DataType result, V value) {
+    V previous = values.computeIfAbsent(source, s -> new ConcurrentHashMap<>(4)).putIfAbsent(result, value);
+    if (previous == null) {
+      size.incrementAndGet();
+    }
+    return previous;
+  }
+
+  /**
+   * @return the amount of pairs with a value. Pairs being added or cleared concurrently may or may not be counted.
+   */
+  public int size() {
+    return size.get();
+  }
+
+  public void clear() {
+    values.clear();
+    size.set(0);
+  }
+}
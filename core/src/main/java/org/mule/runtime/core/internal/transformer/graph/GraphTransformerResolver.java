@@ -6,48 +6,56 @@
  */
 package org.mule.runtime.core.internal.transformer.graph;
 
+import static java.util.Optional.ofNullable;
+
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.internal.registry.TransformerResolver;
+import org.mule.runtime.core.internal.transformer.DataTypePairMap;
 import org.mule.runtime.core.internal.transformer.ResolverException;
 import org.mule.runtime.core.api.config.i18n.CoreMessages;
 
 import java.util.List;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
-import org.apache.commons.collections.map.LRUMap;
-
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves converters, or chains of them, through a graph of the registered {@link Converter}s.
+ * <p>
+ * Resolutions are kept in a table that is replaced by an empty one every time a converter is added or removed. A resolution
+ * is stored in the table it was looked up in, so one computed against the graph before a change never makes it into the table
+ * published after it. Looking up a resolved pair takes no locks.
+ */
 public class GraphTransformerResolver implements TransformerResolver {
 
-  private ReentrantReadWriteLock readWriteLock;
+  /**
+   * The table is discarded once it has this many resolutions, to bound the memory taken by data types with varying parameters.
+   * Same as the default size of the LRU cache used before.
+   */
+  private static final int MAX_RESOLUTIONS = 100;
+
   private SynchronizedTransformationGraph graph;
   private CompositeConverterFilter converterFilter;
-  private LRUMap cache;
+  private final AtomicReference<DataTypePairMap<Optional<Transformer>>> resolutions =
+      new AtomicReference<>(new DataTypePairMap<>());
   private TransformationGraphLookupStrategy lookupStrategyTransformation;
 
   public GraphTransformerResolver() {
-    this.readWriteLock = new ReentrantReadWriteLock();
     this.graph = new SynchronizedTransformationGraph();
     lookupStrategyTransformation = new TransformationGraphLookupStrategy(graph);
     converterFilter = new CompositeConverterFilter(new TypeMatchingVertexesFilter(),
                                                    new TransformationLengthConverterFilter(),
                                                    new PriorityWeightingConverterFilter(),
                                                    new NameConverterFilter());
-    cache = new LRUMap();
   }
 
   @Override
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    String cacheKey = getDataTypeSourceResultPairHash(source, result);
-
-    readWriteLock.readLock().lock();
-    try {
-      if (cache.containsKey(cacheKey)) {
-        return (Converter) cache.get(cacheKey);
-      }
-    } finally {
-      readWriteLock.readLock().unlock();
+    DataTypePairMap<Optional<Transformer>> currentResolutions = resolutions.get();
+    Optional<Transformer> resolved = currentResolutions.get(source, result);
+    if (resolved != null) {
+      return resolved.orElse(null);
     }
 
     List<Converter> converters =
@@ -59,46 +67,30 @@ public class GraphTransformerResolver implements TransformerResolver {
 
     Transformer converter = (converters.size() == 0) ? null : converters.get(0);
 
-
-    readWriteLock.writeLock().lock();
-    try {
-      cache.put(cacheKey, converter);
-    } finally {
-      readWriteLock.writeLock().unlock();
+    if (currentResolutions.size() >= MAX_RESOLUTIONS) {
+      DataTypePairMap<Optional<Transformer>> emptyResolutions = new DataTypePairMap<>();
+      if (!resolutions.compareAndSet(currentResolutions, emptyResolutions)) {
+        return converter;
+      }
+      currentResolutions = emptyResolutions;
     }
+    currentResolutions.putIfAbsent(source, result, ofNullable(converter));
 
     return converter;
   }
 
-  private String getDataTypeSourceResultPairHash(DataType source, DataType result) {
-    StringBuilder builder = new StringBuilder();
-    builder.append(source.getClass().getName());
-    builder.append(source.hashCode());
-    builder.append(":");
-    builder.append(result.getClass().getName());
-    builder.append(result.hashCode());
-
-    return builder.toString();
-  }
-
   @Override
   public void transformerChange(Transformer transformer, RegistryAction registryAction) {
-    readWriteLock.writeLock().lock();
-
-    try {
-      if (!(transformer instanceof Converter)) {
-        return;
-      }
-
-      cache.clear();
+    if (!(transformer instanceof Converter)) {
+      return;
+    }
 
-      if (registryAction == RegistryAction.ADDED) {
-        graph.addConverter((Converter) transformer);
-      } else if (registryAction == RegistryAction.REMOVED) {
-        graph.removeConverter((Converter) transformer);
-      }
-    } finally {
-      readWriteLock.writeLock().unlock();
+    if (registryAction == RegistryAction.ADDED) {
+      graph.addConverter((Converter) transformer);
+    } else if (registryAction == RegistryAction.REMOVED) {
+      graph.removeConverter((Converter) transformer);
     }
+
+    resolutions.set(new DataTypePairMap<>());
   }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.System.currentTimeMillis;
+import org.mule.runtime.core.api.util.UniqueIdGenerator;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UniqueIdGenerator} of ids with the layout of a UUID, formatted straight into a single char array.
+ * <p>
+ * The first half of the id is a counter, incremented atomically and seeded from the current time so that it keeps growing
+ * across restarts, which makes ids lexicographically increasing. The second half is picked at random when the generator is
+ * created, which makes ids unique among generators of different nodes or runtimes.
+ *
+ * @since 4.1
+ */
+public final class MonotonicUniqueIdGenerator implements UniqueIdGenerator {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final int ID_LENGTH = 36;
+
+  /**
+   * Bits of the counter below the current time, so that up to 2^{@value} ids per millisecond are still greater than the ones
+   * of a previous run.
+   */
+  private static final int TIME_SHIFT = 16;
+
+  private final AtomicLong sequence = new AtomicLong(currentTimeMillis() << TIME_SHIFT);
+  private final char[] nodeChars;
+  private volatile ClusterPrefix clusterPrefix = new ClusterPrefix(0);
+
+  public MonotonicUniqueIdGenerator() {
+    this(new SecureRandom().nextLong());
+  }
+
+  MonotonicUniqueIdGenerator(long node) {
+    // the node part is the same for every id, so it is formatted once: "-xxxx-xxxxxxxxxxxx"
+    nodeChars = new char[18];
+    for (int position = nodeChars.length - 1; position >= 0; --position) {
+      if (position == 5 || position == 0) {
+        nodeChars[position] = '-';
+      } else {
+        nodeChars[position] = HEX_DIGITS[(int) (node & 0xF)];
+        node >>>= 4;
+      }
+    }
+  }
+
+  @Override
+  public String generateId() {
+    char[] id = new char[ID_LENGTH];
+    format(id, 0);
+    return new String(id);
+  }
+
+  @Override
+  public String generateId(int clusterNodeId) {
+    ClusterPrefix prefix = clusterPrefix;
+    if (prefix.clusterNodeId != clusterNodeId) {
+      prefix = new ClusterPrefix(clusterNodeId);
+      clusterPrefix = prefix;
+    }
+
+    char[] id = new char[prefix.chars.length + ID_LENGTH];
+    System.arraycopy(prefix.chars, 0, id, 0, prefix.chars.length);
+    format(id, prefix.chars.length);
+    return new String(id);
+  }
+
+  /**
+   * Formats a new id as "xxxxxxxx-xxxx-xxxx-" followed by the node part.
+   */
+  private void format(char[] id, int offset) {
+    long value = sequence.incrementAndGet();
+    for (int position = offset + 17; position >= offset; --position) {
+      if (position == offset + 13 || position == offset + 8) {
+        id[position] = '-';
+      } else {
+        id[position] = HEX_DIGITS[(int) (value & 0xF)];
+        value >>>= 4;
+      }
+    }
+    System.arraycopy(nodeChars, 0, id, offset + 18, nodeChars.length);
+  }
+
+  private static final class ClusterPrefix {
+
+    private final int clusterNodeId;
+    private final char[] chars;
+
+    private ClusterPrefix(int clusterNodeId) {
+      this.clusterNodeId = clusterNodeId;
+      this.chars = (clusterNodeId + "-").toCharArray();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import org.mule.runtime.core.api.util.UniqueIdGenerator;
+
+/**
+ * {@link UniqueIdGenerator} of type 1 UUIDs, using the <a href="http://johannburkard.de/software/uuid/">Johann Burkard UUID
+ * Library</a>.
+ *
+ * @since 4.1
+ */
+public final class TimeBasedUniqueIdGenerator implements UniqueIdGenerator {
+
+  @Override
+  public String generateId() {
+    return new com.eaio.uuid.UUID().toString();
+  }
+
+  @Override
+  public String generateId(int clusterNodeId) {
+    return new com.eaio.uuid.UUID()
+        .toAppendable(new StringBuilder(38).append(clusterNodeId).append('-')).toString();
+  }
+}
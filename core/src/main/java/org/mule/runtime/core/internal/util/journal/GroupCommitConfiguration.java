@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.Math.max;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
+/**
+ * Settings for how a {@link TransactionJournalFile} groups the entries logged by concurrent transactions into a single write.
+ * <p>
+ * Entries are always written by whichever thread finds unwritten entries first, together with all the other entries logged
+ * up to that moment. That thread may additionally wait up to {@link #getMaxLatencyMillis()} for more entries to join the write,
+ * as long as there are less than {@link #getMaxBatchSize()} of them.
+ *
+ * @since 4.1
+ */
+public final class GroupCommitConfiguration {
+
+  public static final String MAX_LATENCY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "queue.journal.groupCommit.maxLatencyMillis";
+  public static final String MAX_BATCH_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "queue.journal.groupCommit.maxBatchSize";
+  public static final String FORCE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "queue.journal.groupCommit.force";
+
+  private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+  private final long maxLatencyMillis;
+  private final int maxBatchSize;
+  private final boolean force;
+
+  /**
+   * @param maxLatencyMillis how long to wait for more entries before writing the ones logged so far. {@code 0} to write them
+   *        right away.
+   * @param maxBatchSize how many entries to wait for before writing them, regardless of {@code maxLatencyMillis}
+   * @param force whether each write is forced to the storage device before the operations that logged it return
+   */
+  public GroupCommitConfiguration(long maxLatencyMillis, int maxBatchSize, boolean force) {
+    this.maxLatencyMillis = max(maxLatencyMillis, 0);
+    this.maxBatchSize = max(maxBatchSize, 1);
+    this.force = force;
+  }
+
+  /**
+   * @return the configuration given by the {@value #MAX_LATENCY_PROPERTY}, {@value #MAX_BATCH_SIZE_PROPERTY} and
+   *         {@value #FORCE_PROPERTY} system properties. By default entries are written right away and not forced.
+   */
+  public static GroupCommitConfiguration fromSystemProperties() {
+    return new GroupCommitConfiguration(getLong(MAX_LATENCY_PROPERTY, 0L), getInteger(MAX_BATCH_SIZE_PROPERTY,
+                                                                                       DEFAULT_MAX_BATCH_SIZE),
+                                        getBoolean(FORCE_PROPERTY));
+  }
+
+  public long getMaxLatencyMillis() {
+    return maxLatencyMillis;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public boolean isForce() {
+    return force;
+  }
+}
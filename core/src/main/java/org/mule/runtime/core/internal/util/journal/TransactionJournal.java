@@ -25,6 +25,9 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * Operations of concurrent transactions wait for their entries to be written outside of the journal monitor, so that their
+ * entries are written to the file together, as given by the {@link GroupCommitConfiguration}.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
@@ -62,6 +65,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
                             JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, maximumFileSizeInMegabytes,
+         GroupCommitConfiguration.fromSystemProperties());
+  }
+
+  /**
+   * @param logFilesDirectory directory used to store the journal files.
+   * @param groupCommitConfiguration how the entries of concurrent transactions are grouped into a single write
+   */
+  public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            GroupCommitConfiguration groupCommitConfiguration) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -72,10 +86,10 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+    this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate,
+                                                     clearFileMinimumSizeInBytes, groupCommitConfiguration);
+    this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate,
+                                                        clearFileMinimumSizeInBytes, groupCommitConfiguration);
     this.transactionCompletePredicate = transactionCompletePredicate;
 
   }
@@ -92,9 +106,14 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    TransactionJournalFile logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.appendOperation(journalEntry);
+    }
+    logFile.awaitWritten(sequence);
   }
 
   /**
@@ -104,12 +123,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    TransactionJournalFile logFile;
+    long sequence;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      sequence = logFile.appendOperation(journalEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
     }
+    logFile.awaitWritten(sequence);
   }
 
   /**
@@ -6,12 +6,14 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -23,6 +25,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -30,6 +34,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Manages a transaction journal file.
+ * <p>
+ * Entries are serialized to an in-memory buffer when logged, and written to the file in groups: the first thread that needs
+ * its entry written writes all the entries buffered so far with a single write, optionally forcing it to the storage device,
+ * while the threads whose entries are part of that group just wait for it. How entries are grouped is given by a
+ * {@link GroupCommitConfiguration}.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -42,17 +51,36 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   private static final int MINIMUM_ENTRIES_TO_CLEAR_FILE = 10000;
 
+  private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
   protected transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private final File journalFile;
   private final JournalEntrySerializer<T, K> journalEntrySerializer;
   private final Long clearFileMinimumSizeInBytes;
+  private final GroupCommitConfiguration groupCommitConfiguration;
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
-  private DataOutputStream logFileOutputStream;
+  private FileOutputStream logFileOutputStream;
   private int journalOperations = 0;
 
+  /**
+   * Held by the thread writing buffered entries to the file, and while the file is closed or cleared.
+   */
+  private final ReentrantLock writeLock = new ReentrantLock();
+  /**
+   * Guards the buffer of entries logged and not yet written.
+   */
+  private final ReentrantLock bufferLock = new ReentrantLock();
+  private final Condition batchFull = bufferLock.newCondition();
+  private JournalBuffer pendingBuffer = new JournalBuffer();
+  private JournalBuffer spareBuffer = new JournalBuffer();
+  private int pendingEntries;
+  private long loggedSequence;
+  private volatile long writtenSequence;
+  private volatile WriteFailure lastWriteFailure;
+
   /**
    * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
    *        loaded from it.
@@ -61,9 +89,24 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes,
+         GroupCommitConfiguration.fromSystemProperties());
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param groupCommitConfiguration how the entries of concurrent transactions are grouped into a single write
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                GroupCommitConfiguration groupCommitConfiguration) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
+    this.groupCommitConfiguration = groupCommitConfiguration;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
@@ -71,14 +114,126 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   }
 
   /**
-   * Adds a journal entry for an operation done over a transactional resource
+   * Adds a journal entry for an operation done over a transactional resource, and waits until it is written to the file.
    * 
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
+  public void logOperation(K journalEntry) {
+    awaitWritten(appendOperation(journalEntry));
+  }
+
+  /**
+   * Adds a journal entry for an operation done over a transactional resource, without waiting for it to be written to the file.
+   *
+   * @param journalEntry operation details
+   * @return the sequence number of the entry, to pass to {@link #awaitWritten(long)}
+   */
+  public synchronized long appendOperation(K journalEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
     journalOperations++;
+
+    bufferLock.lock();
+    try {
+      int previousSize = pendingBuffer.size();
+      try {
+        journalEntrySerializer.serialize(journalEntry, pendingBuffer.output);
+      } catch (RuntimeException e) {
+        // Don't leave part of an entry in the file
+        pendingBuffer.truncate(previousSize);
+        throw e;
+      }
+      if (++pendingEntries >= groupCommitConfiguration.getMaxBatchSize()) {
+        batchFull.signal();
+      }
+      return ++loggedSequence;
+    } finally {
+      bufferLock.unlock();
+    }
+  }
+
+  /**
+   * Waits until the entry with the given sequence number, and all the ones before it, are written to the file. If they are
+   * not written yet, the calling thread writes them along with the rest of the buffered entries.
+   *
+   * @param sequence the sequence number of the entry, as returned by {@link #appendOperation(JournalEntry)}
+   */
+  public void awaitWritten(long sequence) {
+    while (writtenSequence < sequence) {
+      writeLock.lock();
+      try {
+        if (writtenSequence < sequence) {
+          writePendingEntries(true);
+        }
+      } finally {
+        writeLock.unlock();
+      }
+    }
+
+    WriteFailure writeFailure = lastWriteFailure;
+    if (writeFailure != null && writeFailure.includes(sequence)) {
+      throw new MuleRuntimeException(writeFailure.cause);
+    }
+  }
+
+  /**
+   * Writes all the buffered entries to the file with a single write. Must be called holding the {@link #writeLock}.
+   *
+   * @param waitForBatch whether to wait for more entries as given by the {@link GroupCommitConfiguration}.
+   */
+  private void writePendingEntries(boolean waitForBatch) {
+    JournalBuffer batch;
+    long batchSequence;
+    bufferLock.lock();
+    try {
+      if (waitForBatch && groupCommitConfiguration.getMaxLatencyMillis() > 0) {
+        long remainingNanos = MILLISECONDS.toNanos(groupCommitConfiguration.getMaxLatencyMillis());
+        while (pendingEntries < groupCommitConfiguration.getMaxBatchSize() && remainingNanos > 0) {
+          try {
+            remainingNanos = batchFull.awaitNanos(remainingNanos);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            break;
+          }
+        }
+      }
+
+      batch = pendingBuffer;
+      batchSequence = loggedSequence;
+      pendingBuffer = spareBuffer;
+      pendingEntries = 0;
+    } finally {
+      bufferLock.unlock();
+    }
+
+    try {
+      if (batch.size() > 0) {
+        batch.writeTo(logFileOutputStream);
+        if (groupCommitConfiguration.isForce()) {
+          logFileOutputStream.getChannel().force(false);
+        }
+      }
+    } catch (IOException e) {
+      logger.error("Error writing to transaction journal file " + journalFile, e);
+      lastWriteFailure = new WriteFailure(writtenSequence + 1, batchSequence, e);
+    } finally {
+      batch.reset();
+      spareBuffer = batch;
+      writtenSequence = batchSequence;
+    }
+  }
+
+  /**
+   * Discards the buffered entries. Must be called holding the {@link #writeLock}.
+   */
+  private void discardPendingEntries() {
+    bufferLock.lock();
+    try {
+      pendingBuffer.reset();
+      pendingEntries = 0;
+      writtenSequence = loggedSequence;
+    } finally {
+      bufferLock.unlock();
+    }
   }
 
   /**
@@ -120,6 +275,16 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Will not remove the transaction context.
    */
   public synchronized void close() {
+    writeLock.lock();
+    try {
+      writePendingEntries(false);
+      closeLogOutputStream();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void closeLogOutputStream() {
     try {
       logFileOutputStream.close();
     } catch (IOException e) {
@@ -156,10 +321,17 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
   public synchronized void clear() {
-    close();
-    entries.clear();
-    FileUtils.deleteQuietly(journalFile);
-    createLogOutputStream();
+    writeLock.lock();
+    try {
+      // Entries are cleared along with the file, so there's no point in writing the buffered ones
+      discardPendingEntries();
+      closeLogOutputStream();
+      entries.clear();
+      FileUtils.deleteQuietly(journalFile);
+      createLogOutputStream();
+    } finally {
+      writeLock.unlock();
+    }
   }
 
   private void createLogOutputStream() {
@@ -171,7 +343,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+      this.logFileOutputStream = new FileOutputStream(journalFile, true);
     } catch (FileNotFoundException e) {
       throw new MuleRuntimeException(e);
     }
@@ -251,5 +423,40 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   public long fileLength() {
     return journalFile.length();
   }
-}
 
+  /**
+   * Buffer of serialized entries that can drop a partially serialized one.
+   */
+  private static class JournalBuffer extends ByteArrayOutputStream {
+
+    private final DataOutputStream output = new DataOutputStream(this);
+
+    JournalBuffer() {
+      super(INITIAL_BUFFER_SIZE);
+    }
+
+    void truncate(int size) {
+      count = size;
+    }
+  }
+
+  /**
+   * The range of entries that were not written because of an error.
+   */
+  private static class WriteFailure {
+
+    private final long fromSequence;
+    private final long toSequence;
+    private final IOException cause;
+
+    WriteFailure(long fromSequence, long toSequence, IOException cause) {
+      this.fromSequence = fromSequence;
+      this.toSequence = toSequence;
+      this.cause = cause;
+    }
+
+    boolean includes(long sequence) {
+      return sequence >= fromSequence && sequence <= toSequence;
+    }
+  }
+}
@@ -26,6 +26,7 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
       add(o);
       this.notifyAll();
     }
+    sync();
   }
 
   @Override
@@ -56,13 +57,17 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
         add(o);
       }
       this.notifyAll();
-      return true;
     }
+    if (o != null) {
+      sync();
+    }
+    return true;
   }
 
   @Override
   public final Serializable poll(long timeout) throws InterruptedException {
     checkInterrupted();
+    Serializable o;
     synchronized (this) {
       long l1 = timeout > 0L ? System.currentTimeMillis() : 0L;
       long l2 = timeout;
@@ -74,10 +79,11 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
         l2 = timeout - (System.currentTimeMillis() - l1);
       }
 
-      Serializable o = removeFirst();
+      o = removeFirst();
       this.notifyAll();
-      return o;
     }
+    sync();
+    return o;
   }
 
   @Override
@@ -99,6 +105,7 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
       addFirst(item);
       this.notifyAll();
     }
+    sync();
   }
 
   @Override
@@ -107,15 +114,18 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
     synchronized (this) {
       doClear();
     }
+    sync();
   }
 
   @Override
   public final boolean addAll(Collection<? extends Serializable> items) {
+    boolean result;
     synchronized (this) {
-      boolean result = doAddAll(items);
+      result = doAddAll(items);
       this.notifyAll();
-      return result;
     }
+    sync();
+    return result;
   }
 
   private void checkInterrupted() throws InterruptedException {
@@ -184,4 +194,10 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
    * @return true if the queue is empty, false otherwise
    */
   protected abstract boolean isEmpty();
+
+  /**
+   * Invoked after each operation that modifies the queue, once the lock on this delegate has been released, so that
+   * implementations can make the changes durable without blocking the operations of other threads. Does nothing by default.
+   */
+  protected void sync() {}
 }
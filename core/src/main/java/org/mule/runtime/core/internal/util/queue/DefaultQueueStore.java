@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.internal.util.queue;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.internal.util.queue.SegmentedLogQueueStoreDelegate.USE_SEGMENTED_LOG_PROPERTY_KEY;
+
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
 import org.mule.runtime.core.api.util.queue.QueueConfiguration;
@@ -42,7 +45,10 @@ public class DefaultQueueStore implements RecoverableQueueStore {
     if (this.config == null) {
       this.config = new DefaultQueueConfiguration();
     }
-    if (this.config.isPersistent()) {
+    if (this.config.isPersistent() && getBoolean(USE_SEGMENTED_LOG_PROPERTY_KEY)) {
+      delegate = new SegmentedLogQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
+                                                    muleContext, this.config.getCapacity());
+    } else if (this.config.isPersistent()) {
       delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
                                                             muleContext, this.config.getCapacity());
     } else {
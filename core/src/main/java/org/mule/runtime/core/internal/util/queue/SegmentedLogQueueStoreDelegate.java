@@ -0,0 +1,737 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Long.parseLong;
+import static java.lang.System.getProperty;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.util.concurrent.NamedThreadFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation which stores the queue data in an append only log made of rolling
+ * fixed-size segment files.
+ * <p/>
+ * New entries are always appended to the last segment. Entries are consumed by moving a read cursor which is persisted in its
+ * own control file, so no data is ever rewritten in place. Once all the entries of a segment have been consumed, the segment
+ * file is deleted.
+ * <p/>
+ * The cursor file has two slots which are written alternately, each one carrying a generation number and a checksum. A cursor
+ * which was only partially written because of a crash is discarded on recovery in favor of the previous one, so at most the
+ * last consumed entry is delivered again.
+ * <p/>
+ * Entries which are returned to the beginning of the queue (for example, when a transaction is rolled back) are kept in a
+ * separate front file which is consumed before the log.
+ * <p/>
+ * Each entry carries a checksum so that an entry which was only partially written because of a crash is discarded on
+ * recovery.
+ * <p/>
+ * How the files are forced to the storage device is controlled through the {@link #SYNC_INTERVAL_PROPERTY_KEY} system
+ * property:
+ * <ul>
+ * <li>a negative value never forces them, leaving it to the operating system.</li>
+ * <li>zero makes every operation wait until its changes are forced. The files are forced outside of the queue lock, so the
+ * operations of concurrent threads which completed while a force was in progress are all covered by the next single force.</li>
+ * <li>a positive value forces the pending changes once per that amount of milliseconds from a background thread, and when the
+ * queue is closed.</li>
+ * </ul>
+ *
+ * @since 4.1
+ */
+public class SegmentedLogQueueStoreDelegate extends AbstractQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  public static final String USE_SEGMENTED_LOG_PROPERTY_KEY = "mule.queue.segmentedLog";
+  public static final String MAX_SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentSize";
+  public static final String SYNC_INTERVAL_PROPERTY_KEY = "mule.queue.syncIntervalMillis";
+
+  private static final long DEFAULT_MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+  private static final long DEFAULT_SYNC_INTERVAL = 0;
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final String CURSOR_SUFFIX = "-cursor";
+  private static final String FRONT_SUFFIX = "-front";
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final int CURSOR_SLOTS = 2;
+  // generation, head segment index, read offset and checksum
+  private static final int CURSOR_SLOT_SIZE = 28;
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ObjectSerializer serializer;
+  private final File queuesDirectory;
+  private final String filePrefix;
+  private final long maxSegmentSize;
+  private final long syncInterval;
+  private final CRC32 crc = new CRC32();
+  private final ByteBuffer cursorBuffer = ByteBuffer.allocate(CURSOR_SLOT_SIZE);
+  private final Object syncLock = new Object();
+
+  private final Deque<Segment> segments = new ArrayDeque<>();
+  private final Deque<Long> frontOffsets = new ArrayDeque<>();
+  private FileChannel cursorChannel;
+  private FileChannel frontChannel;
+  private long frontSize;
+  private long readOffset;
+  private int logEntries;
+  private long cursorGeneration;
+
+  // changes are counted while holding the queue lock, forced ones while holding the sync lock
+  private volatile long writeSequence;
+  private long syncedSequence;
+  private volatile FileChannel tailChannel;
+  private boolean closed;
+  private ScheduledFuture<?> flusher;
+
+  public SegmentedLogQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    this(queueName, workingDirectory, muleContext, capacity,
+         parseLong(getProperty(MAX_SEGMENT_SIZE_PROPERTY_KEY, String.valueOf(DEFAULT_MAX_SEGMENT_SIZE))),
+         parseLong(getProperty(SYNC_INTERVAL_PROPERTY_KEY, String.valueOf(DEFAULT_SYNC_INTERVAL))));
+  }
+
+  SegmentedLogQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity,
+                                 long maxSegmentSize, long syncInterval) {
+    super(capacity);
+    this.serializer = muleContext.getObjectSerializer();
+    this.maxSegmentSize = maxSegmentSize;
+    this.syncInterval = syncInterval;
+
+    queuesDirectory = new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+    if (!queuesDirectory.exists()) {
+      Preconditions.checkState(queuesDirectory.mkdirs(),
+                               "Could not create queue store directory " + queuesDirectory.getAbsolutePath());
+    }
+
+    filePrefix = resolveFilePrefix(queueName);
+    try {
+      cursorChannel = openChannel(new File(queuesDirectory, filePrefix + CURSOR_SUFFIX));
+      frontChannel = openChannel(new File(queuesDirectory, filePrefix + FRONT_SUFFIX));
+      recover();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    if (syncInterval > 0) {
+      flusher = Flusher.SCHEDULER.scheduleWithFixedDelay(this::flush, syncInterval, syncInterval, MILLISECONDS);
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(String.format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  /**
+   * Uses the queue name for the files, unless the file system doesn't support it, in which case an hex representation of
+   * the name is used.
+   */
+  private String resolveFilePrefix(String queueName) {
+    File cursorFile = new File(queuesDirectory, queueName + CURSOR_SUFFIX);
+    try {
+      if (cursorFile.exists() || cursorFile.createNewFile()) {
+        return queueName;
+      }
+    } catch (IOException e) {
+      // fall back to the hex representation
+    }
+    return QueueFileProvider.toHex(queueName);
+  }
+
+  private FileChannel openChannel(File file) throws IOException {
+    return FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+  }
+
+  @Override
+  protected void add(Serializable item) {
+    append(serializer.getInternalProtocol().serialize(item));
+  }
+
+  @Override
+  protected boolean doAddAll(Collection<? extends Serializable> items) {
+    for (Serializable item : items) {
+      append(serializer.getInternalProtocol().serialize(item));
+    }
+    return true;
+  }
+
+  @Override
+  protected void addFirst(Serializable item) throws InterruptedException {
+    try {
+      ByteBuffer record = toRecord(serializer.getInternalProtocol().serialize(item));
+      frontOffsets.addLast(frontSize);
+      frontSize += writeFully(frontChannel, record, frontSize);
+      writeSequence++;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  @Override
+  protected Serializable getFirst() throws InterruptedException {
+    byte[] data = readFirst();
+    return data != null ? deserialize(data) : null;
+  }
+
+  @Override
+  protected Serializable removeFirst() throws InterruptedException {
+    byte[] data = readFirst();
+    if (data == null) {
+      return null;
+    }
+
+    try {
+      if (!frontOffsets.isEmpty()) {
+        frontSize = frontOffsets.removeLast();
+        frontChannel.truncate(frontSize);
+      } else {
+        readOffset += RECORD_HEADER_SIZE + data.length;
+        logEntries--;
+        reclaimConsumedSegments();
+        writeCursor();
+      }
+      writeSequence++;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    return deserialize(data);
+  }
+
+  private byte[] readFirst() {
+    try {
+      if (!frontOffsets.isEmpty()) {
+        return readRecord(frontChannel, frontOffsets.peekLast(), frontSize);
+      }
+      if (logEntries == 0) {
+        return null;
+      }
+
+      Segment head = segments.peekFirst();
+      return readRecord(head.channel, readOffset, head.size);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  @Override
+  protected int size() {
+    return logEntries + frontOffsets.size();
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  protected void doClear() {
+    try {
+      synchronized (syncLock) {
+        for (Segment segment : segments) {
+          segment.delete();
+        }
+        segments.clear();
+        segments.add(openSegment(0));
+        tailChannel = segments.peekLast().channel;
+      }
+      readOffset = 0;
+      logEntries = 0;
+
+      frontOffsets.clear();
+      frontSize = 0;
+      frontChannel.truncate(0);
+
+      writeCursor();
+      writeSequence++;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  /**
+   * Use this method carefully since it requires reading all the pending entries.
+   *
+   * @return all the elements from the queue, in consumption order.
+   */
+  public Collection<Serializable> allElements() {
+    List<Serializable> elements = new LinkedList<>();
+    for (byte[] data : allRawElements()) {
+      try {
+        elements.add(deserialize(data));
+      } catch (Exception e) {
+        logger.warn("Failure trying to deserialize value " + e.getMessage());
+        if (logger.isDebugEnabled()) {
+          logger.debug("Failure trying to deserialize value", e);
+        }
+      }
+    }
+    return elements;
+  }
+
+  private List<byte[]> allRawElements() {
+    List<byte[]> elements = new ArrayList<>(size());
+    try {
+      Iterator<Long> frontIterator = frontOffsets.descendingIterator();
+      while (frontIterator.hasNext()) {
+        elements.add(readRecord(frontChannel, frontIterator.next(), frontSize));
+      }
+
+      long offset = readOffset;
+      for (Segment segment : segments) {
+        while (offset < segment.size) {
+          byte[] data = readRecord(segment.channel, offset, segment.size);
+          elements.add(data);
+          offset += RECORD_HEADER_SIZE + data.length;
+        }
+        offset = 0;
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    return elements;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Since the log is never rewritten in place, the remaining entries are written again into a fresh log.
+   */
+  @Override
+  public synchronized void remove(Serializable value) {
+    List<byte[]> elements = allRawElements();
+    Iterator<byte[]> iterator = elements.iterator();
+    boolean removed = false;
+    while (iterator.hasNext()) {
+      if (deserialize(iterator.next()).equals(value)) {
+        iterator.remove();
+        removed = true;
+        break;
+      }
+    }
+
+    if (removed) {
+      try {
+        List<Segment> previousSegments = new ArrayList<>(segments);
+        segments.clear();
+        segments.add(openSegment(previousSegments.get(previousSegments.size() - 1).index + 1));
+        tailChannel = segments.peekLast().channel;
+        readOffset = 0;
+        logEntries = 0;
+        for (byte[] element : elements) {
+          append(element);
+        }
+        writeCursor();
+
+        frontOffsets.clear();
+        frontSize = 0;
+        frontChannel.truncate(0);
+        writeSequence++;
+        synchronized (syncLock) {
+          for (Segment segment : previousSegments) {
+            segment.delete();
+          }
+        }
+      } catch (IOException e) {
+        throw new MuleRuntimeException(e);
+      }
+      sync();
+    }
+  }
+
+  @Override
+  public synchronized boolean contains(Serializable value) {
+    for (byte[] data : allRawElements()) {
+      if (deserialize(data).equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (flusher != null) {
+      flusher.cancel(false);
+    }
+    if (syncInterval >= 0) {
+      forceUpTo(writeSequence);
+    }
+
+    synchronized (syncLock) {
+      closed = true;
+      for (Segment segment : segments) {
+        segment.close();
+      }
+      closeQuietly(cursorChannel);
+      closeQuietly(frontChannel);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void dispose() {
+    close();
+    for (Segment segment : segments) {
+      deleteQuietly(segment.file);
+    }
+    segments.clear();
+    deleteQuietly(new File(queuesDirectory, filePrefix + CURSOR_SUFFIX));
+    deleteQuietly(new File(queuesDirectory, filePrefix + FRONT_SUFFIX));
+  }
+
+  private void append(byte[] data) {
+    ByteBuffer record = toRecord(data);
+    try {
+      Segment tail = segments.peekLast();
+      if (tail.size > 0 && tail.size + record.remaining() > maxSegmentSize) {
+        if (syncInterval >= 0) {
+          tail.channel.force(false);
+        }
+        tail = openSegment(tail.index + 1);
+        segments.addLast(tail);
+        tailChannel = tail.channel;
+        // the head may have been fully consumed while it was the only segment
+        reclaimConsumedSegments();
+      }
+      tail.size += writeFully(tail.channel, record, tail.size);
+      logEntries++;
+      writeSequence++;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * When every operation has to be durable, waits until the changes made so far are forced to the storage device.
+   */
+  @Override
+  protected void sync() {
+    if (syncInterval == 0) {
+      forceUpTo(writeSequence);
+    }
+  }
+
+  private void flush() {
+    try {
+      forceUpTo(writeSequence);
+    } catch (Exception e) {
+      logger.warn("Failure forcing queue files to the storage device: " + e.getMessage());
+      if (logger.isDebugEnabled()) {
+        logger.debug("Failure forcing queue files to the storage device", e);
+      }
+    }
+  }
+
+  /**
+   * Forces the files to the storage device, unless the changes up to {@code sequence} were already forced by another thread.
+   * Threads that wait for the sync lock while a force is in progress usually find their changes covered by it once they get
+   * the lock, so concurrent operations share a single force.
+   * <p/>
+   * Files are only closed while holding the sync lock, so a force never finds them closed unless the queue itself was closed.
+   */
+  private void forceUpTo(long sequence) {
+    synchronized (syncLock) {
+      if (closed || syncedSequence >= sequence) {
+        return;
+      }
+
+      long forcedSequence = writeSequence;
+      try {
+        tailChannel.force(false);
+        frontChannel.force(false);
+        cursorChannel.force(false);
+      } catch (IOException e) {
+        throw new MuleRuntimeException(e);
+      }
+      syncedSequence = forcedSequence;
+    }
+  }
+
+  /**
+   * Deletes the head segments once they've been fully consumed and a later segment exists. The cursor is persisted before the
+   * files are deleted, so a crash in between only leaves files which are deleted on recovery.
+   */
+  private void reclaimConsumedSegments() throws IOException {
+    while (segments.size() > 1 && readOffset >= segments.peekFirst().size) {
+      Segment consumed = segments.removeFirst();
+      readOffset = 0;
+      writeCursor();
+      synchronized (syncLock) {
+        consumed.delete();
+      }
+    }
+  }
+
+  /**
+   * Writes the cursor into the slot which doesn't hold the current one, so a partial write never loses both.
+   */
+  private void writeCursor() throws IOException {
+    cursorGeneration++;
+    cursorBuffer.clear();
+    cursorBuffer.putLong(cursorGeneration);
+    cursorBuffer.putLong(segments.peekFirst().index);
+    cursorBuffer.putLong(readOffset);
+    cursorBuffer.putInt(checksum(cursorBuffer.array(), CURSOR_SLOT_SIZE - 4));
+    cursorBuffer.flip();
+    writeFully(cursorChannel, cursorBuffer, (cursorGeneration % CURSOR_SLOTS) * CURSOR_SLOT_SIZE);
+  }
+
+  /**
+   * Reads the valid cursor slot with the latest generation.
+   *
+   * @return the head segment index and read offset, or {@code null} if there's no valid cursor
+   */
+  private long[] readCursor() throws IOException {
+    long[] cursor = null;
+    cursorGeneration = 0;
+    for (int slot = 0; slot < CURSOR_SLOTS; slot++) {
+      long position = (long) slot * CURSOR_SLOT_SIZE;
+      if (cursorChannel.size() < position + CURSOR_SLOT_SIZE) {
+        break;
+      }
+
+      cursorBuffer.clear();
+      readFully(cursorChannel, cursorBuffer, position);
+      cursorBuffer.flip();
+      long generation = cursorBuffer.getLong();
+      long headIndex = cursorBuffer.getLong();
+      long offset = cursorBuffer.getLong();
+      if (cursorBuffer.getInt() == checksum(cursorBuffer.array(), CURSOR_SLOT_SIZE - 4) && generation > cursorGeneration) {
+        cursorGeneration = generation;
+        cursor = new long[] {headIndex, offset};
+      }
+    }
+    return cursor;
+  }
+
+  private void recover() throws IOException {
+    TreeMap<Long, File> segmentFiles = new TreeMap<>();
+    File[] files = queuesDirectory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        String name = file.getName();
+        if (name.startsWith(filePrefix + "-") && name.endsWith(SEGMENT_SUFFIX)) {
+          try {
+            segmentFiles.put(parseLong(name.substring(filePrefix.length() + 1, name.length() - SEGMENT_SUFFIX.length())), file);
+          } catch (NumberFormatException e) {
+            // not a segment of this queue
+          }
+        }
+      }
+    }
+
+    long headIndex = segmentFiles.isEmpty() ? 0 : segmentFiles.firstKey();
+    readOffset = 0;
+    long[] cursor = readCursor();
+    if (cursor != null) {
+      headIndex = cursor[0];
+      readOffset = cursor[1];
+    }
+
+    for (File file : segmentFiles.headMap(headIndex).values()) {
+      deleteQuietly(file);
+    }
+
+    if (!segmentFiles.containsKey(headIndex)) {
+      readOffset = 0;
+    }
+
+    logEntries = 0;
+    long offset = readOffset;
+    for (Long index : segmentFiles.tailMap(headIndex).keySet()) {
+      Segment segment = openSegment(index);
+      segment.size = scan(segment.channel, offset, null);
+      segment.channel.truncate(segment.size);
+      segments.addLast(segment);
+      offset = 0;
+    }
+
+    if (segments.isEmpty()) {
+      segments.add(openSegment(headIndex));
+      readOffset = 0;
+    }
+    tailChannel = segments.peekLast().channel;
+
+    frontSize = scan(frontChannel, 0, frontOffsets);
+    frontChannel.truncate(frontSize);
+    logEntries -= frontOffsets.size();
+    reclaimConsumedSegments();
+    writeCursor();
+  }
+
+  /**
+   * Scans the valid records of the given channel, starting at {@code offset}.
+   *
+   * @return the offset after the last valid record
+   */
+  private long scan(FileChannel channel, long offset, Deque<Long> offsets) throws IOException {
+    final long channelSize = channel.size();
+    while (offset < channelSize) {
+      byte[] data;
+      try {
+        data = readRecord(channel, offset, channelSize);
+      } catch (IOException e) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Discarding corrupted queue entry at offset " + offset, e);
+        }
+        break;
+      }
+      if (offsets != null) {
+        offsets.addLast(offset);
+      }
+      logEntries++;
+      offset += RECORD_HEADER_SIZE + data.length;
+    }
+    return offset;
+  }
+
+  private byte[] readRecord(FileChannel channel, long offset, long limit) throws IOException {
+    if (offset + RECORD_HEADER_SIZE > limit) {
+      throw new IOException("Incomplete record header");
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+    readFully(channel, header, offset);
+    header.flip();
+    int length = header.getInt();
+    int checksum = header.getInt();
+    if (length < 0 || offset + RECORD_HEADER_SIZE + length > limit) {
+      throw new IOException("Incomplete record data");
+    }
+
+    byte[] data = new byte[length];
+    readFully(channel, ByteBuffer.wrap(data), offset + RECORD_HEADER_SIZE);
+    if (checksum(data, data.length) != checksum) {
+      throw new IOException("Record checksum mismatch");
+    }
+    return data;
+  }
+
+  private ByteBuffer toRecord(byte[] data) {
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + data.length);
+    record.putInt(data.length);
+    record.putInt(checksum(data, data.length));
+    record.put(data);
+    record.flip();
+    return record;
+  }
+
+  private int checksum(byte[] data, int length) {
+    crc.reset();
+    crc.update(data, 0, length);
+    return (int) crc.getValue();
+  }
+
+  private Segment openSegment(long index) throws IOException {
+    File file = new File(queuesDirectory, filePrefix + "-" + index + SEGMENT_SUFFIX);
+    return new Segment(index, file, openChannel(file));
+  }
+
+  private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    int written = 0;
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer, position + written);
+    }
+    return written;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    int read = 0;
+    while (buffer.hasRemaining()) {
+      int count = channel.read(buffer, position + read);
+      if (count < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+      read += count;
+    }
+  }
+
+  private Serializable deserialize(byte[] data) {
+    return serializer.getInternalProtocol().deserialize(data);
+  }
+
+  private void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.warn("Failure closing queue file: " + e.getMessage());
+      if (logger.isDebugEnabled()) {
+        logger.debug("Failure closing queue file", e);
+      }
+    }
+  }
+
+  /**
+   * Holds the thread shared by all the queues which force their files periodically, so it's only started when needed.
+   */
+  private static class Flusher {
+
+    private static final ScheduledExecutorService SCHEDULER =
+        newSingleThreadScheduledExecutor(new NamedThreadFactory("queue-store-flusher",
+                                                                SegmentedLogQueueStoreDelegate.class.getClassLoader()) {
+
+          @Override
+          protected void doConfigureThread(Thread t) {
+            super.doConfigureThread(t);
+            t.setDaemon(true);
+          }
+        });
+  }
+
+  private class Segment {
+
+    private final long index;
+    private final File file;
+    private final FileChannel channel;
+    private long size;
+
+    private Segment(long index, File file, FileChannel channel) {
+      this.index = index;
+      this.file = file;
+      this.channel = channel;
+    }
+
+    private void close() {
+      closeQuietly(channel);
+    }
+
+    private void delete() {
+      close();
+      deleteQuietly(file);
+    }
+  }
+}
@@ -0,0 +1,678 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.i18n.CoreMessages.failedToCreate;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ExpirableObjectStore;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.api.store.TemplateObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent partition which keeps all its entries in a single append only data file plus an in memory hash index of
+ * the position of each live entry within that file.
+ * <p>
+ * Unlike {@link PersistentObjectStorePartition}, which uses one file per entry, storing or removing an entry appends a
+ * single record to the data file. The index is rebuilt on startup by sequentially scanning the data file, which does not
+ * require deserializing the values. Each record carries a checksum, so a record which was only partially written because
+ * of a crash is discarded (and the file truncated) on recovery.
+ * <p>
+ * Since keys cannot be overwritten, entries are appended in the same order in which they were stored. An insertion ordered
+ * queue of keys is kept alongside the index, so that {@link #expire(long, int)} only needs to look at the oldest entries,
+ * instead of scanning the whole partition.
+ * <p>
+ * Removed and expired entries leave garbage in the data file. When that garbage exceeds the size of the live data, the file
+ * is compacted as part of the next expiration run, which is performed in the background by the
+ * {@link MuleObjectStoreManager} monitor.
+ * <p>
+ * Whether the data file is forced to the storage device after each change is controlled through the
+ * {@link #SYNC_INTERVAL_PROPERTY_KEY} system property: a negative value never forces it (leaving it to the operating
+ * system), zero forces it after every change and a positive value forces it at most once per that amount of
+ * milliseconds, and on each expiration run if there are changes not forced yet.
+ *
+ * @since 4.1
+ */
+public class IndexedPersistentObjectStorePartition<T extends Serializable> extends TemplateObjectStore<T>
+    implements ExpirableObjectStore<T> {
+
+  public static final String DATA_FILE = "partition-data";
+  public static final String SYNC_INTERVAL_PROPERTY_KEY = "mule.objectstore.syncIntervalMillis";
+
+  private static final long DEFAULT_SYNC_INTERVAL = 0;
+
+  private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+  private static final String COMPACTION_FILE_SUFFIX = ".compact";
+  private static final byte STORE_RECORD = 1;
+  private static final byte REMOVE_RECORD = 2;
+  // type + timestamp + key length + value length + checksum
+  private static final int RECORD_HEADER_SIZE = 1 + 8 + 4 + 4 + 4;
+  private static final long MIN_COMPACTION_GARBAGE = 1024 * 1024;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IndexedPersistentObjectStorePartition.class);
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final File partitionDirectory;
+  private final long syncInterval;
+  private String partitionName;
+
+  private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedDeque<IndexEntry> insertionOrder = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger insertionOrderSize = new AtomicInteger();
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+  private final CRC32 crc = new CRC32();
+
+  private FileChannel dataChannel;
+  private long dataSize;
+  private long garbageSize;
+  private long lastSync = currentTimeMillis();
+  private boolean dirty = false;
+  private volatile boolean loaded = false;
+
+  public IndexedPersistentObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    this(muleContext, partitionName, partitionDirectory, getSyncIntervalProperty());
+  }
+
+  IndexedPersistentObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory,
+                                        long syncInterval) {
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.partitionName = partitionName;
+    this.partitionDirectory = partitionDirectory;
+    this.syncInterval = syncInterval;
+  }
+
+  public IndexedPersistentObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.partitionDirectory = partitionDirectory;
+    this.syncInterval = getSyncIntervalProperty();
+    try {
+      this.partitionName = readFileToString(new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE));
+    } catch (IOException e) {
+      throw new ObjectStoreNotAvailableException(e);
+    }
+  }
+
+  private static long getSyncIntervalProperty() {
+    return parseLong(getProperty(SYNC_INTERVAL_PROPERTY_KEY, String.valueOf(DEFAULT_SYNC_INTERVAL)));
+  }
+
+  /**
+   * @param partitionDirectory a partition directory
+   * @return whether the given directory holds an indexed partition
+   */
+  public static boolean isIndexedPartition(File partitionDirectory) {
+    return new File(partitionDirectory, DATA_FILE).exists();
+  }
+
+  @Override
+  public void open() throws ObjectStoreException {
+    writeLock.lock();
+    try {
+      if (loaded) {
+        return;
+      }
+
+      if (!partitionDirectory.exists() && !partitionDirectory.mkdirs()) {
+        throw new ObjectStoreException(failedToCreate("object store directory " + partitionDirectory.getAbsolutePath()));
+      }
+
+      File descriptor = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+      if (descriptor.exists()) {
+        partitionName = readFileToString(descriptor);
+      } else {
+        writeStringToFile(descriptor, partitionName);
+      }
+
+      dataChannel = FileChannel.open(getDataFile().toPath(), CREATE, READ, WRITE);
+      recover();
+      loaded = true;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                partitionDirectory.getAbsolutePath())),
+                                     e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    writeLock.lock();
+    try {
+      if (dataChannel != null) {
+        if (dirty && syncInterval >= 0) {
+          dataChannel.force(false);
+        }
+        dataChannel.close();
+        dataChannel = null;
+        dirty = false;
+      }
+      index.clear();
+      clearInsertionOrder();
+      loaded = false;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureLoaded();
+    return unmodifiableList(new ArrayList<>(index.keySet()));
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureLoaded();
+    return index.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureLoaded();
+    byte[] keyBytes = key.getBytes(UTF_8);
+    byte[] valueBytes = serializer.getInternalProtocol().serialize(value);
+
+    writeLock.lock();
+    try {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+
+      final long timestamp = currentTimeMillis();
+      final long offset = append(STORE_RECORD, timestamp, keyBytes, valueBytes);
+      IndexEntry entry = new IndexEntry(key, offset, keyBytes.length, valueBytes.length, timestamp);
+      index.put(key, entry);
+      addToInsertionOrder(entry);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureLoaded();
+    byte[] valueBytes;
+    // the entry is looked up while holding the lock so that a concurrent compaction cannot move it
+    fileLock.readLock().lock();
+    try {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      valueBytes = readValue(entry);
+    } finally {
+      fileLock.readLock().unlock();
+    }
+    return deserialize(valueBytes);
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureLoaded();
+    Map<String, byte[]> serializedValues = new LinkedHashMap<>(index.size());
+    fileLock.readLock().lock();
+    try {
+      for (IndexEntry entry : insertionOrder) {
+        if (index.get(entry.key) == entry) {
+          serializedValues.put(entry.key, readValue(entry));
+        }
+      }
+    } finally {
+      fileLock.readLock().unlock();
+    }
+
+    Map<String, T> values = new LinkedHashMap<>(serializedValues.size());
+    for (Map.Entry<String, byte[]> serializedValue : serializedValues.entrySet()) {
+      values.put(serializedValue.getKey(), deserialize(serializedValue.getValue()));
+    }
+    return values;
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    writeLock.lock();
+    try {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+
+      byte[] valueBytes;
+      fileLock.readLock().lock();
+      try {
+        valueBytes = readValue(entry);
+      } finally {
+        fileLock.readLock().unlock();
+      }
+      delete(entry);
+      return deserialize(valueBytes);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    assureLoaded();
+
+    writeLock.lock();
+    fileLock.writeLock().lock();
+    try {
+      dataChannel.truncate(0);
+      dataChannel.force(true);
+      dataSize = 0;
+      garbageSize = 0;
+      dirty = false;
+      index.clear();
+      clearInsertionOrder();
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      fileLock.writeLock().unlock();
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Only the oldest entries are visited, stopping at the first one which is neither expired nor exceeds the max entries
+   * limit. If enough garbage has accumulated, the data file is compacted afterwards.
+   */
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureLoaded();
+
+    writeLock.lock();
+    try {
+      final long now = currentTimeMillis();
+      IndexEntry oldest;
+      while ((oldest = insertionOrder.peekFirst()) != null) {
+        if (index.get(oldest.key) != oldest) {
+          pollInsertionOrder();
+          continue;
+        }
+
+        boolean exceedsMaxEntries = maxEntries != UNBOUNDED && index.size() > maxEntries;
+        boolean expired = entryTTL != UNBOUNDED && now - oldest.timestamp >= entryTTL;
+        if (!exceedsMaxEntries && !expired) {
+          break;
+        }
+        pollInsertionOrder();
+        delete(oldest);
+      }
+
+      if (garbageSize >= MIN_COMPACTION_GARBAGE && garbageSize > dataSize - garbageSize) {
+        compact();
+      } else if (syncInterval > 0) {
+        // changes made since the last sync are forced here, so they don't wait for the next write
+        sync(true);
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (!loaded) {
+      open();
+    }
+  }
+
+  private File getDataFile() {
+    return new File(partitionDirectory, DATA_FILE);
+  }
+
+  /**
+   * Must be invoked holding the {@link #writeLock}
+   */
+  private void delete(IndexEntry entry) throws ObjectStoreException {
+    byte[] keyBytes = entry.key.getBytes(UTF_8);
+    append(REMOVE_RECORD, currentTimeMillis(), keyBytes, new byte[0]);
+    index.remove(entry.key);
+    garbageSize += entry.recordSize() + RECORD_HEADER_SIZE + keyBytes.length;
+
+    if (insertionOrderSize.get() > 2 * index.size() + 1024) {
+      rebuildInsertionOrder();
+    }
+  }
+
+  /**
+   * Must be invoked holding the {@link #writeLock}
+   *
+   * @return the offset of the appended record
+   */
+  private long append(byte type, long timestamp, byte[] keyBytes, byte[] valueBytes) throws ObjectStoreException {
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length);
+    record.put(type);
+    record.putLong(timestamp);
+    record.putInt(keyBytes.length);
+    record.putInt(valueBytes.length);
+    record.putInt(checksum(type, timestamp, keyBytes, valueBytes));
+    record.put(keyBytes);
+    record.put(valueBytes);
+    record.flip();
+
+    fileLock.readLock().lock();
+    try {
+      final long offset = dataSize;
+      long position = offset;
+      while (record.hasRemaining()) {
+        position += dataChannel.write(record, position);
+      }
+      dataSize = position;
+      dirty = true;
+      sync(false);
+      return offset;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      fileLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Forces pending changes to the storage device according to the configured sync interval. Must be invoked holding the
+   * {@link #writeLock}
+   *
+   * @param force whether to force pending changes even if the sync interval didn't elapse yet
+   */
+  private void sync(boolean force) throws IOException {
+    if (!dirty || syncInterval < 0) {
+      return;
+    }
+
+    long now = currentTimeMillis();
+    if (!force && syncInterval > 0 && now - lastSync < syncInterval) {
+      return;
+    }
+
+    dataChannel.force(false);
+    lastSync = now;
+    dirty = false;
+  }
+
+  /**
+   * Must be invoked holding the read side of the {@link #fileLock}
+   */
+  private byte[] readValue(IndexEntry entry) throws ObjectStoreException {
+    ByteBuffer valueBuffer = ByteBuffer.allocate(entry.valueLength);
+    try {
+      long position = entry.offset + RECORD_HEADER_SIZE + entry.keyLength;
+      while (valueBuffer.hasRemaining()) {
+        if (dataChannel.read(valueBuffer, position + valueBuffer.position()) < 0) {
+          throw new EOFException("Unexpected end of object store data file");
+        }
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+    return valueBuffer.array();
+  }
+
+  @SuppressWarnings("unchecked")
+  private T deserialize(byte[] valueBytes) throws ObjectStoreException {
+    T value = (T) serializer.getInternalProtocol().deserialize(valueBytes);
+    if (value instanceof DeserializationPostInitialisable) {
+      try {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      } catch (Exception e) {
+        throw new ObjectStoreException(e);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Rebuilds the index by scanning the data file. Records which are incomplete or which checksum doesn't match end the
+   * scan, and the file is truncated at that point.
+   */
+  private void recover() throws IOException {
+    index.clear();
+    clearInsertionOrder();
+    dataSize = 0;
+    garbageSize = 0;
+
+    final long fileSize = dataChannel.size();
+    dataChannel.position(0);
+    DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(dataChannel), 64 * 1024));
+    long offset = 0;
+    while (offset + RECORD_HEADER_SIZE <= fileSize) {
+      byte type = input.readByte();
+      long timestamp = input.readLong();
+      int keyLength = input.readInt();
+      int valueLength = input.readInt();
+      int checksum = input.readInt();
+
+      if ((type != STORE_RECORD && type != REMOVE_RECORD) || keyLength < 0 || valueLength < 0
+          || offset + RECORD_HEADER_SIZE + keyLength + valueLength > fileSize) {
+        break;
+      }
+
+      byte[] keyBytes = new byte[keyLength];
+      byte[] valueBytes = new byte[valueLength];
+      input.readFully(keyBytes);
+      input.readFully(valueBytes);
+      if (checksum(type, timestamp, keyBytes, valueBytes) != checksum) {
+        break;
+      }
+
+      String key = new String(keyBytes, UTF_8);
+      long recordSize = RECORD_HEADER_SIZE + keyLength + valueLength;
+      if (type == STORE_RECORD) {
+        IndexEntry entry = new IndexEntry(key, offset, keyLength, valueLength, timestamp);
+        IndexEntry previous = index.put(key, entry);
+        if (previous != null) {
+          garbageSize += previous.recordSize();
+        }
+        addToInsertionOrder(entry);
+      } else {
+        IndexEntry previous = index.remove(key);
+        if (previous != null) {
+          garbageSize += previous.recordSize();
+        }
+        garbageSize += recordSize;
+      }
+      offset += recordSize;
+    }
+
+    if (offset < fileSize) {
+      LOGGER.warn(format("Object store data file %s had a partially written or corrupted record at position %d. "
+          + "Discarding the %d trailing bytes", getDataFile().getAbsolutePath(), offset, fileSize - offset));
+      dataChannel.truncate(offset);
+    }
+
+    dataSize = offset;
+    rebuildInsertionOrder();
+  }
+
+  /**
+   * Writes the live records into a new data file which then atomically replaces the current one. Must be invoked holding
+   * the {@link #writeLock}
+   * <p>
+   * The current data file is only closed once the new one has replaced it, so a failure at any point leaves the partition
+   * working on the previous data file.
+   */
+  private void compact() throws ObjectStoreException {
+    File compactedFile = new File(partitionDirectory, DATA_FILE + COMPACTION_FILE_SUFFIX);
+    List<IndexEntry> compactedEntries = new ArrayList<>(index.size());
+    long compactedSize = 0;
+
+    fileLock.writeLock().lock();
+    FileChannel compacted = null;
+    try {
+      compacted = FileChannel.open(compactedFile.toPath(), CREATE, READ, WRITE, TRUNCATE_EXISTING);
+      for (IndexEntry entry : insertionOrder) {
+        if (index.get(entry.key) != entry) {
+          continue;
+        }
+
+        long transferred = 0;
+        while (transferred < entry.recordSize()) {
+          transferred += dataChannel.transferTo(entry.offset + transferred, entry.recordSize() - transferred, compacted);
+        }
+        compactedEntries.add(new IndexEntry(entry.key, compactedSize, entry.keyLength, entry.valueLength, entry.timestamp));
+        compactedSize += entry.recordSize();
+      }
+      compacted.force(true);
+
+      // the compacted channel stays open across the move and becomes the data channel, so it never needs to be reopened
+      Files.move(compactedFile.toPath(), getDataFile().toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+      closeQuietly(dataChannel);
+      dataChannel = compacted;
+      compacted = null;
+
+      clearInsertionOrder();
+      for (IndexEntry entry : compactedEntries) {
+        index.put(entry.key, entry);
+        addToInsertionOrder(entry);
+      }
+      dataSize = compactedSize;
+      garbageSize = 0;
+      lastSync = currentTimeMillis();
+      dirty = false;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not compact object store data file "
+          + getDataFile().getAbsolutePath()), e);
+    } finally {
+      if (compacted != null) {
+        // compaction failed, the current data file is still in place and its channel still open
+        closeQuietly(compacted);
+        compactedFile.delete();
+      }
+      fileLock.writeLock().unlock();
+    }
+  }
+
+  private void rebuildInsertionOrder() {
+    List<IndexEntry> live = new ArrayList<>(index.size());
+    for (IndexEntry entry : insertionOrder) {
+      if (index.get(entry.key) == entry) {
+        live.add(entry);
+      }
+    }
+    clearInsertionOrder();
+    live.forEach(this::addToInsertionOrder);
+  }
+
+  private void addToInsertionOrder(IndexEntry entry) {
+    insertionOrder.addLast(entry);
+    insertionOrderSize.incrementAndGet();
+  }
+
+  private void pollInsertionOrder() {
+    if (insertionOrder.pollFirst() != null) {
+      insertionOrderSize.decrementAndGet();
+    }
+  }
+
+  private void clearInsertionOrder() {
+    insertionOrder.clear();
+    insertionOrderSize.set(0);
+  }
+
+  private int checksum(byte type, long timestamp, byte[] keyBytes, byte[] valueBytes) {
+    crc.reset();
+    crc.update(type);
+    for (int i = 56; i >= 0; i -= 8) {
+      crc.update((int) (timestamp >>> i));
+    }
+    crc.update(keyBytes, 0, keyBytes.length);
+    crc.update(valueBytes, 0, valueBytes.length);
+    return (int) crc.getValue();
+  }
+
+  private static class IndexEntry {
+
+    private final String key;
+    private final long offset;
+    private final int keyLength;
+    private final int valueLength;
+    private final long timestamp;
+
+    private IndexEntry(String key, long offset, int keyLength, int valueLength, long timestamp) {
+      this.key = key;
+      this.offset = offset;
+      this.keyLength = keyLength;
+      this.valueLength = valueLength;
+      this.timestamp = timestamp;
+    }
+
+    private long recordSize() {
+      return RECORD_HEADER_SIZE + keyLength + valueLength;
+    }
+  }
+}
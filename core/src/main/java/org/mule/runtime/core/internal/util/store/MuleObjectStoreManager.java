@@ -7,6 +7,7 @@
 
 package org.mule.runtime.core.internal.util.store;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
@@ -27,6 +28,7 @@ import org.mule.runtime.api.store.ObjectStoreSettings;
 import org.mule.runtime.api.store.PartitionableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
+import org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore;
 
 import org.slf4j.Logger;
 
@@ -43,6 +45,11 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
   private static Logger LOGGER = getLogger(MuleObjectStoreManager.class);
   public static final int UNBOUNDED = 0;
 
+  /**
+   * System property to set the default value of {@link #setUseIndexedPersistentPartitions(boolean)}.
+   */
+  public static final String USE_INDEXED_PERSISTENT_PARTITIONS_PROPERTY_KEY = "mule.objectstore.indexedPartitions";
+
   private SchedulerService schedulerService;
   private Registry registry;
   private MuleContext muleContext;
@@ -52,6 +59,7 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
 
   private String baseTransientStoreKey = BASE_IN_MEMORY_OBJECT_STORE_KEY;
   private String basePersistentStoreKey = BASE_PERSISTENT_OBJECT_STORE_KEY;
+  private boolean useIndexedPersistentPartitions = getBoolean(USE_INDEXED_PERSISTENT_PARTITIONS_PROPERTY_KEY);
 
   private ObjectStore<?> baseTransientStore;
   private ObjectStore<?> basePersistentStore;
@@ -64,6 +72,11 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
     basePersistentStore = lookupBaseStore(basePersistentStoreKey, "Persistent");
     baseTransientStore = lookupBaseStore(baseTransientStoreKey, "Transient");
 
+    // done before opening any partition, so the default partition is also created in the selected format
+    if (useIndexedPersistentPartitions && basePersistentStore instanceof PartitionedPersistentObjectStore) {
+      ((PartitionedPersistentObjectStore) basePersistentStore).setUseIndexedPartitions(true);
+    }
+
     try {
       baseTransientPartition = getPartitionFromBaseObjectStore(baseTransientStore, baseTransientStoreKey);
       basePersistentPartition = getPartitionFromBaseObjectStore(basePersistentStore, basePersistentStoreKey);
@@ -304,6 +317,15 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
     this.baseTransientStoreKey = baseTransientStoreKey;
   }
 
+  /**
+   * @param useIndexedPersistentPartitions whether the partitions of the default persistent base store are kept in a single
+   *        data file each, through {@link IndexedPersistentObjectStorePartition}, instead of using one file per entry. Has no
+   *        effect when the persistent base store was overridden.
+   */
+  public void setUseIndexedPersistentPartitions(boolean useIndexedPersistentPartitions) {
+    this.useIndexedPersistentPartitions = useIndexedPersistentPartitions;
+  }
+
   @Inject
   public void setSchedulerService(SchedulerService schedulerService) {
     this.schedulerService = schedulerService;
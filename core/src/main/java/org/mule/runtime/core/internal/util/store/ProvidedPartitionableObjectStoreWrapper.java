@@ -48,6 +48,13 @@ public class ProvidedPartitionableObjectStoreWrapper<T extends Serializable> ext
     }
   }
 
+  /**
+   * @return the provided or created object store that is wrapped.
+   */
+  public PartitionableObjectStore<T> getWrapped() {
+    return wrapped;
+  }
+
   @Override
   public void open() throws ObjectStoreException {
     wrapped.open();
@@ -7,13 +7,17 @@
 package org.mule.runtime.module.artifact.api.classloader;
 
 import static java.lang.Boolean.valueOf;
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
 import static java.lang.System.getProperty;
+import static java.util.Collections.singletonList;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_VERBOSE_CLASSLOADING;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.module.artifact.api.classloader.exception.CompositeClassNotFoundException;
+import org.mule.runtime.module.artifact.internal.classloader.PackageIndex;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -25,6 +29,9 @@ import java.net.URLStreamHandlerFactory;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import sun.misc.CompoundEnumeration;
@@ -35,6 +42,15 @@ import sun.net.www.protocol.jar.Handler;
  * <p/>
  * By using a {@link ClassLoaderLookupPolicy} this classLoader can use parent-first, parent-only or child-first classloading
  * lookup mode per package.
+ * <p/>
+ * Classes whose package is not in any of the URLs of this classLoader are not looked for in them, and classes that couldn't be
+ * loaded are remembered, up to {@value #DEFAULT_NEGATIVE_LOOKUP_CACHE_SIZE} by default, so that probing for optional classes
+ * repeatedly doesn't search every classloader or fill stack traces each time. Only the lookup strategy of a failure is kept, and
+ * the exception thrown when it is found again doesn't have the details of each classloader searched.
+ * <p/>
+ * Since any classloader may delegate to others, the remembered failures of all the classloaders are discarded when a URL is added
+ * to any of them or when a member is added to a {@link RegionClassLoader}. The index of the packages is discarded when a URL is
+ * added. Both are discarded when this classLoader is disposed.
  */
 public class FineGrainedControlClassLoader extends URLClassLoader
     implements DisposableClassLoader, ClassLoaderLookupPolicyProvider {
@@ -45,9 +61,31 @@ public class FineGrainedControlClassLoader extends URLClassLoader
 
   private static final Logger LOGGER = getLogger(FineGrainedControlClassLoader.class);
 
+  /**
+   * System property to set the amount of classes that couldn't be loaded to remember on each classloader. Zero disables it.
+   */
+  public static final String NEGATIVE_LOOKUP_CACHE_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "classloader.negativeLookupCacheSize";
+
+  /**
+   * System property to disable the index of the packages in the URLs of each classloader.
+   */
+  public static final String DISABLE_PACKAGE_INDEX_PROPERTY = SYSTEM_PROPERTY_PREFIX + "classloader.disablePackageIndex";
+
+  static final int DEFAULT_NEGATIVE_LOOKUP_CACHE_SIZE = 1024;
+
+  // incremented whenever a classloader may find classes it couldn't before, invalidating the failures remembered until then
+  private static final AtomicLong LOOKUP_GENERATION = new AtomicLong();
+
   private final ClassLoaderLookupPolicy lookupPolicy;
   private final boolean verboseLogging;
 
+  private final boolean packageIndexEnabled = !valueOf(getProperty(DISABLE_PACKAGE_INDEX_PROPERTY));
+  private final Object packageIndexLock = new Object();
+  private volatile PackageIndex packageIndex;
+
+  private final int negativeLookupCacheSize = getInteger(NEGATIVE_LOOKUP_CACHE_SIZE_PROPERTY, DEFAULT_NEGATIVE_LOOKUP_CACHE_SIZE);
+  private final ConcurrentMap<String, FailedLookup> negativeLookupCache = new ConcurrentHashMap<>();
+
   public FineGrainedControlClassLoader(URL[] urls, ClassLoader parent, ClassLoaderLookupPolicy lookupPolicy) {
     super(urls, parent, new NonCachingURLStreamHandlerFactory());
     checkArgument(lookupPolicy != null, "Lookup policy cannot be null");
@@ -67,6 +105,12 @@ public class FineGrainedControlClassLoader extends URLClassLoader
       return result;
     }
 
+    final long lookupGeneration = LOOKUP_GENERATION.get();
+    final FailedLookup previousFailure = negativeLookupCache.get(name);
+    if (previousFailure != null && previousFailure.generation == lookupGeneration) {
+      throw new CachedClassNotFoundException(name, previousFailure.lookupStrategy);
+    }
+
     final LookupStrategy lookupStrategy = lookupPolicy.getClassLookupStrategy(name);
     if (lookupStrategy == null) {
       throw new NullPointerException(format("Unable to find a lookup strategy for '%s' from %s", name, this));
@@ -95,6 +139,7 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
 
     if (result == null) {
+      cacheFailure(name, new FailedLookup(lookupStrategy, lookupGeneration));
       throw new CompositeClassNotFoundException(name, lookupStrategy, exceptions);
     }
 
@@ -109,6 +154,24 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     return result;
   }
 
+  private void cacheFailure(String name, FailedLookup failure) {
+    if (negativeLookupCacheSize <= 0) {
+      return;
+    }
+    // bounded by starting over once full, as the classes probed for are usually a small set
+    if (negativeLookupCache.size() >= negativeLookupCacheSize) {
+      negativeLookupCache.clear();
+    }
+    negativeLookupCache.put(name, failure);
+  }
+
+  /**
+   * Discards the classes that couldn't be loaded by any classloader, which may be found now that a classloader changed.
+   */
+  protected static void invalidateNegativeLookupCaches() {
+    LOOKUP_GENERATION.incrementAndGet();
+  }
+
   private void logLoadingClass(String name, LookupStrategy lookupStrategy, String format,
                                FineGrainedControlClassLoader fineGrainedControlClassLoader) {
     final String message = format(format, name, lookupStrategy, fineGrainedControlClassLoader);
@@ -166,10 +229,36 @@ public class FineGrainedControlClassLoader extends URLClassLoader
         return result;
       }
 
+      if (!getPackageIndex().mayContain(name)) {
+        throw new NotIndexedClassNotFoundException(name);
+      }
+
       return super.findClass(name);
     }
   }
 
+  private PackageIndex getPackageIndex() {
+    PackageIndex index = packageIndex;
+    if (index == null) {
+      synchronized (packageIndexLock) {
+        index = packageIndex;
+        if (index == null) {
+          // built on the first lookup instead of on creation, as many classloaders never look for classes in their URLs
+          index = packageIndexEnabled ? PackageIndex.of(getURLs()) : PackageIndex.unknown();
+          packageIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  @Override
+  protected void addURL(URL url) {
+    super.addURL(url);
+    packageIndex = null;
+    invalidateNegativeLookupCaches();
+  }
+
   @Override
   public ClassLoaderLookupPolicy getClassLoaderLookupPolicy() {
     return lookupPolicy;
@@ -181,6 +270,9 @@ public class FineGrainedControlClassLoader extends URLClassLoader
    */
   @Override
   public void dispose() {
+    packageIndex = null;
+    negativeLookupCache.clear();
+
     try {
       // Java 7 added support for closing a URLClassLoader, it will close any resources opened by this classloader
       close();
@@ -200,6 +292,73 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
   }
 
+  /**
+   * Thrown when the package of a class is not in the URLs of this classloader. Its stack trace is not filled, as it is expected
+   * when probing for classes.
+   */
+  private static final class NotIndexedClassNotFoundException extends ClassNotFoundException {
+
+    private static final long serialVersionUID = 2185613395357618312L;
+
+    private NotIndexedClassNotFoundException(String className) {
+      super(className);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
+  /**
+   * A class that couldn't be loaded, remembered along with the {@link #LOOKUP_GENERATION} when the lookup started.
+   */
+  private static final class FailedLookup {
+
+    private final LookupStrategy lookupStrategy;
+    private final long generation;
+
+    private FailedLookup(LookupStrategy lookupStrategy, long generation) {
+      this.lookupStrategy = lookupStrategy;
+      this.generation = generation;
+    }
+  }
+
+  /**
+   * Thrown when a class that previously couldn't be loaded is looked for again. Its stack trace is not filled, as it is expected
+   * when probing for classes.
+   */
+  private static final class CachedClassNotFoundException extends CompositeClassNotFoundException {
+
+    private static final long serialVersionUID = -4527004541342216125L;
+
+    private CachedClassNotFoundException(String className, LookupStrategy lookupStrategy) {
+      super(className, lookupStrategy, singletonList(new PreviouslyNotFoundException(className)));
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
+  /**
+   * Cause of a {@link CachedClassNotFoundException}, in place of the failures of each classloader searched originally.
+   */
+  private static final class PreviouslyNotFoundException extends ClassNotFoundException {
+
+    private static final long serialVersionUID = 6409420386427441582L;
+
+    private PreviouslyNotFoundException(String className) {
+      super(format("Class '%s' was not found by a previous lookup", className));
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
   protected static class NonCachingURLStreamHandlerFactory implements URLStreamHandlerFactory {
 
     @Override
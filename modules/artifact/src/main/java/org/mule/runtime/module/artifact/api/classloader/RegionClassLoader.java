@@ -28,6 +28,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -61,11 +62,11 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
   private static final Logger LOGGER = getLogger(RegionClassLoader.class);
 
   private final ReadWriteLock innerStateRWLock = new ReentrantReadWriteLock();
-  private final Lock innerStateReadLock = innerStateRWLock.readLock();
   private final Lock innerStateWriteLock = innerStateRWLock.writeLock();
 
   private final List<RegionMemberClassLoader> registeredClassLoaders = new ArrayList<>();
-  private final Map<String, ArtifactClassLoader> packageMapping = new HashMap<>();
+  // Read without locking on each class lookup
+  private final Map<String, ArtifactClassLoader> packageMapping = new ConcurrentHashMap<>();
   private final Map<String, List<ArtifactClassLoader>> resourceMapping = new HashMap<>();
   private ArtifactClassLoader ownerClassLoader;
 
@@ -132,6 +133,9 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
 
         classLoaders.add(artifactClassLoader);
       }
+
+      // classes that couldn't be loaded before may be provided by the added class loader now
+      invalidateNegativeLookupCaches();
     } finally {
       innerStateWriteLock.unlock();
     }
@@ -199,22 +203,17 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
 
   @Override
   public Class<?> findLocalClass(String name) throws ClassNotFoundException {
-    innerStateReadLock.lock();
-    try {
-      final String packageName = getPackageName(name);
-
-      final ArtifactClassLoader artifactClassLoader = packageMapping.get(packageName);
-      if (artifactClassLoader != null) {
-        try {
-          return artifactClassLoader.findLocalClass(name);
-        } catch (ClassNotFoundException e) {
-          throw new ClassNotFoundInRegionException(name, getArtifactId(), artifactClassLoader.getArtifactId(), e);
-        }
-      } else {
-        throw new ClassNotFoundInRegionException(name, getArtifactId());
+    final String packageName = getPackageName(name);
+
+    final ArtifactClassLoader artifactClassLoader = packageMapping.get(packageName);
+    if (artifactClassLoader != null) {
+      try {
+        return artifactClassLoader.findLocalClass(name);
+      } catch (ClassNotFoundException e) {
+        throw new ClassNotFoundInRegionException(name, getArtifactId(), artifactClassLoader.getArtifactId(), e);
       }
-    } finally {
-      innerStateReadLock.unlock();
+    } else {
+      throw new ClassNotFoundInRegionException(name, getArtifactId());
     }
   }
 
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.internal.classloader;
+
+import static java.io.File.separatorChar;
+import static java.util.Collections.emptyList;
+import static java.util.jar.Attributes.Name.CLASS_PATH;
+import static org.apache.commons.lang3.ClassUtils.getPackageName;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Index of the packages that contain classes in the URLs of a class loader, used to tell which classes can't be found on those
+ * URLs without searching them.
+ * <p>
+ * The packages of jar files are read from their central directory when the index is built. Directories are not indexed, as
+ * classes may be added to them afterwards, so a class is only ruled out on them if the directory of its package doesn't exist.
+ * If any URL is not a local file, or is a jar that references others through its manifest, nothing is ruled out.
+ *
+ * @since 4.1
+ */
+public final class PackageIndex {
+
+  private static final String CLASS_EXTENSION = ".class";
+
+  private static final PackageIndex UNKNOWN = new PackageIndex(null, emptyList());
+
+  private final Set<String> jarPackages;
+  private final List<File> directories;
+
+  private PackageIndex(Set<String> jarPackages, List<File> directories) {
+    this.jarPackages = jarPackages;
+    this.directories = directories;
+  }
+
+  /**
+   * @return an index that doesn't rule out any class.
+   */
+  public static PackageIndex unknown() {
+    return UNKNOWN;
+  }
+
+  /**
+   * Builds the index of the given URLs.
+   *
+   * @param urls the URLs of a class loader
+   * @return the index of the packages in the given URLs.
+   */
+  public static PackageIndex of(URL[] urls) {
+    Set<String> packages = new HashSet<>();
+    List<File> directories = new ArrayList<>();
+
+    for (URL url : urls) {
+      if (!"file".equals(url.getProtocol())) {
+        return UNKNOWN;
+      }
+
+      File file;
+      try {
+        file = new File(url.toURI());
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        return UNKNOWN;
+      }
+
+      if (file.isDirectory()) {
+        directories.add(file);
+      } else if (file.isFile() && !addJarPackages(file, packages)) {
+        return UNKNOWN;
+      }
+      // else the URL doesn't exist, so it provides no classes
+    }
+
+    return new PackageIndex(packages, directories);
+  }
+
+  private static boolean addJarPackages(File file, Set<String> packages) {
+    try (JarFile jarFile = new JarFile(file)) {
+      Manifest manifest = jarFile.getManifest();
+      if (manifest != null && manifest.getMainAttributes().containsKey(CLASS_PATH)) {
+        return false;
+      }
+
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        String name = entries.nextElement().getName();
+        if (name.endsWith(CLASS_EXTENSION)) {
+          int packageEnd = name.lastIndexOf('/');
+          packages.add(packageEnd < 0 ? "" : name.substring(0, packageEnd).replace('/', '.'));
+        }
+      }
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @param className the name of a class
+   * @return {@code false} if the class is not in the indexed URLs, {@code true} if it may be.
+   */
+  public boolean mayContain(String className) {
+    if (jarPackages == null) {
+      return true;
+    }
+
+    String packageName = getPackageName(className);
+    if (jarPackages.contains(packageName)) {
+      return true;
+    }
+
+    if (!directories.isEmpty()) {
+      String packagePath = packageName.replace('.', separatorChar);
+      for (File directory : directories) {
+        if (new File(directory, packagePath).isDirectory()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
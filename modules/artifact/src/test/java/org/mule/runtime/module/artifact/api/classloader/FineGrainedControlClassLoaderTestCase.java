@@ -12,10 +12,15 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.module.artifact.api.classloader.ChildFirstLookupStrategy.CHILD_FIRST;
+import static org.mule.runtime.module.artifact.api.classloader.ChildOnlyLookupStrategy.CHILD_ONLY;
 import static org.mule.runtime.module.artifact.api.classloader.ParentFirstLookupStrategy.PARENT_FIRST;
 import static org.mule.runtime.module.artifact.api.classloader.ParentOnlyLookupStrategy.PARENT_ONLY;
 import static org.mule.tck.junit4.matcher.FunctionExpressionMatcher.expressionMatches;
@@ -174,6 +179,86 @@ public class FineGrainedControlClassLoaderTestCase extends AbstractMuleTestCase
     invokeTestClassMethod(ext);
   }
 
+  @Test
+  public void remembersFailedLookups() throws Exception {
+    ClassLoader parent = mock(ClassLoader.class);
+    when(parent.loadClass(TEST_CLASS_NAME)).thenThrow(new ClassNotFoundException("ERROR"));
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(PARENT_ONLY);
+
+    FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy);
+
+    CompositeClassNotFoundException first = assertClassNotFound(ext);
+    CompositeClassNotFoundException second = assertClassNotFound(ext);
+
+    verify(parent, times(1)).loadClass(TEST_CLASS_NAME);
+    assertThat(second.getClassName(), is(first.getClassName()));
+    assertThat(second.getLookupStrategy(), is(first.getLookupStrategy()));
+    assertThat(second.getStackTrace().length, is(0));
+  }
+
+  @Test
+  public void failsWithoutStackTraceForPackageNotInUrls() throws Exception {
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(CHILD_ONLY);
+
+    FineGrainedControlClassLoader ext =
+        new FineGrainedControlClassLoader(new URL[] {getChildFileResource()}, getClass().getClassLoader(), lookupPolicy);
+
+    CompositeClassNotFoundException e = assertClassNotFound(ext, TEST_CLASS_PACKAGE + ".other.MyClass");
+    assertThat(e.getExceptions().get(0).getStackTrace().length, is(0));
+  }
+
+  @Test
+  public void addedUrlDiscardsFailedLookups() throws Exception {
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(CHILD_FIRST);
+    when(lookupPolicy.getClassLookupStrategy(Object.class.getName())).thenReturn(PARENT_ONLY);
+    when(lookupPolicy.getClassLookupStrategy(String.class.getName())).thenReturn(PARENT_ONLY);
+
+    FineGrainedControlClassLoader ext =
+        new FineGrainedControlClassLoader(new URL[0], Thread.currentThread().getContextClassLoader(), lookupPolicy);
+    assertClassNotFound(ext);
+
+    ext.addURL(getChildFileResource());
+    assertEquals(EXPECTED_CHILD_MESSAGE, invokeTestClassMethod(ext));
+  }
+
+  @Test
+  public void urlAddedToDelegateDiscardsFailedLookups() throws Exception {
+    final ClassLoaderLookupPolicy parentLookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(parentLookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(CHILD_ONLY);
+    when(parentLookupPolicy.getClassLookupStrategy(Object.class.getName())).thenReturn(PARENT_ONLY);
+    when(parentLookupPolicy.getClassLookupStrategy(String.class.getName())).thenReturn(PARENT_ONLY);
+    FineGrainedControlClassLoader parent =
+        new FineGrainedControlClassLoader(new URL[0], Thread.currentThread().getContextClassLoader(), parentLookupPolicy);
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(PARENT_ONLY);
+    FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy);
+    assertClassNotFound(ext);
+
+    parent.addURL(getChildFileResource());
+    assertEquals(EXPECTED_CHILD_MESSAGE, invokeTestClassMethod(ext));
+  }
+
+  private CompositeClassNotFoundException assertClassNotFound(ClassLoader loader) {
+    return assertClassNotFound(loader, TEST_CLASS_NAME);
+  }
+
+  private CompositeClassNotFoundException assertClassNotFound(ClassLoader loader, String className) {
+    try {
+      loader.loadClass(className);
+      fail("Class should not be found");
+      return null;
+    } catch (CompositeClassNotFoundException e) {
+      return e;
+    } catch (ClassNotFoundException e) {
+      throw new AssertionError("Expected a CompositeClassNotFoundException", e);
+    }
+  }
+
   protected FineGrainedControlClassLoader buildFineGrainedControlClassLoader(ClassLoader parent,
                                                                              final ClassLoaderLookupPolicy lookupPolicy) {
     return new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.internal.classloader;
+
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.tck.ZipUtils;
+import org.mule.tck.ZipUtils.ZipResource;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.net.URL;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class PackageIndexTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void indexesJarPackages() throws Exception {
+    final File jarFile = new File(temporaryFolder.getRoot(), "test.jar");
+    ZipUtils.compress(jarFile, new ZipResource[] {new ZipResource("EchoTest.clazz", "org/foo/Foo.class"),
+        new ZipResource("EchoTest.clazz", "Bar.class")});
+
+    PackageIndex index = PackageIndex.of(new URL[] {jarFile.toURI().toURL()});
+
+    assertThat(index.mayContain("org.foo.Foo"), is(true));
+    assertThat(index.mayContain("org.foo.Other"), is(true));
+    assertThat(index.mayContain("Bar"), is(true));
+    assertThat(index.mayContain("org.Foo"), is(false));
+    assertThat(index.mayContain("org.bar.Bar"), is(false));
+  }
+
+  @Test
+  public void looksForPackagesInDirectories() throws Exception {
+    final File folder = temporaryFolder.newFolder();
+    PackageIndex index = PackageIndex.of(new URL[] {folder.toURI().toURL()});
+    assertThat(index.mayContain("org.foo.Foo"), is(false));
+
+    writeStringToFile(new File(folder, "org/foo/Foo.class"), "foo");
+    assertThat(index.mayContain("org.foo.Foo"), is(true));
+    assertThat(index.mayContain("org.bar.Bar"), is(false));
+  }
+
+  @Test
+  public void missingFilesProvideNoPackages() throws Exception {
+    PackageIndex index = PackageIndex.of(new URL[] {new File(temporaryFolder.getRoot(), "missing.jar").toURI().toURL()});
+
+    assertThat(index.mayContain("org.foo.Foo"), is(false));
+  }
+
+  @Test
+  public void remoteUrlsAreNotIndexed() throws Exception {
+    PackageIndex index = PackageIndex.of(new URL[] {new URL("http://localhost/test.jar")});
+
+    assertThat(index.mayContain("org.foo.Foo"), is(true));
+  }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createLink;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.move;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
+import static org.mule.runtime.container.api.MuleFoldersUtil.getExecutionFolder;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.FileUtils.newFile;
+import static org.mule.runtime.core.api.util.FileUtils.verifyZipFilePaths;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+
+/**
+ * Extracts artifact archives, writing the entries on the IO scheduler of the {@link SchedulerService}, with a bounded amount of
+ * concurrent tasks per archive. The thread extracting the archive writes entries as well, so an archive is extracted even if
+ * the scheduler can't run any task.
+ * <p/>
+ * When a cache directory is set, the jar files found in the archives are kept in it, keyed by their CRC, size and name as
+ * recorded in the archive, and the jars already in the cache are hard linked into the extracted artifact instead of being
+ * inflated again. Since the linked files share their contents, cached files are made read-only, so they can't be rewritten in
+ * place from any of the artifacts. Jars only referenced by the cache are removed from it after each extraction, so it only keeps
+ * the jars of the installed artifacts. The cache is not used if the file system doesn't support hard links, or if it doesn't
+ * report the amount of links of a file, which is needed to find the jars which are no longer referenced.
+ * <p/>
+ * The buffers used to write the entries are kept between extractions, up to one per concurrent task.
+ *
+ * @since 4.1
+ */
+final class ArtifactArchiveExtractor {
+
+  /**
+   * System property to set the amount of threads on which the entries of an archive are extracted at the same time. Defaults
+   * to the amount of available processors.
+   */
+  static final String EXTRACTION_PARALLELISM_PROPERTY = SYSTEM_PROPERTY_PREFIX + "deployment.extractionParallelism";
+
+  /**
+   * System property to reuse the jars extracted from previous archives.
+   */
+  static final String EXTRACTION_CACHE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "deployment.extractionCache";
+
+  private static final Logger LOGGER = getLogger(ArtifactArchiveExtractor.class);
+
+  private static final String CACHE_FOLDER = "extraction-cache";
+  private static final String JAR_EXTENSION = ".jar";
+  private static final String UNIX_ATTRIBUTE_VIEW = "unix";
+  private static final String LINK_COUNT_ATTRIBUTE = UNIX_ATTRIBUTE_VIEW + ":nlink";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final int parallelism;
+  private final File cacheDir;
+  private final Supplier<SchedulerService> schedulerServiceSupplier;
+  private final BlockingQueue<byte[]> buffers;
+
+  /**
+   * Creates a new instance
+   *
+   * @param parallelism the amount of threads on which the entries of an archive are extracted at the same time
+   * @param cacheDir the directory where extracted jars are cached. May be {@code null} to not use a cache. Ignored if its file
+   *        system doesn't report the amount of links of the files.
+   * @param schedulerServiceSupplier provides the {@link SchedulerService} on which entries are extracted. May be {@code null} to
+   *        extract the entries on the calling thread only.
+   */
+  ArtifactArchiveExtractor(int parallelism, File cacheDir, Supplier<SchedulerService> schedulerServiceSupplier) {
+    this.parallelism = parallelism;
+    this.cacheDir = cacheDir != null && supportsLinkCount(cacheDir) ? cacheDir : null;
+    this.schedulerServiceSupplier = schedulerServiceSupplier;
+    this.buffers = new ArrayBlockingQueue<>(max(parallelism, 1));
+  }
+
+  private static boolean supportsLinkCount(File cacheDir) {
+    if (cacheDir.toPath().getFileSystem().supportedFileAttributeViews().contains(UNIX_ATTRIBUTE_VIEW)) {
+      return true;
+    }
+    LOGGER.warn("The file system of the extraction cache '{}' doesn't report the amount of links of a file, "
+        + "the cache won't be used", cacheDir);
+    return false;
+  }
+
+  /**
+   * @param schedulerServiceSupplier provides the {@link SchedulerService} on which entries are extracted
+   * @return an extractor configured through {@link #EXTRACTION_PARALLELISM_PROPERTY} and {@link #EXTRACTION_CACHE_PROPERTY}.
+   */
+  static ArtifactArchiveExtractor fromSystemProperties(Supplier<SchedulerService> schedulerServiceSupplier) {
+    return new ArtifactArchiveExtractor(getInteger(EXTRACTION_PARALLELISM_PROPERTY, getRuntime().availableProcessors()),
+                                        getBoolean(EXTRACTION_CACHE_PROPERTY) ? new File(getExecutionFolder(), CACHE_FOLDER)
+                                            : null,
+                                        schedulerServiceSupplier);
+  }
+
+  /**
+   * Extracts an archive into the given directory.
+   *
+   * @param archive the archive to extract
+   * @param directory the directory into which the archive is extracted. Created if it doesn't exist.
+   * @throws IOException if the archive can't be read, contains paths outside the directory, or can't be written
+   */
+  void extract(File archive, File directory) throws IOException {
+    if (directory.exists()) {
+      if (!directory.isDirectory()) {
+        throw new IOException("Directory is not a directory: " + directory);
+      }
+    } else if (!directory.mkdirs()) {
+      throw new IOException("Could not create directory: " + directory);
+    }
+
+    try (ZipFile zip = new ZipFile(archive)) {
+      verifyZipFilePaths(zip);
+
+      // folders are created upfront, so entries can be written in any order
+      List<ZipEntry> fileEntries = new ArrayList<>();
+      for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements();) {
+        ZipEntry entry = entries.nextElement();
+        File file = newFile(directory, entry.getName());
+        if (entry.isDirectory()) {
+          if (!file.exists() && !file.mkdirs()) {
+            throw new IOException("Could not create directory: " + file);
+          }
+        } else {
+          if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            throw new IOException("Unable to create folders for zip entry: " + entry.getName());
+          }
+          fileEntries.add(entry);
+        }
+      }
+
+      if (parallelism <= 1 || fileEntries.size() <= 1 || schedulerServiceSupplier == null) {
+        byte[] buffer = acquireBuffer();
+        try {
+          for (ZipEntry entry : fileEntries) {
+            extractEntry(zip, entry, directory, buffer);
+          }
+        } finally {
+          buffers.offer(buffer);
+        }
+      } else {
+        extractEntries(zip, fileEntries, directory);
+      }
+    }
+
+    if (cacheDir != null) {
+      pruneCache();
+    }
+  }
+
+  private void extractEntries(ZipFile zip, List<ZipEntry> entries, File directory) throws IOException {
+    // workers take entries until there are none left, so the ones which don't get to run have nothing to wait for
+    Queue<ZipEntry> pending = new ConcurrentLinkedQueue<>(entries);
+    final int workers = min(parallelism, entries.size()) - 1;
+    Scheduler scheduler = schedulerServiceSupplier.get()
+        .ioScheduler(config().withName("artifactExtraction").withMaxConcurrentTasks(workers));
+    try {
+      List<Future<?>> extractions = new ArrayList<>(workers);
+      try {
+        for (int i = 0; i < workers; ++i) {
+          extractions.add(scheduler.submit(() -> {
+            extractPending(zip, pending, directory);
+            return null;
+          }));
+        }
+      } catch (RejectedExecutionException e) {
+        // the entries are extracted by the workers already submitted and this thread
+      }
+
+      try {
+        extractPending(zip, pending, directory);
+      } catch (IOException | RuntimeException | Error e) {
+        awaitWorkersQuietly(extractions);
+        throw e;
+      }
+      awaitWorkers(zip, extractions);
+    } finally {
+      scheduler.stop();
+    }
+  }
+
+  private void extractPending(ZipFile zip, Queue<ZipEntry> pending, File directory) throws IOException {
+    byte[] buffer = acquireBuffer();
+    try {
+      ZipEntry entry;
+      while ((entry = pending.poll()) != null) {
+        extractEntry(zip, entry, directory, buffer);
+      }
+    } catch (IOException | RuntimeException | Error e) {
+      // the extraction failed, so the other workers don't need to go on
+      pending.clear();
+      throw e;
+    } finally {
+      // dropped if enough buffers are already kept
+      buffers.offer(buffer);
+    }
+  }
+
+  private byte[] acquireBuffer() {
+    byte[] buffer = buffers.poll();
+    return buffer != null ? buffer : new byte[BUFFER_SIZE];
+  }
+
+  /**
+   * Waits for the workers which already started. The ones which didn't are cancelled, as there are no entries left for them.
+   */
+  private void awaitWorkers(ZipFile zip, List<Future<?>> extractions) throws IOException {
+    try {
+      for (Future<?> extraction : extractions) {
+        if (!extraction.cancel(false)) {
+          extraction.get();
+        }
+      }
+    } catch (ExecutionException e) {
+      awaitWorkersQuietly(extractions);
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while extracting archive " + zip.getName());
+    }
+  }
+
+  private void awaitWorkersQuietly(List<Future<?>> extractions) {
+    for (Future<?> extraction : extractions) {
+      try {
+        if (!extraction.cancel(false)) {
+          extraction.get();
+        }
+      } catch (ExecutionException | CancellationException e) {
+        // Ignore and continue, a failure is already being reported
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void extractEntry(ZipFile zip, ZipEntry entry, File directory, byte[] buffer) throws IOException {
+    File file = new File(directory, entry.getName());
+    // an existing file may be linked from the cache, so it is replaced instead of overwritten
+    deleteIfExists(file.toPath());
+
+    if (cacheDir == null || !isCacheable(entry)) {
+      write(zip, entry, file, buffer);
+      return;
+    }
+
+    Path cachedFile = getCachedFile(entry);
+    if (!linkCachedFile(cachedFile, file.toPath(), entry.getSize())) {
+      write(zip, entry, file, buffer);
+      cacheFile(file.toPath(), cachedFile);
+    }
+  }
+
+  private void write(ZipFile zip, ZipEntry entry, File file, byte[] buffer) throws IOException {
+    try (InputStream input = zip.getInputStream(entry); OutputStream output = new FileOutputStream(file)) {
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        output.write(buffer, 0, read);
+      }
+    }
+  }
+
+  private boolean isCacheable(ZipEntry entry) {
+    return entry.getName().toLowerCase().endsWith(JAR_EXTENSION) && entry.getCrc() != -1 && entry.getSize() >= 0;
+  }
+
+  private Path getCachedFile(ZipEntry entry) {
+    String key = format("%08x-%d", entry.getCrc(), entry.getSize());
+    return new File(new File(cacheDir, key), new File(entry.getName()).getName()).toPath();
+  }
+
+  private boolean linkCachedFile(Path cachedFile, Path file, long size) {
+    try {
+      if (Files.size(cachedFile) != size) {
+        return false;
+      }
+      createLink(file, cachedFile);
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      // not cached, or removed from the cache concurrently
+      return false;
+    }
+  }
+
+  private void cacheFile(Path file, Path cachedFile) {
+    // the cached contents are shared by every artifact linking them, so none may rewrite them
+    if (!file.toFile().setWritable(false, false)) {
+      return;
+    }
+
+    Path linkFile = cachedFile.resolveSibling(format("%s.%d.tmp", cachedFile.getFileName(), currentThread().getId()));
+    try {
+      createDirectories(cachedFile.getParent());
+      createLink(linkFile, file);
+      move(linkFile, cachedFile, ATOMIC_MOVE);
+    } catch (IOException | UnsupportedOperationException e) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format("Unable to cache extracted file '%s'", file), e);
+      }
+      try {
+        deleteIfExists(linkFile);
+      } catch (IOException deleteException) {
+        // Ignore and continue
+      }
+    }
+  }
+
+  private void pruneCache() {
+    if (!cacheDir.exists()) {
+      return;
+    }
+
+    try (DirectoryStream<Path> keyDirs = Files.newDirectoryStream(cacheDir.toPath())) {
+      for (Path keyDir : keyDirs) {
+        try (DirectoryStream<Path> cachedFiles = Files.newDirectoryStream(keyDir)) {
+          for (Path cachedFile : cachedFiles) {
+            if ((Integer) Files.getAttribute(cachedFile, LINK_COUNT_ATTRIBUTE) == 1) {
+              deleteIfExists(cachedFile);
+            }
+          }
+        }
+        keyDir.toFile().delete();
+      }
+    } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format("Unable to prune extraction cache '%s'", cacheDir), e);
+      }
+    }
+  }
+}
@@ -14,7 +14,7 @@ import static org.mule.runtime.core.api.util.FileUtils.deleteTree;
 import static org.mule.runtime.module.deployment.internal.DefaultArchiveDeployer.JAR_FILE_SUFFIX;
 
 import org.mule.runtime.api.i18n.I18nMessageFactory;
-import org.mule.runtime.core.api.util.FileUtils;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.deployment.model.api.DeploymentException;
 import org.mule.runtime.deployment.model.api.DeploymentInitException;
 
@@ -22,6 +22,7 @@ import java.beans.Introspector;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,9 +38,15 @@ public class ArtifactArchiveInstaller {
   private static final Logger logger = LoggerFactory.getLogger(ArtifactArchiveInstaller.class);
 
   private final File artifactParentDir;
+  private final ArtifactArchiveExtractor archiveExtractor;
 
-  public ArtifactArchiveInstaller(File artifactParentDir) {
+  public ArtifactArchiveInstaller(File artifactParentDir, Supplier<SchedulerService> schedulerServiceSupplier) {
+    this(artifactParentDir, ArtifactArchiveExtractor.fromSystemProperties(schedulerServiceSupplier));
+  }
+
+  ArtifactArchiveInstaller(File artifactParentDir, ArtifactArchiveExtractor archiveExtractor) {
     this.artifactParentDir = artifactParentDir;
+    this.archiveExtractor = archiveExtractor;
   }
 
   /**
@@ -84,7 +91,7 @@ public class ArtifactArchiveInstaller {
       // normalize the full path + protocol to make unzip happy
       final File source = artifactFile;
 
-      FileUtils.unzip(source, artifactDir);
+      archiveExtractor.extract(source, artifactDir);
       if ("file".equals(artifactUri.getScheme())) {
         deleteQuietly(source);
       }
@@ -22,6 +22,7 @@ import static org.mule.runtime.module.deployment.impl.internal.util.DeploymentPr
 import static org.mule.runtime.module.reboot.api.MuleContainerBootstrapUtils.getMuleAppsDir;
 import org.mule.runtime.api.i18n.I18nMessageFactory;
 import org.mule.runtime.api.meta.MuleVersion;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.deployment.model.api.DeployableArtifact;
 import org.mule.runtime.deployment.model.api.DeploymentException;
 import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
@@ -40,6 +41,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.apache.commons.beanutils.BeanPropertyValueEqualsPredicate;
 import org.apache.commons.beanutils.BeanToPropertyValueTransformer;
@@ -59,7 +62,8 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
 
   private final ArtifactDeployer<T> deployer;
   private final ArtifactArchiveInstaller artifactArchiveInstaller;
-  private final Map<String, ZombieArtifact> artifactZombieMap = new HashMap<String, ZombieArtifact>();
+  // accessed concurrently when artifacts are (re)deployed in parallel
+  private final Map<String, ZombieArtifact> artifactZombieMap = new ConcurrentHashMap<>();
   private final File artifactDir;
   private final ObservableList<T> artifacts;
   private final ArtifactDeploymentTemplate deploymentTemplate;
@@ -71,13 +75,14 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
   public DefaultArchiveDeployer(final ArtifactDeployer deployer, final ArtifactFactory artifactFactory,
                                 final ObservableList<T> artifacts,
                                 ArtifactDeploymentTemplate deploymentTemplate,
-                                MuleContextListenerFactory muleContextListenerFactory) {
+                                MuleContextListenerFactory muleContextListenerFactory,
+                                Supplier<SchedulerService> schedulerServiceSupplier) {
     this.deployer = deployer;
     this.artifactFactory = artifactFactory;
     this.artifacts = artifacts;
     this.deploymentTemplate = deploymentTemplate;
     this.artifactDir = artifactFactory.getArtifactDir();
-    this.artifactArchiveInstaller = new ArtifactArchiveInstaller(artifactDir);
+    this.artifactArchiveInstaller = new ArtifactArchiveInstaller(artifactDir, schedulerServiceSupplier);
     this.muleContextListenerFactory = muleContextListenerFactory;
   }
 
@@ -174,13 +179,12 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
   @Override
   public Map<String, Map<URI, Long>> getArtifactsZombieMap() {
     Map<String, Map<URI, Long>> result = new HashMap<>();
-    for (String artifact : artifactZombieMap.keySet()) {
+    for (Map.Entry<String, ZombieArtifact> zombieArtifact : artifactZombieMap.entrySet()) {
       Map<URI, Long> tmpMap = new HashMap<>();
-      ZombieArtifact zombieArtifact = artifactZombieMap.get(artifact);
-      for (Map.Entry<File, Long> file : zombieArtifact.initialResourceFiles.entrySet()) {
+      for (Map.Entry<File, Long> file : zombieArtifact.getValue().initialResourceFiles.entrySet()) {
         tmpMap.put(file.getKey().toURI(), file.getValue());
       }
-      result.put(artifact, tmpMap);
+      result.put(zombieArtifact.getKey(), tmpMap);
     }
     return result;
   }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+/**
+ * Watches the deployment directories and the directories of the resources of the artifacts through a {@link WatchService}, so
+ * changes are found without scanning every artifact.
+ * <p/>
+ * Events are coalesced until no new one arrives for a given interval, and reported as the names of the domains and applications
+ * that changed. Changes to the entries of the deployment directories themselves are reported for the artifact named after the
+ * entry. Any change that can't be attributed to an artifact, or events lost by the {@link WatchService}, are reported as a change
+ * to every artifact.
+ * <p/>
+ * Not thread safe, meant to be used from the deployment monitor thread only.
+ *
+ * @since 4.1
+ */
+final class DeploymentDirectoryWatchService implements Closeable {
+
+  private static final Logger LOGGER = getLogger(DeploymentDirectoryWatchService.class);
+
+  private final Path appsDir;
+  private final Path domainsDir;
+  private final WatchService watchService;
+  private final Map<Path, WatchKey> resourceDirKeys = new HashMap<>();
+  private Changes pending = new Changes();
+
+  /**
+   * Creates a new instance watching the given deployment directories.
+   *
+   * @param appsDir the applications deployment directory
+   * @param domainsDir the domains deployment directory
+   * @throws IOException if the file system can't watch the directories
+   * @throws UnsupportedOperationException if the file system doesn't support watching directories
+   */
+  DeploymentDirectoryWatchService(File appsDir, File domainsDir) throws IOException {
+    this.appsDir = appsDir.toPath().toAbsolutePath().normalize();
+    this.domainsDir = domainsDir.toPath().toAbsolutePath().normalize();
+    this.watchService = this.appsDir.getFileSystem().newWatchService();
+    try {
+      register(this.appsDir);
+      register(this.domainsDir);
+    } catch (IOException | RuntimeException e) {
+      watchService.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Watches the directories of the given files, and stops watching the directories of files that are no longer tracked.
+   * <p/>
+   * The artifacts of directories that were not watched yet are reported as changed, as they could have been modified before
+   * being watched.
+   *
+   * @param resourceFiles the resource files of the artifacts
+   */
+  void watchResources(Collection<File> resourceFiles) {
+    Set<Path> resourceDirs = new HashSet<>();
+    for (File resourceFile : resourceFiles) {
+      Path resourceDir = resourceFile.toPath().toAbsolutePath().normalize().getParent();
+      if (resourceDir != null && !resourceDir.equals(appsDir) && !resourceDir.equals(domainsDir)) {
+        resourceDirs.add(resourceDir);
+      }
+    }
+
+    for (Iterator<Map.Entry<Path, WatchKey>> iterator = resourceDirKeys.entrySet().iterator(); iterator.hasNext();) {
+      Map.Entry<Path, WatchKey> entry = iterator.next();
+      if (!resourceDirs.contains(entry.getKey()) || !entry.getValue().isValid()) {
+        entry.getValue().cancel();
+        iterator.remove();
+      }
+    }
+
+    for (Path resourceDir : resourceDirs) {
+      if (!resourceDirKeys.containsKey(resourceDir) && resourceDir.toFile().isDirectory()) {
+        try {
+          resourceDirKeys.put(resourceDir, register(resourceDir));
+          addChange(resourceDir);
+        } catch (IOException e) {
+          LOGGER.warn("Unable to watch directory '{}', changes to it will be missed until it is modified", resourceDir, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits for changes to happen, and for no more changes to happen during the given interval.
+   *
+   * @param debounceMillis the time without changes after which the changes are reported
+   * @return the changes since the previous call, never empty.
+   * @throws InterruptedException if the thread is interrupted while waiting
+   * @throws ClosedWatchServiceException if this watch service is closed while waiting
+   */
+  Changes take(long debounceMillis) throws InterruptedException {
+    if (pending.isEmpty()) {
+      addEvents(watchService.take());
+    }
+
+    WatchKey key;
+    while ((key = watchService.poll(debounceMillis, MILLISECONDS)) != null) {
+      addEvents(key);
+    }
+
+    Changes changes = pending;
+    pending = new Changes();
+    return changes;
+  }
+
+  /**
+   * Reports the given changes again in the next call to {@link #take(long)}.
+   *
+   * @param changes changes that couldn't be processed
+   */
+  void retry(Changes changes) {
+    pending.addAll(changes);
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  private WatchKey register(Path dir) throws IOException {
+    return dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+  }
+
+  private void addEvents(WatchKey key) {
+    Path dir = (Path) key.watchable();
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        pending.addAll();
+      } else {
+        addChange(dir.resolve((Path) event.context()));
+      }
+    }
+
+    if (!key.reset() && (dir.equals(appsDir) || dir.equals(domainsDir))) {
+      LOGGER.warn("Deployment directory '{}' is no longer watched", dir);
+      pending.addAll();
+    }
+  }
+
+  private void addChange(Path file) {
+    if (file.startsWith(appsDir) && !file.equals(appsDir)) {
+      pending.addApplication(getArtifactName(appsDir.relativize(file)));
+    } else if (file.startsWith(domainsDir) && !file.equals(domainsDir)) {
+      pending.addDomain(getArtifactName(domainsDir.relativize(file)));
+    } else {
+      pending.addAll();
+    }
+  }
+
+  private static String getArtifactName(Path relativePath) {
+    String entryName = relativePath.getName(0).toString();
+    if (relativePath.getNameCount() == 1) {
+      int extensionIndex = entryName.lastIndexOf('.');
+      if (extensionIndex > 0) {
+        return entryName.substring(0, extensionIndex);
+      }
+    }
+    return entryName;
+  }
+
+  /**
+   * Changes to the deployed artifacts.
+   */
+  static final class Changes {
+
+    private boolean all;
+    private final Set<String> domains = new HashSet<>();
+    private final Set<String> applications = new HashSet<>();
+
+    /**
+     * @return changes to every artifact.
+     */
+    static Changes allChanges() {
+      Changes changes = new Changes();
+      changes.addAll();
+      return changes;
+    }
+
+    void addAll() {
+      all = true;
+    }
+
+    void addAll(Changes changes) {
+      all |= changes.all;
+      domains.addAll(changes.domains);
+      applications.addAll(changes.applications);
+    }
+
+    void addDomain(String domainName) {
+      domains.add(domainName);
+    }
+
+    void addApplication(String applicationName) {
+      applications.add(applicationName);
+    }
+
+    boolean isEmpty() {
+      return !all && domains.isEmpty() && applications.isEmpty();
+    }
+
+    boolean isDomainChanged(String domainName) {
+      return all || domains.contains(domainName);
+    }
+
+    boolean isApplicationChanged(String applicationName) {
+      return all || applications.contains(applicationName);
+    }
+  }
+}
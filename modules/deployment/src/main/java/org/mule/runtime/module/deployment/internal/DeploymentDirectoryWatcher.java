@@ -6,12 +6,16 @@
  */
 package org.mule.runtime.module.deployment.internal;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Arrays.sort;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.Optional.empty;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.collections.CollectionUtils.find;
 import static org.apache.commons.collections.CollectionUtils.select;
 import static org.apache.commons.collections.CollectionUtils.subtract;
@@ -31,6 +35,7 @@ import org.mule.runtime.deployment.model.api.application.Application;
 import org.mule.runtime.deployment.model.api.domain.Domain;
 import org.mule.runtime.module.artifact.api.Artifact;
 import org.mule.runtime.module.artifact.api.descriptor.ArtifactDescriptor;
+import org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatchService.Changes;
 import org.mule.runtime.module.deployment.internal.util.DebuggableReentrantLock;
 import org.mule.runtime.module.deployment.internal.util.ElementAddedEvent;
 import org.mule.runtime.module.deployment.internal.util.ElementRemovedEvent;
@@ -39,6 +44,10 @@ import org.mule.runtime.module.deployment.internal.util.ObservableList;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.ClosedWatchServiceException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -46,6 +55,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
@@ -65,6 +76,9 @@ import org.slf4j.LoggerFactory;
  * It will deploy the applications at the container startup process. It will periodically scan the artifact directories in order
  * to process new deployments, remove artifacts that were previously deployed but the anchor file was removed and redeploy those
  * applications which configuration has changed.
+ * <p/>
+ * When {@link #CHANGE_WATCH_PROPERTY} is set, changes are detected through the file system notifications instead, only checking
+ * the artifacts whose directories changed. Polling is used if the file system can't be watched.
  */
 public class DeploymentDirectoryWatcher implements Runnable {
 
@@ -74,7 +88,10 @@ public class DeploymentDirectoryWatcher implements Runnable {
       new AndFileFilter(new SuffixFileFilter(JAR_FILE_SUFFIX, INSENSITIVE), FileFileFilter.FILE);
   public static final IOFileFilter ZIP_ARTIFACT_FILTER =
       new AndFileFilter(new SuffixFileFilter(ZIP_FILE_SUFFIX, INSENSITIVE), FileFileFilter.FILE);
+  public static final String CHANGE_WATCH_PROPERTY = "mule.launcher.changeWatch";
+  public static final String CHANGE_DEBOUNCE_INTERVAL_PROPERTY = "mule.launcher.changeDebounceInterval";
   protected static final int DEFAULT_CHANGES_CHECK_INTERVAL_MS = 5000;
+  protected static final int DEFAULT_CHANGES_DEBOUNCE_INTERVAL_MS = 500;
 
   protected transient final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -90,6 +107,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
   private final File appsDir;
   private final File domainsDir;
   private ScheduledExecutorService artifactDirMonitorTimer;
+  private DeploymentDirectoryWatchService artifactDirWatchService;
 
   protected volatile boolean dirty;
 
@@ -212,11 +230,19 @@ public class DeploymentDirectoryWatcher implements Runnable {
   }
 
   private static int getChangesCheckIntervalMs() {
+    return getIntervalMs(CHANGE_CHECK_INTERVAL_PROPERTY, DEFAULT_CHANGES_CHECK_INTERVAL_MS);
+  }
+
+  private static int getChangesDebounceIntervalMs() {
+    return getIntervalMs(CHANGE_DEBOUNCE_INTERVAL_PROPERTY, DEFAULT_CHANGES_DEBOUNCE_INTERVAL_MS);
+  }
+
+  private static int getIntervalMs(String propertyName, int defaultValue) {
     try {
-      String value = System.getProperty(CHANGE_CHECK_INTERVAL_PROPERTY);
+      String value = System.getProperty(propertyName);
       return Integer.parseInt(value);
     } catch (NumberFormatException e) {
-      return DEFAULT_CHANGES_CHECK_INTERVAL_MS;
+      return defaultValue;
     }
   }
 
@@ -225,10 +251,69 @@ public class DeploymentDirectoryWatcher implements Runnable {
     // TODO MULE-12337 migrate this to an scheduler
     artifactDirMonitorTimer = newSingleThreadScheduledExecutor(new ArtifactDeployerMonitorThreadFactory());
 
-    artifactDirMonitorTimer.scheduleWithFixedDelay(this, reloadIntervalMs, reloadIntervalMs, MILLISECONDS);
+    if (getBoolean(CHANGE_WATCH_PROPERTY)) {
+      try {
+        artifactDirWatchService = new DeploymentDirectoryWatchService(appsDir, domainsDir);
+      } catch (IOException | UnsupportedOperationException e) {
+        logger.warn("Unable to watch the deployment directories for changes, polling them instead", e);
+      }
+    }
+
+    if (artifactDirWatchService != null) {
+      watchArtifactResources();
+      artifactDirMonitorTimer.execute(this::watchChanges);
+
+      if (logger.isInfoEnabled()) {
+        logger.info(miniSplash("Mule is up and kicking (watching for changes)"));
+      }
+    } else {
+      artifactDirMonitorTimer.scheduleWithFixedDelay(this, reloadIntervalMs, reloadIntervalMs, MILLISECONDS);
+
+      if (logger.isInfoEnabled()) {
+        logger.info(miniSplash(format("Mule is up and kicking (every %dms)", reloadIntervalMs)));
+      }
+    }
+  }
+
+  private void watchChanges() {
+    final int debounceIntervalMs = getChangesDebounceIntervalMs();
+    try {
+      while (true) {
+        Changes changes = artifactDirWatchService.take(debounceIntervalMs);
+        if (!checkForChanges(changes)) {
+          artifactDirWatchService.retry(changes);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      // the watcher was stopped
+    }
+  }
+
+  /**
+   * Watches the resources tracked for redeployment of the deployed artifacts, and of the artifacts that failed to deploy.
+   */
+  private void watchArtifactResources() {
+    List<File> resourceFiles = new ArrayList<>();
+    addResourceFiles(domains, resourceFiles);
+    addResourceFiles(applications, resourceFiles);
+    addZombieResourceFiles(domainArchiveDeployer, resourceFiles);
+    addZombieResourceFiles(applicationArchiveDeployer, resourceFiles);
+    artifactDirWatchService.watchResources(resourceFiles);
+  }
 
-    if (logger.isInfoEnabled()) {
-      logger.info(miniSplash(format("Mule is up and kicking (every %dms)", reloadIntervalMs)));
+  private void addResourceFiles(List<? extends Artifact> artifacts, List<File> resourceFiles) {
+    for (Artifact artifact : artifacts) {
+      resourceFiles.addAll(getTrackedResourceFiles(artifact));
+    }
+  }
+
+  private void addZombieResourceFiles(ArchiveDeployer<?> archiveDeployer, List<File> resourceFiles) {
+    for (Map<URI, Long> zombieResources : archiveDeployer.getArtifactsZombieMap().values()) {
+      for (URI zombieResource : zombieResources.keySet()) {
+        resourceFiles.add(new File(zombieResource));
+      }
     }
   }
 
@@ -263,6 +348,16 @@ public class DeploymentDirectoryWatcher implements Runnable {
   // deploy exploded apps
   @Override
   public void run() {
+    checkForChanges(Changes.allChanges());
+  }
+
+  /**
+   * Runs a deployment cycle, only checking the resources of the changed artifacts for redeployment.
+   *
+   * @param changes the changed artifacts
+   * @return {@code false} if the cycle was skipped because another deployment operation was in progress, {@code true} otherwise.
+   */
+  private boolean checkForChanges(Changes changes) {
     try {
       if (logger.isDebugEnabled()) {
         logger.debug("Checking for changes...");
@@ -274,7 +369,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
           logger.debug("Another deployment operation in progress, will skip this cycle. Owner thread: "
               + ((DebuggableReentrantLock) deploymentLock).getOwner());
         }
-        return;
+        return false;
       }
 
       undeployRemovedApps();
@@ -288,7 +383,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
 
       final String[] domainZips = domainsDir.list(JAR_ARTIFACT_FILTER);
 
-      redeployModifiedDomains();
+      Set<String> redeployedDomains = redeployModifiedDomains(changes);
 
       deployPackedDomains(domainZips);
 
@@ -299,7 +394,7 @@ public class DeploymentDirectoryWatcher implements Runnable {
 
       deployExplodedDomains(domains);
 
-      redeployModifiedApplications();
+      redeployModifiedApplications(changes, redeployedDomains);
 
       // list new apps
       String[] apps = appsDir.list(DirectoryFileFilter.DIRECTORY);
@@ -316,15 +411,25 @@ public class DeploymentDirectoryWatcher implements Runnable {
       // Sorts apps to ensure they are always deployed in the same order
       sort(apps);
       deployExplodedApps(apps);
+
+      if (artifactDirWatchService != null) {
+        watchArtifactResources();
+      }
     } catch (Exception e) {
-      // preserve the flag for the thread
-      Thread.currentThread().interrupt();
+      if (artifactDirWatchService != null) {
+        // the watch loop runs on a single long-lived task, which would end if the flag was set
+        logger.error("Error checking for changes in the deployment directories", e);
+      } else {
+        // preserve the flag for the thread
+        Thread.currentThread().interrupt();
+      }
     } finally {
       if (deploymentLock.isHeldByCurrentThread()) {
         deploymentLock.unlock();
       }
       dirty = false;
     }
+    return true;
   }
 
   private void deployDomainBundles() {
@@ -453,37 +558,71 @@ public class DeploymentDirectoryWatcher implements Runnable {
     return appNames.toArray(new String[appNames.size()]);
   }
 
-  private void redeployModifiedDomains() {
-    Collection redeployableDomains = getArtifactsToRedeploy(domains);
-    redeployModifiedArtifacts(redeployableDomains, domainTimestampListener, domainArchiveDeployer);
+  private Set<String> redeployModifiedDomains(Changes changes) {
+    Collection<Domain> redeployableDomains = getArtifactsToRedeploy(domains).stream()
+        .filter(domain -> changes.isDomainChanged(domain.getArtifactName())).collect(toList());
+    return redeployModifiedArtifacts(redeployableDomains, domainTimestampListener, domainArchiveDeployer).stream()
+        .map(Domain::getArtifactName).collect(toSet());
   }
 
-  private void redeployModifiedApplications() {
-    Collection redeployableApplications = getArtifactsToRedeploy(applications);
+  private void redeployModifiedApplications(Changes changes, Set<String> redeployedDomains) {
+    // applications of a redeployed domain were already redeployed along with it
+    Collection<Application> redeployableApplications = getArtifactsToRedeploy(applications).stream()
+        .filter(application -> changes.isApplicationChanged(application.getArtifactName()))
+        .filter(application -> !redeployedDomains.contains(application.getDomain().getArtifactName())).collect(toList());
     redeployModifiedArtifacts(redeployableApplications, applicationTimestampListener, applicationArchiveDeployer);
   }
 
-  private <T extends DeployableArtifact> Collection getArtifactsToRedeploy(Collection<T> collection) {
+  private <T extends DeployableArtifact> Collection<T> getArtifactsToRedeploy(Collection<T> collection) {
     return select(collection, object -> ((DeployableArtifact) object).getDescriptor().isRedeploymentEnabled());
   }
 
-  private <T extends Artifact> void redeployModifiedArtifacts(Collection<T> artifacts,
+  private <T extends Artifact> List<T> redeployModifiedArtifacts(Collection<T> artifacts,
                                                               ArtifactTimestampListener<T> artifactTimestampListener,
                                                               ArchiveDeployer<T> artifactArchiveDeployer) {
+    List<T> modifiedArtifacts = new ArrayList<>();
     for (T artifact : artifacts) {
       if (artifactTimestampListener.isArtifactResourceUpdated(artifact)) {
-        try {
-          artifactArchiveDeployer.redeploy(artifact, empty());
-        } catch (DeploymentException e) {
-          if (logger.isDebugEnabled()) {
-            logger.debug("Error redeploying artifact {}", artifact.getArtifactName(), e);
-          }
-        }
+        modifiedArtifacts.add(artifact);
+      }
+    }
+
+    if (!modifiedArtifacts.isEmpty()) {
+      redeployArtifacts(modifiedArtifacts, artifactArchiveDeployer);
+    }
+    return modifiedArtifacts;
+  }
+
+  /**
+   * Redeploys artifacts whose resources were modified. All the domains are redeployed before any application.
+   *
+   * @param artifacts the modified artifacts
+   * @param artifactArchiveDeployer the deployer of the artifacts
+   */
+  protected <T extends Artifact> void redeployArtifacts(List<T> artifacts, ArchiveDeployer<T> artifactArchiveDeployer) {
+    for (T artifact : artifacts) {
+      redeployArtifact(artifact, artifactArchiveDeployer);
+    }
+  }
+
+  protected <T extends Artifact> void redeployArtifact(T artifact, ArchiveDeployer<T> artifactArchiveDeployer) {
+    try {
+      artifactArchiveDeployer.redeploy(artifact, empty());
+    } catch (DeploymentException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Error redeploying artifact {}", artifact.getArtifactName(), e);
       }
     }
   }
 
   private void stopAppDirMonitorTimer() {
+    if (artifactDirWatchService != null) {
+      try {
+        artifactDirWatchService.close();
+      } catch (IOException e) {
+        logger.warn("Error closing the deployment directories watch service", e);
+      }
+    }
     if (artifactDirMonitorTimer != null) {
       artifactDirMonitorTimer.shutdown();
       try {
@@ -494,9 +633,24 @@ public class DeploymentDirectoryWatcher implements Runnable {
     }
   }
 
+  /**
+   * @return the files whose modification triggers the redeployment of the given artifact.
+   */
+  private static List<File> getTrackedResourceFiles(Artifact artifact) {
+    List<File> resourceFiles = new ArrayList<>(asList(artifact.getResourceFiles()));
+    File descriptorFile =
+        new File(((DeployableArtifactDescriptor) artifact.getDescriptor()).getArtifactLocation(),
+                 ArtifactDescriptor.MULE_ARTIFACT_JSON_DESCRIPTOR_LOCATION);
+    if (descriptorFile.exists()) {
+      resourceFiles.add(descriptorFile);
+    }
+    return resourceFiles;
+  }
+
   private static class ArtifactTimestampListener<T extends Artifact> implements PropertyChangeListener {
 
-    private Map<String, ArtifactResourcesTimestamp<T>> artifactConfigResourcesTimestaps = new HashMap<>();
+    // artifacts may be deployed in parallel
+    private Map<String, ArtifactResourcesTimestamp<T>> artifactConfigResourcesTimestaps = new ConcurrentHashMap<>();
 
     public ArtifactTimestampListener(ObservableList<T> artifacts) {
       artifacts.addPropertyChangeListener(this);
@@ -525,14 +679,8 @@ public class DeploymentDirectoryWatcher implements Runnable {
     private final Map<String, Long> timestampsPerResource = new HashMap<>();
 
     public ArtifactResourcesTimestamp(final Artifact artifact) {
-      for (File configResourceFile : artifact.getResourceFiles()) {
-        timestampsPerResource.put(configResourceFile.getAbsolutePath(), configResourceFile.lastModified());
-      }
-      File descriptorFile =
-          new File(((DeployableArtifactDescriptor) artifact.getDescriptor()).getArtifactLocation(),
-                   ArtifactDescriptor.MULE_ARTIFACT_JSON_DESCRIPTOR_LOCATION);
-      if (descriptorFile.exists()) {
-        timestampsPerResource.put(descriptorFile.getAbsolutePath(), descriptorFile.lastModified());
+      for (File resourceFile : getTrackedResourceFiles(artifact)) {
+        timestampsPerResource.put(resourceFile.getAbsolutePath(), resourceFile.lastModified());
       }
     }
 
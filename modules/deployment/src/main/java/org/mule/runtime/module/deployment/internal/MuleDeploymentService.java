@@ -92,13 +92,15 @@ public class MuleDeploymentService implements DeploymentService {
 
     this.applicationDeployer = new DefaultArchiveDeployer<>(applicationMuleDeployer, applicationFactory, applications,
                                                             NOP_ARTIFACT_DEPLOYMENT_TEMPLATE,
-                                                            new DeploymentMuleContextListenerFactory(applicationDeploymentListener));
+                                                            new DeploymentMuleContextListenerFactory(applicationDeploymentListener),
+                                                            schedulerServiceSupplier);
     this.applicationDeployer.setDeploymentListener(applicationDeploymentListener);
     this.domainDeployer = new DomainArchiveDeployer(new DefaultArchiveDeployer<>(domainMuleDeployer, domainFactory, domains,
                                                                                  new DomainDeploymentTemplate(applicationDeployer,
                                                                                                               this),
                                                                                  new DeploymentMuleContextListenerFactory(
-                                                                                                                          domainDeploymentListener)),
+                                                                                                                          domainDeploymentListener),
+                                                                                 schedulerServiceSupplier),
                                                     applicationDeployer, this);
     this.domainDeployer.setDeploymentListener(domainDeploymentListener);
 
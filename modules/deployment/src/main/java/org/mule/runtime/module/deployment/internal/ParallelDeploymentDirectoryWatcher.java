@@ -14,6 +14,7 @@ import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.deployment.model.api.application.Application;
 import org.mule.runtime.deployment.model.api.domain.Domain;
+import org.mule.runtime.module.artifact.api.Artifact;
 import org.mule.runtime.module.deployment.internal.util.ObservableList;
 
 import java.util.ArrayList;
@@ -25,7 +26,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 /**
- * Provides parallel deployment of Mule applications.
+ * Provides parallel deployment of Mule applications, and parallel redeployment of modified artifacts. Modified domains are
+ * redeployed before the modified applications.
  *
  * @since 3.8.2
  */
@@ -87,6 +89,24 @@ public class ParallelDeploymentDirectoryWatcher extends DeploymentDirectoryWatch
     }
   }
 
+  @Override
+  protected <T extends Artifact> void redeployArtifacts(List<T> artifacts, ArchiveDeployer<T> artifactArchiveDeployer) {
+    if (artifacts.size() == 1) {
+      redeployArtifact(artifacts.get(0), artifactArchiveDeployer);
+      return;
+    }
+
+    List<Callable<Object>> tasks = new ArrayList<>(artifacts.size());
+    for (final T artifact : artifacts) {
+      tasks.add(() -> {
+        redeployArtifact(artifact, artifactArchiveDeployer);
+        return null;
+      });
+    }
+
+    waitForTasksToFinish(tasks);
+  }
+
   private void waitForTasksToFinish(List<Callable<Object>> tasks) {
     this.threadPoolExecutor =
         schedulerServiceSupplier.get().ioScheduler(config().withName("parallelDeployment").withMaxConcurrentTasks(20));
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.attribute.PosixFilePermission.GROUP_WRITE;
+import static java.nio.file.attribute.PosixFilePermission.OTHERS_WRITE;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_WRITE;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.util.FileUtils.deleteTree;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.util.compression.InvalidZipFileException;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class ArtifactArchiveExtractorTestCase extends AbstractMuleTestCase {
+
+  private static final String CONFIG_ENTRY = "mule-config.xml";
+  private static final String JAR_ENTRY = "repository/org/foo/foo-1.0.jar";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File cacheDir;
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+  private ArtifactArchiveExtractor extractor;
+
+  @Before
+  public void before() throws Exception {
+    cacheDir = temporaryFolder.newFolder("cache");
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    extractor = new ArtifactArchiveExtractor(4, cacheDir, () -> schedulerService);
+  }
+
+  @After
+  public void after() throws Exception {
+    schedulerService.stop();
+  }
+
+  @Test
+  public void extractsAllEntries() throws Exception {
+    File archive = createArchive("app.jar", "foo");
+    File appDir = new File(temporaryFolder.getRoot(), "app");
+
+    extractor.extract(archive, appDir);
+
+    assertThat(readFile(new File(appDir, CONFIG_ENTRY)), is("<mule/>"));
+    assertThat(readFile(new File(appDir, JAR_ENTRY)), is("foo"));
+    for (int i = 0; i < 10; ++i) {
+      assertThat(readFile(new File(appDir, "classes/resource" + i + ".txt")), is("resource" + i));
+    }
+  }
+
+  @Test
+  public void extractsSequentially() throws Exception {
+    File archive = createArchive("app.jar", "foo");
+    File appDir = new File(temporaryFolder.getRoot(), "app");
+
+    new ArtifactArchiveExtractor(1, null, null).extract(archive, appDir);
+
+    assertThat(readFile(new File(appDir, JAR_ENTRY)), is("foo"));
+  }
+
+  @Test
+  public void extractsOnCallingThreadWhenSchedulerRejects() throws Exception {
+    Scheduler scheduler = mock(Scheduler.class);
+    when(scheduler.submit(any(Callable.class))).thenThrow(new RejectedExecutionException("Expected"));
+    SchedulerService rejectingSchedulerService = mock(SchedulerService.class);
+    when(rejectingSchedulerService.ioScheduler(any(SchedulerConfig.class))).thenReturn(scheduler);
+    File appDir = new File(temporaryFolder.getRoot(), "app");
+
+    new ArtifactArchiveExtractor(4, null, () -> rejectingSchedulerService).extract(createArchive("app.jar", "foo"), appDir);
+
+    assertThat(readFile(new File(appDir, JAR_ENTRY)), is("foo"));
+    for (int i = 0; i < 10; ++i) {
+      assertThat(readFile(new File(appDir, "classes/resource" + i + ".txt")), is("resource" + i));
+    }
+  }
+
+  @Test
+  public void cachedJarIsReadOnly() throws Exception {
+    assumeHardLinks();
+    File appDir = new File(temporaryFolder.getRoot(), "app");
+
+    extractor.extract(createArchive("app.jar", "foo"), appDir);
+
+    Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(new File(appDir, JAR_ENTRY).toPath());
+    assertThat(permissions, not(hasItem(OWNER_WRITE)));
+    assertThat(permissions, not(hasItem(GROUP_WRITE)));
+    assertThat(permissions, not(hasItem(OTHERS_WRITE)));
+  }
+
+  @Test
+  public void reusesCachedJar() throws Exception {
+    assumeHardLinks();
+    File firstAppDir = new File(temporaryFolder.getRoot(), "app1");
+    File secondAppDir = new File(temporaryFolder.getRoot(), "app2");
+
+    extractor.extract(createArchive("app1.jar", "foo"), firstAppDir);
+    extractor.extract(createArchive("app2.jar", "foo"), secondAppDir);
+
+    File secondJar = new File(secondAppDir, JAR_ENTRY);
+    assertThat(Files.isSameFile(new File(firstAppDir, JAR_ENTRY).toPath(), secondJar.toPath()), is(true));
+    assertThat(readFile(secondJar), is("foo"));
+    assertThat(Files.isSameFile(new File(firstAppDir, CONFIG_ENTRY).toPath(), new File(secondAppDir, CONFIG_ENTRY).toPath()),
+               is(false));
+  }
+
+  @Test
+  public void doesNotReuseChangedJar() throws Exception {
+    assumeHardLinks();
+    File firstAppDir = new File(temporaryFolder.getRoot(), "app1");
+    File secondAppDir = new File(temporaryFolder.getRoot(), "app2");
+
+    extractor.extract(createArchive("app1.jar", "foo"), firstAppDir);
+    extractor.extract(createArchive("app2.jar", "bar"), secondAppDir);
+
+    assertThat(readFile(new File(firstAppDir, JAR_ENTRY)), is("foo"));
+    assertThat(readFile(new File(secondAppDir, JAR_ENTRY)), is("bar"));
+  }
+
+  @Test
+  public void prunesJarsOfUninstalledArtifacts() throws Exception {
+    assumeHardLinks();
+    File firstAppDir = new File(temporaryFolder.getRoot(), "app1");
+    File secondAppDir = new File(temporaryFolder.getRoot(), "app2");
+
+    extractor.extract(createArchive("app1.jar", "foo"), firstAppDir);
+    assertThat(cacheDir.list().length, is(1));
+    deleteTree(firstAppDir);
+
+    extractor.extract(createArchive("app2.jar", "bar"), secondAppDir);
+
+    assertThat(cacheDir.list().length, is(1));
+  }
+
+  @Test(expected = InvalidZipFileException.class)
+  public void rejectsEntriesOutsideDirectory() throws Exception {
+    File archive = new File(temporaryFolder.getRoot(), "evil.jar");
+    try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+      addEntry(zip, "../evil.txt", "evil");
+    }
+
+    extractor.extract(archive, new File(temporaryFolder.getRoot(), "evil"));
+  }
+
+  private File createArchive(String name, String jarContent) throws IOException {
+    File archive = new File(temporaryFolder.getRoot(), name);
+    try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+      zip.putNextEntry(new ZipEntry("classes/"));
+      zip.closeEntry();
+      addEntry(zip, CONFIG_ENTRY, "<mule/>");
+      addEntry(zip, JAR_ENTRY, jarContent);
+      for (int i = 0; i < 10; ++i) {
+        addEntry(zip, "classes/resource" + i + ".txt", "resource" + i);
+      }
+    }
+    return archive;
+  }
+
+  private void addEntry(ZipOutputStream zip, String name, String content) throws IOException {
+    zip.putNextEntry(new ZipEntry(name));
+    zip.write(content.getBytes(UTF_8));
+    zip.closeEntry();
+  }
+
+  private String readFile(File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), UTF_8);
+  }
+
+  private void assumeHardLinks() {
+    assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("unix"));
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatchService.Changes;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class DeploymentDirectoryWatchServiceTestCase extends AbstractMuleTestCase {
+
+  private static final long DEBOUNCE_MILLIS = 100;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File appsDir;
+  private File domainsDir;
+  private File configFile;
+  private DeploymentDirectoryWatchService watchService;
+
+  @Before
+  public void before() throws Exception {
+    appsDir = temporaryFolder.newFolder("apps");
+    domainsDir = temporaryFolder.newFolder("domains");
+    File appDir = new File(appsDir, "app1");
+    appDir.mkdirs();
+    configFile = new File(appDir, "mule-config.xml");
+    Files.write(configFile.toPath(), "<mule/>".getBytes(UTF_8));
+
+    watchService = new DeploymentDirectoryWatchService(appsDir, domainsDir);
+  }
+
+  @After
+  public void after() throws Exception {
+    watchService.close();
+  }
+
+  @Test
+  public void reportsNewlyWatchedArtifact() throws Exception {
+    watchService.watchResources(singletonList(configFile));
+
+    Changes changes = watchService.take(DEBOUNCE_MILLIS);
+    assertThat(changes.isApplicationChanged("app1"), is(true));
+    assertThat(changes.isApplicationChanged("app2"), is(false));
+    assertThat(changes.isDomainChanged("app1"), is(false));
+  }
+
+  @Test
+  public void reportsModifiedResource() throws Exception {
+    watchService.watchResources(singletonList(configFile));
+    watchService.take(DEBOUNCE_MILLIS);
+
+    Files.write(configFile.toPath(), "<mule></mule>".getBytes(UTF_8));
+
+    Changes changes = watchService.take(DEBOUNCE_MILLIS);
+    assertThat(changes.isApplicationChanged("app1"), is(true));
+  }
+
+  @Test
+  public void reportsPackagedArtifactByName() throws Exception {
+    Files.write(new File(domainsDir, "domain1.jar").toPath(), new byte[0]);
+
+    Changes changes = watchService.take(DEBOUNCE_MILLIS);
+    assertThat(changes.isDomainChanged("domain1"), is(true));
+    assertThat(changes.isApplicationChanged("app1"), is(false));
+  }
+
+  @Test
+  public void retriedChangesAreReportedAgain() throws Exception {
+    watchService.watchResources(singletonList(configFile));
+    Changes changes = watchService.take(DEBOUNCE_MILLIS);
+
+    watchService.retry(changes);
+
+    assertThat(watchService.take(DEBOUNCE_MILLIS).isApplicationChanged("app1"), is(true));
+  }
+
+  @Test
+  public void allChanges() {
+    Changes changes = Changes.allChanges();
+
+    assertThat(changes.isEmpty(), is(false));
+    assertThat(changes.isApplicationChanged("app1"), is(true));
+    assertThat(changes.isDomainChanged("domain1"), is(true));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.deployment.internal;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Optional.empty;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatcher.CHANGE_DEBOUNCE_INTERVAL_PROPERTY;
+import static org.mule.runtime.module.deployment.internal.DeploymentDirectoryWatcher.CHANGE_WATCH_PROPERTY;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.deployment.model.api.application.Application;
+import org.mule.runtime.deployment.model.api.domain.Domain;
+import org.mule.runtime.module.deployment.internal.util.DebuggableReentrantLock;
+import org.mule.runtime.module.deployment.internal.util.ObservableList;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class DeploymentDirectoryWatcherTestCase extends AbstractMuleTestCase {
+
+  private static final long CHANGE_TIMEOUT_MILLIS = 10000;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty changeWatch = new SystemProperty(CHANGE_WATCH_PROPERTY, "true");
+
+  @Rule
+  public SystemProperty changeDebounceInterval = new SystemProperty(CHANGE_DEBOUNCE_INTERVAL_PROPERTY, "50");
+
+  private File appsDir;
+  private File domainsDir;
+  private ArchiveDeployer<Domain> domainArchiveDeployer = mock(ArchiveDeployer.class);
+  private ArchiveDeployer<Application> applicationArchiveDeployer = mock(ArchiveDeployer.class);
+  private DeploymentDirectoryWatcher watcher;
+
+  @Before
+  public void before() throws Exception {
+    appsDir = temporaryFolder.newFolder("apps");
+    domainsDir = temporaryFolder.newFolder("domains");
+    when(domainArchiveDeployer.getDeploymentDirectory()).thenReturn(domainsDir);
+    when(domainArchiveDeployer.getArtifactsZombieMap()).thenReturn(emptyMap());
+    when(applicationArchiveDeployer.getDeploymentDirectory()).thenReturn(appsDir);
+    when(applicationArchiveDeployer.getArtifactsZombieMap()).thenReturn(emptyMap());
+
+    watcher = new DeploymentDirectoryWatcher(mock(DomainBundleArchiveDeployer.class), domainArchiveDeployer,
+                                             applicationArchiveDeployer, new ObservableList<>(), new ObservableList<>(),
+                                             () -> mock(SchedulerService.class), new DebuggableReentrantLock(true));
+  }
+
+  @After
+  public void after() {
+    watcher.stop();
+  }
+
+  @Test
+  public void keepsWatchingAfterFailedCycle() throws Exception {
+    when(domainArchiveDeployer.isUpdatedZombieArtifact(anyString()))
+        .thenThrow(new IllegalStateException("Expected failure"))
+        .thenReturn(false);
+    watcher.start();
+
+    new File(domainsDir, "domain1").mkdir();
+    verify(domainArchiveDeployer, timeout(CHANGE_TIMEOUT_MILLIS)).isUpdatedZombieArtifact("domain1");
+
+    Files.write(new File(appsDir, "app1.jar").toPath(), new byte[0]);
+    verify(applicationArchiveDeployer, timeout(CHANGE_TIMEOUT_MILLIS)).deployPackagedArtifact("app1.jar", empty());
+  }
+}
@@ -43,7 +43,7 @@ import org.mule.runtime.module.extension.internal.loader.java.type.OperationCont
 import org.mule.runtime.module.extension.internal.loader.java.type.WithOperationContainers;
 import org.mule.runtime.module.extension.internal.loader.java.type.runtime.ParameterizableTypeWrapper;
 import org.mule.runtime.module.extension.internal.loader.utils.ParameterDeclarationContext;
-import org.mule.runtime.module.extension.internal.runtime.execution.ReflectiveOperationExecutorFactory;
+import org.mule.runtime.module.extension.internal.runtime.operation.GeneratedInvokerOperationExecutorFactory;
 
 import java.lang.reflect.Method;
 import java.util.HashMap;
@@ -124,8 +124,8 @@ final class OperationModelLoaderDelegate extends AbstractModelLoaderDelegate {
 
       final OperationDeclarer operationDeclarer = actualDeclarer.withOperation(operationMethod.getAlias())
           .withModelProperty(new ImplementingMethodModelProperty(method))
-          .withModelProperty(new ComponentExecutorModelProperty(new ReflectiveOperationExecutorFactory<>(declaringClass,
-                                                                                                         method)));
+          .withModelProperty(new ComponentExecutorModelProperty(new GeneratedInvokerOperationExecutorFactory<>(declaringClass,
+                                                                                                               method)));
 
       loader.addExceptionEnricher(operationMethod, operationDeclarer);
 
@@ -26,7 +26,7 @@ import org.mule.runtime.module.extension.internal.loader.java.type.ExtensionPara
 import org.mule.runtime.module.extension.internal.loader.java.type.FieldElement;
 import org.mule.runtime.module.extension.internal.loader.java.type.MethodElement;
 import org.mule.runtime.module.extension.internal.loader.utils.ParameterDeclarationContext;
-import org.mule.runtime.module.extension.internal.runtime.execution.ReflectiveOperationExecutorFactory;
+import org.mule.runtime.module.extension.internal.runtime.operation.GeneratedInvokerOperationExecutorFactory;
 
 import java.lang.reflect.Method;
 import java.util.HashMap;
@@ -72,7 +72,8 @@ final class RouterModelLoaderDelegate extends AbstractModelLoaderDelegate {
 
     final ConstructDeclarer router = actualDeclarer.withConstruct(routerMethod.getAlias())
         .withModelProperty(new ImplementingMethodModelProperty(method))
-        .withModelProperty(new ComponentExecutorModelProperty(new ReflectiveOperationExecutorFactory<>(declaringClass, method)));
+        .withModelProperty(new ComponentExecutorModelProperty(new GeneratedInvokerOperationExecutorFactory<>(declaringClass,
+                                                                                                             method)));
 
     processMimeType(router, routerMethod);
 
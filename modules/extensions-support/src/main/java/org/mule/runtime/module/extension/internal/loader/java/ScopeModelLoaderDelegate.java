@@ -23,7 +23,7 @@ import org.mule.runtime.module.extension.internal.loader.java.type.ExtensionPara
 import org.mule.runtime.module.extension.internal.loader.java.type.MethodElement;
 import org.mule.runtime.module.extension.internal.loader.utils.ModelLoaderUtils;
 import org.mule.runtime.module.extension.internal.loader.utils.ParameterDeclarationContext;
-import org.mule.runtime.module.extension.internal.runtime.execution.ReflectiveOperationExecutorFactory;
+import org.mule.runtime.module.extension.internal.runtime.operation.GeneratedInvokerOperationExecutorFactory;
 
 import java.lang.reflect.Method;
 import java.util.HashMap;
@@ -79,8 +79,8 @@ final class ScopeModelLoaderDelegate extends AbstractModelLoaderDelegate {
 
     final OperationDeclarer scope = actualDeclarer.withOperation(scopeMethod.getAlias())
         .withModelProperty(new ImplementingMethodModelProperty(method))
-        .withModelProperty(new ComponentExecutorModelProperty(new ReflectiveOperationExecutorFactory<>(declaringClass,
-                                                                                                       method)));
+        .withModelProperty(new ComponentExecutorModelProperty(new GeneratedInvokerOperationExecutorFactory<>(declaringClass,
+                                                                                                             method)));
     processMimeType(scope, scopeMethod);
     processNonBlockingOperation(scope, scopeMethod, false, loader.getTypeLoader());
 
@@ -6,15 +6,18 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.config;
 
+import static com.google.common.collect.ImmutableList.copyOf;
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
 import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
-import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext.from;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.connection.ConnectionProvider;
@@ -26,8 +29,10 @@ import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Startable;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.config.ConfigurationModel;
+import org.mule.runtime.api.time.TimeSupplier;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.time.LocalTimeSupplier;
 import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.extension.api.runtime.ExpirationPolicy;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
@@ -39,12 +44,23 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolver;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.inject.Inject;
 
 import org.slf4j.Logger;
 
@@ -56,6 +72,14 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * Instances are created and started outside of the cache, so that creating one doesn't block the lookups or creations of
+ * other instances. Concurrent requests for an instance that is being created wait for it instead of creating another one.
+ * <p>
+ * The cache holds up to {@link #MAX_INSTANCES_PROPERTY} instances. When inserting an instance exceeds that size, the least
+ * recently used instances which are not executing any operation are evicted, and later disposed by the expiration monitor
+ * along with the instances expired by the {@link ExpirationPolicy}. The order of use is kept in an access ordered map, to which
+ * the accesses of the cached instances are applied in batches so that lookups don't contend on it.
  *
  * @since 4.0.0
  */
@@ -64,15 +88,36 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   private static final Logger LOGGER = getLogger(DynamicConfigurationProvider.class);
 
+  /**
+   * System property to set the max amount of instances that each dynamic configuration keeps.
+   */
+  public static final String MAX_INSTANCES_PROPERTY = "mule.extension.dynamicConfig.maxInstances";
+  public static final int DEFAULT_MAX_INSTANCES = 10000;
+  private static final long EVICTION_GRACE_PERIOD_MILLIS = 1000;
+  private static final int ACCESS_BUFFER_DRAIN_THRESHOLD = 64;
+
   private final ConfigurationInstanceFactory configurationInstanceFactory;
   private final ResolverSet resolverSet;
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
   private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final Map<Pair<ResolverSetResult, ResolverSetResult>, CompletableFuture<ConfigurationInstance>> creating =
+      new ConcurrentHashMap<>();
+  private final int maxInstances;
+  // Guards accessOrder, which holds the same entries as the cache ordered from the least to the most recently used
+  private final Lock accessOrderLock = new ReentrantLock();
+  private final LinkedHashMap<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> accessOrder =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private final Queue<Pair<ResolverSetResult, ResolverSetResult>> pendingAccesses = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingAccessCount = new AtomicInteger();
+  private final Queue<EvictedInstance> evicted = new ConcurrentLinkedQueue<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  @Inject
+  private TimeSupplier timeSupplier;
 
   /**
    * Creates a new instance
@@ -91,12 +136,38 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
                                       ConnectionProviderValueResolver connectionProviderResolver,
                                       ExpirationPolicy expirationPolicy,
                                       MuleContext muleContext) {
+    this(name, extensionModel, configurationModel, resolverSet, connectionProviderResolver, expirationPolicy,
+         getInteger(MAX_INSTANCES_PROPERTY, DEFAULT_MAX_INSTANCES), muleContext);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param name                       this provider's name
+   * @param extensionModel             the model that owns the {@code configurationModel}
+   * @param configurationModel         the model for the returned configurations
+   * @param resolverSet                the {@link ResolverSet} that provides the configuration's parameter values
+   * @param connectionProviderResolver a {@link ValueResolver} used to obtain a {@link ConnectionProvider}
+   * @param expirationPolicy           the {@link ExpirationPolicy} for the unused instances
+   * @param maxInstances               the max amount of instances to keep before evicting the least recently used ones
+   * @since 4.1
+   */
+  public DynamicConfigurationProvider(String name,
+                                      ExtensionModel extensionModel,
+                                      ConfigurationModel configurationModel,
+                                      ResolverSet resolverSet,
+                                      ConnectionProviderValueResolver connectionProviderResolver,
+                                      ExpirationPolicy expirationPolicy,
+                                      int maxInstances,
+                                      MuleContext muleContext) {
     super(name, extensionModel, configurationModel, muleContext);
+    checkArgument(maxInstances > 0, "maxInstances must be greater than zero");
     configurationInstanceFactory =
         new ConfigurationInstanceFactory<>(extensionModel, configurationModel, resolverSet, muleContext);
     this.resolverSet = resolverSet;
     this.connectionProviderResolver = connectionProviderResolver;
     this.expirationPolicy = expirationPolicy;
+    this.maxInstances = maxInstances;
   }
 
   /**
@@ -119,38 +190,137 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   }
 
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult,
-                                                 CoreEvent event)
-      throws Exception {
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
-    try {
-      configuration = cache.get(resolverSetResult);
-      if (configuration != null) {
-        // important to account between the boundaries of the lock to prevent race condition
-        updateUsageStatistic(configuration);
+                                                 CoreEvent event) {
+    ConfigurationInstance configuration = cache.get(resolverSetResult);
+    if (configuration != null) {
+      updateUsageStatistic(configuration);
+      // The instance may have been expired or evicted concurrently. Since the usage is updated before checking, whoever
+      // removed it will either see that it was used, or this will see that it is no longer cached.
+      if (cache.get(resolverSetResult) == configuration) {
+        hits.increment();
+        recordAccess(resolverSetResult);
         return configuration;
       }
-    } finally {
-      cacheReadLock.unlock();
     }
 
-    cacheWriteLock.lock();
-    try {
-      // re-check in case some other thread beat us to it...
-      configuration = cache.get(resolverSetResult);
-      if (configuration == null) {
-        configuration = createConfiguration(resolverSetResult, event);
-        cache.put(resolverSetResult, configuration);
+    misses.increment();
+    CompletableFuture<ConfigurationInstance> creation = new CompletableFuture<>();
+    CompletableFuture<ConfigurationInstance> concurrentCreation = creating.putIfAbsent(resolverSetResult, creation);
+    if (concurrentCreation != null) {
+      configuration = awaitCreation(concurrentCreation);
+    } else {
+      try {
+        configuration = createIfAbsent(resolverSetResult, event);
+        creation.complete(configuration);
+      } catch (RuntimeException | Error e) {
+        creation.completeExceptionally(e);
+        throw e;
+      } finally {
+        creating.remove(resolverSetResult, creation);
       }
+    }
+    updateUsageStatistic(configuration);
 
-      // accounting here for the same reasons as above
-      updateUsageStatistic(configuration);
+    return configuration;
+  }
+
+  private ConfigurationInstance createIfAbsent(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult, CoreEvent event) {
+    // The instance may have been created and published since the first lookup, by a creation which has already finished
+    ConfigurationInstance configuration = cache.get(resolverSetResult);
+    if (configuration != null) {
       return configuration;
+    }
+
+    try {
+      configuration = createConfiguration(resolverSetResult, event);
+    } catch (MuleException e) {
+      throw new MuleRuntimeException(e);
+    }
+    // Published before the creation is completed and removed, so that it's always found in one or the other
+    ConfigurationInstance replaced = cache.put(resolverSetResult, configuration);
+    if (replaced != null) {
+      // an expired instance was put back by the expiration monitor because it was used right before being removed
+      evicted.add(new EvictedInstance(replaced, timeSupplier.get()));
+    }
+
+    accessOrderLock.lock();
+    try {
+      drainAccesses();
+      accessOrder.put(resolverSetResult, configuration);
+      if (cache.size() > maxInstances) {
+        evictLeastRecentlyUsed();
+      }
     } finally {
-      cacheWriteLock.unlock();
+      accessOrderLock.unlock();
+    }
+    return configuration;
+  }
+
+  /**
+   * Buffers the access to a cached instance, which is applied to {@link #accessOrder} once enough of them are pending or when
+   * an instance is inserted.
+   */
+  private void recordAccess(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult) {
+    pendingAccesses.add(resolverSetResult);
+    if (pendingAccessCount.incrementAndGet() >= ACCESS_BUFFER_DRAIN_THRESHOLD && accessOrderLock.tryLock()) {
+      try {
+        drainAccesses();
+      } finally {
+        accessOrderLock.unlock();
+      }
+    }
+  }
+
+  private void drainAccesses() {
+    Pair<ResolverSetResult, ResolverSetResult> resolverSetResult;
+    while ((resolverSetResult = pendingAccesses.poll()) != null) {
+      pendingAccessCount.decrementAndGet();
+      // moves the entry, if still present, to the most recently used end
+      accessOrder.get(resolverSetResult);
     }
   }
 
+  private ConfigurationInstance awaitCreation(CompletableFuture<ConfigurationInstance> creation) {
+    try {
+      return creation.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new MuleRuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Removes the least recently used instances until the cache is back to its max size, walking {@link #accessOrder} from its
+   * least recently used end. Only idle instances are evicted, so the cache may temporarily exceed its max size if all the
+   * instances are in use.
+   * <p>
+   * Evicted instances are not disposed here, but handed over to the expiration monitor through {@link #getExpired()}, once
+   * they have been idle for {@link #EVICTION_GRACE_PERIOD_MILLIS}.
+   * <p>
+   * Must be called holding {@link #accessOrderLock}.
+   */
+  private void evictLeastRecentlyUsed() {
+    final long now = timeSupplier.get();
+    int evictedCount = 0;
+    Iterator<Entry<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance>> iterator =
+        accessOrder.entrySet().iterator();
+    while (cache.size() > maxInstances && iterator.hasNext()) {
+      Entry<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> candidate = iterator.next();
+      if (candidate.getValue().getStatistics().getInflightOperations() == 0) {
+        iterator.remove();
+        if (cache.remove(candidate.getKey(), candidate.getValue())) {
+          evicted.add(new EvictedInstance(candidate.getValue(), now));
+          evictions.increment();
+          ++evictedCount;
+        }
+      }
+    }
+
+    LOGGER.debug("Evicted {} instances of dynamic configuration '{}'", evictedCount, getName());
+  }
+
   private void updateUsageStatistic(ConfigurationInstance configuration) {
     MutableConfigurationStats stats = (MutableConfigurationStats) configuration.getStatistics();
     stats.updateLastUsed();
@@ -217,14 +387,45 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
+    List<ConfigurationInstance> expired = new LinkedList<>();
+
+    for (Entry<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> entry : cache.entrySet()) {
+      ConfigurationInstance configuration = entry.getValue();
+      if (isExpired(configuration) && cache.remove(entry.getKey(), configuration)) {
+        if (isExpired(configuration)) {
+          expired.add(configuration);
+          removeFromAccessOrder(entry.getKey(), configuration);
+        } else if (cache.putIfAbsent(entry.getKey(), configuration) != null) {
+          // it was used right before being removed, and an equivalent instance was already created meanwhile
+          evicted.add(new EvictedInstance(configuration, timeSupplier.get()));
+        }
+      }
+    }
+
+    // An evicted instance may have been obtained right before being removed from the cache, so it is only disposed once
+    // it has been idle for a while.
+    final long now = timeSupplier.get();
+    for (Iterator<EvictedInstance> iterator = evicted.iterator(); iterator.hasNext();) {
+      EvictedInstance evictedInstance = iterator.next();
+      ConfigurationStats stats = evictedInstance.configuration.getStatistics();
+      if (stats.getInflightOperations() == 0
+          && now - max(stats.getLastUsedMillis(), evictedInstance.evictedAt) >= EVICTION_GRACE_PERIOD_MILLIS) {
+        iterator.remove();
+        expired.add(evictedInstance.configuration);
+      }
+    }
+
+    expired.forEach(this::unregisterConfiguration);
+    return copyOf(expired);
+  }
+
+  private void removeFromAccessOrder(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult,
+                                     ConfigurationInstance configuration) {
+    accessOrderLock.lock();
     try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        return entry.getValue();
-      }).collect(toImmutableList());
+      accessOrder.remove(resolverSetResult, configuration);
     } finally {
-      cacheWriteLock.unlock();
+      accessOrderLock.unlock();
     }
   }
 
@@ -235,6 +436,10 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   @Override
   protected void doInitialise() {
+    if (timeSupplier == null) {
+      timeSupplier = new LocalTimeSupplier();
+    }
+
     try {
       initialiseIfNeeded(resolverSet, muleContext);
       initialiseIfNeeded(connectionProviderResolver, muleContext);
@@ -258,4 +463,41 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   public boolean isDynamic() {
     return true;
   }
+
+  /**
+   * @return the amount of {@link ConfigurationInstance}s currently cached
+   * @since 4.1
+   */
+  public int getInstanceCount() {
+    return cache.size();
+  }
+
+  /**
+   * @return the ratio of invocations to {@link #get(Event)} which returned a cached instance, or {@code 0} if there were none
+   * @since 4.1
+   */
+  public double getHitRate() {
+    final long hitCount = hits.sum();
+    final long total = hitCount + misses.sum();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * @return the amount of {@link ConfigurationInstance}s that were evicted because the cache exceeded its max size
+   * @since 4.1
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  private static final class EvictedInstance {
+
+    private final ConfigurationInstance configuration;
+    private final long evictedAt;
+
+    private EvictedInstance(ConfigurationInstance configuration, long evictedAt) {
+      this.configuration = configuration;
+      this.evictedAt = evictedAt;
+    }
+  }
 }
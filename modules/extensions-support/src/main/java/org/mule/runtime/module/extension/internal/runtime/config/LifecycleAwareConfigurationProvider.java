@@ -32,8 +32,8 @@ import org.mule.runtime.core.privileged.lifecycle.SimpleLifecycleManager;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationProvider;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.slf4j.Logger;
 
@@ -54,7 +54,7 @@ public abstract class LifecycleAwareConfigurationProvider extends AbstractCompon
   private final String name;
   private final ExtensionModel extensionModel;
   private final ConfigurationModel configurationModel;
-  private final List<ConfigurationInstance> configurationInstances = new LinkedList<>();
+  private final Collection<ConfigurationInstance> configurationInstances = new ConcurrentLinkedQueue<>();
   private final ClassLoader extensionClassLoader;
   protected final SimpleLifecycleManager lifecycleManager;
   protected final MuleContext muleContext;
@@ -162,6 +162,16 @@ public abstract class LifecycleAwareConfigurationProvider extends AbstractCompon
     configurationInstances.add(configuration);
   }
 
+  /**
+   * Implementations are to invoke this method when a {@link ConfigurationInstance} is handed over to be disposed by
+   * somebody else, so that the lifecycle is no longer propagated to it
+   *
+   * @param configuration a previously registered {@link ConfigurationInstance}
+   */
+  protected void unregisterConfiguration(ConfigurationInstance configuration) {
+    configurationInstances.remove(configuration);
+  }
+
   /**
    * {@inheritDoc}
    */
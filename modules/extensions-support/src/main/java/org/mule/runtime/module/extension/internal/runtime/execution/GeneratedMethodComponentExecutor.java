@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static org.springframework.util.ReflectionUtils.handleInvocationTargetException;
+import org.mule.runtime.api.meta.model.ComponentModel;
+import org.mule.runtime.api.meta.model.parameter.ParameterGroupModel;
+import org.mule.runtime.module.extension.internal.runtime.operation.GeneratedInvokerOperationExecutorFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import net.sf.cglib.reflect.FastMethod;
+
+/**
+ * A {@link ReflectiveMethodComponentExecutor} which invokes the method through a {@link FastMethod}, a generated class
+ * which calls the method directly, instead of going through {@link Method#invoke(Object, Object...)}.
+ * <p>
+ * Instances are created by the {@link GeneratedInvokerOperationExecutorFactory}, which generates the {@link FastMethod}.
+ *
+ * @param <M> the generic type of the associated {@link ComponentModel}
+ * @since 4.1
+ */
+public class GeneratedMethodComponentExecutor<M extends ComponentModel> extends ReflectiveMethodComponentExecutor<M> {
+
+  private final FastMethod invoker;
+
+  public GeneratedMethodComponentExecutor(List<ParameterGroupModel> parameterGroupModels, FastMethod invoker,
+                                          Object componentInstance) {
+    super(parameterGroupModels, invoker.getJavaMethod(), componentInstance);
+    this.invoker = invoker;
+  }
+
+  @Override
+  protected Object invoke(Object target, Object[] parameters) throws Exception {
+    try {
+      return invoker.invoke(target, parameters);
+    } catch (InvocationTargetException e) {
+      // Same handling as the reflective invocation: runtime exceptions and errors are propagated as they are
+      handleInvocationTargetException(e);
+      throw new IllegalStateException("Should never get here");
+    }
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.execution;
 
+import static java.util.stream.IntStream.range;
 import static org.apache.commons.lang3.ArrayUtils.isEmpty;
 import static org.mule.runtime.api.util.collection.Collectors.toImmutableMap;
 import static org.mule.runtime.module.extension.internal.loader.java.MuleExtensionAnnotationParser.getParamNames;
@@ -67,6 +68,10 @@ import java.util.Map;
 /**
  * Resolves the values of an {@link ComponentModel}'s {@link ParameterModel parameterModels} by matching them to the arguments in
  * a {@link Method}
+ * <p>
+ * Instances are bound to a single component. The arguments which don't depend on the event being processed (the component's
+ * location and the default encoding) are resolved on the first invocation and reused afterwards, so only the
+ * {@link ArgumentResolver resolvers} of the remaining arguments run on each invocation.
  *
  * @since 3.7.0
  */
@@ -101,6 +106,9 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
   private final Method method;
   private final JavaTypeLoader typeLoader = new JavaTypeLoader(this.getClass().getClassLoader());
   private ArgumentResolver<?>[] argumentResolvers;
+  private Object[] primitiveDefaults;
+  private int[] eventArguments;
+  private volatile Object[] boundArguments;
   private Map<java.lang.reflect.Parameter, ParameterGroupArgumentResolver<?>> parameterGroupResolvers;
 
   /**
@@ -119,10 +127,13 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
 
     if (isEmpty(parameterTypes)) {
       argumentResolvers = new ArgumentResolver[] {};
+      primitiveDefaults = new Object[] {};
+      eventArguments = new int[] {};
       return;
     }
 
     argumentResolvers = new ArgumentResolver[parameterTypes.length];
+    primitiveDefaults = new Object[parameterTypes.length];
     Annotation[][] parameterAnnotations = method.getParameterAnnotations();
     Parameter[] parameters = method.getParameters();
     parameterGroupResolvers = getParameterGroupResolvers(parameterGroupModels);
@@ -130,6 +141,7 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
 
     for (int i = 0; i < parameterTypes.length; i++) {
       final Class<?> parameterType = parameterTypes[i];
+      primitiveDefaults[i] = resolvePrimitiveTypeDefaultValue(parameterType);
       Map<Class<? extends Annotation>, Annotation> annotations = toMap(parameterAnnotations[i]);
 
       ArgumentResolver<?> argumentResolver;
@@ -179,31 +191,48 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
 
       argumentResolvers[i] = argumentResolver;
     }
+
+    eventArguments = range(0, argumentResolvers.length).filter(i -> !isEventIndependent(argumentResolvers[i])).toArray();
+  }
+
+  private boolean isEventIndependent(ArgumentResolver<?> argumentResolver) {
+    return argumentResolver == COMPONENT_LOCATION_ARGUMENT_RESOLVER || argumentResolver == DEFAULT_ENCODING_ARGUMENT_RESOLVER;
   }
 
   @Override
   public Object[] resolve(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+    Object[] bound = boundArguments;
+    if (bound == null) {
+      bound = bindArguments(executionContext);
+      boundArguments = bound;
+    }
 
-    Object[] parameterValues = new Object[argumentResolvers.length];
-    int i = 0;
-    for (ArgumentResolver<?> argumentResolver : argumentResolvers) {
-      parameterValues[i++] = argumentResolver.resolve(executionContext);
+    Object[] parameterValues = bound.clone();
+    for (int i : eventArguments) {
+      parameterValues[i] = resolveArgument(i, executionContext);
     }
 
-    return resolvePrimitiveTypes(parameterTypes, parameterValues);
+    return parameterValues;
   }
 
-  private Object[] resolvePrimitiveTypes(Class<?>[] parametersType, Object[] parameterValues) {
-    Object[] resolvedParameters = new Object[parameterValues.length];
-    for (int i = 0; i < parameterValues.length; i++) {
-      Object parameterValue = parameterValues[i];
-      if (parameterValue == null) {
-        resolvedParameters[i] = resolvePrimitiveTypeDefaultValue(parametersType[i]);
-      } else {
-        resolvedParameters[i] = parameterValue;
+  /**
+   * Resolves the arguments which don't depend on the event. Concurrent first invocations may bind them more than once, which is
+   * harmless since they all get the same values.
+   */
+  private Object[] bindArguments(ExecutionContext executionContext) {
+    Object[] bound = primitiveDefaults.clone();
+    for (int i = 0; i < argumentResolvers.length; i++) {
+      if (isEventIndependent(argumentResolvers[i])) {
+        bound[i] = resolveArgument(i, executionContext);
       }
     }
-    return resolvedParameters;
+    return bound;
+  }
+
+  private Object resolveArgument(int index, ExecutionContext executionContext) {
+    Object parameterValue = argumentResolvers[index].resolve(executionContext);
+    // primitive parameters without a value take their type's default, precalculated on initialization
+    return parameterValue != null ? parameterValue : primitiveDefaults[index];
   }
 
   private Object resolvePrimitiveTypeDefaultValue(Class<?> type) {
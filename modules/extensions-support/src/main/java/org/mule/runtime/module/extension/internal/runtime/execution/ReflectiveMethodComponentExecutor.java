@@ -54,7 +54,8 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   private static final Logger LOGGER = getLogger(ReflectiveMethodOperationExecutor.class);
   private static final ArgumentResolverDelegate NO_ARGS_DELEGATE = new NoArgumentsResolverDelegate();
 
-  private final Method method;
+  protected final Method method;
+  private final Class<?>[] parameterTypes;
   private final Object componentInstance;
   private final ArgumentResolverDelegate argumentResolverDelegate;
   private final ClassLoader extensionClassLoader;
@@ -64,8 +65,9 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   public ReflectiveMethodComponentExecutor(List<ParameterGroupModel> parameterGroupModels, Method method,
                                            Object componentInstance) {
     this.method = method;
+    this.parameterTypes = method.getParameterTypes();
     this.componentInstance = componentInstance;
-    argumentResolverDelegate = isEmpty(method.getParameterTypes())
+    argumentResolverDelegate = isEmpty(parameterTypes)
         ? NO_ARGS_DELEGATE
         : new MethodArgumentResolverDelegate(parameterGroupModels, method);
     extensionClassLoader = method.getDeclaringClass().getClassLoader();
@@ -73,8 +75,18 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
 
   public Object execute(ExecutionContext<M> executionContext) throws Exception {
     return withContextClassLoader(extensionClassLoader,
-                                  () -> invokeMethod(method, componentInstance,
-                                                     getParameterValues(executionContext, method.getParameterTypes())));
+                                  () -> invoke(componentInstance, getParameterValues(executionContext, parameterTypes)));
+  }
+
+  /**
+   * Invokes the {@link #method} on the given {@code target}.
+   *
+   * @param target     the component instance
+   * @param parameters the resolved argument values
+   * @return the method's return value
+   */
+  protected Object invoke(Object target, Object[] parameters) throws Exception {
+    return invokeMethod(method, target, parameters);
   }
 
   private Object[] getParameterValues(ExecutionContext<M> executionContext, Class<?>[] parameterTypes) {
@@ -113,8 +125,7 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   public Function<ExecutionContext<M>, Map<String, Object>> createArgumentResolver(M operationModel) {
     return ec -> withContextClassLoader(extensionClassLoader,
                                         () -> {
-                                          final Object[] resolved =
-                                              getParameterValues(ec, method.getParameterTypes());
+                                          final Object[] resolved = getParameterValues(ec, parameterTypes);
 
                                           final Map<String, Object> resolvedParams = new HashMap<>();
                                           for (int i = 0; i < method.getParameterCount(); ++i) {
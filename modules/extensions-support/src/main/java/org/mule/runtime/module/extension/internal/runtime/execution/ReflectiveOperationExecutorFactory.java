@@ -46,13 +46,22 @@ public final class ReflectiveOperationExecutorFactory<T, M extends ComponentMode
 
   @Override
   public ComponentExecutor<M> createExecutor(M operationModel, Map<String, Object> parameters) {
-    DefaultObjectBuilder objectBuilder = new DefaultObjectBuilder(implementationClass);
+    return new ReflectiveMethodOperationExecutor(operationModel, operationMethod, createOperationInstance(parameters));
+  }
+
+  /**
+   * Creates a new instance of the {@code implementationClass}, setting the given {@code parameters} into its fields.
+   *
+   * @param parameters the values of the operation class' parameters
+   * @return a new instance of the operation class
+   */
+  public T createOperationInstance(Map<String, Object> parameters) {
+    DefaultObjectBuilder<T> objectBuilder = new DefaultObjectBuilder<>(implementationClass);
     parameters.forEach((k, v) -> objectBuilder.addPropertyResolver(k, new StaticValueResolver<>(v)));
-    Object delegate;
     CoreEvent initialiserEvent = null;
     try {
       initialiserEvent = getInitialiserEvent();
-      delegate = objectBuilder.build(from(initialiserEvent));
+      return objectBuilder.build(from(initialiserEvent));
     } catch (Exception e) {
       throw new MuleRuntimeException(createStaticMessage("Could not create instance of operation class "
           + implementationClass.getName()), e);
@@ -61,7 +70,5 @@ public final class ReflectiveOperationExecutorFactory<T, M extends ComponentMode
         ((BaseEventContext) initialiserEvent.getContext()).success();
       }
     }
-
-    return new ReflectiveMethodOperationExecutor(operationModel, operationMethod, delegate);
   }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.operation;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.reflect.Modifier.isPublic;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.meta.model.ComponentModel;
+import org.mule.runtime.core.internal.util.CompositeClassLoader;
+import org.mule.runtime.extension.api.runtime.operation.ComponentExecutor;
+import org.mule.runtime.extension.api.runtime.operation.ComponentExecutorFactory;
+import org.mule.runtime.module.extension.internal.runtime.execution.GeneratedMethodComponentExecutor;
+import org.mule.runtime.module.extension.internal.runtime.execution.ReflectiveOperationExecutorFactory;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastMethod;
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link ComponentExecutorFactory} which produces {@link ReflectiveMethodOperationExecutor} instances
+ * that invoke the operation method through a generated class, instead of through reflection.
+ * <p>
+ * The invoker class is generated only once per operation class, the first time an executor is created. Since the class loader
+ * is part of the key under which cglib caches its generated classes, the invokers for all the operation classes of an extension
+ * are defined in a single class loader shared by the whole extension.
+ * <p>
+ * If the invoker cannot be generated (for example, because the operation class or method is not public), or if the
+ * {@link #DISABLE_GENERATED_INVOKERS_PROPERTY} system property is set, the operation is invoked through reflection, as
+ * with {@link ReflectiveOperationExecutorFactory}.
+ *
+ * @param <T> the type of the class in which the implementing method is declared
+ * @since 4.1
+ */
+public final class GeneratedInvokerOperationExecutorFactory<T, M extends ComponentModel> implements ComponentExecutorFactory<M> {
+
+  public static final String DISABLE_GENERATED_INVOKERS_PROPERTY = "mule.extension.disableGeneratedOperationInvokers";
+
+  private static final Logger LOGGER = getLogger(GeneratedInvokerOperationExecutorFactory.class);
+
+  // keys are compared by identity and the composite class loaders are kept alive by the classes generated in them
+  private static final LoadingCache<ClassLoader, ClassLoader> INVOKER_CLASS_LOADERS =
+      CacheBuilder.newBuilder().weakKeys().weakValues().build(new CacheLoader<ClassLoader, ClassLoader>() {
+
+        @Override
+        public ClassLoader load(ClassLoader extensionClassLoader) {
+          return new CompositeClassLoader(extensionClassLoader, FastClass.class.getClassLoader());
+        }
+      });
+
+  private final ReflectiveOperationExecutorFactory<T, M> reflectiveFactory;
+  private final Method operationMethod;
+  private volatile boolean invokerResolved = false;
+  private FastMethod invoker;
+
+  public GeneratedInvokerOperationExecutorFactory(Class<T> implementationClass, Method operationMethod) {
+    this.reflectiveFactory = new ReflectiveOperationExecutorFactory<>(implementationClass, operationMethod);
+    this.operationMethod = operationMethod;
+  }
+
+  @Override
+  public ComponentExecutor<M> createExecutor(M operationModel, Map<String, Object> parameters) {
+    FastMethod invoker = getInvoker();
+    if (invoker == null) {
+      return reflectiveFactory.createExecutor(operationModel, parameters);
+    }
+
+    return new ReflectiveMethodOperationExecutor<>(new GeneratedMethodComponentExecutor<>(operationModel
+        .getParameterGroupModels(), invoker, reflectiveFactory.createOperationInstance(parameters)));
+  }
+
+  private FastMethod getInvoker() {
+    if (!invokerResolved) {
+      synchronized (this) {
+        if (!invokerResolved) {
+          invoker = generateInvoker(operationMethod);
+          invokerResolved = true;
+        }
+      }
+    }
+    return invoker;
+  }
+
+  /**
+   * Generates a {@link FastMethod} for the given {@code method}.
+   *
+   * @param method the method to invoke
+   * @return the generated invoker, or {@code null} if it could not be generated
+   */
+  static FastMethod generateInvoker(Method method) {
+    if (getBoolean(DISABLE_GENERATED_INVOKERS_PROPERTY)) {
+      return null;
+    }
+
+    Class<?> declaringClass = method.getDeclaringClass();
+    // the generated class lives in a different class loader, so it can only access public members
+    if (!isPublic(declaringClass.getModifiers()) || !isPublic(method.getModifiers())) {
+      LOGGER.debug("Operation method '{}' of class '{}' is not public, it will be invoked through reflection",
+                   method.getName(), declaringClass.getName());
+      return null;
+    }
+
+    try {
+      FastClass.Generator generator = new FastClass.Generator();
+      generator.setType(declaringClass);
+      if (FastClass.class.getClassLoader() != declaringClass.getClassLoader()) {
+        generator.setClassLoader(INVOKER_CLASS_LOADERS.getUnchecked(declaringClass.getClassLoader()));
+      }
+      return generator.create().getMethod(method);
+    } catch (Exception | LinkageError e) {
+      LOGGER.warn("Could not generate invoker for operation method '{}' of class '{}', it will be invoked through reflection",
+                  method.getName(), declaringClass.getName(), e);
+      return null;
+    }
+  }
+}
@@ -55,6 +55,16 @@ public class ReflectiveMethodOperationExecutor<M extends ComponentModel>
         new ReflectiveMethodComponentExecutor<>(operationModel.getParameterGroupModels(), operationMethod, operationInstance);
   }
 
+  /**
+   * Creates a new instance which executes the operation through the given {@code executor}
+   *
+   * @param executor the {@link ReflectiveMethodComponentExecutor} which invokes the operation method
+   * @since 4.1
+   */
+  public ReflectiveMethodOperationExecutor(ReflectiveMethodComponentExecutor<M> executor) {
+    this.executor = executor;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -9,10 +9,14 @@ package org.mule.runtime.module.extension.internal.runtime.config;
 import static java.util.Arrays.asList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static java.lang.Thread.State.WAITING;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
@@ -40,10 +44,13 @@ import org.mule.runtime.api.meta.model.operation.OperationModel;
 import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.extension.api.runtime.ExpirationPolicy;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationProvider;
 import org.mule.runtime.core.internal.config.ImmutableExpirationPolicy;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ConnectionProviderResolver;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
 import org.mule.tck.size.SmallTest;
 import org.mule.test.heisenberg.extension.HeisenbergExtension;
 
@@ -51,6 +58,10 @@ import com.google.common.collect.ImmutableList;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.After;
 import org.junit.Before;
@@ -136,6 +147,7 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     }
 
     verify(resolverSet, times(count)).resolve(from(event));
+    assertThat(((DynamicConfigurationProvider) provider).getHitRate(), is(0.9));
   }
 
   @Test
@@ -199,7 +211,75 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(configs, containsInAnyOrder(instance1, instance2));
   }
 
+  @Test
+  public void evictLeastRecentlyUsed() throws Exception {
+    DynamicConfigurationProvider provider = new DynamicConfigurationProvider(CONFIG_NAME, extensionModel, configurationModel,
+                                                                             resolverSet, connectionProviderResolver,
+                                                                             expirationPolicy, 2, muleContext);
+    muleContext.getInjector().inject(provider);
+    provider.initialise();
+    provider.start();
+
+    try {
+      HeisenbergExtension instance1 = (HeisenbergExtension) provider.get(event).getValue();
+      HeisenbergExtension instance2 = makeAlternateInstance(provider);
+      when(resolverSet.resolve(from(event))).thenReturn(resolverSetResult);
+      assertThat(provider.get(event).getValue(), is(sameInstance(instance1)));
+      HeisenbergExtension instance3 = makeAlternateInstance(provider);
+
+      // the bound is enforced on insertion, evicting the least recently used instance
+      assertThat(provider.getInstanceCount(), is(2));
+      assertThat(provider.getEvictionCount(), is(1L));
+      assertThat(provider.get(event).getValue(), is(sameInstance(instance3)));
+
+      // evicted instances are not disposed right away, in case they were obtained right before the eviction
+      assertThat(provider.getExpired().isEmpty(), is(true));
+
+      timeSupplier.move(1, SECONDS);
+      List<Object> configs = provider.getExpired().stream().map(config -> config.getValue()).collect(toImmutableList());
+      assertThat(configs, contains(instance2));
+    } finally {
+      provider.stop();
+      provider.dispose();
+    }
+  }
+
+  @Test
+  public void concurrentRequestsShareCreation() throws Exception {
+    CountDownLatch creationStarted = new CountDownLatch(1);
+    CountDownLatch creationReleased = new CountDownLatch(1);
+    when(connectionProviderResolver.resolve(any())).thenAnswer(invocation -> {
+      creationStarted.countDown();
+      creationReleased.await();
+      return null;
+    });
+
+    ExecutorService executor = newFixedThreadPool(1);
+    try {
+      Future<ConfigurationInstance> first = executor.submit(() -> provider.get(event));
+      assertThat(creationStarted.await(5, SECONDS), is(true));
+
+      AtomicReference<ConfigurationInstance> second = new AtomicReference<>();
+      Thread secondThread = new Thread(() -> second.set(provider.get(event)));
+      secondThread.start();
+      // the second request waits for the creation in progress instead of starting another one
+      new PollingProber(5000, 10).check(new JUnitLambdaProbe(() -> secondThread.getState() == WAITING));
+      creationReleased.countDown();
+
+      secondThread.join(5000);
+      assertThat(second.get(), is(sameInstance(first.get(5, SECONDS))));
+      verify(connectionProviderResolver, times(1)).resolve(any());
+    } finally {
+      creationReleased.countDown();
+      executor.shutdownNow();
+    }
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
+    return makeAlternateInstance(provider);
+  }
+
+  private HeisenbergExtension makeAlternateInstance(ConfigurationProvider provider) throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     when(alternateResult.asMap()).thenReturn(new HashMap<>());
     mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContextAdapter;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+@SmallTest
+public class MethodArgumentResolverDelegateTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void eventIndependentArgumentsAreBoundOnce() throws Exception {
+    ComponentLocation location = mock(ComponentLocation.class);
+    ExecutionContextAdapter context = mock(ExecutionContextAdapter.class);
+    when(context.getComponentLocation()).thenReturn(location);
+    when(context.hasParameter(anyString())).thenReturn(true);
+    when(context.getParameter(anyString())).thenReturn("first", "second");
+
+    Method method = LocationOperations.class.getMethod("operation", ComponentLocation.class, String.class);
+    MethodArgumentResolverDelegate delegate = new MethodArgumentResolverDelegate(emptyList(), method);
+
+    assertThat(delegate.resolve(context, method.getParameterTypes()), arrayContaining(location, "first"));
+    assertThat(delegate.resolve(context, method.getParameterTypes()), arrayContaining(location, "second"));
+    verify(context, times(1)).getComponentLocation();
+  }
+
+  public static class LocationOperations {
+
+    public String operation(ComponentLocation location, String value) {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.operation;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.module.extension.internal.runtime.operation.GeneratedInvokerOperationExecutorFactory.generateInvoker;
+import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.module.extension.internal.runtime.execution.GeneratedMethodComponentExecutor;
+import org.mule.tck.size.SmallTest;
+import org.mule.test.heisenberg.extension.HeisenbergExtension;
+import org.mule.test.heisenberg.extension.HeisenbergOperations;
+
+import java.lang.reflect.Method;
+
+import net.sf.cglib.reflect.FastMethod;
+import org.junit.Test;
+
+/**
+ * Runs the same scenarios as {@link ReflectiveMethodOperationExecutorTestCase}, but invoking the operations through the
+ * invokers generated by {@link GeneratedInvokerOperationExecutorFactory}.
+ */
+@SmallTest
+public class GeneratedInvokerOperationExecutorTestCase extends ReflectiveMethodOperationExecutorTestCase {
+
+  @Override
+  protected ReflectiveMethodOperationExecutor createExecutor(Method method, Object operationInstance) {
+    FastMethod invoker = generateInvoker(method);
+    assertThat(invoker, is(notNullValue()));
+    return new ReflectiveMethodOperationExecutor(new GeneratedMethodComponentExecutor<>(operationModel.getParameterGroupModels(),
+                                                                                       invoker, operationInstance));
+  }
+
+  @Test
+  public void invokerForPublicMethod() throws Exception {
+    Method method = ClassUtils.getMethod(HeisenbergOperations.class, "sayMyName", new Class<?>[] {HeisenbergExtension.class});
+    assertThat(generateInvoker(method).getJavaMethod(), is(method));
+  }
+
+  @Test
+  public void noInvokerForNonPublicClass() throws Exception {
+    Method method = NonPublicOperations.class.getMethod("operation");
+    assertThat(generateInvoker(method), is(nullValue()));
+  }
+
+  static class NonPublicOperations {
+
+    public String operation() {
+      return "";
+    }
+  }
+}
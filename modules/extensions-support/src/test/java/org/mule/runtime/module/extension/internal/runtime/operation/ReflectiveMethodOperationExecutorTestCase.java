@@ -81,7 +81,7 @@ public class ReflectiveMethodOperationExecutorTestCase extends AbstractMuleTestC
   private ConfigurationModel configurationModel;
 
   @Mock
-  private OperationModel operationModel;
+  protected OperationModel operationModel;
 
   @Mock
   private ExtensionManager extensionManager;
@@ -134,7 +134,7 @@ public class ReflectiveMethodOperationExecutorTestCase extends AbstractMuleTestC
   @Test
   public void operationWithReturnValueAndWithoutParameters() throws Exception {
     Method method = ClassUtils.getMethod(HeisenbergOperations.class, "sayMyName", new Class<?>[] {HeisenbergExtension.class});
-    executor = new ReflectiveMethodOperationExecutor(operationModel, method, operations);
+    executor = createExecutor(method, operations);
     executor.setMuleContext(muleContext);
     assertResult(execute(), HEISENBERG);
   }
@@ -156,7 +156,7 @@ public class ReflectiveMethodOperationExecutorTestCase extends AbstractMuleTestC
   @Test
   public void voidOperationWithoutParameters() throws Exception {
     Method method = ClassUtils.getMethod(HeisenbergOperations.class, "die", new Class<?>[] {HeisenbergExtension.class});
-    executor = new ReflectiveMethodOperationExecutor(operationModel, method, operations);
+    executor = createExecutor(method, operations);
     executor.setMuleContext(muleContext);
     assertThat(execute(), is(nullValue()));
     assertThat(config.getEndingHealth(), is(DEAD));
@@ -171,7 +171,7 @@ public class ReflectiveMethodOperationExecutorTestCase extends AbstractMuleTestC
 
     Method method =
         ClassUtils.getMethod(HeisenbergOperations.class, "getEnemy", new Class<?>[] {HeisenbergExtension.class, int.class});
-    executor = new ReflectiveMethodOperationExecutor(operationModel, method, operations);
+    executor = createExecutor(method, operations);
     executor.setMuleContext(muleContext);
 
     assertResult(((Result) execute()).getOutput(), "Hank");
@@ -180,7 +180,7 @@ public class ReflectiveMethodOperationExecutorTestCase extends AbstractMuleTestC
   @Test
   public void voidWithArguments() throws Exception {
     Method method = ClassUtils.getMethod(HeisenbergOperations.class, "die", new Class<?>[] {HeisenbergExtension.class});
-    executor = new ReflectiveMethodOperationExecutor(operationModel, method, operations);
+    executor = createExecutor(method, operations);
     executor.setMuleContext(muleContext);
     assertThat(execute(), is(nullValue()));
   }
@@ -193,7 +193,7 @@ public class ReflectiveMethodOperationExecutorTestCase extends AbstractMuleTestC
     for (Object[] primitiveOperation : primitiveOperations) {
       Method method = ClassUtils.getMethod(PrimitiveTypesTestOperations.class, (String) primitiveOperation[0],
                                            new Class<?>[] {(Class<?>) primitiveOperation[1]});
-      executor = new ReflectiveMethodOperationExecutor(operationModel, method, primitiveTypesTestOperations);
+      executor = createExecutor(method, primitiveTypesTestOperations);
       executor.setMuleContext(muleContext);
       execute();
     }
@@ -204,7 +204,7 @@ public class ReflectiveMethodOperationExecutorTestCase extends AbstractMuleTestC
     Class<?>[] parameterTypes =
         {char.class, byte.class, short.class, int.class, long.class, float.class, double.class, boolean.class};
     Method method = ClassUtils.getMethod(PrimitiveTypesTestOperations.class, "allCombined", parameterTypes);
-    executor = new ReflectiveMethodOperationExecutor(operationModel, method, primitiveTypesTestOperations);
+    executor = createExecutor(method, primitiveTypesTestOperations);
     executor.setMuleContext(muleContext);
     execute();
   }
@@ -220,6 +220,10 @@ public class ReflectiveMethodOperationExecutorTestCase extends AbstractMuleTestC
     assertThat(value, is(expected));
   }
 
+  protected ReflectiveMethodOperationExecutor createExecutor(Method method, Object operationInstance) {
+    return new ReflectiveMethodOperationExecutor(operationModel, method, operationInstance);
+  }
+
   private Object execute() {
     return from(executor.execute(operationContext)).block();
   }
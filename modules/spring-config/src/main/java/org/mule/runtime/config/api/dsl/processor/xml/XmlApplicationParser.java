@@ -7,6 +7,7 @@
 
 package org.mule.runtime.config.api.dsl.processor.xml;
 
+import static org.mule.runtime.config.internal.XmlConfigurationSnapshot.SCHEMA_DEFAULT_KEY;
 import static org.mule.runtime.config.internal.dsl.processor.xml.XmlCustomAttributeHandler.IS_CDATA;
 import static org.mule.runtime.config.internal.dsl.processor.xml.XmlCustomAttributeHandler.to;
 import static org.mule.runtime.internal.dsl.DslConstants.CORE_PREFIX;
@@ -137,7 +138,7 @@ public class XmlApplicationParser {
       for (int i = 0; i < attributes.getLength(); i++) {
         Node attribute = attributes.item(i);
         Attr attributeNode = element.getAttributeNode(attribute.getNodeName());
-        boolean isFromXsd = !attributeNode.getSpecified();
+        boolean isFromXsd = !attributeNode.getSpecified() || attributeNode.getUserData(SCHEMA_DEFAULT_KEY) != null;
         builder.addConfigAttribute(attribute.getNodeName(), attribute.getNodeValue(), isFromXsd);
       }
     }
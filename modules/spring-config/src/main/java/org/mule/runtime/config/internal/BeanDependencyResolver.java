@@ -6,7 +6,11 @@
  */
 package org.mule.runtime.config.internal;
 
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -24,4 +28,16 @@ public interface BeanDependencyResolver {
    */
   Collection<Object> resolveBeanDependencies(Set<String> beanNames);
 
+  /**
+   * Groups the beans in waves, so that the beans of each wave only depend on beans of previous waves. By default each bean is in
+   * its own wave, in the order given by {@link #resolveBeanDependencies(Set)}.
+   *
+   * @param beanNames the bean names to resolve dependencies
+   * @return the waves of bean objects, in dependency order.
+   * @since 4.1
+   */
+  default List<List<Object>> resolveBeanDependencyWaves(Set<String> beanNames) {
+    return resolveBeanDependencies(beanNames).stream().map(bean -> singletonList(bean)).collect(toList());
+  }
+
 }
@@ -6,7 +6,9 @@
  */
 package org.mule.runtime.config.internal;
 
+import static java.lang.Math.max;
 import static java.util.Arrays.asList;
+import static java.util.Collections.newSetFromMap;
 import static java.util.stream.Collectors.toList;
 import org.mule.runtime.api.util.Pair;
 import org.mule.runtime.config.internal.dsl.model.ConfigurationDependencyResolver;
@@ -14,8 +16,10 @@ import org.mule.runtime.core.internal.lifecycle.InjectedDependenciesProvider;
 
 import com.google.common.collect.TreeTraverser;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -50,29 +54,102 @@ public class DefaultBeanDependencyResolver implements BeanDependencyResolver {
   }
 
   public Collection<Object> resolveBeanDependencies(Set<String> beanNames) {
+    final DependencyNode root = buildDependencyTree(beanNames);
+
+    List<Object> orderedObjects = new LinkedList<>();
+    for (DependencyNode node : postOrderTraversal(root)) {
+      if (node == root) {
+        break;
+      }
+
+      orderedObjects.add(node.getValue());
+    }
+    return orderedObjects;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * An object may appear many times in the dependency tree, so the dependencies of all its occurrences are merged. Each object is
+   * placed in the wave after the last one of its dependencies. Dependency cycles are broken at the point where they are found.
+   */
+  @Override
+  public List<List<Object>> resolveBeanDependencyWaves(Set<String> beanNames) {
+    final DependencyNode root = buildDependencyTree(beanNames);
+
+    Map<Object, Set<Object>> dependencies = new IdentityHashMap<>();
+    List<Object> orderedObjects = new ArrayList<>();
+    for (DependencyNode node : postOrderTraversal(root)) {
+      if (node == root) {
+        break;
+      }
+
+      if (node.getValue() != null) {
+        Set<Object> objectDependencies = dependencies.computeIfAbsent(node.getValue(), object -> {
+          orderedObjects.add(object);
+          return newIdentitySet();
+        });
+        for (DependencyNode child : node.getChildren()) {
+          if (child.getValue() != null && child.getValue() != node.getValue()) {
+            objectDependencies.add(child.getValue());
+          }
+        }
+      }
+    }
+
+    Map<Object, Integer> levels = new IdentityHashMap<>();
+    List<List<Object>> waves = new ArrayList<>();
+    for (Object object : orderedObjects) {
+      int level = resolveLevel(object, dependencies, levels, newIdentitySet());
+      while (waves.size() <= level) {
+        waves.add(new ArrayList<>());
+      }
+      waves.get(level).add(object);
+    }
+    return waves;
+  }
+
+  private int resolveLevel(Object object, Map<Object, Set<Object>> dependencies, Map<Object, Integer> levels,
+                           Set<Object> inProgress) {
+    Integer level = levels.get(object);
+    if (level != null) {
+      return level;
+    }
+
+    inProgress.add(object);
+    int resolved = 0;
+    for (Object dependency : dependencies.get(object)) {
+      if (!inProgress.contains(dependency)) {
+        resolved = max(resolved, resolveLevel(dependency, dependencies, levels, inProgress) + 1);
+      }
+    }
+    inProgress.remove(object);
+
+    levels.put(object, resolved);
+    return resolved;
+  }
+
+  private static Set<Object> newIdentitySet() {
+    return newSetFromMap(new IdentityHashMap<>());
+  }
+
+  private DependencyNode buildDependencyTree(Set<String> beanNames) {
     final DependencyNode root = new DependencyNode(null);
 
     for (String beanName : beanNames) {
       addDependency(root, beanName, springRegistry.get(beanName));
     }
+    return root;
+  }
 
-    Iterable<DependencyNode> orderedNodes = new TreeTraverser<DependencyNode>() {
+  private Iterable<DependencyNode> postOrderTraversal(DependencyNode root) {
+    return new TreeTraverser<DependencyNode>() {
 
       @Override
       public Iterable children(DependencyNode node) {
         return node.getChildren();
       }
     }.postOrderTraversal(root);
-
-    List<Object> orderedObjects = new LinkedList<>();
-    for (DependencyNode node : orderedNodes) {
-      if (node == root) {
-        break;
-      }
-
-      orderedObjects.add(node.getValue());
-    }
-    return orderedObjects;
   }
 
   private void addDependency(DependencyNode parent, String key, Object object) {
@@ -87,6 +87,7 @@ import org.mule.runtime.core.internal.registry.TransformerResolver;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -138,6 +139,8 @@ public class MuleArtifactContext extends AbstractRefreshableConfigApplicationCon
   private final Map<String, String> artifactProperties;
   private final ArtifactDeclaration artifactDeclaration;
   private final XmlConfigurationDocumentLoader xmlConfigurationDocumentLoader;
+  private final boolean useConfigurationSnapshot;
+  private XmlConfigurationSnapshot configurationSnapshot;
   private final Optional<ConfigurationProperties> parentConfigurationProperties;
   private final DefaultRegistry serviceDiscoverer;
   private final ConfigurationDependencyResolver dependencyResolver;
@@ -198,6 +201,7 @@ public class MuleArtifactContext extends AbstractRefreshableConfigApplicationCon
     this.artifactDeclaration = artifactDeclaration;
     this.parentConfigurationProperties = parentConfigurationProperties;
     this.xmlConfigurationDocumentLoader = disableXmlValidations ? noValidationDocumentLoader() : schemaValidatingDocumentLoader();
+    this.useConfigurationSnapshot = !disableXmlValidations;
     this.serviceDiscoverer = new DefaultRegistry(muleContext);
 
     registerComponentBuildingDefinitions(serviceRegistry, MuleArtifactContext.class.getClassLoader(),
@@ -275,8 +279,16 @@ public class MuleArtifactContext extends AbstractRefreshableConfigApplicationCon
       initialConfigFiles.add(new Pair<>(artifactConfigResource.getResourceName(), artifactConfigResource.getInputStream()));
     }
 
-    List<ConfigFile> configFiles = new ArrayList<>();
-    recursivelyResolveConfigFiles(initialConfigFiles, configFiles).forEach(applicationConfigBuilder::addConfigFile);
+    configurationSnapshot = loadConfigurationSnapshot();
+    try {
+      List<ConfigFile> configFiles = new ArrayList<>();
+      recursivelyResolveConfigFiles(initialConfigFiles, configFiles).forEach(applicationConfigBuilder::addConfigFile);
+      if (configurationSnapshot != null) {
+        configurationSnapshot.save();
+      }
+    } finally {
+      configurationSnapshot = null;
+    }
 
     applicationConfigBuilder.setApplicationName(muleContext.getConfiguration().getId());
     return applicationConfigBuilder.build();
@@ -294,11 +306,7 @@ public class MuleArtifactContext extends AbstractRefreshableConfigApplicationCon
         .filter(fileNameInputStreamPair -> !alreadyResolvedConfigFiles.stream()
             .anyMatch(configFile -> configFile.getFilename().equals(fileNameInputStreamPair.getFirst())))
         .forEach(fileNameInputStreamPair -> {
-          Document document =
-              xmlConfigurationDocumentLoader.loadDocument(muleContext.getExtensionManager() == null ? emptySet()
-                  : muleContext.getExtensionManager().getExtensions(),
-                                                          fileNameInputStreamPair.getFirst(),
-                                                          fileNameInputStreamPair.getSecond());
+          Document document = loadDocument(fileNameInputStreamPair.getFirst(), fileNameInputStreamPair.getSecond());
           ConfigLine mainConfigLine = xmlApplicationParser.parse(document.getDocumentElement()).get();
           ConfigFile configFile = new ConfigFile(fileNameInputStreamPair.getFirst(), asList(mainConfigLine));
           resolvedConfigFilesBuilder.add(configFile);
@@ -351,6 +359,29 @@ public class MuleArtifactContext extends AbstractRefreshableConfigApplicationCon
     return recursivelyResolveConfigFiles(newConfigFilesToResolved, resolvedConfigFilesBuilder.build());
   }
 
+  private XmlConfigurationSnapshot loadConfigurationSnapshot() {
+    String workingDirectory = muleContext.getConfiguration().getWorkingDirectory();
+    if (!useConfigurationSnapshot || workingDirectory == null) {
+      return null;
+    }
+    return XmlConfigurationSnapshot.load(new File(workingDirectory), getArtifactExtensions());
+  }
+
+  private Document loadDocument(String fileName, InputStream inputStream) {
+    if (configurationSnapshot == null) {
+      return xmlConfigurationDocumentLoader.loadDocument(getArtifactExtensions(), fileName, inputStream);
+    }
+
+    return configurationSnapshot
+        .loadDocument(fileName, IOUtils.toByteArray(inputStream),
+                      stream -> xmlConfigurationDocumentLoader.loadDocument(getArtifactExtensions(), fileName, stream),
+                      stream -> noValidationDocumentLoader().loadDocument(getArtifactExtensions(), fileName, stream));
+  }
+
+  private Set<ExtensionModel> getArtifactExtensions() {
+    return muleContext.getExtensionManager() == null ? emptySet() : muleContext.getExtensionManager().getExtensions();
+  }
+
   @Override
   protected void prepareBeanFactory(ConfigurableListableBeanFactory beanFactory) {
     super.prepareBeanFactory(beanFactory);
@@ -12,6 +12,7 @@ import org.mule.runtime.core.internal.lifecycle.RegistryLifecycleCallback;
 import org.mule.runtime.core.internal.lifecycle.RegistryLifecycleManager;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,7 +21,8 @@ import java.util.Map;
  * those dependencies first (recursively).
  * <p/>
  * This guarantees that if object A depends on object B and C, necessary lifecycle phases will have been applied on B and C before
- * it is applied to A
+ * it is applied to A. When the initialise phase is applied in parallel, B and C are initialised in the same wave and A in a later
+ * one.
  *
  * @since 3.7.0
  */
@@ -40,6 +42,12 @@ class SpringLifecycleCallback extends RegistryLifecycleCallback<SpringRegistry>
     return springRegistry.getBeanDependencyResolver().resolveBeanDependencies(objects.keySet());
   }
 
+  @Override
+  protected List<? extends Collection<?>> lookupObjectWavesForLifecycle(LifecycleObject lo) {
+    Map<String, Object> objects = getSpringRegistry().lookupEntriesForLifecycle(lo.getType());
+    return springRegistry.getBeanDependencyResolver().resolveBeanDependencyWaves(objects.keySet());
+  }
+
   private SpringRegistry getSpringRegistry() {
     return (SpringRegistry) registryLifecycleManager.getLifecycleObject();
   }
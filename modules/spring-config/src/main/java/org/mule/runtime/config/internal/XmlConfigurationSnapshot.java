@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparing;
+import static javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI;
+import static org.mule.runtime.core.api.config.MuleManifest.getProductVersion;
+import static org.mule.runtime.core.api.util.StringUtils.toHexString;
+import static org.mule.runtime.internal.dsl.DslConstants.CORE_NAMESPACE;
+import org.mule.runtime.api.meta.model.ExtensionModel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.Text;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Persisted record of the outcome of validating the XML configuration files of an artifact against their schemas, so that
+ * redeploying or restarting it doesn't validate again the files that didn't change.
+ * <p>
+ * Besides reporting errors, validating a file adds the default values of the attributes defined by the schemas to its DOM and
+ * normalizes some values. For each file that was validated, the snapshot keeps the digest of its content along with the
+ * differences between its validated DOM and the one obtained without validating it. A file whose digest matches is then parsed
+ * without validation and those differences are applied to its DOM, with the attributes that come from the schemas marked with
+ * the {@link #SCHEMA_DEFAULT_KEY} user data.
+ * <p>
+ * The snapshot is discarded as a whole when its format, the runtime version or the schemas of the extensions of the artifact
+ * change, and any problem reading it is treated as if it didn't exist. The schema of each extension is resolved the same way
+ * it is for validation, from the extension's resources or generated from its model, so a change in the model of an extension
+ * that keeps its version also discards the snapshot. Only those determine the schemas of the core and extension namespaces, so
+ * a file with elements or schema locations of any other namespace, such as Spring or custom ones whose schemas are resolved
+ * from the artifact or its libraries, is always validated.
+ *
+ * @since 4.1
+ */
+public final class XmlConfigurationSnapshot {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(XmlConfigurationSnapshot.class);
+
+  /**
+   * User data set on the {@link Attr attributes} restored from a snapshot that were not specified in the file but defaulted
+   * from its schema.
+   */
+  public static final String SCHEMA_DEFAULT_KEY = "schemaDefault";
+
+  static final String SNAPSHOT_FILE_NAME = "config-snapshot.bin";
+
+  private static final int FORMAT_VERSION = 1;
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
+  private final File snapshotFile;
+  // null if the schemas could not be resolved, in which case the snapshot is neither used nor saved
+  private final String environmentDigest;
+  private final Set<String> schemaNamespaces;
+  private final Map<String, FileSnapshot> previousFiles;
+  private final Map<String, FileSnapshot> currentFiles = new LinkedHashMap<>();
+  private boolean changed;
+
+  private XmlConfigurationSnapshot(File snapshotFile, String environmentDigest, Set<String> schemaNamespaces,
+                                   Map<String, FileSnapshot> previousFiles) {
+    this.snapshotFile = snapshotFile;
+    this.environmentDigest = environmentDigest;
+    this.schemaNamespaces = schemaNamespaces;
+    this.previousFiles = previousFiles;
+  }
+
+  /**
+   * Reads the snapshot of an artifact.
+   *
+   * @param workingDirectory the working directory of the artifact, where the snapshot is kept
+   * @param extensions the extensions of the artifact, which provide the schemas of the configuration files
+   * @return the snapshot of the artifact, empty if it doesn't exist yet or is stale.
+   */
+  public static XmlConfigurationSnapshot load(File workingDirectory, Set<ExtensionModel> extensions) {
+    File snapshotFile = new File(workingDirectory, SNAPSHOT_FILE_NAME);
+    String environmentDigest = digestEnvironment(extensions);
+
+    Map<String, FileSnapshot> files = new HashMap<>();
+    if (environmentDigest != null && snapshotFile.isFile()) {
+      try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+        if (input.readInt() == FORMAT_VERSION && readString(input).equals(environmentDigest)) {
+          for (int i = input.readInt(); i > 0; --i) {
+            FileSnapshot file = FileSnapshot.read(input);
+            files.put(file.fileName, file);
+          }
+        } else if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Discarding stale configuration snapshot " + snapshotFile);
+        }
+      } catch (IOException | RuntimeException e) {
+        LOGGER.debug("Could not read configuration snapshot " + snapshotFile + ", it will be discarded", e);
+        files.clear();
+      }
+    }
+
+    Set<String> schemaNamespaces = new HashSet<>();
+    schemaNamespaces.add(CORE_NAMESPACE);
+    for (ExtensionModel extension : extensions) {
+      schemaNamespaces.add(extension.getXmlDslModel().getNamespace());
+    }
+    return new XmlConfigurationSnapshot(snapshotFile, environmentDigest, schemaNamespaces, files);
+  }
+
+  /**
+   * @return the digest of the runtime version and the extensions along with their schemas, or {@code null} if any of the
+   *         schemas could not be resolved.
+   */
+  private static String digestEnvironment(Set<ExtensionModel> extensions) {
+    List<ExtensionModel> sortedExtensions = new ArrayList<>(extensions);
+    sortedExtensions.sort(comparing(ExtensionModel::getName));
+
+    MessageDigest digest = newDigest();
+    digest.update(describeEnvironment(sortedExtensions).getBytes(UTF_8));
+    ModuleDelegatingEntityResolver schemaResolver = new ModuleDelegatingEntityResolver(extensions);
+    for (ExtensionModel extension : sortedExtensions) {
+      String schemaLocation = extension.getXmlDslModel().getSchemaLocation();
+      try {
+        InputSource schema = schemaResolver.resolveEntity(null, schemaLocation);
+        if (schema == null || schema.getByteStream() == null) {
+          LOGGER.debug("Could not resolve schema '{}', the configuration snapshot won't be used", schemaLocation);
+          return null;
+        }
+        try (InputStream schemaStream = schema.getByteStream()) {
+          digest.update(IOUtils.toByteArray(schemaStream));
+        }
+      } catch (IOException | SAXException | RuntimeException e) {
+        LOGGER.debug("Could not resolve schema '" + schemaLocation + "', the configuration snapshot won't be used", e);
+        return null;
+      }
+    }
+    return toHexString(digest.digest());
+  }
+
+  private static String describeEnvironment(List<ExtensionModel> extensions) {
+    StringBuilder description = new StringBuilder().append(FORMAT_VERSION).append('|').append(getProductVersion());
+    for (ExtensionModel extension : extensions) {
+      description.append('|').append(extension.getName())
+          .append(':').append(extension.getVersion())
+          .append(':').append(extension.getVendor())
+          .append(':').append(extension.getXmlDslModel().getNamespace())
+          .append(':').append(extension.getXmlDslModel().getSchemaVersion());
+    }
+    return description.toString();
+  }
+
+  /**
+   * Loads the {@link Document} of a configuration file, validating it only if it changed since the snapshot was taken.
+   *
+   * @param fileName the name of the configuration file
+   * @param content the content of the configuration file
+   * @param validatingLoader loads a {@link Document} validating it against its schemas
+   * @param plainLoader loads a {@link Document} without validating it
+   * @return the {@link Document} of the configuration file.
+   */
+  public Document loadDocument(String fileName, byte[] content, Function<InputStream, Document> validatingLoader,
+                               Function<InputStream, Document> plainLoader) {
+    String contentDigest = digest(content);
+
+    FileSnapshot previous = previousFiles.get(fileName);
+    if (previous != null && previous.contentDigest.equals(contentDigest) && previous.patches != null) {
+      Document document = plainLoader.apply(new ByteArrayInputStream(content));
+      if (previous.apply(document)) {
+        currentFiles.put(fileName, previous);
+        return document;
+      }
+      LOGGER.debug("Configuration snapshot of '{}' doesn't match its content, validating it", fileName);
+    }
+
+    Document document = validatingLoader.apply(new ByteArrayInputStream(content));
+    if (previous != null && previous.contentDigest.equals(contentDigest) && previous.patches == null) {
+      currentFiles.put(fileName, previous);
+    } else {
+      List<DocumentPatch> patches =
+          usesOnlySchemaNamespaces(document) ? diff(plainLoader.apply(new ByteArrayInputStream(content)), document) : null;
+      currentFiles.put(fileName, new FileSnapshot(fileName, contentDigest, patches));
+      changed = true;
+    }
+    return document;
+  }
+
+  /**
+   * Persists the snapshot of the configuration files loaded through this instance, if any of them changed.
+   */
+  public void save() {
+    if (environmentDigest == null || !changed && currentFiles.size() == previousFiles.size()) {
+      return;
+    }
+
+    File temporaryFile = null;
+    try {
+      Files.createDirectories(snapshotFile.getParentFile().toPath());
+      temporaryFile = Files.createTempFile(snapshotFile.getParentFile().toPath(), SNAPSHOT_FILE_NAME, null).toFile();
+      try (DataOutputStream output =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+        output.writeInt(FORMAT_VERSION);
+        writeString(output, environmentDigest);
+        output.writeInt(currentFiles.size());
+        for (FileSnapshot file : currentFiles.values()) {
+          file.write(output);
+        }
+      }
+      try {
+        Files.move(temporaryFile.toPath(), snapshotFile.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporaryFile.toPath(), snapshotFile.toPath(), REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LOGGER.debug("Could not write configuration snapshot " + snapshotFile, e);
+      if (temporaryFile != null) {
+        temporaryFile.delete();
+      }
+    }
+  }
+
+  /**
+   * @return whether all the elements of the {@link Document} and the schema locations it declares are of the core or extension
+   *         namespaces, whose schemas don't change unless the environment of the snapshot does.
+   */
+  private boolean usesOnlySchemaNamespaces(Document document) {
+    for (Element element : elementsOf(document)) {
+      if (!schemaNamespaces.contains(element.getNamespaceURI())
+          || element.hasAttributeNS(W3C_XML_SCHEMA_INSTANCE_NS_URI, "noNamespaceSchemaLocation")) {
+        return false;
+      }
+
+      String[] schemaLocation = element.getAttributeNS(W3C_XML_SCHEMA_INSTANCE_NS_URI, "schemaLocation").trim().split("\\s+");
+      for (int i = 0; i + 1 < schemaLocation.length; i += 2) {
+        if (!schemaNamespaces.contains(schemaLocation[i])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the differences between the plain and the validated {@link Document} of a file, or {@code null} if they don't have
+   *         the same structure.
+   */
+  private static List<DocumentPatch> diff(Document plain, Document validated) {
+    List<Element> plainElements = elementsOf(plain);
+    List<Element> validatedElements = elementsOf(validated);
+    if (plainElements.size() != validatedElements.size()) {
+      return null;
+    }
+
+    List<DocumentPatch> patches = new ArrayList<>();
+    for (int i = 0; i < validatedElements.size(); ++i) {
+      Element plainElement = plainElements.get(i);
+      Element validatedElement = validatedElements.get(i);
+      if (!validatedElement.getTagName().equals(plainElement.getTagName())) {
+        return null;
+      }
+
+      NamedNodeMap attributes = validatedElement.getAttributes();
+      for (int j = 0; j < attributes.getLength(); ++j) {
+        Attr attribute = (Attr) attributes.item(j);
+        Attr plainAttribute = plainElement.getAttributeNode(attribute.getName());
+        if (plainAttribute == null || !plainAttribute.getValue().equals(attribute.getValue())) {
+          patches.add(DocumentPatch.attribute(i, attribute.getNamespaceURI(), attribute.getName(), attribute.getValue(),
+                                              attribute.getSpecified()));
+        }
+      }
+      if (attributes.getLength() < plainElement.getAttributes().getLength()) {
+        return null;
+      }
+
+      NodeList children = validatedElement.getChildNodes();
+      NodeList plainChildren = plainElement.getChildNodes();
+      if (children.getLength() != plainChildren.getLength()) {
+        return null;
+      }
+      for (int j = 0; j < children.getLength(); ++j) {
+        Node child = children.item(j);
+        Node plainChild = plainChildren.item(j);
+        if (child.getNodeType() != plainChild.getNodeType()) {
+          return null;
+        }
+        if (child instanceof Text && !child.getNodeValue().equals(plainChild.getNodeValue())) {
+          patches.add(DocumentPatch.text(i, j, child.getNodeValue()));
+        }
+      }
+    }
+    return patches;
+  }
+
+  private static List<Element> elementsOf(Document document) {
+    List<Element> elements = new ArrayList<>();
+    addElements(document.getDocumentElement(), elements);
+    return elements;
+  }
+
+  private static void addElements(Element element, List<Element> elements) {
+    elements.add(element);
+    for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child instanceof Element) {
+        addElements((Element) child, elements);
+      }
+    }
+  }
+
+  private static String digest(byte[] content) {
+    return toHexString(newDigest().digest(content));
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+    } else {
+      byte[] bytes = value.getBytes(UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    int length = input.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static final class FileSnapshot {
+
+    private final String fileName;
+    private final String contentDigest;
+    // null when the file can't be restored from the snapshot and must always be validated
+    private final List<DocumentPatch> patches;
+
+    private FileSnapshot(String fileName, String contentDigest, List<DocumentPatch> patches) {
+      this.fileName = fileName;
+      this.contentDigest = contentDigest;
+      this.patches = patches;
+    }
+
+    private boolean apply(Document document) {
+      List<Element> elements = elementsOf(document);
+      for (DocumentPatch patch : patches) {
+        if (!patch.apply(elements)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void write(DataOutputStream output) throws IOException {
+      writeString(output, fileName);
+      writeString(output, contentDigest);
+      if (patches == null) {
+        output.writeInt(-1);
+      } else {
+        output.writeInt(patches.size());
+        for (DocumentPatch patch : patches) {
+          patch.write(output);
+        }
+      }
+    }
+
+    private static FileSnapshot read(DataInputStream input) throws IOException {
+      String fileName = readString(input);
+      String contentDigest = readString(input);
+      int patchCount = input.readInt();
+      List<DocumentPatch> patches = null;
+      if (patchCount >= 0) {
+        patches = new ArrayList<>(patchCount);
+        for (int i = 0; i < patchCount; ++i) {
+          patches.add(DocumentPatch.read(input));
+        }
+      }
+      return new FileSnapshot(fileName, contentDigest, patches);
+    }
+  }
+
+  /**
+   * A value set by the validation on an attribute or a text node of an element, identified by its position in document order.
+   */
+  private static final class DocumentPatch {
+
+    private static final int NO_CHILD = -1;
+
+    private final int element;
+    private final int child;
+    private final String namespaceUri;
+    private final String name;
+    private final String value;
+    private final boolean specified;
+
+    private DocumentPatch(int element, int child, String namespaceUri, String name, String value, boolean specified) {
+      this.element = element;
+      this.child = child;
+      this.namespaceUri = namespaceUri;
+      this.name = name;
+      this.value = value;
+      this.specified = specified;
+    }
+
+    private static DocumentPatch attribute(int element, String namespaceUri, String name, String value, boolean specified) {
+      return new DocumentPatch(element, NO_CHILD, namespaceUri, name, value, specified);
+    }
+
+    private static DocumentPatch text(int element, int child, String value) {
+      return new DocumentPatch(element, child, null, null, value, true);
+    }
+
+    private boolean apply(List<Element> elements) {
+      if (element >= elements.size()) {
+        return false;
+      }
+      Element target = elements.get(element);
+
+      if (child == NO_CHILD) {
+        target.setAttributeNS(namespaceUri, name, value);
+        if (!specified) {
+          target.getAttributeNodeNS(namespaceUri, localName()).setUserData(SCHEMA_DEFAULT_KEY, Boolean.TRUE, null);
+        }
+        return true;
+      }
+
+      Node textNode = target.getChildNodes().item(child);
+      if (!(textNode instanceof Text)) {
+        return false;
+      }
+      ((Text) textNode).setData(value);
+      return true;
+    }
+
+    private String localName() {
+      int prefixEnd = name.indexOf(':');
+      return prefixEnd < 0 ? name : name.substring(prefixEnd + 1);
+    }
+
+    private void write(DataOutputStream output) throws IOException {
+      output.writeInt(element);
+      output.writeInt(child);
+      writeString(output, namespaceUri);
+      writeString(output, name);
+      writeString(output, value);
+      output.writeBoolean(specified);
+    }
+
+    private static DocumentPatch read(DataInputStream input) throws IOException {
+      return new DocumentPatch(input.readInt(), input.readInt(), readString(input), readString(input), readString(input),
+                               input.readBoolean());
+    }
+  }
+}
@@ -149,6 +149,7 @@ import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 import org.mule.runtime.core.internal.routing.ChoiceRouter;
 import org.mule.runtime.core.internal.routing.FirstSuccessful;
 import org.mule.runtime.core.internal.routing.Foreach;
+import org.mule.runtime.core.internal.routing.ParallelForeach;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
 import org.mule.runtime.core.internal.routing.IdempotentMessageValidator;
 import org.mule.runtime.core.internal.routing.MessageChunkAggregator;
@@ -247,6 +248,7 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
   private static final String TRY = "try";
   private static final String UNTIL_SUCCESSFUL = "until-successful";
   private static final String FOREACH = "foreach";
+  private static final String PARALLEL_FOREACH = "parallel-foreach";
   private static final String FIRST_SUCCESSFUL = "first-successful";
   private static final String ROUND_ROBIN = "round-robin";
   private static final String CHOICE = "choice";
@@ -450,6 +452,19 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
         .withSetterParameterDefinition("counterVariableName", fromSimpleParameter("counterVariableName").build())
         .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
         .build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(PARALLEL_FOREACH)
+        .withTypeDefinition(fromType(ParallelForeach.class))
+        .withSetterParameterDefinition("collectionExpression", fromSimpleParameter("collection").build())
+        .withSetterParameterDefinition("batchSize", fromSimpleParameter("batchSize").build())
+        .withSetterParameterDefinition("preserveOrder", fromSimpleParameter("preserveOrder").build())
+        .withSetterParameterDefinition("timeout", fromSimpleParameter("timeout").build())
+        .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
+        .withSetterParameterDefinition("target", fromSimpleParameter("target").build())
+        .withSetterParameterDefinition("targetValue", fromSimpleParameter("targetValue")
+            .withDefaultValue("#[payload]")
+            .build())
+        .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
+        .build());
     componentBuildingDefinitions
         .add(baseDefinition.withIdentifier(FIRST_SUCCESSFUL).withTypeDefinition(fromType(FirstSuccessful.class))
             .withSetterParameterDefinition(MESSAGE_PROCESSORS,
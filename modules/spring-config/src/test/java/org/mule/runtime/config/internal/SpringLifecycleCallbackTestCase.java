@@ -6,12 +6,21 @@
  */
 package org.mule.runtime.config.internal;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.synchronizedList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.lifecycle.RegistryLifecycleCallback.INITIALISE_PARALLELISM_PROPERTY;
 import static org.mule.tck.util.MuleContextUtils.mockContextWithServices;
 import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -22,7 +31,9 @@ import org.mule.runtime.core.privileged.registry.RegistrationException;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
@@ -52,6 +63,7 @@ public class SpringLifecycleCallbackTestCase extends AbstractMuleTestCase {
       task.run();
       return null;
     }).when(muleContext).withLifecycleLock(any());
+    when(muleContext.withLifecycleLockOwnership(any())).thenAnswer(invocation -> invocation.getArguments()[0]);
     springRegistry = mock(SpringRegistry.class, RETURNS_DEEP_STUBS);
     springRegistryLifecycleManager =
         new SpringRegistryLifecycleManager("id", springRegistry, muleContext, new MuleLifecycleInterceptor());
@@ -62,6 +74,49 @@ public class SpringLifecycleCallbackTestCase extends AbstractMuleTestCase {
 
   @Test
   public void phaseAppliesInDependencyOrder() throws Exception {
+    Map<String, Initialisable> objects = mockDependencies();
+    InOrder inOrder = inOrder(objects.values().toArray());
+
+    callback.onTransition(Initialisable.PHASE_NAME, springRegistry);
+
+    verifyInitialisation(inOrder, objects, "2", "3", "1", "5", "4");
+  }
+
+  @Test
+  public void dependenciesResolvedInWaves() throws Exception {
+    Map<String, Initialisable> objects = mockDependencies();
+
+    List<List<Object>> waves = springRegistry.getBeanDependencyResolver().resolveBeanDependencyWaves(objects.keySet());
+
+    assertThat(waves, hasSize(2));
+    assertThat(waves.get(0), contains(objects.get("2"), objects.get("3"), objects.get("5")));
+    assertThat(waves.get(1), contains(objects.get("1"), objects.get("4")));
+  }
+
+  @Test
+  public void parallelPhaseAppliesInDependencyOrder() throws Exception {
+    List<String> initialised = synchronizedList(new ArrayList<>());
+    Map<String, Initialisable> objects = mockDependencies();
+    for (Map.Entry<String, Initialisable> entry : objects.entrySet()) {
+      doAnswer(invocation -> initialised.add(entry.getKey())).when(entry.getValue()).initialise();
+    }
+
+    System.setProperty(INITIALISE_PARALLELISM_PROPERTY, "4");
+    try {
+      callback = new SpringLifecycleCallback(springRegistryLifecycleManager, springRegistry);
+    } finally {
+      System.clearProperty(INITIALISE_PARALLELISM_PROPERTY);
+    }
+    callback.onTransition(Initialisable.PHASE_NAME, springRegistry);
+
+    assertThat(initialised, containsInAnyOrder("1", "2", "3", "4", "5"));
+    for (String dependency : asList("2", "3")) {
+      assertThat(initialised.indexOf(dependency), is(lessThan(initialised.indexOf("1"))));
+    }
+    assertThat(initialised.indexOf("5"), is(lessThan(initialised.indexOf("4"))));
+  }
+
+  private Map<String, Initialisable> mockDependencies() throws Exception {
     Map<String, Initialisable> objects = new LinkedHashMap<>();
     for (int i = 1; i <= 5; i++) {
       final String key = String.valueOf(i);
@@ -84,11 +139,7 @@ public class SpringLifecycleCallbackTestCase extends AbstractMuleTestCase {
     when(springRegistry.getDependencies("1")).thenReturn((Map<String, Object>) childsOf1);
     when(springRegistry.getDependencies("4")).thenReturn(childsOf4);
     when(springRegistry.lookupEntriesForLifecycle(Initialisable.class)).thenReturn(objects);
-    InOrder inOrder = inOrder(objects.values().toArray());
-
-    callback.onTransition(Initialisable.PHASE_NAME, springRegistry);
-
-    verifyInitialisation(inOrder, objects, "2", "3", "1", "5", "4");
+    return objects;
   }
 
   private void verifyInitialisation(InOrder inOrder, Map<String, Initialisable> objects, String... keys)
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptySet;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.config.api.XmlConfigurationDocumentLoader.noValidationDocumentLoader;
+import static org.mule.runtime.config.api.XmlConfigurationDocumentLoader.schemaValidatingDocumentLoader;
+import static org.mule.runtime.config.internal.XmlConfigurationSnapshot.SCHEMA_DEFAULT_KEY;
+import static org.mule.runtime.config.internal.XmlConfigurationSnapshot.SNAPSHOT_FILE_NAME;
+import org.mule.runtime.core.api.util.IOUtils;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+@SmallTest
+public class XmlConfigurationSnapshotTestCase extends AbstractMuleTestCase {
+
+  private static final String CONFIG_FILE = "mule-config.xml";
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private final AtomicInteger validations = new AtomicInteger();
+  private final Function<InputStream, Document> validatingLoader = stream -> {
+    validations.incrementAndGet();
+    return schemaValidatingDocumentLoader().loadDocument(CONFIG_FILE, stream);
+  };
+  private final Function<InputStream, Document> plainLoader =
+      stream -> noValidationDocumentLoader().loadDocument(CONFIG_FILE, stream);
+
+  private byte[] content;
+
+  @Before
+  public void before() throws Exception {
+    try (InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(CONFIG_FILE)) {
+      content = IOUtils.toByteArray(stream);
+    }
+  }
+
+  @Test
+  public void restoresSchemaDefaultsWithoutValidating() {
+    Document validated = loadAndSave(content);
+    assertThat(validations.get(), is(1));
+    Attr validatedState = getFlowInitialState(validated);
+    assertThat(validatedState.getSpecified(), is(false));
+
+    Document restored = loadAndSave(content);
+    assertThat(validations.get(), is(1));
+    Attr restoredState = getFlowInitialState(restored);
+    assertThat(restoredState.getValue(), is(validatedState.getValue()));
+    assertThat(restoredState.getUserData(SCHEMA_DEFAULT_KEY), is(Boolean.TRUE));
+  }
+
+  @Test
+  public void validatesChangedFile() {
+    loadAndSave(content);
+
+    byte[] changedContent = new String(content, UTF_8).replace("name=\"service\"", "name=\"other\"").getBytes(UTF_8);
+    Document changed = loadAndSave(changedContent);
+    assertThat(validations.get(), is(2));
+    assertThat(getFlowInitialState(changed).getSpecified(), is(false));
+
+    loadAndSave(changedContent);
+    assertThat(validations.get(), is(2));
+  }
+
+  @Test
+  public void discardsUnreadableSnapshot() throws Exception {
+    Files.write(new File(workingDirectory.getRoot(), SNAPSHOT_FILE_NAME).toPath(), "not a snapshot".getBytes(UTF_8));
+
+    loadAndSave(content);
+    assertThat(validations.get(), is(1));
+
+    loadAndSave(content);
+    assertThat(validations.get(), is(1));
+  }
+
+  @Test
+  public void keepsOnlyLoadedFiles() {
+    loadAndSave(content);
+
+    XmlConfigurationSnapshot snapshot = XmlConfigurationSnapshot.load(workingDirectory.getRoot(), emptySet());
+    snapshot.save();
+
+    loadAndSave(content);
+    assertThat(validations.get(), is(2));
+  }
+
+  @Test
+  public void alwaysValidatesFileWithOtherNamespaces() {
+    byte[] customContent = new String(content, UTF_8)
+        .replace("<logger/>", "<custom:element xmlns:custom=\"http://www.example.org/schema/custom\"/>").getBytes(UTF_8);
+    Function<InputStream, Document> countingPlainLoader = stream -> {
+      validations.incrementAndGet();
+      return plainLoader.apply(stream);
+    };
+
+    for (int i = 0; i < 2; ++i) {
+      XmlConfigurationSnapshot snapshot = XmlConfigurationSnapshot.load(workingDirectory.getRoot(), emptySet());
+      snapshot.loadDocument(CONFIG_FILE, customContent, countingPlainLoader, plainLoader);
+      snapshot.save();
+    }
+    assertThat(validations.get(), is(2));
+  }
+
+  private Document loadAndSave(byte[] fileContent) {
+    XmlConfigurationSnapshot snapshot = XmlConfigurationSnapshot.load(workingDirectory.getRoot(), emptySet());
+    Document document = snapshot.loadDocument(CONFIG_FILE, fileContent, validatingLoader, plainLoader);
+    snapshot.save();
+    return document;
+  }
+
+  private Attr getFlowInitialState(Document document) {
+    Element flow = (Element) document.getDocumentElement().getElementsByTagNameNS("*", "flow").item(0);
+    Attr initialState = flow.getAttributeNode("initialState");
+    assertThat(initialState == null, is(false));
+    assertThat(flow.getAttributeNode("name").getUserData(SCHEMA_DEFAULT_KEY), is(nullValue()));
+    return initialState;
+  }
+}
@@ -10,12 +10,17 @@ import static org.mule.runtime.core.api.util.UUID.getClusterUUID;
 import static org.mule.runtime.core.api.util.UUID.getUUID;
 
 import org.mule.runtime.api.exception.MuleException;
-import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.api.util.UniqueIdGenerator;
+import org.mule.runtime.core.internal.util.MonotonicUniqueIdGenerator;
+import org.mule.runtime.core.internal.util.TimeBasedUniqueIdGenerator;
 
 import org.openjdk.jmh.annotations.Benchmark;
 
 public class UUIDBenchmark extends AbstractBenchmark {
 
+  private final UniqueIdGenerator monotonicGenerator = new MonotonicUniqueIdGenerator();
+  private final UniqueIdGenerator timeBasedGenerator = new TimeBasedUniqueIdGenerator();
+
   @Benchmark
   public String UUID() throws MuleException {
     return getUUID();
@@ -26,6 +31,26 @@ public class UUIDBenchmark extends AbstractBenchmark {
     return getClusterUUID(getClusterId());
   }
 
+  @Benchmark
+  public String monotonicUUID() {
+    return monotonicGenerator.generateId();
+  }
+
+  @Benchmark
+  public String monotonicClusterUUID() {
+    return monotonicGenerator.generateId(getClusterId());
+  }
+
+  @Benchmark
+  public String timeBasedUUID() {
+    return timeBasedGenerator.generateId();
+  }
+
+  @Benchmark
+  public String timeBasedClusterUUID() {
+    return timeBasedGenerator.generateId(getClusterId());
+  }
+
   private int getClusterId() {
     return 1;
   }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import org.mule.AbstractBenchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the {@link InstanceLockGroup} and the {@link ConcurrentInstanceLockGroup} when many threads lock and unlock ids
+ * picked at random from a set of the given size. A single id shows the contention on the lock itself, while many ids show the
+ * contention on the structures of the group.
+ */
+public class LockGroupBenchmark extends AbstractBenchmark {
+
+  private static final String INSTANCE = "instance";
+  private static final String CONCURRENT = "concurrent";
+
+  @Param({INSTANCE, CONCURRENT})
+  public String lockGroupType;
+
+  @Param({"1", "100", "10000"})
+  public int lockIds;
+
+  private LockGroup lockGroup;
+  private String[] ids;
+
+  @Setup
+  public void setup() {
+    LockProvider lockProvider = new SingleServerLockProvider();
+    lockGroup = INSTANCE.equals(lockGroupType)
+        ? new InstanceLockGroup(lockProvider)
+        : new ConcurrentInstanceLockGroup(lockProvider);
+
+    ids = new String[lockIds];
+    for (int i = 0; i < lockIds; ++i) {
+      ids[i] = "lock-" + i;
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    lockGroup.dispose();
+  }
+
+  @Benchmark
+  public void lockUnlock() {
+    lockAndUnlock();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void concurrentLockUnlock() {
+    lockAndUnlock();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public boolean concurrentTryLockUnlock() {
+    String id = ids[ThreadLocalRandom.current().nextInt(lockIds)];
+    boolean acquired = lockGroup.tryLock(id);
+    if (acquired) {
+      lockGroup.unlock(id);
+    }
+    return acquired;
+  }
+
+  private void lockAndUnlock() {
+    String id = ids[ThreadLocalRandom.current().nextInt(lockIds)];
+    lockGroup.lock(id);
+    lockGroup.unlock(id);
+  }
+}
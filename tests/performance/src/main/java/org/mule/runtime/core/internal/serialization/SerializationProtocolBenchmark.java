@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the {@link JavaExternalSerializerProtocol} and the {@link CompactSerializationProtocol} when serializing the kind of
+ * messages that are stored in persistent object stores and queues. Use {@code -prof gc} to also compare the allocated bytes.
+ */
+public class SerializationProtocolBenchmark extends AbstractBenchmark {
+
+  private static final String JAVA = "java";
+  private static final String COMPACT = "compact";
+
+  @Param({JAVA, COMPACT})
+  public String protocolType;
+
+  @Param({"1", "16", "256"})
+  public int entries;
+
+  private MuleContext muleContext;
+  private AbstractSerializationProtocol protocol;
+  private Message message;
+  private byte[] serialized;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    protocol = JAVA.equals(protocolType) ? new JavaExternalSerializerProtocol() : new CompactSerializationProtocol();
+    protocol.setMuleContext(muleContext);
+
+    List<Map<String, Object>> payload = new ArrayList<>(entries);
+    for (int i = 0; i < entries; ++i) {
+      Map<String, Object> entry = new HashMap<>();
+      entry.put("id", i);
+      entry.put(KEY, VALUE + i);
+      entry.put("active", i % 2 == 0);
+      payload.add(entry);
+    }
+    Map<String, String> attributes = new HashMap<>();
+    attributes.put(KEY, VALUE);
+
+    message = Message.builder().value(payload).mediaType(APPLICATION_JSON).attributesValue(attributes).build();
+    serialized = protocol.serialize(message);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return protocol.serialize(message);
+  }
+
+  @Benchmark
+  public Message deserialize() {
+    return protocol.deserialize(serialized, getClass().getClassLoader());
+  }
+}
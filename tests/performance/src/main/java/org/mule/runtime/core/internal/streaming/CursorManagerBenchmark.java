@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.streaming.DefaultStreamingManager;
+import org.mule.runtime.core.api.streaming.bytes.CursorStreamProviderFactory;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the full lifecycle of streams managed by the {@link DefaultStreamingManager}: the {@link CursorManager} tracking
+ * the provider and its cursors for the owning event, and the disposal of the buffers once the event completes.
+ */
+public class CursorManagerBenchmark extends AbstractBenchmark {
+
+  @Param({"1", "4", "16"})
+  public int cursorCount;
+
+  private MuleContext muleContext;
+  private Flow flow;
+  private DefaultStreamingManager streamingManager;
+  private CursorStreamProviderFactory cursorProviderFactory;
+  private byte[] payload;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    flow = createFlow(muleContext);
+    registerObject(muleContext, FLOW_NAME, flow, FlowConstruct.class);
+
+    streamingManager = new DefaultStreamingManager();
+    muleContext.getInjector().inject(streamingManager);
+    streamingManager.initialise();
+    cursorProviderFactory = streamingManager.forBytes().getDefaultCursorProviderFactory();
+    payload = PAYLOAD.getBytes();
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    streamingManager.dispose();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public long manageCursors() throws IOException {
+    return manageAndRead();
+  }
+
+  /**
+   * Many events opening and closing cursors at the same time, which shows contention on the {@link CursorManager}.
+   */
+  @Benchmark
+  @Threads(8)
+  public long concurrentManageCursors() throws IOException {
+    return manageAndRead();
+  }
+
+  private long manageAndRead() throws IOException {
+    CoreEvent event = createEvent(flow);
+    CursorStreamProvider provider =
+        (CursorStreamProvider) cursorProviderFactory.of(event, new ByteArrayInputStream(payload));
+
+    long read = 0;
+    try {
+      CursorStream[] cursors = new CursorStream[cursorCount];
+      for (int i = 0; i < cursorCount; i++) {
+        cursors[i] = provider.openCursor();
+      }
+
+      for (CursorStream cursor : cursors) {
+        while (cursor.read() != -1) {
+          read++;
+        }
+        cursor.close();
+      }
+    } finally {
+      provider.close();
+      ((BaseEventContext) event.getContext()).success(event);
+    }
+
+    return read;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+
+import java.nio.ByteBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the cost of allocating and returning buffers to the {@link ByteBufferManager} implementations, both from a single
+ * thread and from many threads competing for the same pool.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class ByteBufferManagerBenchmark extends AbstractBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ByteBufferManagerBenchmark.class);
+
+  public static final String POOLING = "pooling";
+  public static final String SIZE_CLASS = "sizeClass";
+
+  @Param({POOLING, SIZE_CLASS})
+  public String bufferManagerType;
+
+  @Param({"1024", "8192", "65536", "1048576"})
+  public int capacity;
+
+  private ByteBufferManager bufferManager;
+
+  @Setup
+  public void setup() {
+    bufferManager = createBufferManager(bufferManagerType);
+  }
+
+  @TearDown
+  public void teardown() {
+    disposeIfNeeded(bufferManager, LOGGER);
+  }
+
+  @Benchmark
+  public ByteBuffer allocateAndDeallocate() {
+    return allocateAndDeallocate(capacity);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public ByteBuffer concurrentAllocateAndDeallocate() {
+    return allocateAndDeallocate(capacity);
+  }
+
+  /**
+   * Unlike the other benchmarks, the requested capacity is not a round size, which is the common case when buffers are
+   * expanded by a configured increment.
+   */
+  @Benchmark
+  @Threads(8)
+  public ByteBuffer concurrentAllocateAndDeallocateOddSize() {
+    return allocateAndDeallocate(capacity + 17);
+  }
+
+  private ByteBuffer allocateAndDeallocate(int size) {
+    ByteBuffer buffer = bufferManager.allocate(size);
+    try {
+      buffer.put((byte) 1);
+      return buffer;
+    } finally {
+      bufferManager.deallocate(buffer);
+    }
+  }
+
+  static ByteBufferManager createBufferManager(String type) {
+    switch (type) {
+      case POOLING:
+        return new PoolingByteBufferManager();
+      case SIZE_CLASS:
+        return new SizeClassByteBufferManager();
+      default:
+        throw new IllegalArgumentException("Unknown buffer manager type: " + type);
+    }
+  }
+}
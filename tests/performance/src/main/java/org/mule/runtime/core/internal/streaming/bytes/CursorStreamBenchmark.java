@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.max;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteBufferManagerBenchmark.POOLING;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteBufferManagerBenchmark.SIZE_CLASS;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteBufferManagerBenchmark.createBufferManager;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures reading a payload through {@link BufferedCursorStream cursors} over an {@link InMemoryStreamBuffer}, for different
+ * payload sizes, amount of cursors per provider and buffer increments.
+ */
+public class CursorStreamBenchmark extends AbstractBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CursorStreamBenchmark.class);
+
+  private static final int READ_CHUNK_SIZE = 4 * 1024;
+
+  @Param({POOLING, SIZE_CLASS})
+  public String bufferManagerType;
+
+  @Param({"1024", "65536", "1048576"})
+  public int payloadSize;
+
+  @Param({"1", "4", "16"})
+  public int cursorCount;
+
+  /**
+   * In KB. Also used as the initial buffer size, so that small increments force the buffer to expand many times.
+   */
+  @Param({"8", "64", "512"})
+  public int bufferSizeIncrement;
+
+  private byte[] payload;
+  private InMemoryCursorStreamConfig config;
+  private ByteBufferManager bufferManager;
+
+  @Setup
+  public void setup() {
+    payload = randomAlphanumeric(payloadSize).getBytes();
+    final DataSize increment = new DataSize(bufferSizeIncrement, KB);
+    config = new InMemoryCursorStreamConfig(increment, increment,
+                                            new DataSize(max(payloadSize, increment.toBytes()) * 2, BYTE));
+    bufferManager = createBufferManager(bufferManagerType);
+  }
+
+  @TearDown
+  public void teardown() {
+    disposeIfNeeded(bufferManager, LOGGER);
+  }
+
+  /**
+   * Each cursor reads the whole payload before the next one is opened. Only the first one actually consumes the stream.
+   */
+  @Benchmark
+  public long sequentialCursors() throws IOException {
+    return readSequentially();
+  }
+
+  /**
+   * All the cursors are open at the same time and take turns to read a chunk, as when several components consume the same
+   * payload.
+   */
+  @Benchmark
+  public long interleavedCursors() throws IOException {
+    InMemoryCursorStreamProvider provider = createProvider();
+    CursorStream[] cursors = new CursorStream[cursorCount];
+    for (int i = 0; i < cursorCount; i++) {
+      cursors[i] = provider.openCursor();
+    }
+
+    byte[] chunk = new byte[READ_CHUNK_SIZE];
+    long read = 0;
+    int open = cursorCount;
+    try {
+      while (open > 0) {
+        open = 0;
+        for (CursorStream cursor : cursors) {
+          int count = cursor.read(chunk);
+          if (count > 0) {
+            read += count;
+            open++;
+          }
+        }
+      }
+    } finally {
+      for (CursorStream cursor : cursors) {
+        cursor.close();
+      }
+      close(provider);
+    }
+
+    return read;
+  }
+
+  /**
+   * Many threads buffering their own payloads at the same time, which shows contention on the {@link ByteBufferManager}.
+   */
+  @Benchmark
+  @Threads(8)
+  public long concurrentProviders() throws IOException {
+    return readSequentially();
+  }
+
+  private long readSequentially() throws IOException {
+    InMemoryCursorStreamProvider provider = createProvider();
+    byte[] chunk = new byte[READ_CHUNK_SIZE];
+    long read = 0;
+    try {
+      for (int i = 0; i < cursorCount; i++) {
+        try (CursorStream cursor = provider.openCursor()) {
+          int count;
+          while ((count = cursor.read(chunk)) > 0) {
+            read += count;
+          }
+        }
+      }
+    } finally {
+      close(provider);
+    }
+
+    return read;
+  }
+
+  private InMemoryCursorStreamProvider createProvider() {
+    return new InMemoryCursorStreamProvider(new ByteArrayInputStream(payload), config, bufferManager);
+  }
+
+  private void close(InMemoryCursorStreamProvider provider) {
+    provider.close();
+    provider.releaseResources();
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Integer.MAX_VALUE;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.core.api.streaming.iterator.StreamingIterator;
+import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures iterating a stream of objects through {@link BufferedCursorIterator cursors} over an
+ * {@link InMemoryObjectStreamBuffer}, for different stream sizes, amount of cursors per provider and buffer increments.
+ */
+public class CursorIteratorBenchmark extends AbstractBenchmark {
+
+  @Param({"100", "10000", "100000"})
+  public int size;
+
+  @Param({"1", "4", "16"})
+  public int cursorCount;
+
+  /**
+   * Also used as the initial buffer size, so that small increments force the buffer to expand many times.
+   */
+  @Param({"10", "100", "1000"})
+  public int bufferSizeIncrement;
+
+  private InMemoryCursorIteratorConfig config;
+
+  @Setup
+  public void setup() {
+    config = new InMemoryCursorIteratorConfig(bufferSizeIncrement, bufferSizeIncrement, MAX_VALUE);
+  }
+
+  /**
+   * Each cursor iterates the whole stream before the next one is opened. Only the first one actually consumes the stream.
+   */
+  @Benchmark
+  public long sequentialCursors() throws IOException {
+    return iterateSequentially();
+  }
+
+  /**
+   * All the cursors are open at the same time and take turns to get the next item, as when several components consume the
+   * same payload.
+   */
+  @Benchmark
+  public long interleavedCursors() throws IOException {
+    InMemoryCursorIteratorProvider provider = createProvider();
+    CursorIterator[] cursors = new CursorIterator[cursorCount];
+    for (int i = 0; i < cursorCount; i++) {
+      cursors[i] = provider.openCursor();
+    }
+
+    long sum = 0;
+    int open = cursorCount;
+    try {
+      while (open > 0) {
+        open = 0;
+        for (CursorIterator cursor : cursors) {
+          if (cursor.hasNext()) {
+            sum += (Integer) cursor.next();
+            open++;
+          }
+        }
+      }
+    } finally {
+      for (CursorIterator cursor : cursors) {
+        cursor.close();
+      }
+      close(provider);
+    }
+
+    return sum;
+  }
+
+  /**
+   * Many threads buffering their own streams at the same time.
+   */
+  @Benchmark
+  @Threads(8)
+  public long concurrentProviders() throws IOException {
+    return iterateSequentially();
+  }
+
+  private long iterateSequentially() throws IOException {
+    InMemoryCursorIteratorProvider provider = createProvider();
+    long sum = 0;
+    try {
+      for (int i = 0; i < cursorCount; i++) {
+        try (CursorIterator cursor = provider.openCursor()) {
+          while (cursor.hasNext()) {
+            sum += (Integer) cursor.next();
+          }
+        }
+      }
+    } finally {
+      close(provider);
+    }
+
+    return sum;
+  }
+
+  private InMemoryCursorIteratorProvider createProvider() {
+    return new InMemoryCursorIteratorProvider(new RangeStreamingIterator(size), config);
+  }
+
+  private void close(InMemoryCursorIteratorProvider provider) {
+    provider.close();
+    provider.releaseResources();
+  }
+
+  private static class RangeStreamingIterator implements StreamingIterator<Integer> {
+
+    private final int size;
+    private int next = 0;
+
+    private RangeStreamingIterator(int size) {
+      this.size = size;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    @Override
+    public Integer next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return next++;
+    }
+
+    @Override
+    public int getSize() {
+      return size;
+    }
+
+    @Override
+    public void close() {
+      next = size;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.api.classloader;
+
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
+import static org.mule.runtime.module.artifact.api.classloader.FineGrainedControlClassLoader.DISABLE_PACKAGE_INDEX_PROPERTY;
+import static org.mule.runtime.module.artifact.api.classloader.FineGrainedControlClassLoader.NEGATIVE_LOOKUP_CACHE_SIZE_PROPERTY;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.container.internal.MuleClassLoaderLookupPolicy;
+
+import java.net.URL;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.Logger;
+
+/**
+ * Measures looking up classes on a {@link FineGrainedControlClassLoader} over a few jars, with and without the index of their
+ * packages and the cache of failed lookups. Creating a classloader and probing for a mix of existing and optional classes is
+ * what deploying an artifact does, while probing an already created one is what happens once it is running.
+ */
+public class ClassLoaderLookupBenchmark extends AbstractBenchmark {
+
+  private static final String MISSING_CLASS = "org.mule.runtime.module.artifact.MissingClass";
+  private static final String MISSING_CLASS_IN_JAR_PACKAGE = "org.slf4j.MissingClass";
+  private static final String[] DEPLOYMENT_CLASSES = {Logger.class.getName(), StringUtils.class.getName(),
+      Benchmark.class.getName(), MISSING_CLASS, MISSING_CLASS_IN_JAR_PACKAGE, "org.apache.commons.lang3.MissingClass"};
+
+  @Param({"true", "false"})
+  public boolean packageIndex;
+
+  @Param({"0", "1024"})
+  public int negativeLookupCacheSize;
+
+  private URL[] urls;
+  private ClassLoaderLookupPolicy lookupPolicy;
+  private FineGrainedControlClassLoader classLoader;
+
+  @Setup
+  public void setup() throws Exception {
+    setProperty(DISABLE_PACKAGE_INDEX_PROPERTY, Boolean.toString(!packageIndex));
+    setProperty(NEGATIVE_LOOKUP_CACHE_SIZE_PROPERTY, Integer.toString(negativeLookupCacheSize));
+
+    urls = new URL[] {jarOf(Logger.class), jarOf(StringUtils.class), jarOf(Benchmark.class)};
+    lookupPolicy = new MuleClassLoaderLookupPolicy(emptyMap(), singleton("java"));
+    classLoader = createClassLoader();
+    classLoader.loadClass(Logger.class.getName());
+  }
+
+  @TearDown
+  public void teardown() {
+    classLoader.dispose();
+    clearProperty(DISABLE_PACKAGE_INDEX_PROPERTY);
+    clearProperty(NEGATIVE_LOOKUP_CACHE_SIZE_PROPERTY);
+  }
+
+  private static URL jarOf(Class<?> type) {
+    return type.getProtectionDomain().getCodeSource().getLocation();
+  }
+
+  private FineGrainedControlClassLoader createClassLoader() {
+    return new FineGrainedControlClassLoader(urls, null, lookupPolicy);
+  }
+
+  @Benchmark
+  public int deploymentLookup() {
+    FineGrainedControlClassLoader deploymentClassLoader = createClassLoader();
+    try {
+      int found = 0;
+      for (String className : DEPLOYMENT_CLASSES) {
+        found += loads(deploymentClassLoader, className) ? 1 : 0;
+      }
+      return found;
+    } finally {
+      deploymentClassLoader.dispose();
+    }
+  }
+
+  @Benchmark
+  public boolean missingClass() {
+    return loads(classLoader, MISSING_CLASS);
+  }
+
+  @Benchmark
+  public boolean missingClassInJarPackage() {
+    return loads(classLoader, MISSING_CLASS_IN_JAR_PACKAGE);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public boolean concurrentMissingClass() {
+    return loads(classLoader, MISSING_CLASS);
+  }
+
+  @Benchmark
+  public boolean loadedClass() {
+    return loads(classLoader, Logger.class.getName());
+  }
+
+  private static boolean loads(ClassLoader classLoader, String className) {
+    try {
+      return classLoader.loadClass(className) != null;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+}